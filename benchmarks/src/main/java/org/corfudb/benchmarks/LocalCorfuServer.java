@@ -0,0 +1,77 @@
+package org.corfudb.benchmarks;
+
+import lombok.Getter;
+import org.corfudb.comm.ChannelImplementation;
+import org.corfudb.infrastructure.CorfuServerCmdLine;
+import org.corfudb.infrastructure.CorfuServerNode;
+import org.corfudb.infrastructure.ServerContext;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
+import org.docopt.Docopt;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Map;
+
+/**
+ * An in-memory, single node Corfu server running inside the benchmark JVM, for benchmarks
+ * of client side code paths that need a runtime (e.g. object versions) but no real cluster.
+ */
+public class LocalCorfuServer implements AutoCloseable {
+
+    private static final String HOST = "localhost";
+
+    private final CorfuServerNode serverNode;
+
+    @Getter
+    private final String endpoint;
+
+    private final ChannelImplementation implementation;
+
+    public LocalCorfuServer() throws IOException {
+        this(ChannelImplementation.NIO);
+    }
+
+    /**
+     * Start a server, which uses the given channel implementation for the server and for the
+     * runtimes connected to it.
+     *
+     * @param implementation the channel implementation to use
+     */
+    public LocalCorfuServer(ChannelImplementation implementation) throws IOException {
+        this.implementation = implementation;
+        int port = getFreePort();
+        Map<String, Object> opts = new Docopt(CorfuServerCmdLine.USAGE)
+                .parse("-m", "-s", "-a", HOST, "-d", "WARN", "-i", implementation.name().toLowerCase(),
+                        String.valueOf(port));
+        opts.put("--bind-to-all-interfaces", false);
+
+        serverNode = new CorfuServerNode(new ServerContext(opts));
+        serverNode.start().syncUninterruptibly();
+        endpoint = HOST + ":" + port;
+    }
+
+    private static int getFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Connect a new runtime to this server.
+     *
+     * @return a connected runtime
+     */
+    public CorfuRuntime connectRuntime() {
+        return CorfuRuntime.fromParameters(CorfuRuntimeParameters.builder()
+                        .socketType(implementation)
+                        .build())
+                .parseConfigurationString(endpoint)
+                .connect();
+    }
+
+    @Override
+    public void close() {
+        serverNode.close();
+    }
+}
@@ -0,0 +1,97 @@
+package org.corfudb.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.corfudb.common.compression.Codec;
+import org.corfudb.protocols.logprotocol.SMREntry;
+import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.util.serializer.Serializers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the serialization of {@link LogData} carrying an {@link SMREntry} payload, for
+ * each of the payload codecs. Serialization includes the compression of the payload and
+ * deserialization includes its decompression, as done on the write and read paths of clients.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogDataSerializationBenchmark {
+
+    @Param({"NONE", "LZ4", "ZSTD"})
+    private Codec.Type codec;
+
+    @Param({"128", "16384"})
+    private int valueSize;
+
+    private SMREntry smrEntry;
+
+    private byte[] serializedLogData;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Half random and half repeated bytes, so that compression has some work to do
+        Random random = new Random(0);
+        byte[] value = new byte[valueSize];
+        random.nextBytes(value);
+        for (int i = valueSize / 2; i < valueSize; i++) {
+            value[i] = (byte) (i % Byte.MAX_VALUE);
+        }
+        smrEntry = new SMREntry("put", new Object[]{"key", value}, Serializers.PRIMITIVE);
+
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer();
+        try {
+            newLogData().doSerialize(buf);
+            serializedLogData = new byte[buf.readableBytes()];
+            buf.readBytes(serializedLogData);
+        } finally {
+            buf.release();
+        }
+    }
+
+    private LogData newLogData() {
+        LogData logData = new LogData(DataType.DATA, smrEntry, codec);
+        logData.setGlobalAddress(0L);
+        return logData;
+    }
+
+    @Benchmark
+    public int serialize() {
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer();
+        try {
+            newLogData().doSerialize(buf);
+            return buf.readableBytes();
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer(serializedLogData.length);
+        try {
+            buf.writeBytes(serializedLogData);
+            return new LogData(buf).getPayload(null);
+        } finally {
+            buf.release();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.corfudb.benchmarks;
+
+import org.corfudb.common.metrics.micrometer.MeterHandles;
+import org.corfudb.common.metrics.micrometer.MeterOptions;
+import org.corfudb.common.metrics.micrometer.MeterRegistryProvider;
+import org.corfudb.common.metrics.micrometer.MeterRegistryProvider.MeterRegistryInitializer;
+import org.corfudb.common.metrics.micrometer.MicroMeterUtils;
+import org.corfudb.common.metrics.micrometer.TimerHandle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the overhead of recording a per-stream timer on a hot path, with metrics
+ * enabled and disabled: through {@link MicroMeterUtils}, which looks the meter up by name and
+ * tags on every record, and through pre-bound {@link TimerHandle}s, unbuffered, buffered per
+ * thread and sampled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private static final String TIMER_NAME = "benchmark.timer";
+    private static final String STREAM_ID = "streamId";
+    private static final int BUFFER_SIZE = 64;
+    private static final int SAMPLE_RATE = 16;
+
+    @Param({"false", "true"})
+    private boolean metricsEnabled;
+
+    private final UUID streamId = UUID.randomUUID();
+
+    private final MeterHandles.Family<TimerHandle> timers = MeterHandles.timers(TIMER_NAME, STREAM_ID);
+
+    private TimerHandle bufferedTimer;
+
+    private TimerHandle sampledTimer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if (metricsEnabled) {
+            MeterRegistryInitializer.initClientMetrics(LoggerFactory.getLogger(MetricsOverheadBenchmark.class),
+                    Duration.ofMinutes(1), "benchmark");
+        }
+        bufferedTimer = MeterHandles.timer(MeterOptions.builder().bufferSize(BUFFER_SIZE).build(),
+                TIMER_NAME + ".buffered", STREAM_ID, streamId.toString());
+        sampledTimer = MeterHandles.timer(MeterOptions.builder().sampleRate(SAMPLE_RATE).build(),
+                TIMER_NAME + ".sampled", STREAM_ID, streamId.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (metricsEnabled) {
+            MeterRegistryProvider.close();
+        }
+    }
+
+    @Benchmark
+    public void microMeterUtils() {
+        MicroMeterUtils.time(MicroMeterUtils.startTimer(), TIMER_NAME, STREAM_ID, streamId.toString());
+    }
+
+    @Benchmark
+    public void timerHandle() {
+        TimerHandle timer = timers.get(streamId);
+        timer.stop(timer.start());
+    }
+
+    @Benchmark
+    public void bufferedTimerHandle() {
+        bufferedTimer.stop(bufferedTimer.start());
+    }
+
+    @Benchmark
+    public void sampledTimerHandle() {
+        sampledTimer.stop(sampledTimer.start());
+    }
+}
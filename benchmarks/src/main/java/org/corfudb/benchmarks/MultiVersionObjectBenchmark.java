@@ -0,0 +1,89 @@
+package org.corfudb.benchmarks;
+
+import com.google.common.reflect.TypeToken;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.PersistentCorfuTable;
+import org.corfudb.runtime.object.ICorfuSMRSnapshotProxy;
+import org.corfudb.runtime.object.MVOCorfuCompileProxy;
+import org.corfudb.runtime.object.MultiVersionObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link MultiVersionObject#getSnapshotProxy(long)} of a table backed by an
+ * in-process, in-memory Corfu server ({@link LocalCorfuServer}): the latest version, which
+ * is served from the MVOCache, and random older versions, which may require a stream sync.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiVersionObjectBenchmark {
+
+    private static final int NUM_KEYS = 100;
+
+    @Param({"1000"})
+    private int numVersions;
+
+    private LocalCorfuServer server;
+
+    private CorfuRuntime runtime;
+
+    private MultiVersionObject<?> mvo;
+
+    private long[] versions;
+
+    private final Random random = new Random(0);
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = new LocalCorfuServer();
+        runtime = server.connectRuntime();
+
+        PersistentCorfuTable<String, String> table = runtime.getObjectsView().build()
+                .setTypeToken(new TypeToken<PersistentCorfuTable<String, String>>() {})
+                .setStreamName(MultiVersionObjectBenchmark.class.getSimpleName())
+                .open();
+        for (int i = 0; i < numVersions; i++) {
+            table.insert("key" + (i % NUM_KEYS), "value" + i);
+        }
+
+        mvo = ((MVOCorfuCompileProxy<?>) table.getCorfuSMRProxy()).getUnderlyingMVO();
+        // Materialize all the versions once, so that the address space of the object is known
+        mvo.getSnapshotProxy(runtime.getSequencerView().query().getSequence());
+        versions = mvo.getAddressSpace().toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        runtime.shutdown();
+        server.close();
+    }
+
+    @Benchmark
+    public ICorfuSMRSnapshotProxy<?> latestVersion() {
+        return mvo.getSnapshotProxy(versions[versions.length - 1]);
+    }
+
+    @Benchmark
+    public ICorfuSMRSnapshotProxy<?> randomVersion() {
+        return mvo.getSnapshotProxy(versions[random.nextInt(versions.length)]);
+    }
+}
@@ -0,0 +1,117 @@
+package org.corfudb.benchmarks;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.Message;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.corfudb.runtime.CorfuStoreMetadata.TableMetadata;
+import org.corfudb.runtime.CorfuStoreMetadata.TableName;
+import org.corfudb.runtime.CorfuStoreMetadata.Timestamp;
+import org.corfudb.runtime.collections.CorfuRecord;
+import org.corfudb.util.serializer.ProtobufSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link ProtobufSerializer} used by CorfuStore tables, for keys and for
+ * values (records with a payload and metadata).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProtobufSerializerBenchmark {
+
+    private ProtobufSerializer serializer;
+
+    private TableName key;
+
+    private CorfuRecord<TableMetadata, Timestamp> record;
+
+    private byte[] serializedKey;
+
+    private byte[] serializedRecord;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        key = TableName.newBuilder()
+                .setNamespace("benchmark-namespace")
+                .setTableName("benchmark-table")
+                .build();
+        TableMetadata value = TableMetadata.newBuilder()
+                .setTableName(key)
+                .setDiskBased(false)
+                .build();
+        Timestamp metadata = Timestamp.newBuilder()
+                .setEpoch(1L)
+                .setSequence(Long.MAX_VALUE)
+                .build();
+        record = new CorfuRecord<>(value, metadata);
+
+        ConcurrentMap<String, Class<? extends Message>> classMap = new ConcurrentHashMap<>();
+        classMap.put(Any.pack(key).getTypeUrl(), TableName.class);
+        classMap.put(Any.pack(value).getTypeUrl(), TableMetadata.class);
+        classMap.put(Any.pack(metadata).getTypeUrl(), Timestamp.class);
+        serializer = new ProtobufSerializer(classMap);
+
+        serializedKey = serialize(key);
+        serializedRecord = serialize(record);
+    }
+
+    private byte[] serialize(Object object) {
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer();
+        try {
+            serializer.serialize(object, buf);
+            byte[] bytes = new byte[buf.readableBytes()];
+            buf.readBytes(bytes);
+            return bytes;
+        } finally {
+            buf.release();
+        }
+    }
+
+    private Object deserialize(byte[] bytes) {
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer(bytes.length);
+        try {
+            buf.writeBytes(bytes);
+            return serializer.deserialize(buf, null);
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeKey() {
+        return serialize(key);
+    }
+
+    @Benchmark
+    public byte[] serializeRecord() {
+        return serialize(record);
+    }
+
+    @Benchmark
+    public Object deserializeKey() {
+        return deserialize(serializedKey);
+    }
+
+    @Benchmark
+    public Object deserializeRecord() {
+        return deserialize(serializedRecord);
+    }
+}
@@ -0,0 +1,113 @@
+package org.corfudb.benchmarks;
+
+import io.netty.buffer.Unpooled;
+import org.apache.commons.io.FileUtils;
+import org.corfudb.infrastructure.ResourceQuota;
+import org.corfudb.infrastructure.log.Segment;
+import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.LogData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Segment} writes and reads against segment files in a local temporary
+ * directory. Writes are not synced, so that the results reflect the cost of the write path
+ * (serialization, checksums, index updates) rather than the one of the disk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SegmentBenchmark {
+
+    private static final int RECORDS_PER_SEGMENT = 10_000;
+
+    @Param({"64", "4096"})
+    private int payloadSize;
+
+    private Path segmentsDir;
+
+    private ResourceQuota logSize;
+
+    private Segment readSegment;
+
+    private Segment writeSegment;
+
+    private long writeSegmentId;
+
+    private long nextAddress;
+
+    private byte[] payload;
+
+    private final Random random = new Random(0);
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        segmentsDir = Files.createTempDirectory("segment-benchmark");
+        logSize = new ResourceQuota("LogSizeQuota", Long.MAX_VALUE);
+        payload = new byte[payloadSize];
+        random.nextBytes(payload);
+
+        // Segment 0 is filled once and only read from
+        readSegment = new Segment(0, RECORDS_PER_SEGMENT, segmentsDir, logSize);
+        for (long address = 0; address < RECORDS_PER_SEGMENT; address++) {
+            readSegment.write(address, getLogData(address));
+        }
+        readSegment.flush();
+
+        writeSegmentId = 1;
+        nextAddress = writeSegmentId * RECORDS_PER_SEGMENT;
+        writeSegment = new Segment(writeSegmentId, RECORDS_PER_SEGMENT, segmentsDir, logSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        readSegment.close();
+        writeSegment.close();
+        FileUtils.deleteDirectory(segmentsDir.toFile());
+    }
+
+    private LogData getLogData(long address) {
+        LogData logData = new LogData(DataType.DATA, Unpooled.wrappedBuffer(payload));
+        logData.setGlobalAddress(address);
+        return logData;
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        long address = nextAddress++;
+        if (address / RECORDS_PER_SEGMENT != writeSegmentId) {
+            // Roll over to a new segment, dropping the full one to bound the disk usage
+            writeSegment.close();
+            Files.deleteIfExists(segmentsDir.resolve(writeSegmentId + ".log"));
+            writeSegmentId = address / RECORDS_PER_SEGMENT;
+            writeSegment = new Segment(writeSegmentId, RECORDS_PER_SEGMENT, segmentsDir, logSize);
+        }
+
+        return writeSegment.write(address, getLogData(address));
+    }
+
+    @Benchmark
+    public LogData read() throws IOException {
+        return readSegment.read(random.nextInt(RECORDS_PER_SEGMENT));
+    }
+}
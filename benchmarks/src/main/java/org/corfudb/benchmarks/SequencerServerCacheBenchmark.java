@@ -0,0 +1,97 @@
+package org.corfudb.benchmarks;
+
+import org.corfudb.infrastructure.SequencerServerCache;
+import org.corfudb.infrastructure.SequencerServerCache.ConflictTxStream;
+import org.corfudb.runtime.view.Address;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the conflict key cache of the sequencer. The cache is pre-filled to its capacity,
+ * so every put also pays for the eviction of the oldest transactions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SequencerServerCacheBenchmark {
+
+    private static final int CAPACITY = 250_000;
+
+    private static final int NUM_STREAMS = 16;
+
+    private static final int NUM_PRECOMPUTED_TX = 1 << 16;
+
+    @Param({"1", "10"})
+    private int conflictKeysPerTx;
+
+    private SequencerServerCache cache;
+
+    private List<List<ConflictTxStream>> transactions;
+
+    private long txVersion;
+
+    private final Random random = new Random(0);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<UUID> streams = new ArrayList<>();
+        for (int i = 0; i < NUM_STREAMS; i++) {
+            streams.add(UUID.randomUUID());
+        }
+
+        transactions = new ArrayList<>(NUM_PRECOMPUTED_TX);
+        for (int i = 0; i < NUM_PRECOMPUTED_TX; i++) {
+            List<ConflictTxStream> conflictKeys = new ArrayList<>(conflictKeysPerTx);
+            for (int j = 0; j < conflictKeysPerTx; j++) {
+                byte[] conflictParam = ByteBuffer.allocate(Long.BYTES).putLong(random.nextLong()).array();
+                conflictKeys.add(new ConflictTxStream(streams.get(random.nextInt(NUM_STREAMS)), conflictParam));
+            }
+            transactions.add(conflictKeys);
+        }
+
+        cache = new SequencerServerCache(CAPACITY, Address.NON_ADDRESS);
+        txVersion = 0;
+        while (cache.size() < CAPACITY) {
+            put();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cache.close();
+    }
+
+    @Benchmark
+    public int put() {
+        List<ConflictTxStream> conflictKeys = transactions.get((int) (txVersion % NUM_PRECOMPUTED_TX));
+        cache.put(conflictKeys, txVersion++);
+        return cache.size();
+    }
+
+    @Benchmark
+    public long get() {
+        List<ConflictTxStream> conflictKeys = transactions.get(random.nextInt(NUM_PRECOMPUTED_TX));
+        return cache.get(conflictKeys.get(0));
+    }
+}
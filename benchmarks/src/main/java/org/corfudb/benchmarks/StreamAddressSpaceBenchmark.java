@@ -0,0 +1,116 @@
+package org.corfudb.benchmarks;
+
+import org.corfudb.protocols.wireprotocol.StreamAddressRange;
+import org.corfudb.runtime.view.stream.StreamAddressSpace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link StreamAddressSpace} operations used by the sequencer and by stream
+ * reads: adding addresses, membership and range queries, trims and (de)serialization.
+ * Addresses of the stream are spread over the global log with the given stride, which
+ * controls how sparse the underlying bitmap is.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamAddressSpaceBenchmark {
+
+    private static final int RANGE_SIZE = 1_000;
+
+    @Param({"100000"})
+    private int numAddresses;
+
+    @Param({"1", "50"})
+    private int stride;
+
+    private StreamAddressSpace addressSpace;
+
+    private byte[] serializedAddressSpace;
+
+    private long nextAddress;
+
+    private long maxAddress;
+
+    private final UUID streamId = UUID.randomUUID();
+
+    private final Random random = new Random(0);
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        addressSpace = new StreamAddressSpace();
+        for (long i = 0; i < numAddresses; i++) {
+            addressSpace.addAddress(i * stride);
+        }
+        maxAddress = (long) numAddresses * stride;
+        nextAddress = maxAddress;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        addressSpace.serialize(new DataOutputStream(bytes));
+        serializedAddressSpace = bytes.toByteArray();
+    }
+
+    @Benchmark
+    public long addAddress() {
+        addressSpace.addAddress(nextAddress);
+        nextAddress += stride;
+        return addressSpace.getTail();
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return addressSpace.contains(random.nextInt((int) maxAddress));
+    }
+
+    @Benchmark
+    public long floor() {
+        return addressSpace.floor(random.nextInt((int) maxAddress));
+    }
+
+    @Benchmark
+    public StreamAddressSpace getAddressesInRange() {
+        long end = RANGE_SIZE + random.nextInt((int) maxAddress - RANGE_SIZE);
+        return addressSpace.getAddressesInRange(new StreamAddressRange(streamId, end, end - RANGE_SIZE));
+    }
+
+    @Benchmark
+    public long copyAndTrim() {
+        StreamAddressSpace copy = addressSpace.copy();
+        copy.trim(maxAddress / 2);
+        return copy.size();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(serializedAddressSpace.length);
+        addressSpace.serialize(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public StreamAddressSpace deserialize() throws IOException {
+        return StreamAddressSpace.deserialize(new DataInputStream(new ByteArrayInputStream(serializedAddressSpace)));
+    }
+}
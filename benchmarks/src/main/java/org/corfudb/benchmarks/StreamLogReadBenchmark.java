@@ -0,0 +1,125 @@
+package org.corfudb.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.commons.io.FileUtils;
+import org.corfudb.infrastructure.BatchProcessor.BatchProcessorContext;
+import org.corfudb.infrastructure.CorfuServerCmdLine;
+import org.corfudb.infrastructure.ServerContext;
+import org.corfudb.infrastructure.log.StreamLogFiles;
+import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.util.serializer.Serializers;
+import org.docopt.Docopt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks concurrent {@link StreamLogFiles#read(long)} and {@link StreamLogFiles#contains(long)}
+ * of random addresses on a persistent log, alone and together with a thread which continuously
+ * compacts the log. Use the JMH -t option to change the number of reader threads of the
+ * read and contains benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamLogReadBenchmark {
+
+    private static final int NUM_SEGMENTS = 5;
+
+    private static final int PAYLOAD_SIZE = 256;
+
+    private File logDir;
+
+    private ServerContext serverContext;
+
+    private StreamLogFiles streamLog;
+
+    private long firstAddress;
+
+    private long numAddresses;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        logDir = Files.createTempDirectory("stream-log-benchmark").toFile();
+        Map<String, Object> opts = new Docopt(CorfuServerCmdLine.USAGE)
+                .parse("-l", logDir.getAbsolutePath(), "-a", "localhost", "-d", "WARN", "0");
+        serverContext = new ServerContext(opts);
+        streamLog = new StreamLogFiles(serverContext, new BatchProcessorContext());
+
+        byte[] payload = new byte[PAYLOAD_SIZE];
+        long tail = (long) NUM_SEGMENTS * StreamLogFiles.RECORDS_PER_LOG_FILE;
+        for (long address = 0; address < tail; address++) {
+            ByteBuf buf = Unpooled.buffer();
+            Serializers.CORFU.serialize(payload, buf);
+            streamLog.append(address, new LogData(DataType.DATA, buf));
+        }
+        streamLog.sync(true);
+
+        // Trim the first segment, so that compactions have a segment to look for
+        firstAddress = StreamLogFiles.RECORDS_PER_LOG_FILE;
+        numAddresses = tail - firstAddress;
+        streamLog.prefixTrim(firstAddress - 1);
+        streamLog.compact();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        streamLog.close();
+        serverContext.close();
+        FileUtils.deleteDirectory(logDir);
+    }
+
+    private long randomAddress() {
+        return firstAddress + ThreadLocalRandom.current().nextLong(numAddresses);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public LogData read() {
+        return streamLog.read(randomAddress());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean contains() {
+        return streamLog.contains(randomAddress());
+    }
+
+    @Benchmark
+    @Group("readWithCompaction")
+    @GroupThreads(7)
+    public LogData readDuringCompaction() {
+        return streamLog.read(randomAddress());
+    }
+
+    @Benchmark
+    @Group("readWithCompaction")
+    @GroupThreads(1)
+    public void compact() {
+        streamLog.compact();
+    }
+}
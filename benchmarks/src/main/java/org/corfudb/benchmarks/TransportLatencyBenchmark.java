@@ -0,0 +1,62 @@
+package org.corfudb.benchmarks;
+
+import org.corfudb.comm.ChannelImplementation;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.clients.BaseClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the round trip latency of a ping to a server over the loopback interface, for
+ * each channel implementation. The server and the runtime use the same implementation, and
+ * a native implementation which is not available on the platform falls back to NIO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransportLatencyBenchmark {
+
+    @Param({"NIO", "EPOLL"})
+    private ChannelImplementation transport;
+
+    private LocalCorfuServer server;
+
+    private CorfuRuntime runtime;
+
+    private BaseClient client;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = new LocalCorfuServer(transport);
+        runtime = server.connectRuntime();
+        client = runtime.getLayoutView().getRuntimeLayout().getBaseClient(server.getEndpoint());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        runtime.shutdown();
+        server.close();
+    }
+
+    @Benchmark
+    public boolean ping() {
+        return client.ping().join();
+    }
+}
@@ -0,0 +1,129 @@
+package org.corfudb.common.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A ZSTD codec that compresses with a dictionary, which is trained on samples of the data
+ * to compress. A dictionary pays off when many small buffers of similar content are
+ * compressed independently (e.g. blocks of log entries), since each of them is too small
+ * for ZSTD to learn the repeated content on its own.
+ *
+ * The compressed buffers have the layout of the other codecs, and can only be decompressed
+ * with the same dictionary. Unlike the other codecs, instances hold native resources and
+ * have to be closed.
+ */
+@Slf4j
+public class ZSTDDictionaryCompression implements Codec, AutoCloseable {
+
+    private static final int DEFAULT_COMPRESSION_LEVEL = 3;
+
+    @Getter
+    private final byte[] dictionary;
+
+    private final ZstdDictCompress compressDictionary;
+
+    private final ZstdDictDecompress decompressDictionary;
+
+    public ZSTDDictionaryCompression(byte[] dictionary) {
+        checkArgument(dictionary.length > 0, "Empty dictionary");
+        this.dictionary = dictionary;
+        this.compressDictionary = new ZstdDictCompress(dictionary, DEFAULT_COMPRESSION_LEVEL);
+        this.decompressDictionary = new ZstdDictDecompress(dictionary);
+    }
+
+    /**
+     * Train a dictionary on samples of the data to compress.
+     *
+     * @param samples        the samples
+     * @param sampleBytes    the maximum number of bytes of samples to train on
+     * @param dictionarySize the maximum size of the dictionary
+     * @return the dictionary, or an empty array if there isn't enough data to train one
+     */
+    public static byte[] trainDictionary(Iterable<byte[]> samples, int sampleBytes, int dictionarySize) {
+        ZstdDictTrainer trainer = new ZstdDictTrainer(sampleBytes, dictionarySize);
+        for (byte[] sample : samples) {
+            if (!trainer.addSample(sample)) {
+                break;
+            }
+        }
+
+        try {
+            return trainer.trainSamples();
+        } catch (RuntimeException e) {
+            // Training fails when the samples are too few or too small
+            log.debug("trainDictionary: no dictionary trained", e);
+            return new byte[0];
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     */
+    @Override
+    public ByteBuffer compress(ByteBuffer uncompressed) {
+        Objects.requireNonNull(uncompressed);
+        checkArgument(uncompressed.hasRemaining());
+
+        final int decompressedLength = uncompressed.remaining();
+        final int maxCompressedLength = (int) Zstd.compressBound(decompressedLength);
+
+        byte[] compressed = new byte[maxCompressedLength + Integer.BYTES];
+        ByteBuffer wrappedBuf = ByteBuffer.wrap(compressed);
+        wrappedBuf.putInt(decompressedLength);
+
+        long compressedLen = Zstd.compressFastDict(compressed, Integer.BYTES,
+                uncompressed.array(), uncompressed.arrayOffset() + uncompressed.position(),
+                decompressedLength, compressDictionary);
+
+        if (Zstd.isError(compressedLen)) {
+            throw new IllegalStateException("Compression failed with error code " + compressedLen);
+        }
+
+        wrappedBuf.position((int) compressedLen + Integer.BYTES);
+        wrappedBuf.flip();
+        return wrappedBuf;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     */
+    @Override
+    public ByteBuffer decompress(ByteBuffer compressed) {
+        Objects.requireNonNull(compressed);
+        checkArgument(compressed.remaining() > Integer.BYTES);
+
+        int decompressedSize = compressed.getInt();
+        byte[] restored = new byte[decompressedSize];
+        ByteBuffer wrappedBuf = ByteBuffer.wrap(restored);
+
+        long restoredBytes = Zstd.decompressFastDict(restored, 0,
+                compressed.array(), compressed.arrayOffset() + compressed.position(),
+                compressed.remaining(), decompressDictionary);
+
+        if (Zstd.isError(restoredBytes)) {
+            throw new IllegalStateException("Decompression failed with error code " + restoredBytes);
+        }
+
+        wrappedBuf.position((int) restoredBytes);
+        wrappedBuf.flip();
+        return wrappedBuf;
+    }
+
+    @Override
+    public void close() {
+        compressDictionary.close();
+        decompressDictionary.close();
+    }
+}
@@ -0,0 +1,91 @@
+package org.corfudb.common.metrics.micrometer;
+
+import io.micrometer.core.instrument.Meter;
+import lombok.Getter;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A handle to a meter with a fixed name and tags, which is bound to its micrometer meter
+ * once instead of looking the meter up in the registry on every record. The handle binds
+ * again when the registry is initialized or closed, so recording while metrics are disabled
+ * costs a single volatile read.
+ * <p>
+ * A handle can optionally record only one of every {@code sampleRate} measurements, and
+ * buffer up to {@code bufferSize} measurements per thread before recording them.
+ *
+ * @param <M> The type of the micrometer meter.
+ */
+public abstract class MeterHandle<M extends Meter> {
+
+    @Getter
+    private final String name;
+
+    private final String[] tags;
+
+    private final int sampleRate;
+
+    protected final int bufferSize;
+
+    private volatile Binding<M> binding = new Binding<>(-1, null);
+
+    MeterHandle(String name, String[] tags, MeterOptions options) {
+        this.name = name;
+        this.tags = tags;
+        this.sampleRate = options.getSampleRate();
+        this.bufferSize = options.getBufferSize();
+    }
+
+    /**
+     * Register the meter of this handle with the current registry.
+     *
+     * @param name The name of the meter.
+     * @param tags The tags of the meter.
+     * @return The meter, or empty if metrics are disabled or the meter is blocked.
+     */
+    abstract Optional<M> register(String name, String... tags);
+
+    /**
+     * Get the meter bound to this handle, binding it first if the registry has changed.
+     *
+     * @return The meter, or null if metrics are disabled or the meter is blocked.
+     */
+    protected M getMeter() {
+        Binding<M> current = binding;
+        int generation = MeterRegistryProvider.getGeneration();
+        if (current.generation != generation) {
+            current = new Binding<>(generation, register(name, tags).orElse(null));
+            binding = current;
+        }
+        return current.meter;
+    }
+
+    /**
+     * Check whether the meter of this handle records.
+     *
+     * @return True if metrics are enabled and the meter is not blocked.
+     */
+    public boolean isEnabled() {
+        return getMeter() != null;
+    }
+
+    /**
+     * Decide whether the current measurement should be recorded according to the sample rate.
+     *
+     * @return True if the measurement should be recorded.
+     */
+    protected boolean shouldSample() {
+        return sampleRate <= 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+
+    private static class Binding<M> {
+        private final int generation;
+        private final M meter;
+
+        private Binding(int generation, M meter) {
+            this.generation = generation;
+            this.meter = meter;
+        }
+    }
+}
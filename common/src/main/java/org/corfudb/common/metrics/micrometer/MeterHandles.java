@@ -0,0 +1,113 @@
+package org.corfudb.common.metrics.micrometer;
+
+import lombok.EqualsAndHashCode;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Creates and caches the pre-bound meter handles, keyed by the name and the tags of the meter,
+ * so that hot paths look their meters up once instead of on every record.
+ * <p>
+ * The handles of a meter which is tagged per stream (or per any other key) are grouped in a
+ * {@link Family}, which builds the tag value of a key once.
+ */
+public class MeterHandles {
+
+    private static final Map<MeterKey, TimerHandle> timers = new ConcurrentHashMap<>();
+
+    private static final Map<MeterKey, SummaryHandle> summaries = new ConcurrentHashMap<>();
+
+    private MeterHandles() {
+
+    }
+
+    /**
+     * Get the timer handle of the given name and tags. The options only apply when the
+     * handle is created.
+     */
+    public static TimerHandle timer(MeterOptions options, String name, String... tags) {
+        return timers.computeIfAbsent(new MeterKey(name, tags), key -> new TimerHandle(name, tags, options));
+    }
+
+    public static TimerHandle timer(String name, String... tags) {
+        return timer(MeterOptions.DEFAULT, name, tags);
+    }
+
+    /**
+     * Get the distribution summary handle of the given name and tags. The options only apply
+     * when the handle is created.
+     */
+    public static SummaryHandle summary(MeterOptions options, String name, String... tags) {
+        return summaries.computeIfAbsent(new MeterKey(name, tags), key -> new SummaryHandle(name, tags, options));
+    }
+
+    public static SummaryHandle summary(String name, String... tags) {
+        return summary(MeterOptions.DEFAULT, name, tags);
+    }
+
+    /**
+     * Get a family of timer handles of the given name, tagged by tagName and the given fixed tags.
+     */
+    public static Family<TimerHandle> timers(String name, String tagName, String... tags) {
+        return new Family<>(tagValue -> timer(name, withTag(tags, tagName, tagValue)));
+    }
+
+    /**
+     * Get a family of distribution summary handles of the given name, tagged by tagName and the
+     * given fixed tags.
+     */
+    public static Family<SummaryHandle> summaries(String name, String tagName, String... tags) {
+        return new Family<>(tagValue -> summary(name, withTag(tags, tagName, tagValue)));
+    }
+
+    private static String[] withTag(String[] tags, String tagName, String tagValue) {
+        String[] allTags = Arrays.copyOf(tags, tags.length + 2);
+        allTags[tags.length] = tagName;
+        allTags[tags.length + 1] = tagValue;
+        return allTags;
+    }
+
+    /**
+     * The handles of a meter which only differ by the value of one tag.
+     *
+     * @param <H> The type of the handles.
+     */
+    public static class Family<H extends MeterHandle<?>> {
+
+        private final Map<Object, H> handles = new ConcurrentHashMap<>();
+
+        private final Function<String, H> factory;
+
+        private Family(Function<String, H> factory) {
+            this.factory = factory;
+        }
+
+        /**
+         * Get the handle whose tag value is the string value of the given key.
+         *
+         * @param key The key, such as a stream id.
+         * @return The handle of the key.
+         */
+        public H get(Object key) {
+            H handle = handles.get(key);
+            if (handle == null) {
+                handle = handles.computeIfAbsent(key, k -> factory.apply(k.toString()));
+            }
+            return handle;
+        }
+    }
+
+    @EqualsAndHashCode
+    private static class MeterKey {
+        private final String name;
+        private final String[] tags;
+
+        private MeterKey(String name, String[] tags) {
+            this.name = name;
+            this.tags = Arrays.copyOf(tags, tags.length);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.corfudb.common.metrics.micrometer;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Options of a {@link MeterHandle}.
+ */
+@Builder
+@Getter
+public class MeterOptions {
+
+    public static final MeterOptions DEFAULT = MeterOptions.builder().build();
+
+    /**
+     * Record one of every sampleRate measurements. A rate of 1 records every measurement.
+     */
+    @Builder.Default
+    private final int sampleRate = 1;
+
+    /**
+     * The number of measurements buffered per thread before they are recorded. A size of 1
+     * records every measurement immediately. Buffered measurements are not visible to the
+     * registry until the buffer of their thread is full or flushed.
+     */
+    @Builder.Default
+    private final int bufferSize = 1;
+}
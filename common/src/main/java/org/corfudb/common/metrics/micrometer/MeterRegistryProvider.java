@@ -14,8 +14,10 @@ import org.corfudb.common.metrics.micrometer.registries.RegistryProvider;
 import org.slf4j.Logger;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 /**
@@ -30,6 +32,11 @@ public class MeterRegistryProvider {
     @Getter
     private static Optional<MetricType> metricType = Optional.empty();
     private static Optional<RegistryProvider> provider = Optional.empty();
+    /**
+     * Incremented every time the registry is initialized or closed, so that the pre-bound
+     * meter handles know when to bind again without synchronizing on every record.
+     */
+    private static final AtomicInteger generation = new AtomicInteger();
 
     private MeterRegistryProvider() {
 
@@ -57,6 +64,7 @@ public class MeterRegistryProvider {
 
             initLoggingRegistry(logger, loggingInterval, identifier);
             registerProvidedRegistries();
+            generation.incrementAndGet();
         }
 
         /**
@@ -158,11 +166,21 @@ public class MeterRegistryProvider {
      */
     public static synchronized void close() {
         meterRegistry.close();
-        meterRegistry.getRegistries().forEach(registry -> meterRegistry.remove(registry));
+        new ArrayList<>(meterRegistry.getRegistries()).forEach(registry -> meterRegistry.remove(registry));
         provider.ifPresent(RegistryProvider::close);
         provider = Optional.empty();
         metricType = Optional.empty();
         id = Optional.empty();
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Get the generation of the registry, which changes whenever the registry is initialized or closed.
+     *
+     * @return The current generation.
+     */
+    static int getGeneration() {
+        return generation.get();
     }
 
     /**
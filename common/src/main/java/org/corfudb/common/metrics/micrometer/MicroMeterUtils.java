@@ -55,8 +55,6 @@ public class MicroMeterUtils {
             "multi.object.smrentry.serialize.stream",
             "multi.object.smrentry.serialize.stream.size",
             "multi.object.smrentry.serialize.stream.updates",
-            "multi.object.smrentry.deserialize.stream",
-            "multi.object.smrentry.deserialize.stream.size",
             "multi.object.smrentry.deserialize.stream.lazy",
             "logdata.compress",
             "logdata.decompress"
@@ -93,7 +91,7 @@ public class MicroMeterUtils {
                         .register(registry));
     }
 
-    private static Optional<DistributionSummary> createOrGetDistSummary(String name, String... tags) {
+    static Optional<DistributionSummary> createOrGetDistSummary(String name, String... tags) {
         return filterGetInstance(name).map(registry ->
                 DistributionSummary.builder(name)
                         .tags(tags)
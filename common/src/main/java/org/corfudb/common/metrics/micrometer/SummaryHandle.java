@@ -0,0 +1,73 @@
+package org.corfudb.common.metrics.micrometer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+
+import java.util.Optional;
+
+/**
+ * A pre-bound {@link DistributionSummary}.
+ */
+public class SummaryHandle extends MeterHandle<DistributionSummary> {
+
+    // Only allocated when measurements are buffered
+    private final ThreadLocal<Buffer> buffer;
+
+    SummaryHandle(String name, String[] tags, MeterOptions options) {
+        super(name, tags, options);
+        this.buffer = bufferSize > 1 ? ThreadLocal.withInitial(() -> new Buffer(bufferSize)) : null;
+    }
+
+    @Override
+    Optional<DistributionSummary> register(String name, String... tags) {
+        return MicroMeterUtils.createOrGetDistSummary(name, tags);
+    }
+
+    /**
+     * Record a measured value.
+     *
+     * @param value The value.
+     */
+    public void record(double value) {
+        DistributionSummary summary = getMeter();
+        if (summary == null || !shouldSample()) {
+            return;
+        }
+        if (bufferSize <= 1) {
+            summary.record(value);
+            return;
+        }
+
+        Buffer local = buffer.get();
+        local.values[local.size++] = value;
+        if (local.size == local.values.length) {
+            flush(local, summary);
+        }
+    }
+
+    /**
+     * Record the measurements buffered by the current thread.
+     */
+    public void flush() {
+        if (bufferSize > 1) {
+            flush(buffer.get(), getMeter());
+        }
+    }
+
+    private static void flush(Buffer local, DistributionSummary summary) {
+        if (summary != null) {
+            for (int i = 0; i < local.size; i++) {
+                summary.record(local.values[i]);
+            }
+        }
+        local.size = 0;
+    }
+
+    private static class Buffer {
+        private final double[] values;
+        private int size = 0;
+
+        private Buffer(int bufferSize) {
+            this.values = new double[bufferSize];
+        }
+    }
+}
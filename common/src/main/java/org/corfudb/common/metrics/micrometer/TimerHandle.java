@@ -0,0 +1,126 @@
+package org.corfudb.common.metrics.micrometer;
+
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A pre-bound {@link Timer}. A measurement is started with {@link #start()}, which returns
+ * {@link #NOT_STARTED} when metrics are disabled or the measurement is not sampled, and is
+ * stopped with {@link #stop(long)}, without allocating a {@link Timer.Sample}.
+ */
+public class TimerHandle extends MeterHandle<Timer> {
+
+    public static final long NOT_STARTED = Long.MIN_VALUE;
+
+    // Only allocated when measurements are buffered
+    private final ThreadLocal<Buffer> buffer;
+
+    TimerHandle(String name, String[] tags, MeterOptions options) {
+        super(name, tags, options);
+        this.buffer = bufferSize > 1 ? ThreadLocal.withInitial(() -> new Buffer(bufferSize)) : null;
+    }
+
+    @Override
+    Optional<Timer> register(String name, String... tags) {
+        return MicroMeterUtils.createOrGetTimer(name, tags);
+    }
+
+    /**
+     * Start a measurement.
+     *
+     * @return The start time in nanoseconds, or {@link #NOT_STARTED}.
+     */
+    public long start() {
+        if (getMeter() == null || !shouldSample()) {
+            return NOT_STARTED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Stop a measurement started by {@link #start()}.
+     *
+     * @param startNanos The value returned by {@link #start()}.
+     */
+    public void stop(long startNanos) {
+        if (startNanos != NOT_STARTED) {
+            recordNanos(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Record a duration which was measured by the caller.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (shouldSample()) {
+            recordNanos(nanos);
+        }
+    }
+
+    public void record(Runnable runnable) {
+        long start = start();
+        try {
+            runnable.run();
+        } finally {
+            stop(start);
+        }
+    }
+
+    public <T> T record(Supplier<T> supplier) {
+        long start = start();
+        try {
+            return supplier.get();
+        } finally {
+            stop(start);
+        }
+    }
+
+    /**
+     * Record the measurements buffered by the current thread.
+     */
+    public void flush() {
+        if (bufferSize > 1) {
+            flush(buffer.get(), getMeter());
+        }
+    }
+
+    private void recordNanos(long nanos) {
+        Timer timer = getMeter();
+        if (timer == null) {
+            return;
+        }
+        if (bufferSize <= 1) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        Buffer local = buffer.get();
+        local.values[local.size++] = nanos;
+        if (local.size == local.values.length) {
+            flush(local, timer);
+        }
+    }
+
+    private static void flush(Buffer local, Timer timer) {
+        if (timer != null) {
+            for (int i = 0; i < local.size; i++) {
+                timer.record(local.values[i], TimeUnit.NANOSECONDS);
+            }
+        }
+        local.size = 0;
+    }
+
+    private static class Buffer {
+        private final long[] values;
+        private int size = 0;
+
+        private Buffer(int bufferSize) {
+            this.values = new long[bufferSize];
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.corfudb.common.metrics.micrometer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.corfudb.common.metrics.micrometer.MeterRegistryProvider.MeterRegistryInitializer;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MeterHandleTest {
+
+    private static final String STREAM_ID = "streamId";
+    private static final int BUFFER_SIZE = 4;
+
+    private static void initMetrics() {
+        MeterRegistryInitializer.initClientMetrics(LoggerFactory.getLogger(MeterHandleTest.class),
+                Duration.ofMinutes(1), "test");
+    }
+
+    /**
+     * Verifies that handles are cached by name and tags, do not record while metrics are disabled,
+     * bind to the registry once it is initialized, and record buffered measurements once their
+     * buffer is full or flushed.
+     */
+    @Test
+    public void testHandles() {
+        UUID streamId = UUID.randomUUID();
+        MeterHandles.Family<TimerHandle> timers = MeterHandles.timers("handle.timer", STREAM_ID);
+        TimerHandle timer = timers.get(streamId);
+        assertThat(timers.get(streamId)).isSameAs(timer);
+        assertThat(MeterHandles.timer("handle.timer", STREAM_ID, streamId.toString())).isSameAs(timer);
+        SummaryHandle summary = MeterHandles.summary(MeterOptions.builder().bufferSize(BUFFER_SIZE).build(),
+                "handle.summary");
+
+        assertThat(timer.isEnabled()).isFalse();
+        assertThat(timer.start()).isEqualTo(TimerHandle.NOT_STARTED);
+
+        initMetrics();
+        // The logging registry only reports the counts of the previous step
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MeterRegistryProvider.getMeterRegistry().add(registry);
+        try {
+            assertThat(timer.isEnabled()).isTrue();
+            timer.stop(timer.start());
+            timer.record(1L);
+            Timer registered = registry.find("handle.timer")
+                    .tag(STREAM_ID, streamId.toString()).timer();
+            assertThat(registered).isNotNull();
+            assertThat(registered.count()).isEqualTo(2);
+
+            for (int i = 0; i < BUFFER_SIZE - 1; i++) {
+                summary.record(i);
+            }
+            DistributionSummary registeredSummary = registry.find("handle.summary").summary();
+            assertThat(registeredSummary).isNotNull();
+            assertThat(registeredSummary.count()).isZero();
+            summary.record(BUFFER_SIZE);
+            assertThat(registeredSummary.count()).isEqualTo(BUFFER_SIZE);
+            summary.record(BUFFER_SIZE);
+            summary.flush();
+            assertThat(registeredSummary.count()).isEqualTo(BUFFER_SIZE + 1);
+
+            // Meters on the client block list are never bound
+            assertThat(MeterHandles.timer("vlo.sync.timer").isEnabled()).isFalse();
+        } finally {
+            MeterRegistryProvider.close();
+        }
+        assertThat(timer.isEnabled()).isFalse();
+    }
+}
@@ -4,9 +4,6 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.util.JsonFormat;
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.commons.io.FileUtils;
-import org.corfudb.infrastructure.log.LogFormat;
-import org.corfudb.infrastructure.log.LogFormat.LogEntry;
 import org.corfudb.protocols.logprotocol.CheckpointEntry;
 import org.corfudb.protocols.logprotocol.MultiObjectSMREntry;
 import org.corfudb.protocols.logprotocol.MultiSMREntry;
@@ -23,10 +20,8 @@ import org.corfudb.runtime.view.TableRegistry;
 import org.corfudb.util.serializer.DynamicProtobufSerializer;
 
 import javax.annotation.Nonnull;
-import java.io.File;
-import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -37,16 +32,13 @@ import java.util.UUID;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Collection;
+import java.util.Comparator;
 import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.Arrays;
 
-import static org.corfudb.infrastructure.log.Segment.parseHeader;
-import static org.corfudb.infrastructure.log.Segment.parseMetadata;
-import static org.corfudb.infrastructure.log.Segment.parseEntry;
-import static org.corfudb.infrastructure.log.SegmentUtils.getLogData;
-
 import static org.corfudb.browser.CorfuStoreBrowserEditor.printTableRegistry;
 import static org.corfudb.browser.CorfuStoreBrowserEditor.printKey;
 import static org.corfudb.browser.CorfuStoreBrowserEditor.printMetadata;
@@ -54,7 +46,10 @@ import static org.corfudb.browser.CorfuStoreBrowserEditor.printPayload;
 
 @SuppressWarnings("checkstyle:printLine")
 public class CorfuOfflineBrowserEditor implements CorfuBrowserEditorCommands {
+    private static final String INDEX_DIR_PREFIX = "corfu_offline_index_";
+
     private final Path logDir;
+    private final OfflineLogIndex logIndex;
     private final CorfuRuntime runtimeSerializer;
     private DynamicProtobufSerializer dynamicProtobufSerializer;
     private final RegistryTable registryTable;
@@ -65,13 +60,26 @@ public class CorfuOfflineBrowserEditor implements CorfuBrowserEditorCommands {
     private final CorfuTableDescriptor protobufDescTableDsc;
 
     /**
-     * Creates a CorfuOfflineBrowser linked to an existing log directory.
-     * Builds the registry table and protobuf table for deserialization of log entries.
+     * Creates a CorfuOfflineBrowser linked to an existing log directory, whose index is
+     * kept under the system temp directory.
      * @param offlineDbDir Path to the database directory.
      */
     public CorfuOfflineBrowserEditor(String offlineDbDir) throws UncheckedIOException {
+        this(offlineDbDir, getDefaultIndexDir(offlineDbDir));
+    }
+
+    /**
+     * Creates a CorfuOfflineBrowser linked to an existing log directory.
+     * Indexes the log directory, or reuses its existing index, and builds the registry table
+     * and protobuf table for deserialization of log entries.
+     * @param offlineDbDir Path to the database directory.
+     * @param indexDir Path to the directory of the log index.
+     */
+    public CorfuOfflineBrowserEditor(String offlineDbDir, String indexDir) throws UncheckedIOException {
 
         logDir = Paths.get(offlineDbDir);
+        logIndex = new OfflineLogIndex(logDir, Paths.get(indexDir), Runtime.getRuntime().availableProcessors());
+        logIndex.build();
         registryTableDsc = new CorfuTableDescriptor(TableRegistry.CORFU_SYSTEM_NAMESPACE,
                 TableRegistry.REGISTRY_TABLE_NAME);
         protobufDescTableDsc = new CorfuTableDescriptor(TableRegistry.CORFU_SYSTEM_NAMESPACE,
@@ -83,6 +91,12 @@ public class CorfuOfflineBrowserEditor implements CorfuBrowserEditorCommands {
         buildRegistryTableProtobufTable();
     }
 
+    private static String getDefaultIndexDir(String offlineDbDir) {
+        String logDirId = UUID.nameUUIDFromBytes(Paths.get(offlineDbDir).toAbsolutePath().toString()
+                .getBytes(StandardCharsets.UTF_8)).toString();
+        return Paths.get(System.getProperty("java.io.tmpdir"), INDEX_DIR_PREFIX + logDirId).toString();
+    }
+
     /**
      * Builds the Registry table and Protobuf Table.
      */
@@ -155,42 +169,26 @@ public class CorfuOfflineBrowserEditor implements CorfuBrowserEditorCommands {
     }
 
     /**
-     * Parses the log files and builds the in-memory tables.
+     * Reads the log entries of the given tables, which are found through the log index,
+     * and builds the in-memory tables.
      * @param tableDsc list of table Descriptors.
      * @param tables list of in-memory tables for list of table Descriptors.
      */
     private void parseLogsFiles(List<CorfuTableDescriptor> tableDsc, List<CachedTable> tables) {
 
-        String[] extension = {"log"};
-        File dir = logDir.toFile();
-        Collection<File> files = FileUtils.listFiles(dir, extension, true);
-
-        for (File file : files) {
-            try (FileChannel fileChannel = FileChannel.open(file.toPath())) {
-
-                fileChannel.position(0);
-                parseHeader(fileChannel, file.getAbsolutePath());
-
-                while (fileChannel.position() < fileChannel.size() - 14) {
-
-                    LogFormat.Metadata metadata = parseMetadata(fileChannel, file.getAbsolutePath());
-                    LogEntry entry = parseEntry(fileChannel, metadata, file.getAbsolutePath());
+        Set<UUID> streams = new HashSet<>();
+        for (CorfuTableDescriptor dsc : tableDsc) {
+            streams.add(dsc.getStreamID());
+            streams.add(dsc.getCheckpointID());
+        }
 
-                    if (metadata != null && entry != null) {
-                        LogData data = getLogData(entry);
-                        for (int index = 0; index < tableDsc.size(); ++index) {
-                            if (tableDsc.get(index).belongsToStream(data) && data.getType() != DataType.HOLE) {
-                                processLogData(data, tableDsc.get(index), tables.get(index));
-                            }
-                        }
-                    }
+        logIndex.forEachEntry(streams, data -> {
+            for (int index = 0; index < tableDsc.size(); ++index) {
+                if (tableDsc.get(index).belongsToStream(data) && data.getType() != DataType.HOLE) {
+                    processLogData(data, tableDsc.get(index), tables.get(index));
                 }
-                System.out.println("Finished processing file: " + file.getAbsolutePath());
-
-            } catch (IOException e) {
-                throw new IllegalStateException("Invalid header: " + file.getAbsolutePath(), e);
             }
-        }
+        });
     }
 
     private void updateSerializer(CorfuRuntime runtimeSerializer, ConcurrentMap registryTable, ConcurrentMap protobufTable) {
@@ -320,6 +318,58 @@ public class CorfuOfflineBrowserEditor implements CorfuBrowserEditorCommands {
         return dynamicProtobufSerializer.getCachedProtobufDescriptorTable().keySet().size();
     }
 
+    /**
+     * Get the names of the tables and of their checkpoint streams by stream id.
+     */
+    private Map<UUID, String> getStreamNames() {
+        getTableData(TableRegistry.CORFU_SYSTEM_NAMESPACE, TableRegistry.REGISTRY_TABLE_NAME);
+        Map<UUID, String> streamNames = new HashMap<>();
+        for (CorfuStoreMetadata.TableName tableName : dynamicProtobufSerializer.getCachedRegistryTable().keySet()) {
+            String name = TableRegistry.getFullyQualifiedTableName(tableName);
+            UUID streamId = CorfuRuntime.getStreamID(name);
+            streamNames.put(streamId, name);
+            streamNames.put(CorfuRuntime.getCheckpointStreamIdFromId(streamId), name + " (checkpoint)");
+        }
+        return streamNames;
+    }
+
+    /**
+     * Prints the number of entries and payload bytes of each stream, largest first.
+     * Only the log index is read.
+     * @return - number of streams
+     */
+    public int printStreamSizes() {
+        Map<UUID, String> streamNames = getStreamNames();
+        Map<UUID, OfflineLogIndex.StreamStats> streamStats = logIndex.getStreamStats();
+
+        System.out.println("\n=====Stream Sizes=======\n");
+        streamStats.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<UUID, OfflineLogIndex.StreamStats> e) -> e.getValue().getPayloadBytes()).reversed())
+                .forEach(e -> System.out.println("Stream " + e.getKey() + " "
+                        + streamNames.getOrDefault(e.getKey(), "") + ": "
+                        + e.getValue().getNumEntries() + " entries, "
+                        + e.getValue().getPayloadBytes() + " bytes"));
+        return streamStats.size();
+    }
+
+    /**
+     * Prints the log entries with the largest payloads, largest first.
+     * Only the log index is read.
+     * @param numEntries number of entries to print
+     * @return - number of printed entries
+     */
+    public int printLargestEntries(int numEntries) {
+        List<OfflineLogIndex.IndexRecord> largestEntries = logIndex.getLargestEntries(numEntries);
+
+        System.out.println("\n=====Largest Entries=======\n");
+        for (OfflineLogIndex.IndexRecord record : largestEntries) {
+            System.out.println("Address " + record.getAddress() + ": " + record.getPayloadSize()
+                    + " bytes in " + record.getSegment());
+        }
+        return largestEntries.size();
+    }
+
     @Override
     public EnumMap<IMetadata.LogUnitMetadataType, Object> printMetadataMap(long address) {
         return null;
@@ -41,13 +41,15 @@ public class CorfuStoreBrowserEditorMain {
         listTagsForTable,
         listTagsMap,
         printMetadataMap,
-        addRecord
+        addRecord,
+        printStreamSizes,
+        printLargestEntries
     }
 
     private static final String USAGE = "Usage: corfu-browser "+
         "--operation=<operation> " +
         "[--host=<host>] [--port=<port>] " +
-        "[--offline-db-dir=<dbDir>] " +
+        "[--offline-db-dir=<dbDir>] [--offline-index-dir=<indexDir>] " +
         "[--namespace=<namespace>] [--tablename=<tablename>] " +
         "[--keystore=<keystore_file>] [--ks_password=<keystore_password>] " +
         "[--truststore=<truststore_file>] [--truststore_password=<truststore_password>] " +
@@ -66,7 +68,7 @@ public class CorfuStoreBrowserEditorMain {
         + "--port=<port>   Port\n"
         + "--operation=<listTables|infoTable|showTable|clearTable"
         + "|editTable|deleteRecord|loadTable|listenOnTable|listTags|listTagsMap"
-        + "|listTablesForTag|listTagsForTable|listAllProtos> Operation\n"
+        + "|listTablesForTag|listTagsForTable|listAllProtos|printStreamSizes|printLargestEntries> Operation\n"
         + "--namespace=<namespace>   Namespace\n"
         + "--tablename=<tablename>   Table Name\n"
         + "--tag=<tag>  Stream tag of interest\n"
@@ -75,7 +77,8 @@ public class CorfuStoreBrowserEditorMain {
         + "--truststore=<truststore_file> TrustStore File\n"
         + "--truststore_password=<truststore_password> Truststore Password\n"
         + "--diskPath=<pathToTempDirForLargeTables> Path to Temp Dir\n"
-        + "--numItems=<numItems> Total Number of items for loadTable\n"
+        + "--numItems=<numItems> Total Number of items for loadTable, or of entries for printLargestEntries\n"
+        + "--offline-index-dir=<indexDir> Directory of the index of the offline-db-dir log\n"
         + "--address=<address> Log global address\n"
         + "--batchSize=<batchSize> Number of records per transaction for loadTable\n"
         + "--itemSize=<itemSize> Size of each item's payload for loadTable\n"
@@ -201,7 +204,11 @@ public class CorfuStoreBrowserEditorMain {
                 browser = new CorfuStoreBrowserEditor(runtime);
             }
         } else if (offlineDbDir != null) {
-            browser = new CorfuOfflineBrowserEditor(offlineDbDir);
+            if (opts.get("--offline-index-dir") != null) {
+                browser = new CorfuOfflineBrowserEditor(offlineDbDir, opts.get("--offline-index-dir").toString());
+            } else {
+                browser = new CorfuOfflineBrowserEditor(offlineDbDir);
+            }
         } else {
             Preconditions.checkArgument(false,
                     "Either host and port must be given or offline-db-dir must be provided");
@@ -378,6 +385,19 @@ public class CorfuStoreBrowserEditorMain {
                 } else {
                     log.error("Print metadata map for a specific address. Specify using tag --address");
                 }
+                break;
+            case printStreamSizes:
+                Preconditions.checkArgument(browser instanceof CorfuOfflineBrowserEditor,
+                        "printStreamSizes requires offline-db-dir.");
+                return ((CorfuOfflineBrowserEditor) browser).printStreamSizes();
+            case printLargestEntries:
+                Preconditions.checkArgument(browser instanceof CorfuOfflineBrowserEditor,
+                        "printLargestEntries requires offline-db-dir.");
+                numItems = 10;
+                if (opts.get("--numItems") != null) {
+                    numItems = Integer.parseInt(opts.get("--numItems").toString());
+                }
+                return ((CorfuOfflineBrowserEditor) browser).printLargestEntries(numItems);
             default:
                 break;
         }
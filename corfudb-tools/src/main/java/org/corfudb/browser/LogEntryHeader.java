@@ -0,0 +1,95 @@
+package org.corfudb.browser;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.corfudb.infrastructure.log.LogFormat;
+import org.corfudb.runtime.view.Address;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The fields of a log entry which are needed to index it: its address, type, streams and
+ * payload size. They are decoded from a serialized {@link LogFormat.LogEntry} without
+ * copying or deserializing its payload, so that a segment can be indexed at the speed it
+ * is read from disk.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class LogEntryHeader {
+
+    private final long address;
+
+    private final LogFormat.DataType dataType;
+
+    // The streams of the entry, which are the keys of its backpointer map
+    private final Set<UUID> streams;
+
+    // The size of the serialized payload of the entry
+    private final int payloadSize;
+
+    /**
+     * Decode the header of a serialized log entry.
+     *
+     * @param buf    the buffer which holds the serialized log entry
+     * @param offset the offset of the log entry in the buffer
+     * @param length the length of the log entry
+     * @return the header of the log entry
+     * @throws IOException if the log entry is malformed
+     */
+    public static LogEntryHeader decode(byte[] buf, int offset, int length) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(buf, offset, length);
+        long address = Address.NON_ADDRESS;
+        LogFormat.DataType dataType = LogFormat.DataType.DATA;
+        Set<UUID> streams = new HashSet<>();
+        int payloadSize = 0;
+
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case LogFormat.LogEntry.DATA_TYPE_FIELD_NUMBER:
+                    dataType = LogFormat.DataType.forNumber(input.readEnum());
+                    break;
+                case LogFormat.LogEntry.DATA_FIELD_NUMBER:
+                    payloadSize = input.readRawVarint32();
+                    input.skipRawBytes(payloadSize);
+                    break;
+                case LogFormat.LogEntry.GLOBAL_ADDRESS_FIELD_NUMBER:
+                    address = input.readInt64();
+                    break;
+                case LogFormat.LogEntry.BACKPOINTERS_FIELD_NUMBER:
+                    streams.add(readMapKey(input));
+                    break;
+                default:
+                    input.skipField(tag);
+            }
+        }
+
+        return new LogEntryHeader(address, dataType, streams, payloadSize);
+    }
+
+    /**
+     * Read the stream id key of a backpointer map entry.
+     */
+    private static UUID readMapKey(CodedInputStream input) throws IOException {
+        int limit = input.pushLimit(input.readRawVarint32());
+        String key = null;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (WireFormat.getTagFieldNumber(tag) == 1) {
+                key = input.readString();
+            } else {
+                input.skipField(tag);
+            }
+        }
+        input.popLimit(limit);
+
+        if (key == null) {
+            throw new IOException("Backpointer without a stream id");
+        }
+        return UUID.fromString(key);
+    }
+}
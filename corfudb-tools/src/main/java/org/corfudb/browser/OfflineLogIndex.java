@@ -0,0 +1,402 @@
+package org.corfudb.browser;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.corfudb.infrastructure.log.LogFormat;
+import org.corfudb.protocols.wireprotocol.LogData;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.corfudb.infrastructure.log.SegmentUtils.getLogData;
+
+/**
+ * An on-disk index of the log entries of a log directory, which maps each stream to the
+ * addresses and locations of its entries, so that the offline tools read the entries of a
+ * table without scanning and deserializing the whole log.
+ *
+ * Each segment file has its own index file, built by a parallel scan of the segment files which
+ * only decodes the headers of the entries (see {@link LogEntryHeader}). An index file is reused
+ * as long as its segment file is unchanged, so the log directory is only scanned once.
+ *
+ * An index file holds a header, with the size and modification time of its segment file and
+ * the number of entries and payload bytes of each stream, followed by the entries of each
+ * stream. Queries only read the headers and the entries of the streams they are interested in,
+ * and hold at most the entries of a segment in memory.
+ */
+@Slf4j
+public class OfflineLogIndex {
+
+    private static final int VERSION = 1;
+
+    private static final String INDEX_FILE_EXTENSION = ".idx";
+
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    // address, offset, length, payload size
+    private static final int RECORD_SIZE = Long.BYTES * 2 + Integer.BYTES * 2;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path logDir;
+
+    private final Path indexDir;
+
+    private final int parallelism;
+
+    /**
+     * The location and size of an indexed log entry.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class IndexRecord {
+        private final long address;
+        private final Path segment;
+        private final long offset;
+        private final int length;
+        private final int payloadSize;
+    }
+
+    /**
+     * The number of entries and payload bytes of a stream.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class StreamStats {
+        private long numEntries;
+        private long payloadBytes;
+
+        private void add(StreamStats other) {
+            numEntries += other.numEntries;
+            payloadBytes += other.payloadBytes;
+        }
+    }
+
+    /**
+     * The header of an index file.
+     */
+    @AllArgsConstructor
+    private static class SegmentIndex {
+        private final Path segment;
+        private final long segmentSize;
+        private final long segmentLastModified;
+        private final Map<UUID, StreamStats> streams;
+        private final long headerSize;
+    }
+
+    /**
+     * @param logDir      the log directory, whose segment files are indexed
+     * @param indexDir    the directory of the index files
+     * @param parallelism the number of segment files which are indexed in parallel
+     */
+    public OfflineLogIndex(Path logDir, Path indexDir, int parallelism) {
+        this.logDir = logDir;
+        this.indexDir = indexDir;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Index the segment files which have no index file, or whose index file is stale.
+     *
+     * @return the number of segment files which were indexed
+     */
+    public int build() {
+        long startTime = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(parallelism, 1),
+                new ThreadFactoryBuilder().setNameFormat("offline-index-%d").setDaemon(true).build());
+        try {
+            Files.createDirectories(indexDir);
+
+            List<Future<Boolean>> builds = new ArrayList<>();
+            for (Path segment : listSegments()) {
+                builds.add(executor.submit(() -> buildSegmentIndex(segment)));
+            }
+
+            int numIndexed = 0;
+            for (Future<Boolean> build : builds) {
+                if (build.get()) {
+                    numIndexed++;
+                }
+            }
+
+            log.info("Indexed {} of {} segment files of {} in {} ms", numIndexed, builds.size(), logDir,
+                    System.currentTimeMillis() - startTime);
+            return numIndexed;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) e.getCause());
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the segment files of the log directory ordered by their first address.
+     */
+    private List<Path> listSegments() {
+        Collection<File> files = FileUtils.listFiles(logDir.toFile(), new String[]{"log"}, true);
+        return files.stream()
+                .map(File::toPath)
+                .sorted(Comparator.comparingLong(OfflineLogIndex::getSegmentId)
+                        .thenComparing(Path::toString))
+                .collect(Collectors.toList());
+    }
+
+    private static long getSegmentId(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.indexOf('.')));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private Path getIndexFile(Path segment) {
+        String name = logDir.relativize(segment).toString().replace(File.separatorChar, '_');
+        return indexDir.resolve(name + INDEX_FILE_EXTENSION);
+    }
+
+    /**
+     * Index a segment file, unless it has an up-to-date index file.
+     *
+     * @return true if the segment file was indexed
+     */
+    private boolean buildSegmentIndex(Path segment) throws IOException {
+        long segmentSize = Files.size(segment);
+        long segmentLastModified = Files.getLastModifiedTime(segment).toMillis();
+        Path indexFile = getIndexFile(segment);
+        if (Files.exists(indexFile)) {
+            SegmentIndex index = readSegmentIndex(segment, indexFile);
+            if (index != null && index.segmentSize == segmentSize
+                    && index.segmentLastModified == segmentLastModified) {
+                return false;
+            }
+        }
+
+        Map<UUID, List<IndexRecord>> streams = new HashMap<>();
+        try (SegmentFileReader reader = new SegmentFileReader(segment)) {
+            reader.scan((offset, buf, length) -> {
+                LogEntryHeader header = LogEntryHeader.decode(buf, 0, length);
+                if (header.getDataType() != LogFormat.DataType.DATA) {
+                    return;
+                }
+                IndexRecord record = new IndexRecord(header.getAddress(), segment, offset, length,
+                        header.getPayloadSize());
+                for (UUID stream : header.getStreams()) {
+                    streams.computeIfAbsent(stream, id -> new ArrayList<>()).add(record);
+                }
+            });
+        }
+
+        // Write the index to a temporary file first, so that a partial index file is never used
+        Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + TEMP_EXTENSION);
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tempFile), BUFFER_SIZE))) {
+            output.writeInt(VERSION);
+            output.writeLong(segmentSize);
+            output.writeLong(segmentLastModified);
+            output.writeInt(streams.size());
+            for (Map.Entry<UUID, List<IndexRecord>> stream : streams.entrySet()) {
+                output.writeLong(stream.getKey().getMostSignificantBits());
+                output.writeLong(stream.getKey().getLeastSignificantBits());
+                output.writeLong(stream.getValue().size());
+                output.writeLong(stream.getValue().stream().mapToLong(IndexRecord::getPayloadSize).sum());
+            }
+            for (List<IndexRecord> records : streams.values()) {
+                for (IndexRecord record : records) {
+                    output.writeLong(record.getAddress());
+                    output.writeLong(record.getOffset());
+                    output.writeInt(record.getLength());
+                    output.writeInt(record.getPayloadSize());
+                }
+            }
+        }
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    /**
+     * Read the header of an index file.
+     *
+     * @return the header, or null if the index file has another version
+     */
+    private SegmentIndex readSegmentIndex(Path segment, Path indexFile) throws IOException {
+        try (DataInputStream input = openIndexFile(indexFile)) {
+            if (input.readInt() != VERSION) {
+                return null;
+            }
+            long segmentSize = input.readLong();
+            long segmentLastModified = input.readLong();
+            int numStreams = input.readInt();
+            Map<UUID, StreamStats> streams = new LinkedHashMap<>();
+            for (int i = 0; i < numStreams; i++) {
+                UUID stream = new UUID(input.readLong(), input.readLong());
+                streams.put(stream, new StreamStats(input.readLong(), input.readLong()));
+            }
+            long headerSize = Integer.BYTES * 2 + Long.BYTES * 2 + numStreams * Long.BYTES * 4L;
+            return new SegmentIndex(segment, segmentSize, segmentLastModified, streams, headerSize);
+        }
+    }
+
+    private static DataInputStream openIndexFile(Path indexFile) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile), BUFFER_SIZE));
+    }
+
+    /**
+     * Read the headers of the index files of all segment files, in address order.
+     */
+    private List<SegmentIndex> readSegmentIndexes() throws IOException {
+        List<SegmentIndex> indexes = new ArrayList<>();
+        for (Path segment : listSegments()) {
+            SegmentIndex index = readSegmentIndex(segment, getIndexFile(segment));
+            if (index == null) {
+                throw new IllegalStateException("Segment file " + segment + " is not indexed");
+            }
+            indexes.add(index);
+        }
+        return indexes;
+    }
+
+    /**
+     * Read the entries of the given streams in an index file.
+     */
+    private List<IndexRecord> readRecords(SegmentIndex index, Set<UUID> streams) throws IOException {
+        List<IndexRecord> records = new ArrayList<>();
+        try (DataInputStream input = openIndexFile(getIndexFile(index.segment))) {
+            IOUtils.skipFully(input, index.headerSize);
+            for (Map.Entry<UUID, StreamStats> stream : index.streams.entrySet()) {
+                long size = stream.getValue().getNumEntries() * RECORD_SIZE;
+                if (!streams.contains(stream.getKey())) {
+                    IOUtils.skipFully(input, size);
+                    continue;
+                }
+                for (long i = 0; i < stream.getValue().getNumEntries(); i++) {
+                    records.add(new IndexRecord(input.readLong(), index.segment, input.readLong(),
+                            input.readInt(), input.readInt()));
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Get the number of entries and payload bytes of each stream. Only the headers of the
+     * index files are read.
+     *
+     * @return the stats of each stream
+     */
+    public Map<UUID, StreamStats> getStreamStats() {
+        Map<UUID, StreamStats> stats = new HashMap<>();
+        try {
+            for (SegmentIndex index : readSegmentIndexes()) {
+                index.streams.forEach((stream, segmentStats) -> stats
+                        .computeIfAbsent(stream, id -> new StreamStats(0, 0))
+                        .add(segmentStats));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return stats;
+    }
+
+    /**
+     * Get the entries with the largest payloads, largest first.
+     *
+     * @param numEntries the number of entries to get
+     * @return the entries with the largest payloads
+     */
+    public List<IndexRecord> getLargestEntries(int numEntries) {
+        PriorityQueue<IndexRecord> largest = new PriorityQueue<>(
+                Comparator.comparingInt(IndexRecord::getPayloadSize));
+        try {
+            for (SegmentIndex index : readSegmentIndexes()) {
+                // An entry of several streams is indexed once for each of its streams
+                Set<Long> addresses = new HashSet<>();
+                for (IndexRecord record : readRecords(index, index.streams.keySet())) {
+                    if (!addresses.add(record.getAddress())) {
+                        continue;
+                    }
+                    largest.add(record);
+                    if (largest.size() > numEntries) {
+                        largest.poll();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<IndexRecord> result = new ArrayList<>(largest);
+        result.sort(Comparator.comparingInt(IndexRecord::getPayloadSize).reversed());
+        return result;
+    }
+
+    /**
+     * Read the entries of the given streams in address order. Only the segment files which have
+     * entries of the streams are read, and only those entries are deserialized.
+     *
+     * @param streams  the streams whose entries are read
+     * @param consumer the consumer of the entries
+     */
+    public void forEachEntry(Set<UUID> streams, Consumer<LogData> consumer) {
+        try {
+            for (SegmentIndex index : readSegmentIndexes()) {
+                if (index.streams.keySet().stream().noneMatch(streams::contains)) {
+                    continue;
+                }
+
+                TreeMap<Long, Integer> entries = new TreeMap<>();
+                for (IndexRecord record : readRecords(index, streams)) {
+                    entries.put(record.getOffset(), record.getLength());
+                }
+
+                TreeMap<Long, LogData> segmentEntries = new TreeMap<>();
+                try (SegmentFileReader reader = new SegmentFileReader(index.segment)) {
+                    reader.read(entries, entry -> segmentEntries.put(entry.getGlobalAddress(), getLogData(entry)));
+                }
+                segmentEntries.values().forEach(consumer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package org.corfudb.browser;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.apache.commons.io.IOUtils;
+import org.corfudb.common.compression.Codec;
+import org.corfudb.common.compression.ZSTDDictionaryCompression;
+import org.corfudb.infrastructure.log.LogFormat;
+import org.corfudb.infrastructure.log.Segment;
+import org.corfudb.runtime.exceptions.DataCorruptionException;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.function.Consumer;
+
+import static org.corfudb.infrastructure.log.Segment.METADATA_SIZE;
+import static org.corfudb.infrastructure.utils.Crc32c.getChecksum;
+
+/**
+ * Reads the log entries of a segment file for offline analysis, without going through a log unit.
+ *
+ * Both raw segments and block compressed segments are read. As in the index of a log unit
+ * segment, the offset of an entry is its offset in the file for a raw segment, and its offset
+ * in the sequence of decompressed blocks for a compressed segment. A scan reads the segment
+ * file sequentially through a large buffer, and hands out the serialized entries without
+ * verifying their payload checksums; the payloads of the entries which are read by offset
+ * are verified.
+ */
+public class SegmentFileReader implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Visits the serialized entries of a segment.
+     */
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(long offset, byte[] buf, int length) throws IOException;
+    }
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    // The header of the segment, or null if it was partially written
+    private final LogFormat.LogHeader header;
+
+    // The offset of the first record after the header
+    private final long dataOffset;
+
+    public SegmentFileReader(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.header = Segment.parseHeader(channel, path.toString());
+            this.dataOffset = channel.position();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public boolean isCompressed() {
+        return header != null && header.hasBlockCompression();
+    }
+
+    /**
+     * Visit all the completely written entries of the segment in file order.
+     *
+     * @param visitor the visitor of the entries
+     * @throws IOException if the segment can't be read
+     */
+    public void scan(EntryVisitor visitor) throws IOException {
+        if (header == null) {
+            return;
+        }
+
+        channel.position(dataOffset);
+        InputStream input = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+        if (!isCompressed()) {
+            scanRecords(input, dataOffset, visitor);
+            return;
+        }
+
+        Codec codec = Segment.getBlockCodec(header.getBlockCompression());
+        try {
+            long blockOffset = dataOffset;
+            byte[] compressed;
+            while ((compressed = readRecord(input)) != null) {
+                ByteBuffer block = codec.decompress(ByteBuffer.wrap(compressed));
+                byte[] blockBytes = new byte[block.remaining()];
+                block.get(blockBytes);
+                scanRecords(new ByteArrayInputStream(blockBytes), blockOffset, visitor);
+                blockOffset += blockBytes.length;
+            }
+        } finally {
+            if (codec instanceof ZSTDDictionaryCompression) {
+                ((ZSTDDictionaryCompression) codec).close();
+            }
+        }
+    }
+
+    /**
+     * Read the entries at the given offsets. A raw segment is read at the offsets of the entries,
+     * while a compressed segment is scanned for them.
+     *
+     * @param entries  the lengths of the entries to read, by their offsets
+     * @param consumer the consumer of the entries, which are consumed in file order
+     * @throws IOException if the segment can't be read
+     */
+    public void read(NavigableMap<Long, Integer> entries, Consumer<LogFormat.LogEntry> consumer)
+            throws IOException {
+        if (isCompressed()) {
+            scan((offset, buf, length) -> {
+                if (entries.containsKey(offset)) {
+                    consumer.accept(parseEntry(buf, length));
+                }
+            });
+            return;
+        }
+
+        for (Map.Entry<Long, Integer> entry : entries.entrySet()) {
+            ByteBuffer record = ByteBuffer.allocate(METADATA_SIZE + entry.getValue());
+            channel.position(entry.getKey() - METADATA_SIZE);
+            IOUtils.readFully(channel, record);
+
+            LogFormat.Metadata metadata = parseMetadata(record.array());
+            byte[] payload = new byte[entry.getValue()];
+            System.arraycopy(record.array(), METADATA_SIZE, payload, 0, payload.length);
+            if (metadata.getLength() != payload.length || metadata.getPayloadChecksum() != getChecksum(payload)) {
+                throw new DataCorruptionException("Checksum mismatch at offset " + entry.getKey()
+                        + ". Segment File: " + path);
+            }
+            consumer.accept(parseEntry(payload, payload.length));
+        }
+    }
+
+    private void scanRecords(InputStream input, long offset, EntryVisitor visitor) throws IOException {
+        byte[] metadataBytes = new byte[METADATA_SIZE];
+        byte[] buf = new byte[0];
+        while (IOUtils.read(input, metadataBytes) == METADATA_SIZE) {
+            LogFormat.Metadata metadata = parseMetadata(metadataBytes);
+            int length = metadata.getLength();
+            if (buf.length < length) {
+                buf = new byte[length];
+            }
+            if (IOUtils.read(input, buf, 0, length) < length) {
+                // The last entry was partially written
+                return;
+            }
+
+            visitor.visit(offset + METADATA_SIZE, buf, length);
+            offset += METADATA_SIZE + length;
+        }
+    }
+
+    /**
+     * Read the payload of the next record, or null if there is no completely written record.
+     */
+    private byte[] readRecord(InputStream input) throws IOException {
+        byte[] metadataBytes = new byte[METADATA_SIZE];
+        if (IOUtils.read(input, metadataBytes) < METADATA_SIZE) {
+            return null;
+        }
+        LogFormat.Metadata metadata = parseMetadata(metadataBytes);
+        byte[] payload = new byte[metadata.getLength()];
+        if (IOUtils.read(input, payload) < payload.length) {
+            return null;
+        }
+        if (metadata.getPayloadChecksum() != getChecksum(payload)) {
+            throw new DataCorruptionException("Invalid compressed block. Segment File: " + path);
+        }
+        return payload;
+    }
+
+    private LogFormat.Metadata parseMetadata(byte[] metadataBytes) {
+        LogFormat.Metadata metadata;
+        try {
+            metadata = LogFormat.Metadata.parseFrom(ByteBuffer.wrap(metadataBytes, 0, METADATA_SIZE));
+        } catch (InvalidProtocolBufferException e) {
+            throw new DataCorruptionException("Can't parse metadata. Segment File: " + path, e);
+        }
+        if (metadata.getLengthChecksum() != getChecksum(metadata.getLength())) {
+            throw new DataCorruptionException("Metadata: invalid length checksum. Segment File: " + path);
+        }
+        return metadata;
+    }
+
+    private LogFormat.LogEntry parseEntry(byte[] buf, int length) {
+        try {
+            return LogFormat.LogEntry.parseFrom(ByteBuffer.wrap(buf, 0, length));
+        } catch (InvalidProtocolBufferException e) {
+            throw new DataCorruptionException("Invalid entry. Segment File: " + path, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
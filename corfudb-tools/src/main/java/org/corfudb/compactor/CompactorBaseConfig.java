@@ -91,6 +91,10 @@ public class CompactorBaseConfig {
             builder.bulkReadSize(Integer.parseInt(bulkReadSizeStr));
         });
 
+        getOpt("--maxIncrementalCheckpoints").ifPresent(maxIncrementalCheckpointsStr -> {
+            builder.maxIncrementalCheckpoints(Integer.parseInt(maxIncrementalCheckpointsStr));
+        });
+
         builder.clientName(host);
         builder.systemDownHandlerTriggerLimit(SYSTEM_DOWN_HANDLER_TRIGGER_LIMIT)
                 .systemDownHandler(defaultSystemDownHandler);
@@ -128,6 +132,7 @@ public class CompactorBaseConfig {
                 "[--persistedCacheRoot=<pathToTempDirForLargeTables>] " +
                 "[--maxWriteSize=<maxWriteSizeLimit>] " +
                 "[--bulkReadSize=<bulkReadSize>] " +
+                "[--maxIncrementalCheckpoints=<maxIncrementalCheckpoints>] " +
                 "[--tlsEnabled=<tls_enabled>]";
 
         public static final String OPTIONS_PARAMS =
@@ -140,6 +145,8 @@ public class CompactorBaseConfig {
                 + "--persistedCacheRoot=<pathToTempDirForLargeTables> Path to Temp Dir\n"
                 + "--maxWriteSize=<maxWriteSize> Max write size smaller than 2GB\n"
                 + "--bulkReadSize=<bulkReadSize> Read size for chain replication\n"
+                + "--maxIncrementalCheckpoints=<maxIncrementalCheckpoints> Max incremental checkpoints between "
+                + "two full checkpoints of a table\n"
                 + "--tlsEnabled=<tls_enabled>";
     }
 }
@@ -0,0 +1,84 @@
+package org.corfudb.infrastructure;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import org.corfudb.runtime.CorfuStoreMetadata.TableName;
+import org.corfudb.runtime.view.Address;
+
+import java.util.Map;
+
+/**
+ * A snapshot of the workload signals which tell how much a compaction cycle would reclaim.
+ */
+@Value
+@Builder
+public class CompactionSignals {
+
+    /**
+     * Bytes used by the local log unit, or -1 if the log unit has no quota (in memory).
+     */
+    long quotaUsedBytes;
+
+    /**
+     * Quota limit of the local log unit, or -1 if the log unit has no quota.
+     */
+    long quotaLimitBytes;
+
+    /**
+     * The global tail of the log.
+     */
+    long globalTail;
+
+    /**
+     * The trim mark of the log.
+     */
+    long trimMark;
+
+    /**
+     * The address the log can be trimmed to when the next compaction cycle starts,
+     * or {@link Address#NON_ADDRESS} if the previous cycle didn't complete.
+     */
+    long trimAddress;
+
+    /**
+     * The growth of each table since the previous compaction cycle: the number of log addresses
+     * up to its last update, an upper bound of its updates, or 0 if it wasn't updated.
+     */
+    @NonNull
+    Map<TableName, Long> streamGrowth;
+
+    /**
+     * @return the fraction of the log unit quota which is used, or 0 if there is no quota
+     */
+    public double getQuotaUsage() {
+        if (quotaLimitBytes <= 0 || quotaUsedBytes < 0) {
+            return 0;
+        }
+        return (double) quotaUsedBytes / quotaLimitBytes;
+    }
+
+    /**
+     * Estimates the bytes the prefix trim of the next cycle reclaims, assuming all the
+     * addresses between the trim mark and the global tail have the same size.
+     *
+     * @return the estimated reclaimable bytes
+     */
+    public long getEstimatedReclaimableBytes() {
+        final long liveAddresses = globalTail - trimMark + 1;
+        if (quotaUsedBytes <= 0 || liveAddresses <= 0 || trimAddress < trimMark) {
+            return 0;
+        }
+        final long reclaimableAddresses = Math.min(trimAddress - trimMark + 1, liveAddresses);
+        return (long) ((double) quotaUsedBytes / liveAddresses * reclaimableAddresses);
+    }
+
+    /**
+     * The growth of the tables overlap, so they are not summed up.
+     *
+     * @return the largest growth of a table since the previous compaction cycle
+     */
+    public long getMaxStreamGrowth() {
+        return streamGrowth.values().stream().mapToLong(Long::longValue).max().orElse(0L);
+    }
+}
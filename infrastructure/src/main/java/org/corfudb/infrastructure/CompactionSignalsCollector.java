@@ -0,0 +1,113 @@
+package org.corfudb.infrastructure;
+
+import org.corfudb.infrastructure.log.FileSystemAgent;
+import org.corfudb.protocols.wireprotocol.TokenResponse;
+import org.corfudb.runtime.CompactorMetadataTables;
+import org.corfudb.runtime.CorfuCompactorManagement.CheckpointingStatus;
+import org.corfudb.runtime.CorfuCompactorManagement.CheckpointingStatus.StatusType;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.CorfuStoreMetadata.TableName;
+import org.corfudb.runtime.collections.CorfuStore;
+import org.corfudb.runtime.collections.TxnContext;
+import org.corfudb.runtime.proto.RpcCommon;
+import org.corfudb.runtime.view.Address;
+import org.corfudb.runtime.view.TableRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.corfudb.runtime.view.TableRegistry.CORFU_SYSTEM_NAMESPACE;
+
+/**
+ * Collects the {@link CompactionSignals} of the cluster: the quota usage of the local log unit,
+ * the trim mark and global tail of the log, and the growth of each table stream, which
+ * is measured from the stream tails of the sequencer.
+ */
+public class CompactionSignalsCollector {
+
+    private final Logger log;
+
+    public CompactionSignalsCollector() {
+        this.log = LoggerFactory.getLogger("compactor-leader");
+    }
+
+    /**
+     * Collect the compaction signals.
+     *
+     * @param corfuStore   - CorfuStore of the current runtime
+     * @param sinceAddress - the address from which (exclusive) the growth of the tables is counted, or
+     *                     {@link Address#NON_ADDRESS} to count it from the last checkpoint or trim mark
+     * @return the compaction signals
+     */
+    public CompactionSignals collect(CorfuStore corfuStore, long sinceAddress) {
+        CorfuRuntime runtime = corfuStore.getRuntime();
+        CompactionSignals.CompactionSignalsBuilder signals = CompactionSignals.builder()
+                .quotaUsedBytes(Address.NON_ADDRESS)
+                .quotaLimitBytes(Address.NON_ADDRESS);
+
+        try {
+            ResourceQuota quota = FileSystemAgent.getResourceQuota();
+            signals.quotaUsedBytes(quota.getUsed().get()).quotaLimitBytes(quota.getLimit());
+        } catch (IllegalStateException ise) {
+            log.trace("collect: no log unit quota, {}", ise.getMessage());
+        }
+
+        final long trimMark = runtime.getAddressSpaceView().getTrimMark().getSequence();
+        final long trimAddress = getTrimAddress(corfuStore);
+        final long growthStart = sinceAddress != Address.NON_ADDRESS
+                ? sinceAddress : Math.max(trimMark - 1, trimAddress);
+
+        return signals.globalTail(runtime.getSequencerView().query().getSequence())
+                .trimMark(trimMark)
+                .trimAddress(trimAddress)
+                .streamGrowth(getStreamGrowth(corfuStore, growthStart))
+                .build();
+    }
+
+    /**
+     * The address the log is trimmed to when the next cycle starts, see {@link TrimLog}.
+     */
+    private long getTrimAddress(CorfuStore corfuStore) {
+        try (TxnContext txn = corfuStore.txn(CORFU_SYSTEM_NAMESPACE)) {
+            CheckpointingStatus managerStatus = (CheckpointingStatus) txn.getRecord(
+                    CompactorMetadataTables.COMPACTION_MANAGER_TABLE_NAME,
+                    CompactorMetadataTables.COMPACTION_MANAGER_KEY).getPayload();
+            RpcCommon.TokenMsg trimToken = (RpcCommon.TokenMsg) txn.getRecord(
+                    CompactorMetadataTables.COMPACTION_CONTROLS_TABLE,
+                    CompactorMetadataTables.MIN_CHECKPOINT).getPayload();
+            txn.commit();
+            if (managerStatus != null && managerStatus.getStatus() == StatusType.COMPLETED && trimToken != null) {
+                return trimToken.getSequence();
+            }
+        }
+        return Address.NON_ADDRESS;
+    }
+
+    /**
+     * Get the growth of each table updated after sinceAddress: the number of log addresses between
+     * sinceAddress and the table's last update. It is an upper bound of the table's updates, which
+     * only needs the stream tails of the sequencer, queried in a single batch.
+     */
+    private Map<TableName, Long> getStreamGrowth(CorfuStore corfuStore, long sinceAddress) {
+        Map<UUID, TableName> tables = new HashMap<>();
+        for (TableName tableName : corfuStore.listTables(null)) {
+            tables.put(CorfuRuntime.getStreamID(TableRegistry.getFullyQualifiedTableName(tableName)), tableName);
+        }
+
+        Map<TableName, Long> streamGrowth = new HashMap<>();
+        if (tables.isEmpty()) {
+            return streamGrowth;
+        }
+        TokenResponse streamTails = corfuStore.getRuntime().getSequencerView()
+                .query(tables.keySet().toArray(new UUID[0]));
+        tables.forEach((streamId, tableName) -> {
+            Long streamTail = streamTails.getStreamTail(streamId);
+            streamGrowth.put(tableName, streamTail != null && streamTail > sinceAddress
+                    ? streamTail - sinceAddress : 0L);
+        });
+        return streamGrowth;
+    }
+}
@@ -1,9 +1,24 @@
 package org.corfudb.infrastructure;
 
+import org.corfudb.runtime.CorfuStoreMetadata.TableName;
 import org.corfudb.runtime.collections.CorfuStore;
 
+import java.util.Collections;
+import java.util.Map;
+
 public interface CompactionTriggerPolicy {
     boolean shouldTrigger(long interval, CorfuStore corfuStore) throws Exception;
 
     void markCompactionCycleStart();
+
+    /**
+     * Returns the checkpointing priority of the tables for the compaction cycle which is
+     * about to start. Tables of higher priority are checkpointed first.
+     *
+     * @param corfuStore - CorfuStore of the current runtime
+     * @return the priority of the tables, where a missing table has priority 0
+     */
+    default Map<TableName, Long> getTablePriorities(CorfuStore corfuStore) {
+        return Collections.emptyMap();
+    }
 }
@@ -20,7 +20,9 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.corfudb.infrastructure.health.Component.COMPACTOR;
 import static org.corfudb.infrastructure.health.Issue.IssueId.COMPACTION_CYCLE_FAILED;
@@ -74,6 +76,17 @@ public class CompactorLeaderServices {
      * @return compaction cycle start status
      */
     public LeaderInitStatus initCompactionCycle() {
+        return initCompactionCycle(Collections.emptyMap());
+    }
+
+    /**
+     * Trim and mark the start of the compaction cycle and populate CheckpointStatusTable
+     * with all the tables in the registry, along with the priority of each table.
+     *
+     * @param tablePriorities the checkpointing priority of the tables, 0 if absent
+     * @return compaction cycle start status
+     */
+    public LeaderInitStatus initCompactionCycle(Map<TableName, Long> tablePriorities) {
         long minAddressBeforeCycleStarts;
         log.info("=============Initiating Distributed Compaction============");
 
@@ -96,7 +109,10 @@ public class CompactorLeaderServices {
             txn.clear(CompactorMetadataTables.ACTIVE_CHECKPOINTS_TABLE_NAME);
             //Populate CheckpointingStatusTable
             for (TableName table : tableNames) {
-                txn.putRecord(compactorMetadataTables.getCheckpointingStatusTable(), table, idleStatus, null);
+                CheckpointingStatus tableStatus = idleStatus.toBuilder()
+                        .setPriority(tablePriorities.getOrDefault(table, 0L))
+                        .build();
+                txn.putRecord(compactorMetadataTables.getCheckpointingStatusTable(), table, tableStatus, null);
             }
 
             // Also record the minToken as the earliest token BEFORE checkpointing is initiated
@@ -219,6 +235,7 @@ public class CompactorLeaderServices {
 
             List<TableName> tableNames = new ArrayList<>(txn.keySet(compactorMetadataTables.getCheckpointingStatusTable()));
             finalStatus = StatusType.COMPLETED;
+            long minRetainAddress = Long.MAX_VALUE;
             for (TableName table : tableNames) {
                 CheckpointingStatus tableStatus = (CheckpointingStatus) txn.getRecord(
                         CompactorMetadataTables.CHECKPOINT_STATUS_TABLE_NAME, table).getPayload();
@@ -229,6 +246,12 @@ public class CompactorLeaderServices {
                     finalStatus = StatusType.FAILED;
                     break;
                 }
+                if (tableStatus.getRetainAddress() > 0) {
+                    minRetainAddress = Math.min(minRetainAddress, tableStatus.getRetainAddress());
+                }
+            }
+            if (finalStatus == StatusType.COMPLETED && minRetainAddress != Long.MAX_VALUE) {
+                retainCheckpoints(txn, minRetainAddress);
             }
             long totalTimeElapsed = System.currentTimeMillis() - managerStatus.getTimeTaken();
             txn.putRecord(compactorMetadataTables.getCompactionManagerTable(), CompactorMetadataTables.COMPACTION_MANAGER_KEY,
@@ -259,6 +282,21 @@ public class CompactorLeaderServices {
         }
     }
 
+    /**
+     * Incremental checkpoints need the checkpoints they are based on, so the trim address of the
+     * cycle is lowered below the earliest of these checkpoints.
+     */
+    private void retainCheckpoints(TxnContext txn, long minRetainAddress) {
+        RpcCommon.TokenMsg minCheckpoint = (RpcCommon.TokenMsg) txn.getRecord(
+                CompactorMetadataTables.COMPACTION_CONTROLS_TABLE, CompactorMetadataTables.MIN_CHECKPOINT).getPayload();
+        if (minCheckpoint != null && minCheckpoint.getSequence() >= minRetainAddress) {
+            log.info("Lower trim address from {} to {} to retain the base of incremental checkpoints",
+                    minCheckpoint.getSequence(), minRetainAddress - 1);
+            txn.putRecord(compactorMetadataTables.getCompactionControlsTable(), CompactorMetadataTables.MIN_CHECKPOINT,
+                    minCheckpoint.toBuilder().setSequence(minRetainAddress - 1).build(), null);
+        }
+    }
+
     private void deleteInstantKeyIfPresent() {
         for (int i = 0; i < MAX_RETRIES; i++) {
             try (TxnContext txn = corfuStore.txn(CORFU_SYSTEM_NAMESPACE)) {
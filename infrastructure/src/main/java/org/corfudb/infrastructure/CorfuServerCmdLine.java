@@ -36,6 +36,10 @@ public class CorfuServerCmdLine {
                     + "[--base-server-threads=<base_server_threads>] "
                     + "[--log-size-quota-percentage=<max_log_size_percentage>]"
                     + "[--reserved-space-bytes=<reserved_space_bytes>]"
+                    + "[--log-segment-max-bytes=<log_segment_max_bytes>]"
+                    + "[--compress-cold-segments]"
+                    + "[--log-tier=<log_tier_uri> [--log-tier-offload-age=<seconds>] "
+                    + "[--log-tier-cache-segments=<count>]]"
                     + "[--logunit-threads=<logunit_threads>] [--management-server-threads=<management_server_threads>]"
                     + "[-e [-u <keystore> -f <keystore_password_file>] [-r <truststore> -w <truststore_password_file>] "
                     + "[-b] [-g -o <username_file> -j <password_file>] "
@@ -47,11 +51,14 @@ public class CorfuServerCmdLine {
                     + "[" + HEALTH_PORT_PARAM + "=<health_port>]"
                     + "[--snapshot-batch=<batch-size>] [--lock-lease=<lease-duration>]"
                     + "[--max-snapshot-entries-applied=<max-snapshot-entries-applied>]"
-                    + "[-P <prefix>] [-R <retention>] <port>"
+                    + "[--max-log-entry-apply-size=<max-log-entry-apply-size>]"
+                    + "[--log-replication-pass-through]"
+                    + "[--busy-poll=<micros>] [-P <prefix>] [-R <retention>] [--metadata-wal] <port>"
                     + "[--compaction-trigger-freq-ms=<compaction_trigger_freq_ms>]"
                     + "[--compactor-script=<compactor_script_path>]"
                     + "[--compactor-config=<compactor_config_path>]"
-                    + "[--run-compactor-as-root]\n"
+                    + "[--run-compactor-as-root]"
+                    + "[--workload-aware-compaction]\n"
                     + "\n"
                     + "Options:\n"
                     + " -l <path>, --log-path=<path>                                             "
@@ -77,8 +84,11 @@ public class CorfuServerCmdLine {
                     + " --network-interface-version=<interface-version>                "
                     + "              The version of the network interface, IPv4 or IPv6(default).\n"
                     + " -i <channel-implementation>, --implementation <channel-implementation>   "
-                    + "              The type of channel to use (auto, nio, epoll, kqueue)"
-                    + "[default: nio].\n"
+                    + "              The type of channel to use (auto, nio, epoll, kqueue). A native"
+                    + " channel type which is not available falls back to nio [default: nio].\n"
+                    + " --busy-poll=<micros>                                                     "
+                    + "              The SO_BUSY_POLL timeout in microseconds of epoll channels, or 0"
+                    + " to disable busy polling [default: 0].\n"
                     + " -m, --memory                                                             "
                     + "              Run the unit in-memory (non-persistent).\n"
                     + "              Data will be lost when the server exits!\n"
@@ -104,6 +114,9 @@ public class CorfuServerCmdLine {
                     + " -R <retention>, --metadata-retention=<retention>                         "
                     + "              Maximum number of system reconfigurations (i.e. layouts)    "
                     + "retained for debugging purposes [default: 1000].\n"
+                    + " --metadata-wal                                                           "
+                    + "              Store the server metadata in a single write-ahead log instead"
+                    + " of one file per key. Existing metadata files are migrated on first start.\n"
                     + " -p <seconds>, --compact=<seconds>                                        "
                     + "              The rate the log unit should compact entries (find the,\n"
                     + "                                                                          "
@@ -158,6 +171,22 @@ public class CorfuServerCmdLine {
                     + " --reserved-space-bytes=<reserved_space_bytes>                              "
                     + "              The reserved space that does not belong to                  "
                     + "              corfu's use [default: 0].\n                               "
+                    + " --log-segment-max-bytes=<log_segment_max_bytes>                          "
+                    + "              The size of a log segment file after which new writes go   "
+                    + "              to a new segment file, 0 to only roll over by address     "
+                    + "              count [default: 0].\n                                     "
+                    + " --compress-cold-segments                                                 "
+                    + "              Rewrite the log segments whose addresses are all committed "
+                    + "              as compressed blocks.\n                                      "
+                    + " --log-tier=<log_tier_uri>                                                "
+                    + "              Offload the log segments whose addresses are all committed "
+                    + "              to a secondary tier: file:///<directory>.\n               "
+                    + " --log-tier-offload-age=<seconds>                                         "
+                    + "              The age of a committed log segment after which it is       "
+                    + "              offloaded [default: 3600].\n                               "
+                    + " --log-tier-cache-segments=<count>                                        "
+                    + "              The number of offloaded log segments cached locally to     "
+                    + "              serve reads [default: 8].\n                                 "
                     + "                                                                          "
                     + " --compaction-trigger-freq-ms=<compaction_trigger_freq_ms>                "
                     + "               Frequency at which data will be trimmed & checkpointed\n   "
@@ -170,6 +199,10 @@ public class CorfuServerCmdLine {
                     + " --run-compactor-as-root                                               "
                     + "               To execute the compactor runner as a root user           \n"
                     + "                                                                          "
+                    + " --workload-aware-compaction                                              "
+                    + "               Trigger compaction early on log unit quota usage, reclaimable\n"
+                    + "               bytes and table updates, and checkpoint the busiest tables first\n"
+                    + "                                                                          "
                     + " --management-server-threads=<management_server_threads>                  "
                     + "              Number of threads dedicated for the management server [default: 4].\n"
                     + "                                                                          "
@@ -195,6 +228,11 @@ public class CorfuServerCmdLine {
                     + " --max-snapshot-entries-applied=<max-snapshot-entries-applied>            "
                     + "              Max number of entries applied in a snapshot transaction.  50 by default."
                     + "              For special tables only\n.                                  "
+                    + " --max-log-entry-apply-size=<max-log-entry-apply-size>                    "
+                    + "              Max size in bytes of the log entries applied in a single transaction\n"
+                    + "              during log entry sync.  0 (default) applies each entry separately.\n "
+                    + " --log-replication-pass-through                                           "
+                    + "              Forward and apply replicated SMR entries without deserializing them.\n "
                     + " -h, --help                                                               "
                     + "              Show this screen\n"
                     + " --version                                                                "
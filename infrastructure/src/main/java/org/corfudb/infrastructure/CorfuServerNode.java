@@ -197,7 +197,6 @@ public class CorfuServerNode implements AutoCloseable {
         }
 
         log.info("close: Shutting down Corfu server and cleaning resources");
-        serverContext.close();
         if (bindFuture != null) {
             bindFuture.channel().close().syncUninterruptibly();
         }
@@ -228,6 +227,8 @@ public class CorfuServerNode implements AutoCloseable {
 
         CompletableFuture.allOf(shutdownFutures).join();
         shutdownService.shutdown();
+        // The servers may persist their state while shutting down
+        serverContext.close();
         // If it's the server who initialized the registry - shut it down
         MeterRegistryProvider.getMetricType().ifPresent(type -> {
             if (type == MeterRegistryProvider.MetricType.SERVER) {
@@ -338,6 +339,9 @@ public class CorfuServerNode implements AutoCloseable {
                 .childOption(ChannelOption.SO_REUSEADDR, true)
                 .childOption(ChannelOption.TCP_NODELAY, true)
                 .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+        serverContext.getChannelImplementation()
+                .getTransportOptions(serverContext.getBusyPollMicros())
+                .forEach(bootstrap::childOption);
     }
 
 
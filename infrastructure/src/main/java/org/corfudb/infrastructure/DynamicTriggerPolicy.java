@@ -1,5 +1,7 @@
 package org.corfudb.infrastructure;
 
+import lombok.AccessLevel;
+import lombok.Getter;
 import org.corfudb.runtime.CompactorMetadataTables;
 import org.corfudb.runtime.DistributedCheckpointerHelper;
 import org.corfudb.runtime.collections.CorfuStore;
@@ -16,8 +18,9 @@ public class DynamicTriggerPolicy implements CompactionTriggerPolicy {
     /**
      * What time did the previous cycle start
      */
+    @Getter(AccessLevel.PROTECTED)
     private long lastCompactionCycleStartTS;
-    private final Logger log;
+    protected final Logger log;
 
     public DynamicTriggerPolicy() {
         this.lastCompactionCycleStartTS = System.currentTimeMillis();
@@ -68,6 +71,18 @@ public class DynamicTriggerPolicy implements CompactionTriggerPolicy {
             return true;
         }
 
+        return shouldTriggerOnSchedule(interval, corfuStore);
+    }
+
+    /**
+     * Returns true if it has been interval time since the previous trigger. Called when
+     * compaction is neither disabled, frozen nor force triggered.
+     *
+     * @param interval   - trigger interval in ms
+     * @param corfuStore - CorfuStore of the current runtime
+     * @return true if compaction cycle should run, false otherwise
+     */
+    protected boolean shouldTriggerOnSchedule(long interval, CorfuStore corfuStore) throws Exception {
         final long currentTime = System.currentTimeMillis();
         final long timeSinceLastCycleMillis = currentTime - lastCompactionCycleStartTS;
 
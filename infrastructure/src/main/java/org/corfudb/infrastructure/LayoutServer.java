@@ -512,9 +512,8 @@ public class LayoutServer extends AbstractServer {
      * @param layout layout to set
      */
     public void setCurrentLayout(Layout layout) {
-        serverContext.setCurrentLayout(layout);
-        // set the layout in history as well
-        setLayoutInHistory(layout);
+        // set the layout in history as well, in the same data store update
+        serverContext.setCurrentLayoutWithHistory(layout);
     }
 
     /**
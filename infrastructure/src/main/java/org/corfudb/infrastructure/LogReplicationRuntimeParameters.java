@@ -204,6 +204,11 @@ public class LogReplicationRuntimeParameters extends RuntimeParameters {
             return this;
         }
 
+        public LogReplicationRuntimeParameters.LogReplicationRuntimeParametersBuilder nettyBusyPollMicros(int nettyBusyPollMicros) {
+            super.nettyBusyPollMicros(nettyBusyPollMicros);
+            return this;
+        }
+
         public LogReplicationRuntimeParameters.LogReplicationRuntimeParametersBuilder customNettyChannelOptions(Map<ChannelOption, Object> customNettyChannelOptions) {
             super.customNettyChannelOptions(customNettyChannelOptions);
             return this;
@@ -247,6 +252,7 @@ public class LogReplicationRuntimeParameters extends RuntimeParameters {
             runtimeParameters.setNettyEventLoopThreadFormat(nettyEventLoopThreadFormat);
             runtimeParameters.setNettyEventLoopThreads(nettyEventLoopThreads);
             runtimeParameters.setShutdownNettyEventLoop(shutdownNettyEventLoop);
+            runtimeParameters.setNettyBusyPollMicros(nettyBusyPollMicros);
             runtimeParameters.setCustomNettyChannelOptions(customNettyChannelOptions);
             runtimeParameters.setUncaughtExceptionHandler(uncaughtExceptionHandler);
             runtimeParameters.setSystemDownHandler(systemDownHandler);
@@ -15,6 +15,7 @@ import org.corfudb.runtime.view.Layout;
 import org.corfudb.util.concurrent.SingletonResource;
 
 import java.time.Duration;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -155,8 +156,13 @@ public class ManagementAgent {
             HealthMonitor.reportIssue(Issue.createInitIssue(Component.COMPACTOR));
         }
 
+        final CompactionTriggerPolicy triggerPolicy = Optional.ofNullable(
+                serverContext.getServerConfig(Boolean.class, "--workload-aware-compaction"))
+                .filter(Boolean::booleanValue)
+                .<CompactionTriggerPolicy>map(enabled -> new WorkloadAwareTriggerPolicy())
+                .orElseGet(DynamicTriggerPolicy::new);
         this.compactorService = new CompactorService(serverContext, TRIGGER_INTERVAL,
-                new InvokeCheckpointingJvm(serverContext), new DynamicTriggerPolicy());
+                new InvokeCheckpointingJvm(serverContext), triggerPolicy);
 
         // Creating the initialization task thread.
         // This thread pool is utilized to dispatch one time recovery and sequencer bootstrap tasks.
@@ -10,7 +10,9 @@ import lombok.Builder;
 import lombok.Builder.Default;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.corfudb.common.metrics.micrometer.MicroMeterUtils;
+import org.corfudb.common.metrics.micrometer.MeterHandles;
+import org.corfudb.common.metrics.micrometer.SummaryHandle;
+import org.corfudb.common.metrics.micrometer.TimerHandle;
 import org.corfudb.infrastructure.SequencerServerCache.ConflictTxStream;
 import org.corfudb.infrastructure.health.Component;
 import org.corfudb.infrastructure.health.HealthMonitor;
@@ -41,7 +43,6 @@ import org.corfudb.util.Utils;
 
 import javax.annotation.Nonnull;
 import java.lang.invoke.MethodHandles;
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -68,6 +69,7 @@ import static org.corfudb.protocols.service.CorfuProtocolMessage.getResponseMsg;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getBootstrapSequencerResponseMsg;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getSequencerMetricsResponseMsg;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getSequencerTrimResponseMsg;
+import static org.corfudb.protocols.service.CorfuProtocolSequencer.getStreamsSubscriptionResponseMsg;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getTokenResponseMsg;
 
 /**
@@ -158,12 +160,24 @@ public class SequencerServer extends AbstractServer {
 
     private final ExecutorService executor;
 
+    /**
+     * Pushes address notifications to the clients subscribed to streams
+     */
+    private final StreamNotificationPublisher notificationPublisher;
+
     private final ScheduledExecutorService healthReportScheduler;
 
     private static final int INIT_DELAY = 0;
     private static final int DELAY_NUM = 1;
     private static final TimeUnit DELAY_UNITS = SECONDS;
 
+    private static final TimerHandle loopLatencyTimer = MeterHandles.timer("sequencer.loop.latency");
+
+    private static final TimerHandle txResolutionTimer = MeterHandles.timer("sequencer.tx-resolution.timer");
+
+    private static final SummaryHandle txResolutionNumStreams =
+            MeterHandles.summary("sequencer.tx-resolution.num_streams");
+
     /**
      * - {@link SequencerServer::globalLogTail}:
      * global log first available position (initially, 0).
@@ -204,6 +218,8 @@ public class SequencerServer extends AbstractServer {
 
         // Sequencer server is single threaded by current design
         executor = serverContext.getExecutorService(1, "sequencer-");
+        notificationPublisher = new StreamNotificationPublisher(
+                serverContext.getExecutorService(1, "sequencer-notifier-"));
 
         globalLogTail = sequencerFactoryHelper.getGlobalLogTail();
         cache = sequencerFactoryHelper.getSequencerServerCache(
@@ -220,10 +236,10 @@ public class SequencerServer extends AbstractServer {
     @Override
     protected void processRequest(RequestMsg req, ChannelHandlerContext ctx, IServerRouter r) {
         // Capture total cost: queueing delay + handler cost
-        long start = System.nanoTime();
+        long start = loopLatencyTimer.start();
         executor.submit(() -> {
             getHandlerMethods().handle(req, ctx, r);
-            MicroMeterUtils.time(Duration.ofNanos(System.nanoTime() - start), "sequencer.loop.latency");
+            loopLatencyTimer.stop(start);
         });
     }
 
@@ -260,6 +276,7 @@ public class SequencerServer extends AbstractServer {
     public void shutdown() {
         super.shutdown();
         executor.shutdown();
+        notificationPublisher.shutdown();
         healthReportScheduler.shutdown();
         HealthMonitor.reportIssue(Issue.createInitIssue(Component.SEQUENCER));
     }
@@ -352,7 +369,7 @@ public class SequencerServer extends AbstractServer {
             return new TxResolutionResponse(TokenType.TX_ABORT_SEQ_OVERFLOW);
         }
 
-        MicroMeterUtils.measure(txInfo.getConflictSet().size(), "sequencer.tx-resolution.num_streams");
+        txResolutionNumStreams.record(txInfo.getConflictSet().size());
         for (Map.Entry<UUID, Set<byte[]>> conflictStream : txInfo.getConflictSet().entrySet()) {
 
             // if conflict-parameters are present, check for conflict based on conflict-parameter updates
@@ -691,7 +708,7 @@ public class SequencerServer extends AbstractServer {
         Supplier<TxResolutionResponse> txResponseSupplier =
                 () -> txnCanCommit(getTxResolutionInfo(tokenRequest.getTxnResolution()));
         TxResolutionResponse txResolutionResponse =
-                MicroMeterUtils.time(txResponseSupplier, "sequencer.tx-resolution.timer");
+                txResolutionTimer.record(txResponseSupplier);
 
         if (txResolutionResponse.getTokenType() != TokenType.NORMAL) {
             // If the txn aborts, then DO NOT hand out a token.
@@ -787,6 +804,9 @@ public class SequencerServer extends AbstractServer {
         Token newToken = new Token(sequencerEpoch, globalLogTail);
         globalLogTail = newTail;
 
+        // let subscribed clients know about the newly allocated addresses
+        notificationPublisher.publish(sequencerEpoch, newTail - 1, tokenRequest.getStreamsList());
+
         // Note: we reuse the request header as the ignore_cluster_id and
         // ignore_epoch fields are the same in both cases.
         ResponseMsg response = getResponseMsg(
@@ -843,6 +863,31 @@ public class SequencerServer extends AbstractServer {
         r.sendResponse(response, ctx);
     }
 
+    /**
+     * This method handles a streams subscription request. The client will be pushed address
+     * notifications for the requested streams as tokens are allocated on them, until the
+     * subscription is replaced or the channel is closed.
+     * <p>
+     * The response contains the global log tail at the time of the subscription.
+     */
+    @RequestHandler(type = PayloadCase.STREAMS_SUBSCRIPTION_REQUEST)
+    public void handleStreamsSubscriptionRequest(@Nonnull RequestMsg req,
+                                                 @Nonnull ChannelHandlerContext ctx,
+                                                 @Nonnull IServerRouter r) {
+        Set<UUID> streams = req.getPayload().getStreamsSubscriptionRequest().getStreamsList()
+                .stream()
+                .map(CorfuProtocolCommon::getUUID)
+                .collect(Collectors.toSet());
+
+        notificationPublisher.subscribe(getHeaderMsg(req.getHeader()), streams, ctx, r);
+
+        // Note: we reuse the request header as the ignore_cluster_id and
+        // ignore_epoch fields are the same in both cases.
+        ResponseMsg response = getResponseMsg(getHeaderMsg(req.getHeader()),
+                getStreamsSubscriptionResponseMsg(globalLogTail));
+        r.sendResponse(response, ctx);
+    }
+
     /**
      * Return the address space for each stream in the requested ranges.
      *
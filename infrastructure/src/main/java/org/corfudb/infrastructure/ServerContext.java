@@ -32,7 +32,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.corfudb.comm.ChannelImplementation;
 import org.corfudb.common.config.ConfigParamNames;
 import org.corfudb.infrastructure.datastore.DataStore;
+import org.corfudb.infrastructure.datastore.KvDataStore;
+import org.corfudb.infrastructure.datastore.KvDataStore.KvEntry;
 import org.corfudb.infrastructure.datastore.KvDataStore.KvRecord;
+import org.corfudb.infrastructure.datastore.WalDataStore;
 import org.corfudb.infrastructure.paxos.PaxosDataStore;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
@@ -125,7 +128,7 @@ public class ServerContext implements AutoCloseable {
     private final Map<String, Object> serverConfig;
 
     @Getter
-    private final DataStore dataStore;
+    private final KvDataStore dataStore;
 
     @Getter
     @Setter
@@ -160,7 +163,7 @@ public class ServerContext implements AutoCloseable {
      */
     public ServerContext(Map<String, Object> serverConfig) {
         this.serverConfig = serverConfig;
-        this.dataStore = new DataStore(serverConfig, this::dataStoreFileCleanup);
+        this.dataStore = createDataStore(serverConfig);
         generateNodeId();
         this.failureHandlerPolicy = new ConservativeFailureHandlerPolicy();
 
@@ -186,6 +189,20 @@ public class ServerContext implements AutoCloseable {
         log.debug("ServerContext: LocalEndpoint set as " + localEndpoint);
     }
 
+    /**
+     * Create the metadata store of this server: the write-ahead log backed store if it was
+     * enabled (persistent mode only), otherwise the store with one file per key.
+     */
+    private KvDataStore createDataStore(Map<String, Object> serverConfig) {
+        boolean inMemory = Boolean.TRUE.equals(serverConfig.get("--memory"))
+                || !serverConfig.containsKey("--log-path");
+        if (!inMemory && Boolean.TRUE.equals(serverConfig.get("--metadata-wal"))) {
+            return new WalDataStore((String) serverConfig.get("--log-path"), getDsFilePrefixesForCleanup(),
+                    Integer.parseInt((String) serverConfig.get("--metadata-retention")));
+        }
+        return new DataStore(serverConfig, this::dataStoreFileCleanup);
+    }
+
     int getBaseServerThreadCount() {
         Optional<String> threadCount = getServerConfig("--base-server-threads");
         return threadCount.map(Integer::parseInt).orElse(1);
@@ -307,6 +324,23 @@ public class ServerContext implements AutoCloseable {
         return val == null ? DEFAULT_MAX_SNAPSHOT_ENTRIES_APPLIED : Integer.parseInt(val);
     }
 
+    /**
+     * Get the max size of the log entries coalesced in a single transaction by LR's Sink.
+     * @return max size in bytes, 0 if log entries are not coalesced
+     */
+    public int getMaxLogEntryApplySize() {
+        String val = getServerConfig(String.class, "--max-log-entry-apply-size");
+        return val == null ? 0 : Integer.parseInt(val);
+    }
+
+    /**
+     * Whether LR passes the SMR entries of the replicated streams through without deserializing them.
+     * @return true if pass-through is enabled
+     */
+    public boolean isLogReplicationPassThrough() {
+        return Boolean.TRUE.equals(serverConfig.get("--log-replication-pass-through"));
+    }
+
     /**
      * Cleanup the DataStore files with names that are prefixes of the specified
      * fileName when so that the number of these files don't exceed the user-defined
@@ -351,13 +385,36 @@ public class ServerContext implements AutoCloseable {
     }
 
     /**
-     * Get the {@link ChannelImplementation} to use.
+     * Get the {@link ChannelImplementation} to use. A native implementation which is not
+     * available on this platform falls back to NIO.
      *
      * @return The server channel type.
      */
     public ChannelImplementation getChannelImplementation() {
         final String type = getServerConfig(String.class, "--implementation");
-        return ChannelImplementation.valueOf(type.toUpperCase());
+        return ChannelImplementation.valueOf(type.toUpperCase()).resolve();
+    }
+
+    /**
+     * Get the {@link ChannelImplementation} of the runtimes created by this server, which
+     * matches the type of its client event loops. Provided (test) event loops use NIO.
+     *
+     * @return The client channel type.
+     */
+    public ChannelImplementation getClientChannelImplementation() {
+        final ChannelImplementation implementation = getChannelImplementation();
+        return implementation == ChannelImplementation.LOCAL ? ChannelImplementation.NIO : implementation;
+    }
+
+    /**
+     * Get the SO_BUSY_POLL timeout of the server channels, which only applies to EPOLL.
+     *
+     * @return The busy poll timeout in microseconds, or 0 if busy polling is disabled.
+     */
+    public int getBusyPollMicros() {
+        return Optional.ofNullable(getServerConfig(String.class, "--busy-poll"))
+                .map(Integer::parseInt)
+                .orElse(0);
     }
 
     /**
@@ -375,6 +432,8 @@ public class ServerContext implements AutoCloseable {
                 .priorityLevel(PriorityLevel.HIGH)
                 .nettyEventLoop(clientGroup)
                 .shutdownNettyEventLoop(false)
+                .socketType(getClientChannelImplementation())
+                .nettyBusyPollMicros(getBusyPollMicros())
                 .tlsEnabled((Boolean) serverConfig.get("--enable-tls"))
                 .keyStore((String) serverConfig.get(ConfigParamNames.KEY_STORE))
                 .ksPasswordFile((String) serverConfig.get(ConfigParamNames.KEY_STORE_PASS_FILE))
@@ -537,6 +596,18 @@ public class ServerContext implements AutoCloseable {
         getDataStore().put(CURR_LAYOUT_RECORD, layout);
     }
 
+    /**
+     * Set the current {@link Layout} and add it to the layout history in a single update.
+     *
+     * @param layout The {@link Layout} to set in the {@link DataStore}.
+     */
+    public void setCurrentLayoutWithHistory(Layout layout) {
+        getDataStore().putAll(Arrays.asList(
+                KvEntry.of(CURR_LAYOUT_RECORD, layout),
+                KvEntry.of(getLayoutHistoryRecord(layout), layout)
+        ));
+    }
+
     /**
      * Get the list of servers registered in serverRouter
      *
@@ -572,10 +643,11 @@ public class ServerContext implements AutoCloseable {
     }
 
     public void setLayoutInHistory(Layout layout) {
-        KvRecord<Layout> currLayoutRecord = KvRecord.of(
-                PREFIX_LAYOUTS, String.valueOf(layout.getEpoch()), Layout.class
-        );
-        dataStore.put(currLayoutRecord, layout);
+        dataStore.put(getLayoutHistoryRecord(layout), layout);
+    }
+
+    private static KvRecord<Layout> getLayoutHistoryRecord(Layout layout) {
+        return KvRecord.of(PREFIX_LAYOUTS, String.valueOf(layout.getEpoch()), Layout.class);
     }
 
     /**
@@ -748,5 +820,9 @@ public class ServerContext implements AutoCloseable {
                     TimeUnit.MILLISECONDS
             );
         }
+
+        if (dataStore instanceof WalDataStore) {
+            ((WalDataStore) dataStore).close();
+        }
     }
 }
@@ -0,0 +1,168 @@
+package org.corfudb.infrastructure;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.common.metrics.micrometer.MicroMeterUtils;
+import org.corfudb.runtime.proto.RpcCommon.UuidMsg;
+import org.corfudb.runtime.proto.service.CorfuMessage.HeaderMsg;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.corfudb.protocols.CorfuProtocolCommon.getUUID;
+import static org.corfudb.protocols.service.CorfuProtocolMessage.getResponseMsg;
+import static org.corfudb.protocols.service.CorfuProtocolSequencer.getStreamsAddressNotificationMsg;
+
+/**
+ * Pushes stream address notifications to the clients that subscribed to a set of streams
+ * (usually stream tags). The sequencer hands over every allocation, while matching allocations
+ * against subscriptions and sending the notifications happens on a separate thread, so that
+ * the single threaded sequencer is not slowed down by the number of subscribers.
+ *
+ * <p>Allocations that accumulate while a fan-out is in progress are coalesced, i.e., a client
+ * receives at most one notification per fan-out with the last allocated address of each of its
+ * streams. Notifications are hints, clients still discover the actual addresses (and trim marks)
+ * through STREAMS_ADDRESS requests.
+ */
+@Slf4j
+public class StreamNotificationPublisher {
+
+    @Data
+    private static class SubscriberKey {
+        private final ChannelHandlerContext ctx;
+        private final UuidMsg clientId;
+    }
+
+    @AllArgsConstructor
+    private static class Subscriber {
+        // Header of the subscription request, reused for the notifications
+        private final HeaderMsg header;
+        private final Set<UUID> streams;
+        private final ChannelHandlerContext ctx;
+        private final IServerRouter router;
+    }
+
+    @AllArgsConstructor
+    private static class Allocation {
+        private final long epoch;
+        private final long lastAddress;
+        private final List<UuidMsg> streams;
+    }
+
+    private final Map<SubscriberKey, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    private final Queue<Allocation> pendingAllocations = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean fanOutScheduled = new AtomicBoolean(false);
+
+    private final ExecutorService executor;
+
+    public StreamNotificationPublisher(@Nonnull ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Register (or replace) the subscription of the client that sent the request.
+     *
+     * @param header  header of the subscription request
+     * @param streams streams to notify the client about, an empty set removes the subscription
+     * @param ctx     channel the notifications are pushed to
+     * @param router  server router used to send the notifications
+     */
+    public void subscribe(@Nonnull HeaderMsg header, @Nonnull Set<UUID> streams,
+                          @Nonnull ChannelHandlerContext ctx, @Nonnull IServerRouter router) {
+        SubscriberKey key = new SubscriberKey(ctx, header.getClientId());
+        if (streams.isEmpty()) {
+            subscribers.remove(key);
+        } else {
+            subscribers.put(key, new Subscriber(header, streams, ctx, router));
+        }
+        log.trace("subscribe: client {} subscribed to {} streams, {} subscribers", header.getClientId(),
+                streams.size(), subscribers.size());
+    }
+
+    /**
+     * Called by the sequencer every time tokens are allocated on a set of streams.
+     *
+     * @param epoch       sequencer epoch of the allocation
+     * @param lastAddress last allocated address
+     * @param streams     streams the tokens were allocated on
+     */
+    public void publish(long epoch, long lastAddress, @Nonnull List<UuidMsg> streams) {
+        if (subscribers.isEmpty() || streams.isEmpty()) {
+            return;
+        }
+
+        pendingAllocations.add(new Allocation(epoch, lastAddress, streams));
+        if (fanOutScheduled.compareAndSet(false, true)) {
+            executor.submit(this::fanOut);
+        }
+    }
+
+    private void fanOut() {
+        fanOutScheduled.set(false);
+
+        long epoch = -1L;
+        Map<UUID, Long> streamTails = new HashMap<>();
+        Allocation allocation;
+        while ((allocation = pendingAllocations.poll()) != null) {
+            epoch = Math.max(epoch, allocation.epoch);
+            for (UuidMsg stream : allocation.streams) {
+                streamTails.merge(getUUID(stream), allocation.lastAddress, Math::max);
+            }
+        }
+
+        if (streamTails.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<SubscriberKey, Subscriber> entry : subscribers.entrySet()) {
+            Subscriber subscriber = entry.getValue();
+            if (isClosed(subscriber.ctx)) {
+                log.debug("fanOut: removing subscriber {} of inactive channel", subscriber.header.getClientId());
+                subscribers.remove(entry.getKey());
+                continue;
+            }
+
+            Map<UUID, Long> subscriberTails = new HashMap<>();
+            for (UUID stream : subscriber.streams) {
+                Long tail = streamTails.get(stream);
+                if (tail != null) {
+                    subscriberTails.put(stream, tail);
+                }
+            }
+
+            if (!subscriberTails.isEmpty()) {
+                subscriber.router.sendResponse(getResponseMsg(subscriber.header,
+                        getStreamsAddressNotificationMsg(epoch, subscriberTails)), subscriber.ctx);
+                MicroMeterUtils.counterIncrement(1, "sequencer.notifications.sent");
+            }
+        }
+    }
+
+    private static boolean isClosed(ChannelHandlerContext ctx) {
+        Channel channel = ctx.channel();
+        return channel != null && !channel.isActive();
+    }
+
+    public int getNumSubscribers() {
+        return subscribers.size();
+    }
+
+    public void shutdown() {
+        subscribers.clear();
+        executor.shutdown();
+    }
+}
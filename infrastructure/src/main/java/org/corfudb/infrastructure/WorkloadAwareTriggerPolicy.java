@@ -0,0 +1,146 @@
+package org.corfudb.infrastructure;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.corfudb.common.metrics.micrometer.MicroMeterUtils;
+import org.corfudb.runtime.CorfuStoreMetadata.TableName;
+import org.corfudb.runtime.collections.CorfuStore;
+import org.corfudb.runtime.view.Address;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A trigger policy driven by the workload: besides the interval of {@link DynamicTriggerPolicy},
+ * which bounds the time between two compaction cycles, a cycle is triggered early when
+ * 1. the quota usage of the local log unit crosses a threshold and the trim of the next cycle
+ * reclaims some bytes, or
+ * 2. the estimated bytes reclaimed by the trim of the next cycle cross a threshold, or
+ * 3. the tables were updated more than a threshold number of times since the previous cycle,
+ * but not before a minimum interval since the previous cycle.
+ * <p>
+ * The tables which were updated the most since the previous cycle are checkpointed first.
+ */
+public class WorkloadAwareTriggerPolicy extends DynamicTriggerPolicy {
+
+    private static final Duration DEFAULT_MIN_INTERVAL = Duration.ofMinutes(5);
+    private static final double DEFAULT_QUOTA_USAGE_THRESHOLD = 0.7;
+    private static final long DEFAULT_RECLAIMABLE_BYTES_THRESHOLD = 1L << 30;
+    private static final long DEFAULT_STREAM_GROWTH_THRESHOLD = 1_000_000L;
+
+    private static final String METRIC_PREFIX = "compaction.trigger";
+
+    private final CompactionSignalsCollector signalsCollector;
+    private final long minIntervalMillis;
+    private final double quotaUsageThreshold;
+    private final long reclaimableBytesThreshold;
+    private final long streamGrowthThreshold;
+
+    /**
+     * The global tail when the previous cycle started, from which the table growth is counted.
+     * Until a cycle starts, the growth is counted from the last checkpoint, see
+     * {@link CompactionSignalsCollector#collect(CorfuStore, long)}.
+     */
+    private long lastCycleGlobalTail = Address.NON_ADDRESS;
+
+    /**
+     * The signals collected by the last call to shouldTrigger, if any.
+     */
+    private Optional<CompactionSignals> lastSignals = Optional.empty();
+
+    private final Optional<AtomicLong> quotaUsedBytes;
+    private final Optional<AtomicLong> reclaimableBytes;
+    private final Optional<AtomicLong> streamGrowth;
+
+    public WorkloadAwareTriggerPolicy() {
+        this(new CompactionSignalsCollector(), DEFAULT_MIN_INTERVAL, DEFAULT_QUOTA_USAGE_THRESHOLD,
+                DEFAULT_RECLAIMABLE_BYTES_THRESHOLD, DEFAULT_STREAM_GROWTH_THRESHOLD);
+    }
+
+    @VisibleForTesting
+    public WorkloadAwareTriggerPolicy(CompactionSignalsCollector signalsCollector, Duration minInterval,
+                                      double quotaUsageThreshold, long reclaimableBytesThreshold,
+                                      long streamGrowthThreshold) {
+        super();
+        this.signalsCollector = signalsCollector;
+        this.minIntervalMillis = minInterval.toMillis();
+        this.quotaUsageThreshold = quotaUsageThreshold;
+        this.reclaimableBytesThreshold = reclaimableBytesThreshold;
+        this.streamGrowthThreshold = streamGrowthThreshold;
+        this.quotaUsedBytes = MicroMeterUtils.gauge(METRIC_PREFIX + ".quota.used.bytes", new AtomicLong());
+        this.reclaimableBytes = MicroMeterUtils.gauge(METRIC_PREFIX + ".reclaimable.bytes", new AtomicLong());
+        this.streamGrowth = MicroMeterUtils.gauge(METRIC_PREFIX + ".stream.growth", new AtomicLong());
+    }
+
+    @Override
+    public boolean shouldTrigger(long interval, CorfuStore corfuStore) throws Exception {
+        lastSignals = Optional.empty();
+        return super.shouldTrigger(interval, corfuStore);
+    }
+
+    @Override
+    protected boolean shouldTriggerOnSchedule(long interval, CorfuStore corfuStore) throws Exception {
+        if (super.shouldTriggerOnSchedule(interval, corfuStore)) {
+            recordDecision("interval");
+            return true;
+        }
+
+        final long timeSinceLastCycleMillis = System.currentTimeMillis() - getLastCompactionCycleStartTS();
+        if (timeSinceLastCycleMillis < minIntervalMillis) {
+            return false;
+        }
+
+        CompactionSignals signals = collectSignals(corfuStore);
+        // A cycle started on quota usage alone would free nothing until the next one completes,
+        // so the quota signal only counts once some bytes are reclaimable.
+        if (signals.getQuotaUsage() >= quotaUsageThreshold && signals.getEstimatedReclaimableBytes() > 0) {
+            log.info("WorkloadAwareTriggerPolicy: Trigger as log unit quota usage {} >= {}, reclaimable bytes {}",
+                    signals.getQuotaUsage(), quotaUsageThreshold, signals.getEstimatedReclaimableBytes());
+            recordDecision("quota");
+            return true;
+        }
+        if (signals.getEstimatedReclaimableBytes() >= reclaimableBytesThreshold) {
+            log.info("WorkloadAwareTriggerPolicy: Trigger as estimated reclaimable bytes {} >= {}",
+                    signals.getEstimatedReclaimableBytes(), reclaimableBytesThreshold);
+            recordDecision("reclaimable");
+            return true;
+        }
+        if (signals.getMaxStreamGrowth() >= streamGrowthThreshold) {
+            log.info("WorkloadAwareTriggerPolicy: Trigger as table growth {} >= {}",
+                    signals.getMaxStreamGrowth(), streamGrowthThreshold);
+            recordDecision("growth");
+            return true;
+        }
+
+        recordDecision("skip");
+        return false;
+    }
+
+    /**
+     * Prioritizes the tables by their growth since the previous cycle.
+     */
+    @Override
+    public Map<TableName, Long> getTablePriorities(CorfuStore corfuStore) {
+        return lastSignals.orElseGet(() -> collectSignals(corfuStore)).getStreamGrowth();
+    }
+
+    @Override
+    public void markCompactionCycleStart() {
+        super.markCompactionCycleStart();
+        lastSignals.ifPresent(signals -> lastCycleGlobalTail = signals.getGlobalTail());
+    }
+
+    private CompactionSignals collectSignals(CorfuStore corfuStore) {
+        CompactionSignals signals = signalsCollector.collect(corfuStore, lastCycleGlobalTail);
+        quotaUsedBytes.ifPresent(gauge -> gauge.set(signals.getQuotaUsedBytes()));
+        reclaimableBytes.ifPresent(gauge -> gauge.set(signals.getEstimatedReclaimableBytes()));
+        streamGrowth.ifPresent(gauge -> gauge.set(signals.getMaxStreamGrowth()));
+        lastSignals = Optional.of(signals);
+        return signals;
+    }
+
+    private void recordDecision(String reason) {
+        MicroMeterUtils.counterIncrement(1, METRIC_PREFIX + ".decision", "reason", reason);
+    }
+}
@@ -6,6 +6,7 @@ import lombok.Getter;
 import org.corfudb.common.result.Result;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -27,6 +28,26 @@ public interface KvDataStore {
      */
     <T> void put(KvRecord<T> key, T value);
 
+    /**
+     * Stores a key-value entry.
+     *
+     * @param entry record meta information and the value to store
+     */
+    default <T> void put(KvEntry<T> entry) {
+        put(entry.getRecord(), entry.getValue());
+    }
+
+    /**
+     * Stores a batch of entries. Implementations that support it persist the whole batch
+     * atomically, i.e., after a restart either all or none of the entries are visible.
+     * The default implementation stores the entries one by one.
+     *
+     * @param entries entries to store
+     */
+    default void putAll(List<KvEntry<?>> entries) {
+        entries.forEach(this::put);
+    }
+
     /**
      * Retrieves the value for a key under a prefix.
      *
@@ -110,4 +131,20 @@ public interface KvDataStore {
             return prefix + "_" + key;
         }
     }
+
+    /**
+     * A record along with the value to store under it, used for batched updates.
+     *
+     * @param <T> data type
+     */
+    @AllArgsConstructor
+    @Getter
+    class KvEntry<T> {
+        private final KvRecord<T> record;
+        private final T value;
+
+        public static <R> KvEntry<R> of(KvRecord<R> record, R value) {
+            return new KvEntry<>(record, value);
+        }
+    }
 }
@@ -0,0 +1,445 @@
+package org.corfudb.infrastructure.datastore;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.runtime.exceptions.DataCorruptionException;
+import org.corfudb.util.JsonUtils;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.corfudb.infrastructure.utils.Persistence.syncDirectory;
+
+/**
+ * A {@link KvDataStore} backed by a single append-only write-ahead log.
+ *
+ * <p>Every update (a single put/delete or a batch of them) is appended to the log as one
+ * checksummed record and synced before the call returns, so a batch is either fully visible
+ * after a restart or not at all. All the live values are also kept in memory, reads never
+ * touch the disk.
+ *
+ * <p>Record format: | payload length (4) | crc32c of payload (4) | crc32c of the length and payload
+ * crc32c (4) | payload |, where the payload is | number of operations (4) | operation (1) |
+ * key length (4) | key | [value length (4) | value] ... and values are stored as JSON, like in
+ * {@link DataStore}.
+ *
+ * <p>Once the log grows beyond the compaction threshold and twice the size of its last
+ * compacted version, it is rewritten with a single record that contains the live entries only.
+ * A record that was partially written at the tail of the log (torn write) is truncated on start,
+ * while a corrupted record followed by other records results in a {@link DataCorruptionException}.
+ * Since the header is checksummed, a corrupted length is never mistaken for a torn write.
+ *
+ * <p>On the first start, i.e., when there is no log yet, the per-key files of {@link DataStore}
+ * found in the log directory are migrated into the log. The old files are left in place.
+ */
+@Slf4j
+public class WalDataStore implements KvDataStore, AutoCloseable {
+
+    public static final String WAL_FILE_NAME = "metadata.wal";
+
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 4 * 1024 * 1024;
+
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES * 3;
+
+    private static final byte OP_PUT = 0;
+    private static final byte OP_DELETE = 1;
+
+    private static final Pattern EPOCH_PATTERN = Pattern.compile("\\d+");
+
+    private final String logDirPath;
+
+    private final Path walPath;
+
+    private final long compactionThreshold;
+
+    private final Set<String> prefixesForCleanup;
+
+    private final int numRetention;
+
+    // Serialized (JSON) values, used to rewrite the log on compaction
+    private final Map<String, byte[]> serializedValues = new HashMap<>();
+
+    // Deserialized values, populated on first read of each key
+    private final Map<String, Object> values = new HashMap<>();
+
+    private FileChannel channel;
+
+    @Getter
+    private long walSize;
+
+    private long lastCompactedSize;
+
+    /**
+     * Return a new WalDataStore.
+     *
+     * @param logDirPath         directory of the log (and of the per-key files to migrate)
+     * @param prefixesForCleanup prefixes of keys that only retain the latest numRetention epochs
+     * @param numRetention       number of keys to retain per cleanup prefix
+     */
+    public WalDataStore(@Nonnull String logDirPath, @Nonnull Set<String> prefixesForCleanup,
+                        int numRetention) {
+        this(logDirPath, prefixesForCleanup, numRetention, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    @VisibleForTesting
+    WalDataStore(@Nonnull String logDirPath, @Nonnull Set<String> prefixesForCleanup,
+                 int numRetention, long compactionThreshold) {
+        this.logDirPath = logDirPath;
+        this.walPath = Paths.get(logDirPath, WAL_FILE_NAME);
+        this.prefixesForCleanup = prefixesForCleanup;
+        this.numRetention = numRetention;
+        this.compactionThreshold = compactionThreshold;
+
+        try {
+            if (!Files.exists(walPath)) {
+                migrate();
+            }
+            recover();
+        } catch (IOException e) {
+            throw new DataCorruptionException(e);
+        }
+    }
+
+    @Override
+    public synchronized <T> void put(KvRecord<T> key, T value) {
+        putAll(Collections.singletonList(KvEntry.of(key, value)));
+    }
+
+    @Override
+    public synchronized void putAll(List<KvEntry<?>> entries) {
+        Map<String, byte[]> batch = new LinkedHashMap<>();
+        for (KvEntry<?> entry : entries) {
+            Object value = entry.getValue();
+            byte[] bytes = JsonUtils.parser.toJson(value, value.getClass()).getBytes(StandardCharsets.UTF_8);
+            batch.put(entry.getRecord().getFullKeyName(), bytes);
+        }
+        batch.putAll(getExpiredKeys(batch.keySet()));
+
+        append(batch);
+
+        entries.stream()
+                .filter(entry -> serializedValues.containsKey(entry.getRecord().getFullKeyName()))
+                .forEach(entry -> values.put(entry.getRecord().getFullKeyName(), entry.getValue()));
+    }
+
+    @Override
+    public synchronized <T> T get(KvRecord<T> key) {
+        String fullKey = key.getFullKeyName();
+        Object value = values.get(fullKey);
+        if (value != null) {
+            return (T) value;
+        }
+
+        byte[] bytes = serializedValues.get(fullKey);
+        if (bytes == null) {
+            return null;
+        }
+
+        T loadedVal = JsonUtils.parser.fromJson(new String(bytes, StandardCharsets.UTF_8), key.getDataType());
+        values.put(fullKey, loadedVal);
+        return loadedVal;
+    }
+
+    @Override
+    public <T> T get(KvRecord<T> key, T defaultValue) {
+        T value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public synchronized <T> void delete(KvRecord<T> key) {
+        String fullKey = key.getFullKeyName();
+        if (!serializedValues.containsKey(fullKey)) {
+            return;
+        }
+
+        append(Collections.singletonMap(fullKey, null));
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.warn("close: failed to close {}", walPath, e);
+        }
+    }
+
+    /**
+     * Keys with a cleanup prefix only retain the latest numRetention epochs, same as the
+     * per-key files of {@link DataStore}. Returns the keys to delete along with the batch.
+     */
+    private Map<String, byte[]> getExpiredKeys(Set<String> batchKeys) {
+        Map<String, byte[]> expired = new HashMap<>();
+        for (String prefix : prefixesForCleanup) {
+            if (batchKeys.stream().noneMatch(key -> key.startsWith(prefix))) {
+                continue;
+            }
+
+            List<String> keys = new ArrayList<>(batchKeys);
+            serializedValues.keySet().stream()
+                    .filter(key -> !batchKeys.contains(key))
+                    .forEach(keys::add);
+            List<String> prefixKeys = keys.stream()
+                    .filter(key -> key.startsWith(prefix))
+                    .sorted(Comparator.comparingLong(key -> getEpoch(key, prefix)))
+                    .collect(Collectors.toList());
+
+            prefixKeys.stream()
+                    .limit(Math.max(0, prefixKeys.size() - numRetention))
+                    .forEach(key -> expired.put(key, null));
+        }
+        return expired;
+    }
+
+    private static long getEpoch(String key, String prefix) {
+        Matcher matcher = EPOCH_PATTERN.matcher(key);
+        return matcher.find(prefix.length()) ? Long.parseLong(matcher.group()) : 0L;
+    }
+
+    /**
+     * Append a batch of operations as a single record and apply it. A null value is a delete.
+     */
+    private void append(Map<String, byte[]> batch) {
+        ByteBuf record = encodeRecord(batch);
+        try {
+            ByteBuffer nioBuffer = record.nioBuffer();
+            long position = walSize;
+            while (nioBuffer.hasRemaining()) {
+                position += channel.write(nioBuffer, position);
+            }
+            channel.force(false);
+            walSize = position;
+        } catch (IOException e) {
+            throw new DataCorruptionException(e);
+        } finally {
+            record.release();
+        }
+
+        apply(batch);
+        maybeCompact();
+    }
+
+    private void apply(Map<String, byte[]> batch) {
+        batch.forEach((key, bytes) -> {
+            values.remove(key);
+            if (bytes == null) {
+                serializedValues.remove(key);
+            } else {
+                serializedValues.put(key, bytes);
+            }
+        });
+    }
+
+    private void maybeCompact() {
+        if (walSize < Math.max(compactionThreshold, 2 * lastCompactedSize)) {
+            return;
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            long oldSize = walSize;
+            channel.close();
+            writeSnapshot(serializedValues);
+            openChannel();
+            lastCompactedSize = walSize;
+            log.info("maybeCompact: compacted {} from {} to {} bytes in {} ms", walPath, oldSize, walSize,
+                    System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            throw new DataCorruptionException(e);
+        }
+    }
+
+    /**
+     * Atomically replace the log with a single record that contains the given entries.
+     */
+    private void writeSnapshot(Map<String, byte[]> entries) throws IOException {
+        Path tmpPath = Paths.get(logDirPath, WAL_FILE_NAME + ".tmp");
+        ByteBuf record = encodeRecord(entries);
+        try (FileChannel tmpChannel = FileChannel.open(tmpPath, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer nioBuffer = record.nioBuffer();
+            while (nioBuffer.hasRemaining()) {
+                tmpChannel.write(nioBuffer);
+            }
+            tmpChannel.force(true);
+        } finally {
+            record.release();
+        }
+
+        Files.move(tmpPath, walPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(logDirPath);
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(walPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        walSize = channel.size();
+    }
+
+    /**
+     * Migrate the per-key files written by {@link DataStore} into a new log.
+     */
+    private void migrate() throws IOException {
+        Map<String, byte[]> entries = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(logDirPath),
+                "*" + DataStore.EXTENSION)) {
+            for (Path file : files) {
+                byte[] bytes = Files.readAllBytes(file);
+                ByteBuffer buf = ByteBuffer.wrap(bytes);
+                if (bytes.length < Integer.BYTES || buf.getInt() != getChecksum(bytes, Integer.BYTES,
+                        bytes.length - Integer.BYTES)) {
+                    throw new DataCorruptionException("Corrupted data store file " + file);
+                }
+                String fileName = file.getFileName().toString();
+                String key = fileName.substring(0, fileName.length() - DataStore.EXTENSION.length());
+                entries.put(key, Arrays.copyOfRange(bytes, Integer.BYTES, bytes.length));
+            }
+        }
+
+        writeSnapshot(entries);
+        log.info("migrate: migrated {} data store files to {}", entries.size(), walPath);
+    }
+
+    /**
+     * Replay the log and truncate a torn record at its tail, if any.
+     */
+    private void recover() throws IOException {
+        openChannel();
+        ByteBuffer buf = ByteBuffer.allocate((int) walSize);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, buf.position()) < 0) {
+                break;
+            }
+        }
+        buf.flip();
+
+        long validSize = 0;
+        while (buf.remaining() >= RECORD_HEADER_SIZE) {
+            int recordStart = buf.position();
+            int length = buf.getInt();
+            int checksum = buf.getInt();
+            int headerChecksum = buf.getInt();
+            if (headerChecksum != getHeaderChecksum(length, checksum)) {
+                // A file extended without its data being written reads back as zeros
+                if (isZeroed(buf, recordStart)) {
+                    break;
+                }
+                throw new DataCorruptionException("Corrupted header at offset " + recordStart + " of " + walPath);
+            }
+
+            // The header is valid, so a record which goes past the end of the log was torn
+            if (length < 0 || length > buf.remaining()) {
+                break;
+            }
+
+            if (checksum != getChecksum(buf.array(), buf.position(), length)) {
+                if (buf.position() + length == buf.limit()) {
+                    break;
+                }
+                throw new DataCorruptionException("Corrupted record at offset " + recordStart + " of " + walPath);
+            }
+
+            ByteBuffer payload = buf.slice();
+            payload.limit(length);
+            apply(decodePayload(payload));
+            buf.position(buf.position() + length);
+            validSize = buf.position();
+        }
+
+        if (validSize < walSize) {
+            log.warn("recover: truncating torn record of {} bytes at offset {} of {}", walSize - validSize,
+                    validSize, walPath);
+            channel.truncate(validSize);
+            channel.force(true);
+            walSize = validSize;
+        }
+        lastCompactedSize = walSize;
+        log.info("recover: loaded {} keys from {} ({} bytes)", serializedValues.size(), walPath, walSize);
+    }
+
+    private static ByteBuf encodeRecord(Map<String, byte[]> batch) {
+        ByteBuf payload = Unpooled.buffer();
+        payload.writeInt(batch.size());
+        batch.forEach((key, bytes) -> {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            payload.writeByte(bytes == null ? OP_DELETE : OP_PUT);
+            payload.writeInt(keyBytes.length);
+            payload.writeBytes(keyBytes);
+            if (bytes != null) {
+                payload.writeInt(bytes.length);
+                payload.writeBytes(bytes);
+            }
+        });
+
+        int length = payload.readableBytes();
+        int checksum = getChecksum(payload.array(), payload.arrayOffset() + payload.readerIndex(), length);
+        ByteBuf record = Unpooled.directBuffer(RECORD_HEADER_SIZE + length)
+                .writeInt(length)
+                .writeInt(checksum)
+                .writeInt(getHeaderChecksum(length, checksum))
+                .writeBytes(payload);
+        payload.release();
+        return record;
+    }
+
+    private static Map<String, byte[]> decodePayload(ByteBuffer payload) {
+        Map<String, byte[]> batch = new LinkedHashMap<>();
+        int numOps = payload.getInt();
+        for (int i = 0; i < numOps; i++) {
+            byte op = payload.get();
+            byte[] keyBytes = new byte[payload.getInt()];
+            payload.get(keyBytes);
+            byte[] bytes = null;
+            if (op == OP_PUT) {
+                bytes = new byte[payload.getInt()];
+                payload.get(bytes);
+            }
+            batch.put(new String(keyBytes, StandardCharsets.UTF_8), bytes);
+        }
+        return batch;
+    }
+
+    private static int getChecksum(byte[] bytes, int off, int len) {
+        return Hashing.crc32c().hashBytes(bytes, off, len).asInt();
+    }
+
+    private static int getHeaderChecksum(int length, int checksum) {
+        return Hashing.crc32c().newHasher().putInt(length).putInt(checksum).hash().asInt();
+    }
+
+    private static boolean isZeroed(ByteBuffer buf, int from) {
+        for (int i = from; i < buf.limit(); i++) {
+            if (buf.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
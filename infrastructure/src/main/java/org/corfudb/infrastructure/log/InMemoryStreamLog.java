@@ -199,6 +199,16 @@ public class InMemoryStreamLog implements StreamLog {
         fsAgent.shutdown();
     }
 
+    @Override
+    public void compressColdSegments() {
+        // Nothing to compress in memory
+    }
+
+    @Override
+    public void offloadColdSegments() {
+        // Nothing to offload in memory
+    }
+
     @Override
     public synchronized void compact() {
         // Prefix Trim
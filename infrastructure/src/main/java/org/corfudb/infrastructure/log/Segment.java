@@ -2,11 +2,16 @@ package org.corfudb.infrastructure.log;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.IOUtils;
-import org.corfudb.common.metrics.micrometer.MicroMeterUtils;
+import org.corfudb.common.compression.Codec;
+import org.corfudb.common.compression.ZSTDDictionaryCompression;
+import org.corfudb.common.metrics.micrometer.MeterHandles;
+import org.corfudb.common.metrics.micrometer.SummaryHandle;
+import org.corfudb.common.metrics.micrometer.TimerHandle;
 import org.corfudb.infrastructure.ResourceQuota;
 import org.corfudb.protocols.wireprotocol.LogData;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
@@ -28,6 +33,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.corfudb.infrastructure.log.SegmentUtils.getByteBuffer;
 import static org.corfudb.infrastructure.log.SegmentUtils.getLogData;
@@ -47,6 +54,18 @@ import static org.corfudb.infrastructure.utils.Persistence.syncDirectory;
  * write operations must be owned by a single thread, while multiple threads can concurrently do
  * read operations.
  *
+ * The lifetime of a segment is managed by an atomic reference count: the owner of the segment
+ * (i.e. the stream log) holds one reference, which is dropped by {@link #close()}, and every
+ * operation holds one between a successful {@link #retain()} and its {@link #release()}. The
+ * file channels are closed when the last reference is released, so closing a segment never
+ * blocks on, or breaks, operations in progress.
+ *
+ * A sealed segment can be rewritten as blocks of compressed log entries (see
+ * {@link SegmentCompressor}). The index of a compressed segment maps addresses to offsets in
+ * the decompressed blocks, so that a read only decompresses the block of its address. The
+ * index is loaded from the index record of each block, so opening a compressed segment
+ * decompresses nothing. A compressed segment is read only.
+ *
  * @author Maithem
  */
 @Slf4j
@@ -64,8 +83,15 @@ public class Segment {
 
     public static final long MAX_SEGMENT_SIZE = 0x0000000fffffffffL;
 
+    private static final SummaryHandle readThroughput = MeterHandles.summary("logunit.read.throughput");
+
+    private static final TimerHandle readCompressedTimer = MeterHandles.timer("logunit.read.compressed.timer");
+
     final long id;
 
+    // The first address of this segment
+    final long startAddress;
+
     @NonNull
     private FileChannel writeChannel;
 
@@ -79,16 +105,36 @@ public class Segment {
 
     private final Index index;
 
-    private int refCount = 0;
+    // The blocks of a block compressed segment, or null if the segment isn't compressed
+    private CompressedBlocks blocks;
+
+    // The reference held by the owner of the segment, released on close
+    private final AtomicInteger refCount = new AtomicInteger(1);
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
 
     private final ResourceQuota logSize;
 
     public Segment(long segmentId, int segmentSize, Path segmentsDir, ResourceQuota logSize) {
-        this.id = segmentId;
-        this.segmentFilePath = segmentsDir + File.separator + segmentId + ".log";
+        this(segmentId * segmentSize, segmentSize, segmentId + ".log", segmentsDir, logSize);
+    }
+
+    /**
+     * Open a segment which starts at any address.
+     *
+     * @param startAddress the first address of the segment
+     * @param segmentSize  the maximum number of addresses of the segment
+     * @param fileName     the name of the segment file
+     * @param segmentsDir  the directory of the segment file
+     * @param logSize      the quota of the log
+     */
+    public Segment(long startAddress, int segmentSize, String fileName, Path segmentsDir, ResourceQuota logSize) {
+        this.id = startAddress / segmentSize;
+        this.startAddress = startAddress;
+        this.segmentFilePath = segmentsDir + File.separator + fileName;
         this.isDirty = false;
         this.logSize = logSize;
-        this.index = new Index(segmentId * segmentSize, segmentSize);
+        this.index = new Index(startAddress, segmentSize);
         // Open and load a segment file, or create one if it doesn't exist.
         // Once the segment address space is loaded, it should be ready to accept writes.
         try {
@@ -130,6 +176,11 @@ public class Segment {
             throw new IllegalStateException(msg);
         }
 
+        if (header.hasBlockCompression()) {
+            loadCompressedBlocks(header.getBlockCompression());
+            return;
+        }
+
         while (writeChannel.size() - writeChannel.position() > 0) {
             long channelOffset = writeChannel.position();
             LogFormat.Metadata metadata = parseMetadata(writeChannel, segmentFilePath);
@@ -157,6 +208,100 @@ public class Segment {
         }
     }
 
+    /**
+     * Loads the index of a block compressed segment from the index record of each block, without
+     * decompressing the blocks. The offsets of the entries are offsets in the sequence of
+     * decompressed blocks, which starts after the header.
+     *
+     * @param blockCompression the block compression of the segment header
+     * @throws IOException
+     */
+    private void loadCompressedBlocks(LogFormat.BlockCompression blockCompression) throws IOException {
+        List<Long> blockOffsets = new ArrayList<>();
+        List<Long> fileOffsets = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        List<Integer> checksums = new ArrayList<>();
+
+        long blockOffset = writeChannel.position();
+        while (writeChannel.size() - writeChannel.position() > 0) {
+            // Compressed segments are written atomically, so a partial block is corrupted
+            LogFormat.BlockIndex blockIndex = parseBlockIndex();
+            LogFormat.Metadata metadata = parseMetadata(writeChannel, segmentFilePath);
+            long fileOffset = writeChannel.position();
+            if (metadata == null || writeChannel.size() - fileOffset < metadata.getLength()
+                    || blockIndex.getAddressesCount() != blockIndex.getLengthsCount()) {
+                String errorMessage = getDataCorruptionErrorMessage("Invalid compressed block",
+                        writeChannel, segmentFilePath);
+                throw new DataCorruptionException(errorMessage);
+            }
+            writeChannel.position(fileOffset + metadata.getLength());
+
+            blockOffsets.add(blockOffset);
+            fileOffsets.add(fileOffset);
+            lengths.add(metadata.getLength());
+            checksums.add(metadata.getPayloadChecksum());
+            for (int i = 0; i < blockIndex.getAddressesCount(); i++) {
+                index.put(blockIndex.getAddresses(i), blockOffset + METADATA_SIZE, blockIndex.getLengths(i));
+                blockOffset += METADATA_SIZE + blockIndex.getLengths(i);
+            }
+        }
+
+        blocks = new CompressedBlocks(getBlockCodec(blockCompression), blockOffsets, fileOffsets, lengths,
+                checksums);
+    }
+
+    private LogFormat.BlockIndex parseBlockIndex() throws IOException {
+        LogFormat.Metadata metadata = parseMetadata(writeChannel, segmentFilePath);
+        ByteBuffer buffer = metadata == null ? null : getPayloadForMetadata(writeChannel, metadata);
+        if (buffer == null || metadata.getPayloadChecksum() != getChecksum(buffer.array())) {
+            String errorMessage = getDataCorruptionErrorMessage("Invalid compressed block index",
+                    writeChannel, segmentFilePath);
+            throw new DataCorruptionException(errorMessage);
+        }
+
+        try {
+            return LogFormat.BlockIndex.parseFrom(buffer.array());
+        } catch (InvalidProtocolBufferException e) {
+            String errorMessage = getDataCorruptionErrorMessage("Invalid compressed block index",
+                    writeChannel, segmentFilePath);
+            throw new DataCorruptionException(errorMessage, e);
+        }
+    }
+
+    /**
+     * Get the codec of the blocks of a block compressed segment. A codec with a dictionary
+     * must be closed once the segment is no longer read.
+     *
+     * @param blockCompression the block compression of the segment header
+     * @return the codec which decompresses the blocks
+     */
+    public static Codec getBlockCodec(LogFormat.BlockCompression blockCompression) {
+        if (!blockCompression.getDictionary().isEmpty()) {
+            return new ZSTDDictionaryCompression(blockCompression.getDictionary().toByteArray());
+        }
+        return Codec.getCodecTypeById(blockCompression.getCodecType()).getInstance();
+    }
+
+    private static void closeCodec(Codec codec) {
+        if (codec instanceof ZSTDDictionaryCompression) {
+            ((ZSTDDictionaryCompression) codec).close();
+        }
+    }
+
+    /**
+     * Check if the segment is block compressed.
+     */
+    public boolean isCompressed() {
+        return blocks != null;
+    }
+
+    /**
+     * Get the number of addresses written to this segment.
+     */
+    public int getNumAddresses() {
+        return index.numSequenceNums;
+    }
+
     /**
      * Get a set of all the written addresses in this segment
      * @return A set of sequence numbers
@@ -165,6 +310,24 @@ public class Segment {
         return index.map.iterable();
     }
 
+    /**
+     * Get the highest address written to this segment. Must be called by the writer.
+     *
+     * @return the highest address, or -1 if nothing has been written
+     */
+    public long getMaxAddress() {
+        return index.maxSequenceNum;
+    }
+
+    /**
+     * Get the size of the segment file. Must be called by the writer.
+     *
+     * @return the size in bytes
+     */
+    public long getSize() throws IOException {
+        return writeChannel.size();
+    }
+
     /**
      * Check if the segment has been flushed to secondary storage
      */
@@ -202,11 +365,34 @@ public class Segment {
 
         int length = index.unpackLength(value);
         long offset = index.unpackOffset(value);
+        if (blocks != null) {
+            return readCompressed(offset, length);
+        }
+
         try {
             ByteBuffer entryBuf = ByteBuffer.allocate(length);
             readChannel.read(entryBuf, offset);
             LogData logData = getLogData(LogFormat.LogEntry.parseFrom(entryBuf.array()));
-            MicroMeterUtils.measure(length, "logunit.read.throughput");
+            readThroughput.record(length);
+            return logData;
+        } catch (InvalidProtocolBufferException e) {
+            String errorMessage = getDataCorruptionErrorMessage("Invalid entry",
+                    readChannel, segmentFilePath
+            );
+            throw new DataCorruptionException(errorMessage, e);
+        }
+    }
+
+    private LogData readCompressed(long offset, int length) throws IOException {
+        long start = readCompressedTimer.start();
+        int blockIndex = blocks.getBlockIndex(offset);
+        ByteBuffer block = blocks.getBlock(blockIndex, readChannel).duplicate();
+        block.position((int) (offset - blocks.blockOffsets[blockIndex]));
+        block.limit(block.position() + length);
+        try {
+            LogData logData = getLogData(LogFormat.LogEntry.parseFrom(ByteString.copyFrom(block)));
+            readCompressedTimer.stop(start);
+            readThroughput.record(length);
             return logData;
         } catch (InvalidProtocolBufferException e) {
             String errorMessage = getDataCorruptionErrorMessage("Invalid entry",
@@ -237,6 +423,7 @@ public class Segment {
      * @throws IOException
      */
     public long write(long address, LogData logdata) throws IOException {
+        Preconditions.checkState(blocks == null, "Compressed segment %s is read only", segmentFilePath);
 
         LogFormat.LogEntry logEntry = getLogEntry(address, logdata);
         LogFormat.Metadata metadata = getMetadata(logEntry);
@@ -260,6 +447,7 @@ public class Segment {
      * @throws IOException IO exception
      */
     public long write(List<LogData> entries) throws IOException {
+        Preconditions.checkState(blocks == null, "Compressed segment %s is read only", segmentFilePath);
         Map<Long, AddressMetaData> recordsMap = new HashMap<>();
 
         List<ByteBuffer> entryBuffs = new ArrayList<>();
@@ -522,19 +710,53 @@ public class Segment {
         return header;
     }
 
-    public synchronized void retain() {
-        refCount++;
+    /**
+     * Acquire a reference to this segment, unless its last reference has already been released.
+     *
+     * @return true if a reference was acquired and has to be released, false if the segment
+     * is closed and can't be used anymore
+     */
+    public boolean retain() {
+        while (true) {
+            int count = refCount.get();
+            if (count == 0) {
+                return false;
+            }
+            if (refCount.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
     }
 
-    public synchronized void release() {
-        if (refCount == 0) {
+    /**
+     * Release a reference to this segment, closing its channels if it was the last one.
+     */
+    public void release() {
+        int count = refCount.decrementAndGet();
+        if (count < 0) {
             throw new IllegalStateException("refCount cannot be less than 0, segment " + id);
         }
-        refCount--;
+        if (count == 0) {
+            closeChannels();
+        }
     }
 
+    /**
+     * Release the owner's reference to this segment. The channels are closed right away if the
+     * segment isn't used, otherwise when the last operation using it releases it.
+     */
     public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (refCount.get() > 1) {
+            log.debug("close: Segment {} is in use, closing after its last release", segmentFilePath);
+        }
+        release();
+    }
 
+    private void closeChannels() {
         Set<FileChannel> channels = new HashSet<>(
                 Arrays.asList(writeChannel, readChannel)
         );
@@ -549,9 +771,72 @@ public class Segment {
             }
         }
 
-        if (refCount != 0) {
-            log.warn("closeSegmentHandlers: Segment {} is trimmed, but refCount is {}, attempting to trim anyways",
-                    segmentFilePath, refCount);
+        if (blocks != null) {
+            closeCodec(blocks.codec);
+        }
+    }
+
+    /**
+     * The blocks of a block compressed segment, with the last decompressed block, since
+     * reads of cold segments tend to be sequential (e.g. stream or state transfer reads).
+     */
+    private static final class CompressedBlocks {
+        private final Codec codec;
+
+        // The offset of each block in the sequence of decompressed blocks
+        private final long[] blockOffsets;
+
+        // The offset, the length and the checksum of the compressed bytes of each block in the file
+        private final long[] fileOffsets;
+        private final int[] lengths;
+        private final int[] checksums;
+
+        private volatile DecompressedBlock lastBlock;
+
+        CompressedBlocks(Codec codec, List<Long> blockOffsets, List<Long> fileOffsets, List<Integer> lengths,
+                         List<Integer> checksums) {
+            this.codec = codec;
+            this.blockOffsets = blockOffsets.stream().mapToLong(Long::longValue).toArray();
+            this.fileOffsets = fileOffsets.stream().mapToLong(Long::longValue).toArray();
+            this.lengths = lengths.stream().mapToInt(Integer::intValue).toArray();
+            this.checksums = checksums.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        int getBlockIndex(long offset) {
+            int blockIndex = Arrays.binarySearch(blockOffsets, offset);
+            return blockIndex >= 0 ? blockIndex : -blockIndex - 2;
+        }
+
+        ByteBuffer getBlock(int blockIndex, FileChannel channel) throws IOException {
+            DecompressedBlock block = lastBlock;
+            if (block != null && block.blockIndex == blockIndex) {
+                return block.data;
+            }
+
+            ByteBuffer compressed = ByteBuffer.allocate(lengths[blockIndex]);
+            while (compressed.hasRemaining()) {
+                if (channel.read(compressed, fileOffsets[blockIndex] + compressed.position()) < 0) {
+                    throw new DataCorruptionException("Truncated compressed block " + blockIndex);
+                }
+            }
+            compressed.flip();
+            if (getChecksum(compressed.array()) != checksums[blockIndex]) {
+                throw new DataCorruptionException("Invalid checksum of compressed block " + blockIndex);
+            }
+
+            block = new DecompressedBlock(blockIndex, codec.decompress(compressed));
+            lastBlock = block;
+            return block.data;
+        }
+    }
+
+    private static final class DecompressedBlock {
+        private final int blockIndex;
+        private final ByteBuffer data;
+
+        DecompressedBlock(int blockIndex, ByteBuffer data) {
+            this.blockIndex = blockIndex;
+            this.data = data;
         }
     }
 
@@ -570,6 +855,10 @@ public class Segment {
         static final int lowBitsNum = Integer.bitCount(MAX_WRITE_SIZE);
         private final BoundedMap map;
 
+        private long maxSequenceNum = -1;
+
+        private int numSequenceNums = 0;
+
         Index(long offset, int size) {
             this.map = new BoundedMap(offset, size);
             Preconditions.checkArgument((highBitsNum + lowBitsNum) >> 3 == Long.BYTES);
@@ -593,6 +882,8 @@ public class Segment {
             Preconditions.checkArgument(length > 0 && length <= MAX_WRITE_SIZE,
                     "invalid length %s", length);
             Preconditions.checkState(map.set(sequenceNum, pack(fileOffset, length)));
+            maxSequenceNum = Math.max(maxSequenceNum, sequenceNum);
+            numSequenceNums++;
         }
 
         boolean contains(long sequenceNum) {
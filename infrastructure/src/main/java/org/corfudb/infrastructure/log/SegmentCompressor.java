@@ -0,0 +1,233 @@
+package org.corfudb.infrastructure.log;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.common.compression.Codec;
+import org.corfudb.common.compression.ZSTDDictionaryCompression;
+import org.corfudb.runtime.exceptions.DataCorruptionException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.corfudb.infrastructure.log.Segment.getDataCorruptionErrorMessage;
+import static org.corfudb.infrastructure.log.Segment.getPayloadForMetadata;
+import static org.corfudb.infrastructure.log.Segment.parseHeader;
+import static org.corfudb.infrastructure.log.Segment.parseMetadata;
+import static org.corfudb.infrastructure.log.SegmentUtils.getByteBufferWithMetaData;
+import static org.corfudb.infrastructure.utils.Crc32c.getChecksum;
+import static org.corfudb.infrastructure.utils.Persistence.syncDirectory;
+
+/**
+ * Rewrites the file of a sealed segment as blocks of compressed log entries.
+ *
+ * The records (metadata and log entry) of the segment are packed, in file order, in blocks
+ * of about {@code blockSize} bytes, and each block is compressed on its own with ZSTD and a
+ * dictionary trained on the entries of the segment. The header of the compressed segment
+ * file holds the dictionary, and each block is written as a record whose payload is the
+ * compressed block (see {@link LogFormat.BlockCompression}), preceded by a record of the
+ * addresses and lengths of its entries (see {@link LogFormat.BlockIndex}).
+ *
+ * The compressed file is written to a temporary file which then atomically replaces the
+ * segment file, so that a segment file is either raw or completely compressed.
+ */
+@Slf4j
+class SegmentCompressor {
+
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    static final int DEFAULT_BLOCK_SIZE = 64 << 10;
+
+    private static final int DICTIONARY_SIZE = 16 << 10;
+
+    private static final int DICTIONARY_SAMPLE_BYTES = 1 << 20;
+
+    private final int blockSize;
+
+    SegmentCompressor(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Rewrite a segment file as a block compressed segment file, unless compression
+     * doesn't make it smaller, in which case the segment file is left as is.
+     *
+     * @param segmentFile the file of the segment, which must be sealed
+     * @return the size of the compressed segment file, or -1 if the file wasn't compressed
+     * @throws IOException IO exception
+     */
+    long compress(Path segmentFile) throws IOException {
+        Path tempFile = Paths.get(segmentFile + TEMP_EXTENSION);
+        try (FileChannel source = FileChannel.open(segmentFile, StandardOpenOption.READ)) {
+            long rawSize = source.size();
+            byte[] dictionary = trainDictionary(source, segmentFile.toString());
+
+            long compressedSize;
+            try (FileChannel target = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeBlocks(source, segmentFile.toString(), target, dictionary);
+                target.force(true);
+                compressedSize = target.size();
+            }
+
+            if (compressedSize >= rawSize) {
+                log.info("compress: {} not compressed, {} bytes compress to {} bytes",
+                        segmentFile, rawSize, compressedSize);
+                return -1;
+            }
+
+            Files.move(tempFile, segmentFile, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory(segmentFile.getParent().toString());
+            return compressedSize;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private byte[] trainDictionary(FileChannel source, String segmentFilePath) throws IOException {
+        List<byte[]> samples = new ArrayList<>();
+        long sampleBytes = 0;
+
+        readHeader(source, segmentFilePath);
+        while (sampleBytes < DICTIONARY_SAMPLE_BYTES && source.size() - source.position() > 0) {
+            byte[] entry = readRecord(source, segmentFilePath).getPayload();
+            samples.add(entry);
+            sampleBytes += entry.length;
+        }
+
+        return ZSTDDictionaryCompression.trainDictionary(samples, DICTIONARY_SAMPLE_BYTES, DICTIONARY_SIZE);
+    }
+
+    private void writeBlocks(FileChannel source, String segmentFilePath, FileChannel target,
+                             byte[] dictionary) throws IOException {
+        LogFormat.BlockCompression.Builder blockCompression = LogFormat.BlockCompression.newBuilder()
+                .setCodecType(Codec.Type.ZSTD.getId());
+        if (dictionary.length > 0) {
+            blockCompression.setDictionary(ByteString.copyFrom(dictionary));
+        }
+        LogFormat.LogHeader header = LogFormat.LogHeader.newBuilder()
+                .setVersion(Segment.VERSION)
+                .setVerifyChecksum(true)
+                .setBlockCompression(blockCompression)
+                .build();
+        writeFully(target, getByteBufferWithMetaData(header));
+
+        Codec codec = Segment.getBlockCodec(blockCompression.build());
+        try {
+            ByteBuffer block = ByteBuffer.allocate(blockSize);
+            LogFormat.BlockIndex.Builder blockIndex = LogFormat.BlockIndex.newBuilder();
+            readHeader(source, segmentFilePath);
+            while (source.size() - source.position() > 0) {
+                Record record = readRecord(source, segmentFilePath);
+                if (block.position() > 0 && block.remaining() < record.size()) {
+                    writeBlock(target, codec, block, blockIndex);
+                }
+                if (block.remaining() < record.size()) {
+                    // An entry larger than the block size gets a block of its own
+                    ByteBuffer largeBlock = ByteBuffer.allocate(record.size());
+                    record.writeTo(largeBlock, blockIndex);
+                    writeBlock(target, codec, largeBlock, blockIndex);
+                } else {
+                    record.writeTo(block, blockIndex);
+                }
+            }
+
+            if (block.position() > 0) {
+                writeBlock(target, codec, block, blockIndex);
+            }
+        } finally {
+            if (codec instanceof ZSTDDictionaryCompression) {
+                ((ZSTDDictionaryCompression) codec).close();
+            }
+        }
+    }
+
+    private void writeBlock(FileChannel target, Codec codec, ByteBuffer block,
+                            LogFormat.BlockIndex.Builder blockIndex) throws IOException {
+        writeFully(target, getByteBufferWithMetaData(blockIndex.build()));
+        blockIndex.clear();
+
+        block.flip();
+        ByteBuffer compressed = codec.compress(block);
+        byte[] payload = new byte[compressed.remaining()];
+        compressed.get(payload);
+        block.clear();
+
+        LogFormat.Metadata metadata = LogFormat.Metadata.newBuilder()
+                .setPayloadChecksum(getChecksum(payload))
+                .setLengthChecksum(getChecksum(payload.length))
+                .setLength(payload.length)
+                .build();
+        writeFully(target, ByteBuffer.wrap(metadata.toByteArray()));
+        writeFully(target, ByteBuffer.wrap(payload));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+
+    private static void readHeader(FileChannel source, String segmentFilePath) throws IOException {
+        source.position(0);
+        LogFormat.LogHeader header = parseHeader(source, segmentFilePath);
+        if (header == null || header.getVersion() != Segment.VERSION || header.hasBlockCompression()) {
+            throw new IllegalStateException("Not a raw segment of version " + Segment.VERSION
+                    + ": " + segmentFilePath);
+        }
+    }
+
+    /**
+     * Read the next record of a sealed segment, whose records must all be complete.
+     */
+    private static Record readRecord(FileChannel source, String segmentFilePath) throws IOException {
+        LogFormat.Metadata metadata = parseMetadata(source, segmentFilePath);
+        ByteBuffer payload = metadata == null ? null : getPayloadForMetadata(source, metadata);
+        if (payload == null || metadata.getPayloadChecksum() != getChecksum(payload.array())) {
+            String errorMessage = getDataCorruptionErrorMessage("Invalid record in sealed segment",
+                    source, segmentFilePath);
+            throw new DataCorruptionException(errorMessage);
+        }
+        return new Record(metadata, payload.array(), segmentFilePath);
+    }
+
+    private static final class Record {
+        private final LogFormat.Metadata metadata;
+        private final byte[] payload;
+        private final String segmentFilePath;
+
+        Record(LogFormat.Metadata metadata, byte[] payload, String segmentFilePath) {
+            this.metadata = metadata;
+            this.payload = payload;
+            this.segmentFilePath = segmentFilePath;
+        }
+
+        byte[] getPayload() {
+            return payload;
+        }
+
+        int size() {
+            return Segment.METADATA_SIZE + payload.length;
+        }
+
+        void writeTo(ByteBuffer buf, LogFormat.BlockIndex.Builder blockIndex) {
+            try {
+                blockIndex.addAddresses(LogFormat.LogEntry.parseFrom(payload).getGlobalAddress())
+                        .addLengths(payload.length);
+            } catch (InvalidProtocolBufferException e) {
+                throw new DataCorruptionException("Invalid entry in sealed segment " + segmentFilePath, e);
+            }
+            buf.put(metadata.toByteArray());
+            buf.put(payload);
+        }
+    }
+}
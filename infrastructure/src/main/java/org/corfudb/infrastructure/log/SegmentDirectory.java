@@ -0,0 +1,155 @@
+package org.corfudb.infrastructure.log;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * The directory of the segments of a stream log, which maps addresses to segments.
+ *
+ * A segment is identified by its start address and covers the addresses from its start
+ * address up to (excluding) the start address of the next segment, and at most
+ * {@code segmentSize} addresses (the capacity of its index). Segments are contiguous: the
+ * start address of a new segment is either the address right after the last one written to
+ * a segment which rolled over because of its size, or a multiple of {@code segmentSize}
+ * addresses after the start address of the previous segment.
+ *
+ * The file of a segment that starts at a multiple of {@code segmentSize} is named
+ * {@code <start address / segmentSize>.log}, which is the (only) name of the segment files
+ * of logs written with fixed size segments, and those logs can be loaded as is. Other segment
+ * files are named {@code <start address / segmentSize>_<start address % segmentSize>.log}.
+ *
+ * The directory is updated by the single writer of the log (and by readers of addresses of
+ * segments which don't exist yet), and can be read concurrently.
+ */
+@Slf4j
+class SegmentDirectory {
+
+    private static final String EXTENSION = ".log";
+
+    private static final String OFFSET_SEPARATOR = "_";
+
+    /**
+     * The maximum number of addresses of a segment.
+     */
+    @Getter
+    private final int segmentSize;
+
+    private final NavigableSet<Long> startAddresses = new ConcurrentSkipListSet<>();
+
+    SegmentDirectory(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Load the segments of the segment files in a directory.
+     *
+     * @param logDir the directory of the segment files
+     */
+    void load(Path logDir) {
+        File[] files = logDir.toFile().listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            Optional<Long> startAddress = parseStartAddress(file.getName());
+            if (startAddress.isPresent()) {
+                startAddresses.add(startAddress.get());
+            } else {
+                log.warn("load: ignoring file {}", file.getName());
+            }
+        }
+        log.info("load: {} segments in {}", startAddresses.size(), logDir);
+    }
+
+    /**
+     * Get the start address of the segment of an address. The segment might not exist yet.
+     *
+     * @param address a global log address
+     * @return the start address of the segment which contains the address
+     */
+    long getSegmentStart(long address) {
+        Long floor = startAddresses.floor(address);
+        if (floor == null) {
+            return address - address % segmentSize;
+        }
+        return floor + (address - floor) / segmentSize * segmentSize;
+    }
+
+    /**
+     * Get the end address of a segment, which is the start address of the next segment or
+     * the capacity of the segment, whichever comes first.
+     *
+     * @param startAddress the start address of the segment
+     * @return the first address after the segment
+     */
+    long getSegmentEnd(long startAddress) {
+        long end = startAddress + segmentSize;
+        Long next = startAddresses.higher(startAddress);
+        return next == null ? end : Math.min(end, next);
+    }
+
+    void add(long startAddress) {
+        startAddresses.add(startAddress);
+    }
+
+    void remove(long startAddress) {
+        startAddresses.remove(startAddress);
+    }
+
+    void clear() {
+        startAddresses.clear();
+    }
+
+    /**
+     * Get the start addresses of all the segments, in ascending order.
+     *
+     * @return a view of the start addresses of the segments
+     */
+    NavigableSet<Long> getStartAddresses() {
+        return startAddresses;
+    }
+
+    /**
+     * Get the file name of a segment.
+     *
+     * @param startAddress the start address of the segment
+     * @return the name of the segment file
+     */
+    String getFileName(long startAddress) {
+        long offset = startAddress % segmentSize;
+        String id = Long.toString(startAddress / segmentSize);
+        return offset == 0 ? id + EXTENSION : id + OFFSET_SEPARATOR + offset + EXTENSION;
+    }
+
+    /**
+     * Get the start address of a segment from its file name.
+     *
+     * @param fileName the name of a file of the log directory
+     * @return the start address, or empty if the file is not a segment file
+     */
+    Optional<Long> parseStartAddress(String fileName) {
+        if (!fileName.endsWith(EXTENSION)) {
+            return Optional.empty();
+        }
+
+        String[] parts = fileName.substring(0, fileName.length() - EXTENSION.length())
+                .split(OFFSET_SEPARATOR);
+        try {
+            long id = Long.parseLong(parts[0]);
+            long offset = parts.length > 1 ? Long.parseLong(parts[1]) : 0;
+            if (parts.length > 2 || id < 0 || offset < 0 || offset >= segmentSize) {
+                return Optional.empty();
+            }
+            return Optional.of(id * segmentSize + offset);
+        } catch (NumberFormatException nfe) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package org.corfudb.infrastructure.log;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.infrastructure.log.tier.SegmentTier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Keeps track of the segments of a stream log that were offloaded to a secondary
+ * {@link SegmentTier}, and of the local copies of offloaded segments which serve reads.
+ *
+ * An offloaded segment has no file in the log directory. To be read, it is downloaded to
+ * the cache directory, which holds at most {@code maxCachedSegments} segment files: the
+ * least recently used segments are evicted, and have to be closed by the stream log.
+ * The cache directory is not part of the log directory, so the log size quota only
+ * accounts for the segments that are resident in the log directory. A segment is downloaded
+ * to a temporary file, so the cache only holds complete segment files.
+ */
+@Slf4j
+class SegmentTiering {
+
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    @Getter
+    private final SegmentTier tier;
+
+    @Getter
+    private final Path cacheDir;
+
+    private final int maxCachedSegments;
+
+    // The start addresses of the offloaded segments
+    private final Set<Long> offloadedSegments = ConcurrentHashMap.newKeySet();
+
+    // The file names of the cached segments by start address, in access order, guarded by this
+    private final LinkedHashMap<Long, String> cachedSegments = new LinkedHashMap<>(16, 0.75f, true);
+
+    SegmentTiering(SegmentTier tier, Path cacheDir, int maxCachedSegments) {
+        this.tier = tier;
+        this.cacheDir = cacheDir;
+        this.maxCachedSegments = maxCachedSegments;
+    }
+
+    /**
+     * Load the offloaded segments into the segment directory. A segment file which is both
+     * in the log directory and in the tier (i.e. the stream log stopped while offloading it)
+     * is resident. The cache directory is emptied.
+     *
+     * @param directory the segment directory, loaded from the log directory
+     */
+    void load(SegmentDirectory directory) throws IOException {
+        Set<Long> residentSegments = directory.getStartAddresses();
+        for (String fileName : tier.list()) {
+            Optional<Long> segmentStart = directory.parseStartAddress(fileName);
+            if (!segmentStart.isPresent()) {
+                log.warn("load: ignoring file {} of {}", fileName, tier);
+            } else if (!residentSegments.contains(segmentStart.get())) {
+                offloadedSegments.add(segmentStart.get());
+            }
+        }
+        offloadedSegments.forEach(directory::add);
+
+        Files.createDirectories(cacheDir);
+        clearCache();
+        log.info("load: {} segments offloaded to {}", offloadedSegments.size(), tier);
+    }
+
+    boolean isOffloaded(long segmentStart) {
+        return offloadedSegments.contains(segmentStart);
+    }
+
+    /**
+     * Upload a segment file to the tier, after which the segment is offloaded and the local
+     * segment file can be deleted.
+     *
+     * @param segmentStart the start address of the segment
+     * @param segmentFile  the segment file in the log directory
+     */
+    void offload(long segmentStart, Path segmentFile) throws IOException {
+        tier.upload(segmentFile.getFileName().toString(), segmentFile);
+        offloadedSegments.add(segmentStart);
+    }
+
+    /**
+     * Open an offloaded segment from its cached copy, which is downloaded if it isn't cached.
+     * The download doesn't hold the cache lock, so it doesn't block the opening of other
+     * cached segments.
+     *
+     * @param segmentStart the start address of the segment
+     * @param fileName     the name of the segment file
+     * @param open         opens a segment from the directory of its file
+     * @return the segment
+     */
+    Segment openCached(long segmentStart, String fileName, Function<Path, Segment> open) {
+        Path cachedFile = cacheDir.resolve(fileName);
+        if (!Files.exists(cachedFile)) {
+            try {
+                download(fileName, cachedFile);
+            } catch (IOException ioe) {
+                throw new IllegalStateException("Can't download segment " + fileName + " from " + tier, ioe);
+            }
+            log.debug("openCached: downloaded segment {} from {}", fileName, tier);
+        }
+
+        synchronized (this) {
+            // The segment may have been deleted from the cache while it was downloaded
+            if (!Files.exists(cachedFile)) {
+                throw new IllegalStateException("Segment " + fileName + " was deleted from the cache");
+            }
+            cachedSegments.put(segmentStart, fileName);
+            return open.apply(cacheDir);
+        }
+    }
+
+    /**
+     * Download a segment file to a temporary file, which is moved to the cache only if it
+     * was entirely downloaded, so that a failed download never leaves a partial segment.
+     */
+    private void download(String fileName, Path cachedFile) throws IOException {
+        Path tempFile = Files.createTempFile(cacheDir, fileName, TEMP_EXTENSION);
+        try {
+            long size = tier.size(fileName);
+            tier.download(fileName, tempFile);
+            if (Files.size(tempFile) != size) {
+                throw new IOException("Downloaded " + Files.size(tempFile) + " bytes of segment "
+                        + fileName + ", expected " + size);
+            }
+            Files.move(tempFile, cachedFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Mark a cached segment as used, and evict the least recently used segments if the
+     * cache is full.
+     *
+     * @param segmentStart the start address of the cached segment
+     * @return the start addresses of the evicted segments, which have to be closed
+     */
+    synchronized List<Long> touch(long segmentStart) {
+        cachedSegments.get(segmentStart);
+
+        List<Long> evicted = new ArrayList<>();
+        Iterator<Map.Entry<Long, String>> it = cachedSegments.entrySet().iterator();
+        while (cachedSegments.size() - evicted.size() > maxCachedSegments && it.hasNext()) {
+            Map.Entry<Long, String> entry = it.next();
+            if (entry.getKey() == segmentStart) {
+                continue;
+            }
+            deleteCachedFile(entry.getValue());
+            evicted.add(entry.getKey());
+        }
+        evicted.forEach(cachedSegments::remove);
+        return evicted;
+    }
+
+    /**
+     * Delete the offloaded segments which are trimmed from the tier and from the cache.
+     *
+     * @param segments the start addresses and the file names of the trimmed segments
+     */
+    synchronized void delete(Map<Long, String> segments) throws IOException {
+        for (Map.Entry<Long, String> segment : segments.entrySet()) {
+            if (!offloadedSegments.contains(segment.getKey())) {
+                continue;
+            }
+            tier.delete(segment.getValue());
+            offloadedSegments.remove(segment.getKey());
+            if (cachedSegments.remove(segment.getKey()) != null) {
+                deleteCachedFile(segment.getValue());
+            }
+        }
+    }
+
+    /**
+     * Delete all the offloaded segments.
+     */
+    synchronized void reset() throws IOException {
+        for (String fileName : tier.list()) {
+            tier.delete(fileName);
+        }
+        offloadedSegments.clear();
+        clearCache();
+    }
+
+    private void clearCache() throws IOException {
+        cachedSegments.clear();
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private void deleteCachedFile(String fileName) {
+        // Readers of the evicted segment keep reading its open file
+        try {
+            Files.deleteIfExists(cacheDir.resolve(fileName));
+        } catch (IOException ioe) {
+            log.warn("deleteCachedFile: can't delete {}", fileName, ioe);
+        }
+    }
+}
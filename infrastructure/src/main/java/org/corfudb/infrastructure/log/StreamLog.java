@@ -62,6 +62,17 @@ public interface StreamLog {
      */
     void compact();
 
+    /**
+     * Compress the sealed parts of the StreamLog whose addresses are all committed.
+     */
+    void compressColdSegments();
+
+    /**
+     * Move the sealed parts of the StreamLog whose addresses are all committed to a
+     * secondary storage tier.
+     */
+    void offloadColdSegments();
+
     /**
      * Get the global tail and stream tails.
      */
@@ -41,6 +41,18 @@ public class StreamLogCompaction {
             } catch (Exception ex) {
                 log.error("Can't compact stream log.", ex);
             }
+
+            try {
+                streamLog.compressColdSegments();
+            } catch (Exception ex) {
+                log.error("Can't compress cold segments of stream log.", ex);
+            }
+
+            try {
+                streamLog.offloadColdSegments();
+            } catch (Exception ex) {
+                log.error("Can't offload cold segments of stream log.", ex);
+            }
         };
         compactor = scheduler.scheduleWithFixedDelay(task, initialDelay, period, timeUnit);
     }
@@ -9,6 +9,8 @@ import org.corfudb.infrastructure.BatchProcessor.BatchProcessorContext;
 import org.corfudb.infrastructure.ResourceQuota;
 import org.corfudb.infrastructure.ServerContext;
 import org.corfudb.infrastructure.log.FileSystemAgent.FileSystemConfig;
+import org.corfudb.infrastructure.log.tier.SegmentTier;
+import org.corfudb.infrastructure.log.tier.SegmentTiers;
 import org.corfudb.protocols.wireprotocol.LogData;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.protocols.wireprotocol.TailsResponse;
@@ -23,9 +25,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -34,6 +38,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -54,10 +59,33 @@ import java.util.stream.Collectors;
 public class StreamLogFiles implements StreamLog {
 
     public static final int RECORDS_PER_LOG_FILE = 10000;
+
+    private static final long DEFAULT_OFFLOAD_AGE_SECONDS = 3600;
+
+    private static final int DEFAULT_TIER_CACHE_SEGMENTS = 8;
     private final Path logDir;
 
     private final StreamLogDataStore dataStore;
 
+    // Maps addresses to segments, which hold at most RECORDS_PER_LOG_FILE addresses
+    private final SegmentDirectory segmentDirectory = new SegmentDirectory(RECORDS_PER_LOG_FILE);
+
+    // The size in bytes after which the tail segment rolls over, or 0 for address count only
+    private final long maxSegmentBytes;
+
+    // Rewrites cold segments as compressed blocks, if enabled
+    private final Optional<SegmentCompressor> segmentCompressor;
+
+    // Cold segments which don't get smaller when compressed, guarded by this
+    private final Set<Long> incompressibleSegments = new HashSet<>();
+
+    // Offloads cold segments to a secondary tier, if enabled
+    private final Optional<SegmentTiering> segmentTiering;
+
+    // The age of the file of a cold segment after which it is offloaded
+    private final Duration offloadAge;
+
+    // Open segments by start address
     private ConcurrentMap<Long, Segment> openSegments;
     private final Optional<AtomicLong> currentTrimMark;
     //=================Log Metadata=================
@@ -73,8 +101,9 @@ public class StreamLogFiles implements StreamLog {
     private final String logUnitSizeMetricName = "logunit.size";
     private final String logUnitTrimMarkMetricName = "logunit.trimmark";
     /**
-     * Prevents corfu from reading and executing maintenance
-     * operations (reset log unit and stream log compaction) in parallel
+     * Prevents corfu from opening segments while the log unit is reset, so that no segment
+     * is reopened between closing the segments and deleting their files. Segments which are
+     * already open are acquired without this lock
      */
     private final ReadWriteLock resetLock = new ReentrantReadWriteLock();
 
@@ -91,8 +120,27 @@ public class StreamLogFiles implements StreamLog {
         logDir = Paths.get(serverContext.getServerConfig().get("--log-path").toString(), "log");
         openSegments = new ConcurrentHashMap<>();
         this.dataStore = new StreamLogDataStore(serverContext.getDataStore());
+        this.maxSegmentBytes = Optional.ofNullable(serverContext.getServerConfig(String.class, "--log-segment-max-bytes"))
+                .map(Long::parseLong)
+                .orElse(0L);
+        this.segmentCompressor = Optional.ofNullable(serverContext.getServerConfig(Boolean.class, "--compress-cold-segments"))
+                .filter(Boolean::booleanValue)
+                .map(enabled -> new SegmentCompressor(SegmentCompressor.DEFAULT_BLOCK_SIZE));
+        this.segmentTiering = getSegmentTiering(serverContext);
+        this.offloadAge = Duration.ofSeconds(Optional.ofNullable(
+                serverContext.getServerConfig(String.class, "--log-tier-offload-age"))
+                .map(Long::parseLong)
+                .orElse(DEFAULT_OFFLOAD_AGE_SECONDS));
 
         initStreamLogDirectory();
+        segmentDirectory.load(logDir);
+        segmentTiering.ifPresent(tiering -> {
+            try {
+                tiering.load(segmentDirectory);
+            } catch (IOException ioe) {
+                throw new IllegalStateException("Can't load the segments of " + tiering.getTier(), ioe);
+            }
+        });
 
         FileSystemConfig config = new FileSystemConfig(serverContext);
         this.fsAgent = FileSystemAgent.init(config, batchProcessorContext);
@@ -119,8 +167,25 @@ public class StreamLogFiles implements StreamLog {
 
     }
 
-    private long getStartingSegment() {
-        return dataStore.getStartingAddress() / RECORDS_PER_LOG_FILE;
+    private static Optional<SegmentTiering> getSegmentTiering(ServerContext serverContext) {
+        String tierUri = serverContext.getServerConfig(String.class, "--log-tier");
+        // In tests, the tier may be provided instead, e.g., backed by an in-process object store
+        SegmentTier providedTier = serverContext.getServerConfig(SegmentTier.class, "log-tier");
+        if (tierUri == null && providedTier == null) {
+            return Optional.empty();
+        }
+
+        int cacheSegments = Optional.ofNullable(
+                serverContext.getServerConfig(String.class, "--log-tier-cache-segments"))
+                .map(Integer::parseInt)
+                .orElse(DEFAULT_TIER_CACHE_SEGMENTS);
+        Path cacheDir = Paths.get(serverContext.getServerConfig().get("--log-path").toString(), "log-tier-cache");
+        try {
+            SegmentTier tier = providedTier != null ? providedTier : SegmentTiers.fromUri(tierUri);
+            return Optional.of(new SegmentTiering(tier, cacheDir, cacheSegments));
+        } catch (IOException ioe) {
+            throw new IllegalStateException("Can't open segment tier " + tierUri, ioe);
+        }
     }
 
     /**
@@ -154,19 +219,19 @@ public class StreamLogFiles implements StreamLog {
      * on this LU and create a map of stream offsets and the global
      * addresses seen.
      * <p>
-     * consecutive segments from [startSegment, endSegment]
+     * all the segments of the segment directory which are not trimmed
      */
     private void initializeLogMetadata() {
-        long startingSegment = getStartingSegment();
-        long tailSegment = dataStore.getTailSegment();
-
         long start = System.currentTimeMillis();
         // Scan the log in reverse, this will ease stream trim mark resolution (as we require the
         // END records of a checkpoint which are always the last entry in this stream)
         // Note: if a checkpoint END record is not found (i.e., incomplete) this data is not considered
         // for stream trim mark computation.
-        for (long currentSegment = tailSegment; currentSegment >= startingSegment; currentSegment--) {
-            Segment segment = getSegmentHandleForAddress(currentSegment * RECORDS_PER_LOG_FILE + 1);
+        for (long segmentStart : segmentDirectory.getStartAddresses().descendingSet()) {
+            if (isSegmentTrimmed(segmentStart)) {
+                break;
+            }
+            Segment segment = getSegmentHandleForAddress(segmentStart);
             try {
                 for (Long address : segment.getAddresses()) {
                     // skip trimmed entries
@@ -177,12 +242,12 @@ public class StreamLogFiles implements StreamLog {
                     logMetadata.update(logEntry, true);
                 }
             } finally {
-                segment.close();
+                segment.release();
             }
         }
 
         // Open segment will add entries to the writeChannels map, therefore we need to clear it
-        openSegments.clear();
+        closeAllSegmentHandlers();
         long end = System.currentTimeMillis();
         log.info("initializeStreamTails: took {} ms to load {}, log start {}", end - start, logMetadata, getTrimMark());
     }
@@ -234,9 +299,8 @@ public class StreamLogFiles implements StreamLog {
     }
 
     private void syncTailSegment(long address) {
-        // TODO(Maithem) since writing a record and setting the tail segment is not
-        // an atomic operation, it is possible to set an incorrect tail segment. In
-        // that case we will need to scan more than one segment
+        // The tail segment is only kept for compatibility, the segments to scan on startup
+        // are given by the segment directory
         logMetadata.updateGlobalTail(address);
         long segment = address / RECORDS_PER_LOG_FILE;
 
@@ -267,6 +331,13 @@ public class StreamLogFiles implements StreamLog {
         return address < dataStore.getStartingAddress();
     }
 
+    /**
+     * A segment is trimmed once all its addresses are trimmed.
+     */
+    private boolean isSegmentTrimmed(long segmentStart) {
+        return segmentDirectory.getSegmentEnd(segmentStart) <= dataStore.getStartingAddress();
+    }
+
     @Override
     public void sync(boolean force) throws IOException {
         if (force) {
@@ -274,25 +345,162 @@ public class StreamLogFiles implements StreamLog {
                     .filter(Segment::isDirty)
                     .toArray(Segment[]::new);
 
-            Arrays.sort(dirtySegments, Comparator.comparingLong(o -> o.id));
+            Arrays.sort(dirtySegments, Comparator.comparingLong(o -> o.startAddress));
             for (Segment sh : dirtySegments) {
-                Optional<Timer.Sample> sample =
-                        MicroMeterUtils.startTimer();
-                sh.flush();
-                MicroMeterUtils.time(sample, "logunit.fsync.timer");
-                log.trace("Syncing segment {}", sh.id);
+                // Skip segments which have been closed (i.e. trimmed) in the meantime
+                if (!sh.retain()) {
+                    continue;
+                }
+                try {
+                    Optional<Timer.Sample> sample =
+                            MicroMeterUtils.startTimer();
+                    sh.flush();
+                    MicroMeterUtils.time(sample, "logunit.fsync.timer");
+                    log.trace("Syncing segment {}", sh.id);
+                } finally {
+                    sh.release();
+                }
             }
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Compaction doesn't block concurrent reads: the trimmed segments are removed from the
+     * open segments and closed, but the channels of a segment are only closed once the last
+     * read using it is done.
+     */
     @Override
     public synchronized void compact() {
-        Lock lock = resetLock.writeLock();
-        lock.lock();
+        trimPrefix();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>A segment is cold once all its addresses are written and committed, i.e. it won't
+     * be written to anymore. Cold segments are rewritten as compressed blocks, and replace
+     * the raw segments without blocking concurrent reads.
+     */
+    @Override
+    public synchronized void compressColdSegments() {
+        if (!segmentCompressor.isPresent()) {
+            return;
+        }
+
+        long committedTail = getCommittedTail();
+        for (long segmentStart : segmentDirectory.getStartAddresses()) {
+            long segmentEnd = segmentDirectory.getSegmentEnd(segmentStart);
+            if (segmentEnd - 1 > committedTail) {
+                break;
+            }
+
+            if (isSegmentTrimmed(segmentStart) || incompressibleSegments.contains(segmentStart)
+                    || segmentTiering.map(tiering -> tiering.isOffloaded(segmentStart)).orElse(false)) {
+                continue;
+            }
+
+            try {
+                compressSegment(segmentStart, segmentEnd);
+            } catch (IOException ioe) {
+                log.error("compressColdSegments: can't compress segment {}", segmentStart, ioe);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Cold segments whose file is older than the offload age are uploaded to the segment
+     * tier and deleted from the log directory. Reads of offloaded segments are served from
+     * local copies in the tier cache.
+     */
+    @Override
+    public synchronized void offloadColdSegments() {
+        if (!segmentTiering.isPresent()) {
+            return;
+        }
+
+        long committedTail = getCommittedTail();
+        long offloadBefore = System.currentTimeMillis() - offloadAge.toMillis();
+        for (long segmentStart : segmentDirectory.getStartAddresses()) {
+            long segmentEnd = segmentDirectory.getSegmentEnd(segmentStart);
+            if (segmentEnd - 1 > committedTail) {
+                break;
+            }
+
+            if (isSegmentTrimmed(segmentStart) || segmentTiering.get().isOffloaded(segmentStart)) {
+                continue;
+            }
+
+            try {
+                Path segmentFile = logDir.resolve(segmentDirectory.getFileName(segmentStart));
+                if (Files.getLastModifiedTime(segmentFile).toMillis() <= offloadBefore) {
+                    offloadSegment(segmentStart, segmentEnd, segmentFile);
+                }
+            } catch (IOException ioe) {
+                log.error("offloadColdSegments: can't offload segment {}", segmentStart, ioe);
+            }
+        }
+    }
+
+    private void offloadSegment(long segmentStart, long segmentEnd, Path segmentFile) throws IOException {
+        Segment segment = getSegmentHandleForAddress(segmentStart);
         try {
-            trimPrefix();
+            if (segment.getNumAddresses() < segmentEnd - segmentStart) {
+                return;
+            }
+
+            long size = segment.getSize();
+            segment.flush();
+            segmentTiering.get().offload(segmentStart, segmentFile);
+
+            // Concurrent reads of the segment go on, since its file is kept open until released
+            if (openSegments.remove(segmentStart, segment)) {
+                segment.close();
+            }
+            Files.delete(segmentFile);
+
+            logSizeQuota.release(size);
+            MicroMeterUtils.counterIncrement(size, "logunit.segment.offload.bytes");
+            log.info("offloadSegment: offloaded segment {} ({} bytes) to {}",
+                    segmentStart, size, segmentTiering.get().getTier());
         } finally {
-            lock.unlock();
+            segment.release();
+        }
+    }
+
+    private void compressSegment(long segmentStart, long segmentEnd) throws IOException {
+        Segment segment = getSegmentHandleForAddress(segmentStart);
+        try {
+            if (segment.isCompressed() || segment.getNumAddresses() < segmentEnd - segmentStart) {
+                return;
+            }
+
+            long rawSize = segment.getSize();
+            long compressedSize = segmentCompressor.get().compress(Paths.get(segment.segmentFilePath));
+            if (compressedSize < 0) {
+                incompressibleSegments.add(segmentStart);
+                return;
+            }
+
+            // Concurrent reads of the raw segment go on, since its file is kept open until released
+            Segment compressed = new Segment(segmentStart, RECORDS_PER_LOG_FILE,
+                    segmentDirectory.getFileName(segmentStart), logDir, logSizeQuota);
+            if (openSegments.replace(segmentStart, segment, compressed)) {
+                segment.close();
+            } else {
+                compressed.close();
+            }
+
+            logSizeQuota.release(rawSize - compressedSize);
+            MicroMeterUtils.counterIncrement(rawSize - compressedSize, "logunit.segment.compression.saved.bytes");
+            MicroMeterUtils.counterIncrement(1, "logunit.segment.compression.segments");
+            log.info("compressSegment: compressed segment {} from {} to {} bytes",
+                    segmentStart, rawSize, compressedSize);
+        } finally {
+            segment.release();
         }
     }
 
@@ -304,41 +512,126 @@ public class StreamLogFiles implements StreamLog {
     private void trimPrefix() {
         // Trim all segments up till the segment that contains the starting address
         // (i.e. trim only complete segments)
-        long endSegment = getStartingSegment() - 1;
+        Set<Long> trimmedSegments = segmentDirectory.getStartAddresses().stream()
+                .filter(this::isSegmentTrimmed)
+                .collect(Collectors.toSet());
 
-        if (endSegment < 0) {
-            log.debug("Only one segment detected, ignoring trim");
+        if (trimmedSegments.isEmpty()) {
+            log.debug("No complete segment to trim, ignoring trim");
             return;
         }
 
         // Close segments before deleting their corresponding log files
-        closeSegmentHandlers(endSegment);
+        closeSegmentHandlers(trimmedSegments);
 
-        deleteFilesMatchingFilter(file -> {
+        if (segmentTiering.isPresent()) {
             try {
-                String segmentStr = file.getName().split("\\.")[0];
-                return Long.parseLong(segmentStr) <= endSegment;
-            } catch (Exception e) {
+                segmentTiering.get().delete(trimmedSegments.stream()
+                        .collect(Collectors.toMap(Function.identity(), segmentDirectory::getFileName)));
+            } catch (IOException ioe) {
+                log.error("trimPrefix: can't delete offloaded segments", ioe);
+            }
+        }
+
+        deleteFilesMatchingFilter(file -> {
+            Optional<Long> segmentStart = segmentDirectory.parseStartAddress(file.getName());
+            if (!segmentStart.isPresent()) {
                 log.warn("trimPrefix: ignoring file {}", file.getName());
                 return false;
             }
+            return trimmedSegments.contains(segmentStart.get());
         });
 
-        log.info("trimPrefix: completed, end segment {}", endSegment);
+        // Drop the segments from the directory last, since it gives the end of the segments
+        trimmedSegments.forEach(segmentDirectory::remove);
+        incompressibleSegments.removeAll(trimmedSegments);
+
+        log.info("trimPrefix: completed, trimmed {} segments, end segment {}",
+                trimmedSegments.size(), Collections.max(trimmedSegments) / RECORDS_PER_LOG_FILE);
     }
 
     /**
-     * Return a SegmentHandle for a corresponding log address.
+     * Return a SegmentHandle for a corresponding log address. The handle is retained and has
+     * to be released by the caller.
      *
      * @param address global log address.
      * @return The corresponding segment for address
+     * @throws TrimmedException if the segment of the address has been trimmed, so that
+     *                          a trimmed segment (file) is never opened (created) again
      */
     Segment getSegmentHandleForAddress(long address) {
-        long segmentId = address / RECORDS_PER_LOG_FILE;
-        Segment handle = openSegments.computeIfAbsent(segmentId,
-                a -> new Segment(a, RECORDS_PER_LOG_FILE, logDir, logSizeQuota));
-        handle.retain();
-        return handle;
+        while (true) {
+            long segmentStart = segmentDirectory.getSegmentStart(address);
+            // Reads of open segments don't take any lock, only opening a segment is fenced
+            Segment handle = openSegments.get(segmentStart);
+            if (handle == null) {
+                handle = acquireSegment(segmentStart);
+            }
+
+            if (handle.retain()) {
+                if (segmentTiering.isPresent() && segmentTiering.get().isOffloaded(segmentStart)) {
+                    closeSegmentHandlers(new HashSet<>(segmentTiering.get().touch(segmentStart)));
+                }
+                return handle;
+            }
+
+            // The segment has been closed concurrently (i.e. trimmed or reset), don't reuse it
+            openSegments.remove(segmentStart, handle);
+        }
+    }
+
+    /**
+     * Get the open segment of a start address, opening it if needed. A segment is never
+     * opened while the log unit is reset.
+     */
+    private Segment acquireSegment(long segmentStart) {
+        Lock lock = resetLock.readLock();
+        lock.lock();
+
+        try {
+            return openSegments.computeIfAbsent(segmentStart, this::openSegment);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Segment openSegment(long segmentStart) {
+        if (isSegmentTrimmed(segmentStart)) {
+            throw new TrimmedException();
+        }
+        String fileName = segmentDirectory.getFileName(segmentStart);
+        if (segmentTiering.isPresent() && segmentTiering.get().isOffloaded(segmentStart)) {
+            return segmentTiering.get().openCached(segmentStart, fileName,
+                    cacheDir -> new Segment(segmentStart, RECORDS_PER_LOG_FILE, fileName, cacheDir, logSizeQuota));
+        }
+
+        Segment segment = new Segment(segmentStart, RECORDS_PER_LOG_FILE, fileName, logDir, logSizeQuota);
+        segmentDirectory.add(segmentStart);
+        return segment;
+    }
+
+    /**
+     * Roll the segment over to a new segment, if it is the tail segment and it reached
+     * the maximum segment size. The new segment starts right after the highest address of
+     * the segment, and is created right away so that the rollover is persisted.
+     *
+     * @param segment the segment that was written to
+     */
+    private void maybeRollover(Segment segment) throws IOException {
+        if (maxSegmentBytes <= 0 || segment.getSize() < maxSegmentBytes) {
+            return;
+        }
+
+        long nextStart = segment.getMaxAddress() + 1;
+        if (nextStart >= segmentDirectory.getSegmentEnd(segment.startAddress)) {
+            // Not the tail segment, or full anyways
+            return;
+        }
+
+        // Segments are only reachable by address once in the directory, so open it by start address
+        openSegments.computeIfAbsent(nextStart, this::openSegment);
+        log.info("maybeRollover: segment {} rolled over at {} bytes, next segment starts at {}",
+                segment.startAddress, segment.getSize(), nextStart);
     }
 
 
@@ -352,23 +645,28 @@ public class StreamLogFiles implements StreamLog {
      */
     @Override
     public Set<Long> getKnownAddressesInRange(long rangeStart, long rangeEnd) {
+        Set<Long> result = new HashSet<>();
+        for (long address = rangeStart; address <= rangeEnd; address++) {
+            if (isTrimmed(address)) {
+                continue;
+            }
 
-        Lock lock = resetLock.readLock();
-        lock.lock();
+            Segment handle;
+            try {
+                handle = getSegmentHandleForAddress(address);
+            } catch (TrimmedException te) {
+                continue;
+            }
 
-        try {
-            Set<Long> result = new HashSet<>();
-            for (long address = rangeStart; address <= rangeEnd; address++) {
-                Segment handle = getSegmentHandleForAddress(address);
+            try {
                 if (handle.contains(address)) {
                     result.add(address);
                 }
+            } finally {
                 handle.release();
             }
-            return result;
-        } finally {
-            lock.unlock();
         }
+        return result;
     }
 
     /**
@@ -416,8 +714,8 @@ public class StreamLogFiles implements StreamLog {
         return rangeToWrite;
     }
 
-    private long getSegmentId(long address) {
-        return address / RECORDS_PER_LOG_FILE;
+    private long getSegmentStart(long address) {
+        return segmentDirectory.getSegmentStart(address);
     }
 
     @Override
@@ -431,13 +729,13 @@ public class StreamLogFiles implements StreamLog {
 
         Map<Long, List<LogData>> batches = new HashMap<>(2);
         for (LogData ld : rangeToWrite) {
-            batches.computeIfAbsent(getSegmentId(ld.getGlobalAddress()), i -> new ArrayList<>()).add(ld);
+            batches.computeIfAbsent(getSegmentStart(ld.getGlobalAddress()), i -> new ArrayList<>()).add(ld);
         }
 
         Preconditions.checkArgument(!batches.isEmpty() && batches.size() <= 2, "range too big!");
 
         for (long batchSegment : batches.keySet()) {
-            Segment sh = getSegmentHandleForAddress(batchSegment * RECORDS_PER_LOG_FILE);
+            Segment sh = getSegmentHandleForAddress(batchSegment);
             for (LogData ld : batches.get(batchSegment)) {
                 if (sh.contains(ld.getGlobalAddress())) {
                     sh.release();
@@ -453,8 +751,12 @@ public class StreamLogFiles implements StreamLog {
             for (long batchSegment : batches.keySet()) {
                 List<LogData> entries = batches.get(batchSegment);
                 Segment sh = getSegmentHandleForAddress(entries.get(0).getGlobalAddress());
-                numBytes += sh.write(entries);
-                sh.release();
+                try {
+                    numBytes += sh.write(entries);
+                    maybeRollover(sh);
+                } finally {
+                    sh.release();
+                }
                 syncTailSegment(entries.get(entries.size() - 1).getGlobalAddress());
                 logMetadata.update(entries);
             }
@@ -474,7 +776,12 @@ public class StreamLogFiles implements StreamLog {
             throw new OverwriteException(OverwriteCause.TRIM);
         }
 
-        Segment segment = getSegmentHandleForAddress(address);
+        Segment segment;
+        try {
+            segment = getSegmentHandleForAddress(address);
+        } catch (TrimmedException te) {
+            throw new OverwriteException(OverwriteCause.TRIM);
+        }
 
         try {
             if (segment.contains(address)) {
@@ -483,6 +790,7 @@ public class StreamLogFiles implements StreamLog {
                 throw new OverwriteException(overwriteCause);
             } else {
                 long size = segment.write(address, entry);
+                maybeRollover(segment);
                 syncTailSegment(address);
                 logMetadata.update(entry, false);
 
@@ -499,24 +807,28 @@ public class StreamLogFiles implements StreamLog {
 
     @Override
     public LogData read(long address) {
-        Lock lock = resetLock.readLock();
-        lock.lock();
+        if (isTrimmed(address)) {
+            return LogData.getTrimmed(address);
+        }
 
+        Segment segment;
         try {
-            if (isTrimmed(address)) {
-                return LogData.getTrimmed(address);
-            }
-            Segment segment = getSegmentHandleForAddress(address);
+            segment = getSegmentHandleForAddress(address);
+        } catch (TrimmedException te) {
+            return LogData.getTrimmed(address);
+        }
 
-            try {
-                return segment.read(address);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            } finally {
-                segment.release();
+        try {
+            LogData data = segment.read(address);
+            // The segment might have been trimmed (and deleted) before it was opened
+            if (data == null && isTrimmed(address)) {
+                return LogData.getTrimmed(address);
             }
+            return data;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         } finally {
-            lock.unlock();
+            segment.release();
         }
     }
 
@@ -532,16 +844,18 @@ public class StreamLogFiles implements StreamLog {
             return true;
         }
 
-        Lock lock = resetLock.readLock();
-        lock.lock();
-
-        Segment segment = getSegmentHandleForAddress(address);
+        Segment segment;
+        try {
+            segment = getSegmentHandleForAddress(address);
+        } catch (TrimmedException te) {
+            // The segment has been compacted since the check above, its entries are gone
+            return false;
+        }
 
         try {
             return segment.contains(address);
         } finally {
             segment.release();
-            lock.unlock();
         }
     }
 
@@ -556,25 +870,25 @@ public class StreamLogFiles implements StreamLog {
     }
 
     /**
-     * Closes all segment handlers up to and including the handler for the endSegment.
+     * Closes the segment handlers of the given segments.
+     * Segments are removed before they are closed, so that new operations don't use them.
      *
-     * @param endSegment The segment index of the last segment up to (including) the end segment.
+     * @param segmentStarts The start addresses of the segments to close.
      */
     @VisibleForTesting
-    void closeSegmentHandlers(long endSegment) {
+    void closeSegmentHandlers(Set<Long> segmentStarts) {
         for (Segment sh : openSegments.values()) {
-            if (sh.id <= endSegment) {
+            if (segmentStarts.contains(sh.startAddress) && openSegments.remove(sh.startAddress, sh)) {
                 sh.close();
-                Segment temp = openSegments.remove(sh.id);
-                Preconditions.checkState(temp != null);
             }
         }
     }
 
     private void closeAllSegmentHandlers() {
         for (Segment sh : openSegments.values()) {
-            sh.close();
-            openSegments.remove(sh.id);
+            if (openSegments.remove(sh.startAddress, sh)) {
+                sh.close();
+            }
         }
     }
 
@@ -616,7 +930,7 @@ public class StreamLogFiles implements StreamLog {
      * Usage: To heal a recovering node, we require to wipe off existing data.
      */
     @Override
-    public void reset() {
+    public synchronized void reset() {
         // Trim all segments
         log.warn("Reset. Global Tail:{}", logMetadata.getGlobalTail());
 
@@ -628,6 +942,15 @@ public class StreamLogFiles implements StreamLog {
             closeAllSegmentHandlers();
             Preconditions.checkState(openSegments.isEmpty());
             deleteFilesMatchingFilter(file -> true);
+            segmentDirectory.clear();
+            incompressibleSegments.clear();
+            segmentTiering.ifPresent(tiering -> {
+                try {
+                    tiering.reset();
+                } catch (IOException ioe) {
+                    throw new IllegalStateException("Can't reset the segments of " + tiering.getTier(), ioe);
+                }
+            });
 
             dataStore.resetStartingAddress();
             dataStore.resetTailSegment();
@@ -0,0 +1,84 @@
+package org.corfudb.infrastructure.log.tier;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.corfudb.infrastructure.utils.Persistence.syncDirectory;
+
+/**
+ * A segment tier backed by a directory, typically on a larger and slower device than the
+ * log directory.
+ */
+public class FileSystemSegmentTier implements SegmentTier {
+
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    @Getter
+    private final Path directory;
+
+    public FileSystemSegmentTier(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    @Override
+    public void upload(String fileName, Path source) throws IOException {
+        Path tempFile = directory.resolve(fileName + TEMP_EXTENSION);
+        try {
+            Files.copy(source, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            // The local segment is deleted once uploaded, so its copy has to be durable first
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(tempFile, directory.resolve(fileName), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory(directory.toString());
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public void download(String fileName, Path target) throws IOException {
+        Files.copy(directory.resolve(fileName), target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public long size(String fileName) throws IOException {
+        return Files.size(directory.resolve(fileName));
+    }
+
+    @Override
+    public Set<String> list() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(Path::getFileName)
+                    .map(Path::toString)
+                    .filter(name -> !name.endsWith(TEMP_EXTENSION))
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    @Override
+    public void delete(String fileName) throws IOException {
+        Files.deleteIfExists(directory.resolve(fileName));
+    }
+
+    @Override
+    public String toString() {
+        return "file:" + directory;
+    }
+
+    static FileSystemSegmentTier fromPath(String path) throws IOException {
+        return new FileSystemSegmentTier(Paths.get(path));
+    }
+}
@@ -0,0 +1,41 @@
+package org.corfudb.infrastructure.log.tier;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+/**
+ * The subset of the API of an S3-compatible object store used by {@link ObjectStoreSegmentTier}:
+ * whole objects addressed by key within a bucket, where a put is atomic. Object data is
+ * streamed, so an object doesn't have to fit in memory.
+ */
+public interface ObjectStore {
+
+    /**
+     * Put an object, reading its data from a stream.
+     *
+     * @param data   the data of the object, which is not closed
+     * @param length the length of the data
+     */
+    void putObject(String bucket, String key, InputStream data, long length) throws IOException;
+
+    /**
+     * Get an object.
+     *
+     * @return a stream of the data of the object, which has to be closed by the caller
+     * @throws java.io.FileNotFoundException if there is no such object
+     */
+    InputStream getObject(String bucket, String key) throws IOException;
+
+    /**
+     * Get the size of an object.
+     *
+     * @return the length of the data of the object
+     * @throws java.io.FileNotFoundException if there is no such object
+     */
+    long getObjectSize(String bucket, String key) throws IOException;
+
+    Set<String> listObjects(String bucket, String prefix) throws IOException;
+
+    void deleteObject(String bucket, String key) throws IOException;
+}
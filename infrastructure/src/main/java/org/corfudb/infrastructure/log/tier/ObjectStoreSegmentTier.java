@@ -0,0 +1,65 @@
+package org.corfudb.infrastructure.log.tier;
+
+import lombok.AllArgsConstructor;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A segment tier backed by a bucket of an S3-compatible object store. Each segment file is
+ * an object whose key is the file name under a prefix. Segment files are streamed to and from
+ * the object store, so they are never held in memory as a whole.
+ */
+@AllArgsConstructor
+public class ObjectStoreSegmentTier implements SegmentTier {
+
+    private static final int TRANSFER_BUFFER_SIZE = 1 << 16;
+
+    private final ObjectStore objectStore;
+
+    private final String bucket;
+
+    private final String prefix;
+
+    @Override
+    public void upload(String fileName, Path source) throws IOException {
+        try (InputStream data = new BufferedInputStream(Files.newInputStream(source), TRANSFER_BUFFER_SIZE)) {
+            objectStore.putObject(bucket, prefix + fileName, data, Files.size(source));
+        }
+    }
+
+    @Override
+    public void download(String fileName, Path target) throws IOException {
+        try (InputStream data = objectStore.getObject(bucket, prefix + fileName)) {
+            Files.copy(data, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public long size(String fileName) throws IOException {
+        return objectStore.getObjectSize(bucket, prefix + fileName);
+    }
+
+    @Override
+    public Set<String> list() throws IOException {
+        return objectStore.listObjects(bucket, prefix).stream()
+                .map(key -> key.substring(prefix.length()))
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void delete(String fileName) throws IOException {
+        objectStore.deleteObject(bucket, prefix + fileName);
+    }
+
+    @Override
+    public String toString() {
+        return "object-store:" + bucket + "/" + prefix;
+    }
+}
@@ -0,0 +1,58 @@
+package org.corfudb.infrastructure.log.tier;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * A secondary storage tier for sealed segment files of the stream log. Segment files are
+ * stored as a whole and addressed by their file name.
+ *
+ * Implementations must make uploads atomic: a segment file is either entirely stored in
+ * the tier or not at all, so that a crash during an upload never leaves a partial segment.
+ */
+public interface SegmentTier {
+
+    /**
+     * Store a copy of a segment file, replacing any previous copy.
+     *
+     * @param fileName the name of the segment file
+     * @param source   the segment file to copy
+     * @throws IOException if the segment file can't be stored
+     */
+    void upload(String fileName, Path source) throws IOException;
+
+    /**
+     * Copy a stored segment file to a local file.
+     *
+     * @param fileName the name of the segment file
+     * @param target   the local file to copy to, which is replaced if it exists
+     * @throws IOException if the segment file can't be read
+     */
+    void download(String fileName, Path target) throws IOException;
+
+    /**
+     * Get the size of a stored segment file.
+     *
+     * @param fileName the name of the segment file
+     * @return the size in bytes
+     * @throws IOException if the segment file can't be read
+     */
+    long size(String fileName) throws IOException;
+
+    /**
+     * Get the names of all the stored segment files.
+     *
+     * @return the file names
+     * @throws IOException if the tier can't be listed
+     */
+    Set<String> list() throws IOException;
+
+    /**
+     * Delete a stored segment file, if it exists.
+     *
+     * @param fileName the name of the segment file
+     * @throws IOException if the segment file can't be deleted
+     */
+    void delete(String fileName) throws IOException;
+}
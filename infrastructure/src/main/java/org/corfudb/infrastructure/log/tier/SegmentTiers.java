@@ -0,0 +1,26 @@
+package org.corfudb.infrastructure.log.tier;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Creates the segment tier of a tier URI:
+ * <ul>
+ * <li>{@code file:///path/to/directory} for a {@link FileSystemSegmentTier}</li>
+ * </ul>
+ * A tier has to be durable: the local copy of a segment is deleted once it is offloaded.
+ */
+public final class SegmentTiers {
+
+    private SegmentTiers() {
+        // prevent instantiation of this class
+    }
+
+    public static SegmentTier fromUri(String tierUri) throws IOException {
+        URI uri = URI.create(tierUri);
+        if ("file".equals(uri.getScheme())) {
+            return FileSystemSegmentTier.fromPath(uri.getPath());
+        }
+        throw new IllegalArgumentException("Unsupported segment tier " + tierUri);
+    }
+}
@@ -98,6 +98,18 @@ public class LogReplicationConfig {
      */
     private int maxSnapshotEntriesApplied = DEFAULT_MAX_SNAPSHOT_ENTRIES_APPLIED;
 
+    /**
+     * Max size in bytes of the consecutive log entries (opaque entries) coalesced in a single transaction on Sink
+     * during log entry sync.  0 applies each log entry in its own transaction.
+     */
+    private int maxLogEntryApplySize = 0;
+
+    /**
+     * Whether the SMR entries of the replicated streams are passed through without being deserialized, i.e., they are
+     * forwarded as the bytes read from the Source's log, and appended verbatim to the Sink's log.
+     */
+    private boolean passThrough = false;
+
     /**
      * Constructor exposed to {@link CorfuReplicationDiscoveryService}
      */
@@ -55,6 +55,7 @@ public class CorfuInterClusterReplicationServer implements Runnable {
                     + "[--max-replication-write-size=<max-replication-write-size>] "
                     + "[--lock-lease=<lease-duration>]"
                     + "[--max-snapshot-entries-applied=<max-snapshot-entries-applied>]"
+                    + "[--max-log-entry-apply-size=<max-log-entry-apply-size>]"
                     + "[-c <ratio>] [-d <level>] [-p <seconds>] "
                     + "[--lrCacheSize=<cache-num-entries>]"
                     + "[--plugin=<plugin-config-file-path>]"
@@ -67,7 +68,7 @@ public class CorfuInterClusterReplicationServer implements Runnable {
                     + "[-H <seconds>] [-I <cluster-id>] [-x <ciphers>] [-z <tls-protocols>]] "
                     + "[--disable-cert-expiry-check-file=<file_path>]"
                     + "[--metrics]"
-                    + "[-P <prefix>] [-R <retention>] <port>\n"
+                    + "[--busy-poll=<micros>] [-P <prefix>] [-R <retention>] <port>\n"
                     + "\n"
                     + "Options:\n"
                     + " -l <path>, --log-path=<path>                                             "
@@ -93,8 +94,11 @@ public class CorfuInterClusterReplicationServer implements Runnable {
                     + " --network-interface-version=<interface-version>                "
                     + "              The version of the network interface, IPv4 or IPv6(default).\n"
                     + " -i <channel-implementation>, --implementation <channel-implementation>   "
-                    + "              The type of channel to use (auto, nio, epoll, kqueue)"
-                    + "[default: nio].\n"
+                    + "              The type of channel to use (auto, nio, epoll, kqueue). A native"
+                    + " channel type which is not available falls back to nio [default: nio].\n"
+                    + " --busy-poll=<micros>                                                     "
+                    + "              The SO_BUSY_POLL timeout in microseconds of epoll channels, or 0"
+                    + " to disable busy polling [default: 0].\n"
                     + " -m, --memory                                                             "
                     + "              Run the unit in-memory (non-persistent).\n"
                     + "              Data will be lost when the server exits!\n"
@@ -192,6 +196,9 @@ public class CorfuInterClusterReplicationServer implements Runnable {
                     + " --max-snapshot-entries-applied=<max-snapshot-entries-applied>            "
                     + "              Max number of entries applied in a snapshot transaction.  50 by default."
                     + "              For special tables only\n.                                  "
+                    + " --max-log-entry-apply-size=<max-log-entry-apply-size>                    "
+                    + "              Max size in bytes of the log entries applied in a single transaction\n"
+                    + "              during log entry sync.  0 (default) applies each entry separately.\n "
                     + " -h, --help                                                               "
                     + "              Show this screen\n"
                     + " --version                                                                "
@@ -377,6 +377,8 @@ public class CorfuReplicationDiscoveryService implements Runnable, CorfuReplicat
                     .keyStore((String) serverContext.getServerConfig().get(ConfigParamNames.KEY_STORE))
                     .ksPasswordFile((String) serverContext.getServerConfig().get(ConfigParamNames.KEY_STORE_PASS_FILE))
                     .tlsEnabled((Boolean) serverContext.getServerConfig().get("--enable-tls"))
+                    .socketType(serverContext.getClientChannelImplementation())
+                    .nettyBusyPollMicros(serverContext.getBusyPollMicros())
                     .systemDownHandler(() -> System.exit(SYSTEM_EXIT_ERROR_CODE))
                     // This runtime is used for the LockStore, Metadata Manager and Log Entry Sync, which don't rely
                     // heavily on the cache (hence can be smaller)
@@ -431,12 +433,15 @@ public class CorfuReplicationDiscoveryService implements Runnable, CorfuReplicat
             replicationConfigManager =
                 new LogReplicationConfigManager(runtime, serverContext.getPluginConfigFilePath());
 
-            return new LogReplicationConfig(
+            LogReplicationConfig logReplicationConfig = new LogReplicationConfig(
                     replicationConfigManager,
                     serverContext.getLogReplicationMaxNumMsgPerBatch(),
                     serverContext.getLogReplicationMaxDataMessageSize(),
                     serverContext.getLogReplicationCacheMaxSize(),
                     serverContext.getMaxSnapshotEntriesApplied());
+            logReplicationConfig.setMaxLogEntryApplySize(serverContext.getMaxLogEntryApplySize());
+            logReplicationConfig.setPassThrough(serverContext.isLogReplicationPassThrough());
+            return logReplicationConfig;
         } catch (Throwable t) {
             log.error("Exception when fetching the Replication Config", t);
             throw t;
@@ -138,6 +138,8 @@ public class CorfuReplicationManager {
                             .trustStore(corfuRuntime.getParameters().getTrustStore())
                             .tsPasswordFile(corfuRuntime.getParameters().getTsPasswordFile())
                             .maxWriteSize(corfuRuntime.getParameters().getMaxWriteSize())
+                            .socketType(corfuRuntime.getParameters().getSocketType())
+                            .nettyBusyPollMicros(corfuRuntime.getParameters().getNettyBusyPollMicros())
                             .build();
                     CorfuLogReplicationRuntime replicationRuntime = new CorfuLogReplicationRuntime(parameters,
                             metadataManager, replicationConfigManager);
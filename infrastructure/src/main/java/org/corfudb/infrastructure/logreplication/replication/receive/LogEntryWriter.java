@@ -3,6 +3,7 @@ package org.corfudb.infrastructure.logreplication.replication.receive;
 import com.google.protobuf.TextFormat;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.infrastructure.logreplication.LogReplicationConfig;
+import org.corfudb.infrastructure.logreplication.replication.send.logreader.ReaderUtility;
 import org.corfudb.protocols.logprotocol.OpaqueEntry;
 import org.corfudb.protocols.logprotocol.SMREntry;
 import org.corfudb.protocols.service.CorfuProtocolLogReplication;
@@ -18,6 +19,7 @@ import org.corfudb.util.retry.RetryNeededException;
 
 import javax.annotation.concurrent.NotThreadSafe;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -57,6 +59,51 @@ public class LogEntryWriter extends SinkWriter {
         }
     }
 
+    /**
+     * Split the OpaqueEntries of a message into the groups which are applied in a single transaction.
+     *
+     * Without a coalescing budget (maxLogEntryApplySize), each OpaqueEntry is applied in its own
+     * transaction, preserving the transaction boundaries of the Source.  Otherwise, consecutive
+     * OpaqueEntries are grouped as long as the size of their SMR entries fits in the budget (bounded
+     * by the max write size).  A group always ends with an entry which updates the registry table, as
+     * the config has to be synced with the registry table before the following entries are applied.
+     *
+     * @param opaqueEntryList OpaqueEntries of the message
+     * @return groups of OpaqueEntries, in order
+     */
+    private List<List<OpaqueEntry>> groupOpaqueEntries(List<OpaqueEntry> opaqueEntryList) {
+        List<List<OpaqueEntry>> groups = new ArrayList<>();
+        if (config.getMaxLogEntryApplySize() <= 0) {
+            opaqueEntryList.forEach(opaqueEntry -> groups.add(Collections.singletonList(opaqueEntry)));
+            return groups;
+        }
+
+        final long budget = Math.min(config.getMaxLogEntryApplySize(),
+            logReplicationMetadataManager.getRuntime().getParameters().getMaxWriteSize());
+        List<OpaqueEntry> group = new ArrayList<>();
+        long groupSize = 0;
+        for (OpaqueEntry opaqueEntry : opaqueEntryList) {
+            int entrySize = ReaderUtility.calculateOpaqueEntrySize(opaqueEntry);
+            if (!group.isEmpty() && groupSize + entrySize > budget) {
+                groups.add(group);
+                group = new ArrayList<>();
+                groupSize = 0;
+            }
+            group.add(opaqueEntry);
+            groupSize += entrySize;
+
+            if (opaqueEntry.getEntries().containsKey(REGISTRY_TABLE_ID)) {
+                groups.add(group);
+                group = new ArrayList<>();
+                groupSize = 0;
+            }
+        }
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+        return groups;
+    }
+
     /**
      * Extract OpaqueEntries from the message and write them to the log.  OpaqueEntries which were already applied
      * are skipped
@@ -73,16 +120,17 @@ public class LogEntryWriter extends SinkWriter {
         // Boolean value that indicate if the config should sync with registry table or not. Note that primitive boolean
         // value cannot be used here as its value needs to be changed in the lambda function below.
         AtomicBoolean registryTableUpdated = new AtomicBoolean(false);
-        List<OpaqueEntry> opaqueEntryList = CorfuProtocolLogReplication.extractOpaqueEntries(txMessage);
+        List<OpaqueEntry> opaqueEntryList = CorfuProtocolLogReplication.extractOpaqueEntries(txMessage,
+            config.isPassThrough());
 
-        for (OpaqueEntry opaqueEntry : opaqueEntryList) {
+        for (List<OpaqueEntry> group : groupOpaqueEntries(opaqueEntryList)) {
             try {
                 IRetry.build(IntervalRetry.class, () -> {
                     try (TxnContext txnContext = logReplicationMetadataManager.getTxnContext()) {
 
-                        // NOTE: The topology config id should be queried and validated for every opaque entry because the
-                        // Sink could have received concurrent topology config id changes.  Here we are leveraging a
-                        // single read to fetch multiple metadata types.  This will be cleanly handled when the
+                        // NOTE: The topology config id should be queried and validated for every transaction because
+                        // the Sink could have received concurrent topology config id changes.  Here we are leveraging
+                        // a single read to fetch multiple metadata types.  This will be cleanly handled when the
                         // Metadata table's schema is changed to use the remote session as the key instead of
                         // metadata type.
                         Map<LogReplicationMetadataType, Long> metadataMap =
@@ -119,55 +167,42 @@ public class LogEntryWriter extends SinkWriter {
                         }
 
                         // Skip Opaque entries with timestamp that are not larger than persistedOpaqueEntryTs
-                        if (opaqueEntry.getVersion() <= persistedOpaqueEntryTs) {
-                            log.trace("Skipping entry {} as it is less than the last applied opaque entry {}",
-                                opaqueEntry.getVersion(), persistedOpaqueEntryTs);
+                        List<OpaqueEntry> entriesToApply = new ArrayList<>();
+                        for (OpaqueEntry opaqueEntry : group) {
+                            if (opaqueEntry.getVersion() <= persistedOpaqueEntryTs) {
+                                log.trace("Skipping entry {} as it is less than the last applied opaque entry {}",
+                                    opaqueEntry.getVersion(), persistedOpaqueEntryTs);
+                            } else {
+                                entriesToApply.add(opaqueEntry);
+                            }
+                        }
+                        if (entriesToApply.isEmpty()) {
                             return null;
                         }
+                        long lastVersion = entriesToApply.get(entriesToApply.size() - 1).getVersion();
 
                         // LAST_LOG_ENTRY_APPLIED has the timestamp of the last OpaqueEntry applied from a
                         // batch of opaque entries received.
                         logReplicationMetadataManager.appendUpdate(txnContext,
-                            LogReplicationMetadataType.LAST_LOG_ENTRY_APPLIED, opaqueEntry.getVersion());
+                            LogReplicationMetadataType.LAST_LOG_ENTRY_APPLIED, lastVersion);
 
                         // CorfuStore uses WriteAfterWriteTransaction type so even though the topology is read
-                        // and validated for each OpaqueEntry, this read will not be used to detect a concurrent
+                        // and validated for each transaction, this read will not be used to detect a concurrent
                         // topology update on the Sink.  So force an update to this key by using the touch() api.
                         // NOTE: This will be addressed once the schema of the metadata table is updated to have
                         // all types in a single key (remote session)
                         logReplicationMetadataManager.touch(txnContext, LogReplicationMetadataType.TOPOLOGY_CONFIG_ID);
 
-                        // If this is the last OpaqueEntry in the message/batch, update LAST_LOG_ENTRY_BATCH_PROCESSED
-                        // with its timestamp
-                        if (opaqueEntry.getVersion() == txMessage.getMetadata().getTimestamp()) {
+                        // If the last OpaqueEntry in the message/batch is applied, update
+                        // LAST_LOG_ENTRY_BATCH_PROCESSED with its timestamp
+                        if (lastVersion == txMessage.getMetadata().getTimestamp()) {
                             logReplicationMetadataManager.appendUpdate(txnContext,
                                 LogReplicationMetadataType.LAST_LOG_ENTRY_BATCH_PROCESSED,
                                 txMessage.getMetadata().getTimestamp());
                         }
 
-                        for (UUID streamId : opaqueEntry.getEntries().keySet()) {
-                            if (ignoreEntriesForStream(streamId)) {
-                                log.warn("Skip applying log entries for stream {} as it is noisy. The Source and" +
-                                    "Sink sites could be on different versions", streamId);
-                                continue;
-                            }
-
-                            List<SMREntry> smrEntries = opaqueEntry.getEntries().get(streamId);
-                            if (streamId.equals(REGISTRY_TABLE_ID)) {
-                                // If registry table entries are being handled, indicate the config to sync with
-                                // registry table after this transaction.
-                                smrEntries = filterRegistryTableEntries(new ArrayList<>(smrEntries));
-                                if (!smrEntries.isEmpty()) {
-                                    log.info("Registry Table entries during log entry sync = {}", smrEntries.size());
-                                    registryTableUpdated.set(true);
-                                }
-                            }
-
-                            for (SMREntry smrEntry : smrEntries) {
-                                // If stream tags exist for the current stream, it means its intended for streaming
-                                // on the Sink (receiver)
-                                txnContext.logUpdate(streamId, smrEntry, config.getDataStreamToTagsMap().get(streamId));
-                            }
+                        for (OpaqueEntry opaqueEntry : entriesToApply) {
+                            logUpdates(txnContext, opaqueEntry, registryTableUpdated);
                         }
                         txnContext.commit();
                         // Sync with registry table if registry table entries are handled in last transaction, in order
@@ -188,10 +223,10 @@ public class LogEntryWriter extends SinkWriter {
                     return null;
                 }).run();
             } catch (IllegalArgumentException e) {
-                log.error("Metadata mismatch detected in entry with sequence " + opaqueEntry.getVersion(), e);
+                log.error("Metadata mismatch detected in entry with sequence " + group.get(0).getVersion(), e);
                 return false;
             } catch (InterruptedException e) {
-                log.error("Could not apply entry with sequence " + opaqueEntry.getVersion());
+                log.error("Could not apply entry with sequence " + group.get(0).getVersion());
                 return false;
             }
         }
@@ -201,6 +236,40 @@ public class LogEntryWriter extends SinkWriter {
         return true;
     }
 
+    /**
+     * Log the SMR entries of an OpaqueEntry in the transaction.
+     *
+     * @param txnContext           transaction in which the updates are logged
+     * @param opaqueEntry          OpaqueEntry to apply
+     * @param registryTableUpdated set if registry table entries are logged
+     */
+    private void logUpdates(TxnContext txnContext, OpaqueEntry opaqueEntry, AtomicBoolean registryTableUpdated) {
+        for (UUID streamId : opaqueEntry.getEntries().keySet()) {
+            if (ignoreEntriesForStream(streamId)) {
+                log.warn("Skip applying log entries for stream {} as it is noisy. The Source and" +
+                    "Sink sites could be on different versions", streamId);
+                continue;
+            }
+
+            List<SMREntry> smrEntries = opaqueEntry.getEntries().get(streamId);
+            if (streamId.equals(REGISTRY_TABLE_ID)) {
+                // If registry table entries are being handled, indicate the config to sync with
+                // registry table after this transaction.
+                smrEntries = filterRegistryTableEntries(new ArrayList<>(smrEntries));
+                if (!smrEntries.isEmpty()) {
+                    log.info("Registry Table entries during log entry sync = {}", smrEntries.size());
+                    registryTableUpdated.set(true);
+                }
+            }
+
+            for (SMREntry smrEntry : smrEntries) {
+                // If stream tags exist for the current stream, it means its intended for streaming
+                // on the Sink (receiver)
+                txnContext.logUpdate(streamId, smrEntry, config.getDataStreamToTagsMap().get(streamId));
+            }
+        }
+    }
+
     /**
      * Apply message at the destination Corfu Cluster
      *
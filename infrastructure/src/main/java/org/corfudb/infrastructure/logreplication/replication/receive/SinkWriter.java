@@ -47,7 +47,8 @@ public abstract class SinkWriter {
     /**
      * Drop Source side registry table entries whose is_federated flag differs from records in Sink side registry.
      * For entries to be applied, add their serialization info before applying, because the registry table will be read
-     * subsequently but in log replication table entries are sent to Sink in form of OpaqueEntry,
+     * subsequently but in log replication table entries are sent to Sink in form of OpaqueEntry (pass-through entries
+     * are deserialized first),
      *
      * @param smrEntries List of SMREntry for registry table
      * @return A list of new SMR entries with their serialization info added.
@@ -58,7 +59,7 @@ public abstract class SinkWriter {
         for (SMREntry smrEntry : smrEntries) {
             // Get serialized form of arguments for registry table. They were sent in OpaqueEntry and
             // need to be deserialized using ProtobufSerializer
-            Object[] objs = smrEntry.getSMRArguments();
+            Object[] objs = smrEntry.decodePassThrough().getSMRArguments();
             ByteBuf keyBuf = Unpooled.wrappedBuffer((byte[]) objs[0]);
             TableName tableName = (TableName) protobufSerializer.deserialize(keyBuf, null);
 
@@ -217,7 +217,8 @@ public class StreamsSnapshotWriter extends SinkWriter implements SnapshotWriter
             throw new ReplicationWriterException("Message is out of order or wrong type");
         }
 
-        List<OpaqueEntry> opaqueEntryList = CorfuProtocolLogReplication.extractOpaqueEntries(message);
+        List<OpaqueEntry> opaqueEntryList = CorfuProtocolLogReplication.extractOpaqueEntries(message,
+                config.isPassThrough());
 
         // For snapshot message, it has only one opaque entry.
         if (opaqueEntryList.size() > 1) {
@@ -291,7 +292,8 @@ public class StreamsSnapshotWriter extends SinkWriter implements SnapshotWriter
         // This variable reflects the minimum timestamp for all shadow streams in the current snapshot cycle.
         // We seek up to this address, assuming that no trim should occur beyond this snapshot start
         long currentMinShadowStreamTimestamp = logReplicationMetadataManager.getMinSnapshotSyncShadowStreamTs();
-        OpaqueStream shadowOpaqueStream = new OpaqueStream(rt.getStreamsView().get(shadowStreamId, options));
+        OpaqueStream shadowOpaqueStream = new OpaqueStream(rt.getStreamsView().get(shadowStreamId, options),
+                config.isPassThrough());
         shadowOpaqueStream.seek(currentMinShadowStreamTimestamp);
         Stream<OpaqueEntry> shadowStream = shadowOpaqueStream.streamUpTo(snapshot);
 
@@ -97,7 +97,7 @@ public class StreamsLogEntryReader implements LogEntryReader {
         refreshStreamUUIDs();
         log.info("Total of {} streams to replicate at initialization.", this.streamUUIDs.size());
         //create an opaque stream for transaction stream
-        txOpaqueStream = new TxOpaqueStream(runtime);
+        txOpaqueStream = new TxOpaqueStream(runtime, config.isPassThrough());
     }
 
     /**
@@ -330,9 +330,13 @@ public class StreamsLogEntryReader implements LogEntryReader {
         private Iterator iterator;
 
         public TxOpaqueStream(CorfuRuntime rt) {
+            this(rt, false);
+        }
+
+        public TxOpaqueStream(CorfuRuntime rt, boolean passThrough) {
             //create an opaque stream for transaction stream
             this.rt = rt;
-            txStream = new OpaqueStream(rt.getStreamsView().get(ObjectsView.getLogReplicatorStreamId()));
+            txStream = new OpaqueStream(rt.getStreamsView().get(ObjectsView.getLogReplicatorStreamId()), passThrough);
             streamUpTo();
         }
 
@@ -227,7 +227,8 @@ public class StreamsSnapshotReader implements SnapshotReader {
             while (!streamsToSend.isEmpty()) {
                 // Setup a new stream
                 String streamToReplicate = streamsToSend.poll();
-                currentStreamInfo = new OpaqueStreamIterator(streamToReplicate, rt, snapshotTimestamp);
+                currentStreamInfo = new OpaqueStreamIterator(streamToReplicate, rt, snapshotTimestamp,
+                        config.isPassThrough());
                 log.info("Start Snapshot Sync replication for stream name={}, id={}", streamToReplicate,
                         CorfuRuntime.getStreamID(streamToReplicate));
 
@@ -290,14 +291,14 @@ public class StreamsSnapshotReader implements SnapshotReader {
         private Iterator iterator;
         private long maxVersion; // the max address of the log entries processed for this stream.
 
-        OpaqueStreamIterator(String name, CorfuRuntime rt, long snapshot) {
+        OpaqueStreamIterator(String name, CorfuRuntime rt, long snapshot, boolean passThrough) {
             this.name = name;
             uuid = CorfuRuntime.getStreamID(name);
             StreamOptions options = StreamOptions.builder()
                     .ignoreTrimmed(false)
                     .cacheEntries(false)
                     .build();
-            Stream stream = (new OpaqueStream(rt.getStreamsView().get(uuid, options))).streamUpTo(snapshot);
+            Stream stream = (new OpaqueStream(rt.getStreamsView().get(uuid, options), passThrough)).streamUpTo(snapshot);
             iterator = stream.iterator();
             maxVersion = 0;
          }
@@ -111,7 +111,9 @@ public class CorfuNettyClientChannel extends SimpleChannelInboundHandler<Respons
         shutdown = false;
         Bootstrap b = new Bootstrap();
         b.group(eventLoopGroup);
-        b.channel(parameters.getSocketType().getChannelClass());
+        b.channel(parameters.getSocketType().resolve().getChannelClass());
+        // Transport options first, so that they can be overridden by the configured options
+        parameters.getSocketType().getTransportOptions(parameters.getNettyBusyPollMicros()).forEach(b::option);
         parameters.getNettyChannelOptions().forEach(b::option);
         b.handler(getChannelInitializer());
         b.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeoutConnect);
@@ -289,7 +291,7 @@ public class CorfuNettyClientChannel extends SimpleChannelInboundHandler<Respons
                 .setNameFormat(parameters.getNettyEventLoopThreadFormat())
                 .setUncaughtExceptionHandler(this::handleUncaughtThread)
                 .build();
-        return parameters.getSocketType().getGenerator().generate(numThreads, factory);
+        return parameters.getSocketType().resolve().getGenerator().generate(numThreads, factory);
     }
 
     /**
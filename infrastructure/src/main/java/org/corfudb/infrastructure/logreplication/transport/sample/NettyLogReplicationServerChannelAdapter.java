@@ -139,6 +139,9 @@ public class NettyLogReplicationServerChannelAdapter extends IServerChannelAdapt
                 .childOption(ChannelOption.SO_REUSEADDR, true)
                 .childOption(ChannelOption.TCP_NODELAY, true)
                 .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+        getServerContext().getChannelImplementation()
+                .getTransportOptions(getServerContext().getBusyPollMicros())
+                .forEach(bootstrap::childOption);
     }
 
 
@@ -4,7 +4,6 @@ import lombok.Builder;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.infrastructure.ServerContext;
-import org.corfudb.infrastructure.datastore.DataStore;
 import org.corfudb.infrastructure.datastore.KvDataStore;
 import org.corfudb.protocols.wireprotocol.failuredetector.FailureDetectorMetrics;
 import org.corfudb.runtime.view.Layout;
@@ -21,7 +20,7 @@ public class FailureDetectorDataStore {
     private static final String PREFIX_FAILURE_DETECTOR = "FAILURE_DETECTOR";
 
     @NonNull
-    private final DataStore dataStore;
+    private final KvDataStore dataStore;
 
     @NonNull
     private final String localEndpoint;
@@ -171,7 +171,7 @@ public class LayoutServerTest {
         ArgumentCaptor<ResponseMsg> responseCaptor = ArgumentCaptor.forClass(ResponseMsg.class);
         layoutServer.handleMessage(request, mockChannelHandlerContext, mockServerRouter);
         verify(mockServerRouter).sendResponse(responseCaptor.capture(), eq(mockChannelHandlerContext));
-        verify(mockServerContext).setCurrentLayout(defaultLayout);
+        verify(mockServerContext).setCurrentLayoutWithHistory(defaultLayout);
         verify(mockServerContext).setServerEpoch(defaultLayout.getEpoch(), mockServerRouter);
 
         ResponseMsg response = responseCaptor.getValue();
@@ -196,7 +196,7 @@ public class LayoutServerTest {
         ArgumentCaptor<ResponseMsg> responseCaptor = ArgumentCaptor.forClass(ResponseMsg.class);
         layoutServer.handleMessage(request, mockChannelHandlerContext, mockServerRouter);
         verify(mockServerRouter).sendResponse(responseCaptor.capture(), eq(mockChannelHandlerContext));
-        verify(mockServerContext, never()).setCurrentLayout(any());
+        verify(mockServerContext, never()).setCurrentLayoutWithHistory(any());
         verify(mockServerContext, never()).setServerEpoch(anyLong(), any());
 
         ResponseMsg response = responseCaptor.getValue();
@@ -224,7 +224,7 @@ public class LayoutServerTest {
         ArgumentCaptor<ResponseMsg> responseCaptor = ArgumentCaptor.forClass(ResponseMsg.class);
         layoutServer.handleMessage(request, mockChannelHandlerContext, mockServerRouter);
         verify(mockServerRouter).sendResponse(responseCaptor.capture(), eq(mockChannelHandlerContext));
-        verify(mockServerContext, never()).setCurrentLayout(any());
+        verify(mockServerContext, never()).setCurrentLayoutWithHistory(any());
         verify(mockServerContext, never()).setServerEpoch(anyLong(), any());
 
         ResponseMsg response = responseCaptor.getValue();
@@ -250,7 +250,7 @@ public class LayoutServerTest {
         when(mockServerContext.getCurrentLayout()).thenReturn(l);
         layoutServer.handleMessage(request, mockChannelHandlerContext, mockServerRouter);
         verify(mockServerRouter).sendResponse(responseCaptor.capture(), eq(mockChannelHandlerContext));
-        verify(mockServerContext, never()).setCurrentLayout(any());
+        verify(mockServerContext, never()).setCurrentLayoutWithHistory(any());
         verify(mockServerContext, never()).setServerEpoch(anyLong(), any());
 
         ResponseMsg response = responseCaptor.getValue();
@@ -650,7 +650,7 @@ public class LayoutServerTest {
 
         when(mockServerContext.getCurrentLayout()).thenReturn(defaultLayout);
         layoutServer.handleMessage(request, mockChannelHandlerContext, mockServerRouter);
-        verify(mockServerContext).setCurrentLayout(defaultLayout);
+        verify(mockServerContext).setCurrentLayoutWithHistory(defaultLayout);
         verify(mockServerContext).setServerEpoch(payloadEpoch, mockServerRouter);
         verify(mockServerRouter).sendResponse(responseCaptor.capture(), eq(mockChannelHandlerContext));
 
@@ -676,7 +676,7 @@ public class LayoutServerTest {
 
         layoutServer.handleMessage(request, mockChannelHandlerContext, mockServerRouter);
         verify(mockServerRouter).sendNoBootstrapError(request.getHeader(), mockChannelHandlerContext);
-        verify(mockServerContext, never()).setCurrentLayout(any());
+        verify(mockServerContext, never()).setCurrentLayoutWithHistory(any());
         verify(mockServerContext, never()).setServerEpoch(anyLong(), any());
     }
 
@@ -699,7 +699,7 @@ public class LayoutServerTest {
         when(mockServerContext.getCurrentLayout()).thenReturn(l);
         when(mockServerContext.getServerEpoch()).thenReturn(serverEpoch);
         layoutServer.handleMessage(request, mockChannelHandlerContext, mockServerRouter);
-        verify(mockServerContext, never()).setCurrentLayout(any());
+        verify(mockServerContext, never()).setCurrentLayoutWithHistory(any());
         verify(mockServerContext, never()).setServerEpoch(anyLong(), any());
         verify(mockServerRouter).sendResponse(responseCaptor.capture(), eq(mockChannelHandlerContext));
 
@@ -730,7 +730,7 @@ public class LayoutServerTest {
 
         when(mockServerContext.getCurrentLayout()).thenReturn(defaultLayout);
         layoutServer.handleMessage(request, mockChannelHandlerContext, mockServerRouter);
-        verify(mockServerContext).setCurrentLayout(defaultLayout);
+        verify(mockServerContext).setCurrentLayoutWithHistory(defaultLayout);
         verify(mockServerContext).setServerEpoch(payloadEpoch, mockServerRouter);
         verify(mockServerRouter).sendResponse(responseCaptor.capture(), eq(mockChannelHandlerContext));
 
@@ -761,7 +761,7 @@ public class LayoutServerTest {
         when(mockServerContext.getCurrentLayout()).thenReturn(l);
         when(mockServerContext.getServerEpoch()).thenReturn(serverEpoch);
         layoutServer.handleMessage(request, mockChannelHandlerContext, mockServerRouter);
-        verify(mockServerContext, never()).setCurrentLayout(any());
+        verify(mockServerContext, never()).setCurrentLayoutWithHistory(any());
         verify(mockServerContext, never()).setServerEpoch(anyLong(), any());
         verify(mockServerRouter).sendResponse(responseCaptor.capture(), eq(mockChannelHandlerContext));
 
@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.corfudb.protocols.service.CorfuProtocolMessage.ClusterIdCheck;
 import org.corfudb.protocols.service.CorfuProtocolMessage.EpochCheck;
 import org.corfudb.protocols.wireprotocol.StreamAddressRange;
+import org.corfudb.protocols.wireprotocol.StreamsAddressNotification;
 import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.protocols.wireprotocol.TokenType;
@@ -29,6 +30,7 @@ import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -47,12 +49,16 @@ import static org.corfudb.protocols.service.CorfuProtocolSequencer.getAllStreams
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getBootstrapSequencerRequestMsg;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getDefaultSequencerMetricsRequestMsg;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getSequencerTrimRequestMsg;
+import static org.corfudb.protocols.service.CorfuProtocolSequencer.getStreamsAddressNotification;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getStreamsAddressRequestMsg;
+import static org.corfudb.protocols.service.CorfuProtocolSequencer.getStreamsSubscriptionRequestMsg;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getTokenRequestMsg;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getTokenResponse;
 import static org.corfudb.runtime.proto.RpcCommon.SequencerMetricsMsg.SequencerStatus;
 import static org.corfudb.runtime.proto.service.Sequencer.BootstrapSequencerRequestMsg;
 import static org.corfudb.runtime.proto.service.Sequencer.BootstrapSequencerResponseMsg;
+import static org.corfudb.runtime.proto.service.Sequencer.StreamsAddressNotificationMsg;
+import static org.corfudb.runtime.proto.service.Sequencer.StreamsSubscriptionRequestMsg;
 import static org.corfudb.runtime.proto.service.Sequencer.TokenRequestMsg;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -76,6 +82,7 @@ import static org.mockito.Mockito.when;
  * - SequencerTrimRequestMsg
  * - SequencerMetricsRequestMsg
  * - StreamsAddressRequestMsg
+ * - StreamsSubscriptionRequestMsg
  * See test methods for their functionality descriptions.
  */
 @Slf4j
@@ -906,4 +913,69 @@ public class SequencerServerTest {
         // Assert that server's globalLogTail is NOT advanced.
         assertEquals(globalTail, sequencerServer.getGlobalLogTail());
     }
+
+    /**
+     * Tests that a client subscribed to a stream through a {@link StreamsSubscriptionRequestMsg}
+     * is pushed a {@link StreamsAddressNotificationMsg} with the last allocated address when
+     * tokens are allocated on that stream, and that it isn't notified about other streams.
+     */
+    @Test
+    public void testStreamsSubscriptionNotification() {
+        final long globalTail = 10L;
+        final long numTokens = 3L;
+        final UUID subscribedStream = UUID.randomUUID();
+        final UUID otherStream = UUID.randomUUID();
+        when(spySequencerFactoryHelper.getGlobalLogTail()).thenReturn(globalTail);
+        when(mockServerContext.getServerEpoch()).thenReturn(1L);
+        sequencerServer = new SequencerServer(mockServerContext, spySequencerFactoryHelper);
+        sequencerServer.setSequencerEpoch(1L);
+
+        RequestMsg subscribeRequest = getRequestMsg(
+                getBasicHeader(ClusterIdCheck.CHECK, EpochCheck.CHECK),
+                getStreamsSubscriptionRequestMsg(Collections.singleton(subscribedStream))
+        );
+        sequencerServer.handleMessage(subscribeRequest, mockChannelHandlerContext, mockServerRouter);
+
+        ArgumentCaptor<ResponseMsg> responseCaptor = ArgumentCaptor.forClass(ResponseMsg.class);
+        verify(mockServerRouter)
+                .sendResponse(responseCaptor.capture(), any(ChannelHandlerContext.class));
+        ResponseMsg response = responseCaptor.getValue();
+        assertTrue(compareBaseHeaderFields(subscribeRequest.getHeader(), response.getHeader()));
+        assertThat(response.getPayload().getStreamsSubscriptionResponse().getLogTail()).isEqualTo(globalTail);
+
+        // Allocations on streams without subscribers shouldn't generate notifications
+        sequencerServer.handleMessage(getRequestMsg(getBasicHeader(ClusterIdCheck.CHECK, EpochCheck.CHECK),
+                getTokenRequestMsg(1, Collections.singletonList(otherStream))),
+                mockChannelHandlerContext, mockServerRouter);
+        verify(mockServerRouter, times(2))
+                .sendResponse(any(ResponseMsg.class), any(ChannelHandlerContext.class));
+
+        sequencerServer.handleMessage(getRequestMsg(getBasicHeader(ClusterIdCheck.CHECK, EpochCheck.CHECK),
+                getTokenRequestMsg(numTokens, Arrays.asList(subscribedStream, otherStream))),
+                mockChannelHandlerContext, mockServerRouter);
+
+        // Both the notification and the token response are sent
+        verify(mockServerRouter, times(4))
+                .sendResponse(responseCaptor.capture(), any(ChannelHandlerContext.class));
+        StreamsAddressNotification notification = responseCaptor.getAllValues().stream()
+                .filter(msg -> msg.getPayload().hasStreamsAddressNotification())
+                .map(msg -> getStreamsAddressNotification(msg.getPayload().getStreamsAddressNotification()))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+
+        assertThat(notification.getEpoch()).isEqualTo(1L);
+        assertThat(notification.getStreamTails())
+                .containsOnlyKeys(subscribedStream)
+                .containsEntry(subscribedStream, globalTail + 1 + numTokens - 1);
+
+        // An empty subscription cancels the previous one
+        sequencerServer.handleMessage(getRequestMsg(getBasicHeader(ClusterIdCheck.CHECK, EpochCheck.CHECK),
+                getStreamsSubscriptionRequestMsg(Collections.emptySet())),
+                mockChannelHandlerContext, mockServerRouter);
+        sequencerServer.handleMessage(getRequestMsg(getBasicHeader(ClusterIdCheck.CHECK, EpochCheck.CHECK),
+                getTokenRequestMsg(1, Collections.singletonList(subscribedStream))),
+                mockChannelHandlerContext, mockServerRouter);
+        verify(mockServerRouter, times(6))
+                .sendResponse(any(ResponseMsg.class), any(ChannelHandlerContext.class));
+    }
 }
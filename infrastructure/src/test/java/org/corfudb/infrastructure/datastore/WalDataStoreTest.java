@@ -0,0 +1,180 @@
+package org.corfudb.infrastructure.datastore;
+
+import com.google.common.collect.ImmutableSet;
+import org.corfudb.infrastructure.datastore.KvDataStore.KvEntry;
+import org.corfudb.infrastructure.datastore.KvDataStore.KvRecord;
+import org.corfudb.runtime.exceptions.DataCorruptionException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WalDataStoreTest {
+
+    private static final KvRecord<String> TEST_RECORD = KvRecord.of("test", "key", String.class);
+    private static final KvRecord<Long> EPOCH_RECORD = KvRecord.of("test", "epoch", Long.class);
+    private static final String HISTORY_PREFIX = "HISTORY";
+    private static final Set<String> PREFIXES = ImmutableSet.of(HISTORY_PREFIX);
+    private static final int NUM_RETENTION = 3;
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    private WalDataStore open() {
+        return open(WalDataStore.DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    private WalDataStore open(long compactionThreshold) {
+        return new WalDataStore(tempDir.getRoot().getAbsolutePath(), PREFIXES, NUM_RETENTION, compactionThreshold);
+    }
+
+    @Test
+    public void testPutGetDeleteWithRestart() {
+        WalDataStore dataStore = open();
+        dataStore.put(TEST_RECORD, "value");
+        dataStore.put(EPOCH_RECORD, 1L);
+        dataStore.put(EPOCH_RECORD, 2L);
+        assertThat(dataStore.get(TEST_RECORD)).isEqualTo("value");
+        assertThat(dataStore.get(EPOCH_RECORD)).isEqualTo(2L);
+        dataStore.close();
+
+        // Simulate a restart of data store
+        dataStore = open();
+        assertThat(dataStore.get(TEST_RECORD)).isEqualTo("value");
+        assertThat(dataStore.get(EPOCH_RECORD)).isEqualTo(2L);
+
+        dataStore.delete(TEST_RECORD);
+        assertThat(dataStore.get(TEST_RECORD)).isNull();
+        dataStore.close();
+
+        dataStore = open();
+        assertThat(dataStore.get(TEST_RECORD)).isNull();
+        assertThat(dataStore.get(EPOCH_RECORD, 0L)).isEqualTo(2L);
+    }
+
+    @Test
+    public void testBatchAndRetention() {
+        WalDataStore dataStore = open();
+        final int numEpochs = 5;
+        for (long epoch = 1; epoch <= numEpochs; epoch++) {
+            dataStore.putAll(Arrays.asList(
+                    KvEntry.of(EPOCH_RECORD, epoch),
+                    KvEntry.of(KvRecord.of(HISTORY_PREFIX, String.valueOf(epoch), Long.class), epoch)
+            ));
+        }
+        dataStore.close();
+
+        dataStore = open();
+        assertThat(dataStore.get(EPOCH_RECORD)).isEqualTo((long) numEpochs);
+        // Only the latest NUM_RETENTION epochs are retained
+        for (long epoch = 1; epoch <= numEpochs; epoch++) {
+            Long value = dataStore.get(KvRecord.of(HISTORY_PREFIX, String.valueOf(epoch), Long.class));
+            assertThat(value).isEqualTo(epoch > numEpochs - NUM_RETENTION ? epoch : null);
+        }
+    }
+
+    @Test
+    public void testCompaction() {
+        final long compactionThreshold = 1024;
+        final int numUpdates = 1000;
+        WalDataStore dataStore = open(compactionThreshold);
+        for (long i = 0; i < numUpdates; i++) {
+            dataStore.put(EPOCH_RECORD, i);
+        }
+        assertThat(dataStore.getWalSize()).isLessThan(2 * compactionThreshold);
+        dataStore.close();
+
+        dataStore = open(compactionThreshold);
+        assertThat(dataStore.get(EPOCH_RECORD)).isEqualTo(numUpdates - 1L);
+    }
+
+    @Test
+    public void testTornWriteIsTruncated() throws IOException {
+        WalDataStore dataStore = open();
+        dataStore.put(EPOCH_RECORD, 1L);
+        long validSize = dataStore.getWalSize();
+        dataStore.put(EPOCH_RECORD, 2L);
+        dataStore.close();
+
+        // Cut the last record in half
+        File walFile = new File(tempDir.getRoot(), WalDataStore.WAL_FILE_NAME);
+        try (RandomAccessFile file = new RandomAccessFile(walFile, "rw")) {
+            file.setLength(validSize + (file.length() - validSize) / 2);
+        }
+
+        dataStore = open();
+        assertThat(dataStore.get(EPOCH_RECORD)).isEqualTo(1L);
+        assertThat(dataStore.getWalSize()).isEqualTo(validSize);
+
+        dataStore.put(EPOCH_RECORD, 3L);
+        dataStore.close();
+        assertThat(open().get(EPOCH_RECORD)).isEqualTo(3L);
+    }
+
+    @Test
+    public void testDataCorruption() throws IOException {
+        WalDataStore dataStore = open();
+        dataStore.put(TEST_RECORD, "value");
+        dataStore.put(EPOCH_RECORD, 1L);
+        dataStore.close();
+
+        // Corrupt the payload of the first record, which is followed by another record
+        File walFile = new File(tempDir.getRoot(), WalDataStore.WAL_FILE_NAME);
+        try (RandomAccessFile file = new RandomAccessFile(walFile, "rw")) {
+            final int offset = 14;
+            file.seek(offset);
+            file.writeShort(-1);
+        }
+
+        assertThatThrownBy(this::open).isInstanceOf(DataCorruptionException.class);
+    }
+
+    @Test
+    public void testCorruptedLengthIsNotTruncated() throws IOException {
+        WalDataStore dataStore = open();
+        dataStore.put(TEST_RECORD, "value");
+        dataStore.put(EPOCH_RECORD, 1L);
+        long walSize = dataStore.getWalSize();
+        dataStore.close();
+
+        // Make the length of the first record go past the end of the log
+        File walFile = new File(tempDir.getRoot(), WalDataStore.WAL_FILE_NAME);
+        try (RandomAccessFile file = new RandomAccessFile(walFile, "rw")) {
+            file.seek(0);
+            file.writeInt(Integer.MAX_VALUE);
+        }
+
+        assertThatThrownBy(this::open).isInstanceOf(DataCorruptionException.class);
+        // The records following the corrupted one are not discarded
+        assertThat(walFile.length()).isEqualTo(walSize);
+    }
+
+    @Test
+    public void testMigrateFromDataStore() {
+        Map<String, Object> opts = new HashMap<>();
+        opts.put("--log-path", tempDir.getRoot().getAbsolutePath());
+        DataStore oldDataStore = new DataStore(opts, fileName -> {});
+        oldDataStore.put(TEST_RECORD, "value");
+        oldDataStore.put(EPOCH_RECORD, 1L);
+
+        WalDataStore dataStore = open();
+        assertThat(dataStore.get(TEST_RECORD)).isEqualTo("value");
+        assertThat(dataStore.get(EPOCH_RECORD)).isEqualTo(1L);
+
+        // Once migrated, the old files are not read anymore
+        dataStore.put(EPOCH_RECORD, 2L);
+        dataStore.close();
+        oldDataStore.put(EPOCH_RECORD, Long.MAX_VALUE);
+        assertThat(open().get(EPOCH_RECORD)).isEqualTo(2L);
+    }
+}
@@ -1,12 +1,17 @@
 package org.corfudb.comm;
 
+import com.google.common.collect.ImmutableMap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.DefaultEventLoopGroup;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
 import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollMode;
 import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.kqueue.KQueue;
 import io.netty.channel.kqueue.KQueueEventLoopGroup;
@@ -17,13 +22,17 @@ import io.netty.channel.local.LocalServerChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadFactory;
 import javax.annotation.Nonnull;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 
 /** An enum representing channel implementation types available to the client. */
 @AllArgsConstructor
+@Slf4j
 public enum ChannelImplementation {
     /** Automatically select best channel type (EPOLL/KQUEUE if available, otherwise
      *  fallback to NIO).
@@ -62,6 +71,80 @@ public enum ChannelImplementation {
     @Getter
     final EventLoopGroupGenerator generator;
 
+    /**
+     * Resolve this implementation to the one which is actually used on this platform. AUTO
+     * resolves to the best available transport, and a native transport (EPOLL/KQUEUE) which
+     * is not available falls back to NIO.
+     *
+     * @return The implementation to use for channels and event loops.
+     */
+    public ChannelImplementation resolve() {
+        return Resolved.get(this);
+    }
+
+    /**
+     * Get the channel options to apply to the (child) channels of this implementation:
+     * TCP_NODELAY and pooled (direct, if preferred by the platform) buffers for every socket
+     * transport, plus edge-triggered mode and optionally busy polling for EPOLL.
+     *
+     * @param busyPollMicros The SO_BUSY_POLL timeout in microseconds, or 0 to disable busy
+     *                       polling. Only applies to EPOLL.
+     * @return A map containing options which should be applied to each channel.
+     */
+    public Map<ChannelOption, Object> getTransportOptions(int busyPollMicros) {
+        ChannelImplementation implementation = resolve();
+        if (implementation == LOCAL) {
+            return ImmutableMap.of();
+        }
+
+        ImmutableMap.Builder<ChannelOption, Object> options = ImmutableMap.<ChannelOption, Object>builder()
+                .put(ChannelOption.TCP_NODELAY, true)
+                .put(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+        if (implementation == EPOLL) {
+            options.put(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED);
+            if (busyPollMicros > 0) {
+                options.put(EpollChannelOption.SO_BUSY_POLL, busyPollMicros);
+            }
+        }
+        return options.build();
+    }
+
+    /**
+     * The resolution of each requested implementation, computed (and logged) once, when it's
+     * first requested.
+     */
+    private static class Resolved {
+        private static final Map<ChannelImplementation, ChannelImplementation> IMPLEMENTATIONS =
+                new ConcurrentHashMap<>();
+
+        private static ChannelImplementation get(ChannelImplementation implementation) {
+            return IMPLEMENTATIONS.computeIfAbsent(implementation, Resolved::resolve);
+        }
+
+        private static ChannelImplementation resolve(ChannelImplementation implementation) {
+            switch (implementation) {
+                case AUTO:
+                    return Epoll.isAvailable() ? EPOLL : KQueue.isAvailable() ? KQUEUE : NIO;
+                case EPOLL:
+                    if (!Epoll.isAvailable()) {
+                        log.warn("resolve: EPOLL is not available, falling back to NIO",
+                                Epoll.unavailabilityCause());
+                        return NIO;
+                    }
+                    return EPOLL;
+                case KQUEUE:
+                    if (!KQueue.isAvailable()) {
+                        log.warn("resolve: KQUEUE is not available, falling back to NIO",
+                                KQueue.unavailabilityCause());
+                        return NIO;
+                    }
+                    return KQUEUE;
+                default:
+                    return implementation;
+            }
+        }
+    }
+
     /**
      * A functional interface for generating event loops.
      */
@@ -52,7 +52,15 @@ public class CheckpointEntry extends LogEntry {
         START_LOG_ADDRESS(2),
         ENTRY_COUNT(3),
         BYTE_COUNT(4),
-        SNAPSHOT_ADDRESS(5);
+        SNAPSHOT_ADDRESS(5),
+        // Incremental checkpoints: the checkpoint this checkpoint is a delta of, absent for full checkpoints
+        PREVIOUS_CHECKPOINT_ID(6),
+        // The full checkpoint the chain of deltas starts from, the checkpoint itself for full checkpoints
+        BASE_CHECKPOINT_ID(7),
+        // The address of the START record of the base checkpoint
+        BASE_ADDRESS(8),
+        // The number of deltas since the base checkpoint, 0 for full checkpoints
+        DELTA_COUNT(9);
 
         public final int type;
 
@@ -166,6 +174,13 @@ public class CheckpointEntry extends LogEntry {
         }
     }
 
+    @Override
+    public void setCompactEncoding(boolean compactEncoding) {
+        if (smrEntries != null) {
+            smrEntries.setCompactEncoding(compactEncoding);
+        }
+    }
+
     public MultiSMREntry getSmrEntries() {
         return getSmrEntries(false);
     }
@@ -87,6 +87,16 @@ public class LogEntry implements ICorfuSerializable {
         }
     }
 
+    /**
+     * Set whether the SMR updates of this entry are serialized with the compact
+     * {@link SMREntry} encoding. Entries which contain SMR updates propagate it to them.
+     *
+     * @param compactEncoding True to use the compact encoding.
+     */
+    public void setCompactEncoding(boolean compactEncoding) {
+        // In the base case, we don't do anything.
+    }
+
     /**
      * This function provides the remaining buffer. Child entries
      * should initialize their contents based on the buffer.
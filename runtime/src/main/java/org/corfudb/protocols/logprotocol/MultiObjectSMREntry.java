@@ -1,23 +1,27 @@
 package org.corfudb.protocols.logprotocol;
 
 import com.google.common.annotations.VisibleForTesting;
-import io.micrometer.core.instrument.Timer;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
-import org.corfudb.common.metrics.micrometer.MicroMeterUtils;
+import org.corfudb.common.metrics.micrometer.MeterHandles;
+import org.corfudb.common.metrics.micrometer.SummaryHandle;
+import org.corfudb.common.metrics.micrometer.TimerHandle;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.util.serializer.CorfuSerializer;
 import org.corfudb.util.serializer.Serializers;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.google.common.base.Preconditions.checkState;
 
@@ -37,14 +41,48 @@ public class MultiObjectSMREntry extends LogEntry implements ISMRConsumable {
 
     private static final String STREAM_ID = "streamId";
 
+    private static final TimerHandle serializeTimer = MeterHandles.timer(METRIC_PREFIX + ".serialize");
+
+    private static final SummaryHandle serializeSize = MeterHandles.summary(METRIC_PREFIX + ".serialize.size");
+
+    private static final SummaryHandle serializeEntries = MeterHandles.summary(METRIC_PREFIX + ".serialize.entries");
+
+    private static final MeterHandles.Family<TimerHandle> serializeStreamTimers =
+            MeterHandles.timers(METRIC_PREFIX + ".serialize.stream", STREAM_ID);
+
+    private static final MeterHandles.Family<SummaryHandle> serializeStreamSizes =
+            MeterHandles.summaries(METRIC_PREFIX + ".serialize.stream.size", STREAM_ID);
+
+    private static final MeterHandles.Family<SummaryHandle> serializeStreamUpdates =
+            MeterHandles.summaries(METRIC_PREFIX + ".serialize.stream.updates", STREAM_ID);
+
+    private static final TimerHandle deserializeTimer = MeterHandles.timer(METRIC_PREFIX + ".deserialize");
+
+    private static final SummaryHandle deserializeEntries = MeterHandles.summary(METRIC_PREFIX + ".deserialize.entries");
+
+    private static final MeterHandles.Family<TimerHandle> lazyDeserializeStreamTimers =
+            MeterHandles.timers(METRIC_PREFIX + ".deserialize.stream.lazy", STREAM_ID);
+
     // map from stream-ID to a list of updates encapsulated as MultiSMREntry
     private Map<UUID, MultiSMREntry> streamUpdates = new ConcurrentHashMap<>();
 
     /**
      * A container to store streams and their payloads (i.e. serialized SMR updates).
-     * This is required to support lazy stream deserialization.
+     * This is required to support lazy stream deserialization. The payloads are slices
+     * of {@link #buffer}, so they are not copied out of the serialized entry.
+     */
+    private final Map<UUID, ByteBuf> streamBuffers = new ConcurrentHashMap<>();
+
+    /**
+     * A retained slice of the serialized entry which backs the stream buffers. It is
+     * released once the updates of every stream have been deserialized.
      */
-    private final Map<UUID, byte[]> streamBuffers = new ConcurrentHashMap<>();
+    private final AtomicReference<ByteBuf> buffer = new AtomicReference<>();
+
+    /**
+     * The streams of the serialized entry, including the ones whose updates have been deserialized.
+     */
+    private volatile List<UUID> deserializedStreamIds = Collections.emptyList();
 
     public MultiObjectSMREntry() {
         this.type = LogEntryType.MULTIOBJSMR;
@@ -93,51 +131,51 @@ public class MultiObjectSMREntry extends LogEntry implements ISMRConsumable {
     /**
      * This function provides the remaining buffer. Since stream updates
      * are deserialized on access, this method will only map a stream to
-     * its payload (i.e. updates). The stream updates will be deserialized
-     * on first access.
+     * its payload (i.e. updates), which is a slice of a retained slice of
+     * the buffer. The stream updates will be deserialized on first access.
      *
      * @param b The remaining buffer.
      */
     @Override
     public void deserializeBuffer(ByteBuf b, CorfuRuntime rt) {
-        Optional<Timer.Sample> deserializeSample = MicroMeterUtils.startTimer();
+        long deserializeStart = deserializeTimer.start();
         int numStreams = b.readInt();
         try {
             super.deserializeBuffer(b, rt);
+            if (numStreams == 0) {
+                return;
+            }
+
+            // The MultiObjectSMREntry payload is structure as follows:
+            // LogEntry Type | number of MultiSMREntry entries | MultiSMREntry id | serialized MultiSMREntry | ...
+            // Therefore we need to seek over the MultiSMREntry entries one-by-one, recording
+            // where the payload of each stream starts and ends.
+            final int start = b.readerIndex();
+            UUID[] streamIds = new UUID[numStreams];
+            int[] offsets = new int[numStreams];
+            int[] lengths = new int[numStreams];
             for (int i = 0; i < numStreams; i++) {
-                UUID streamId = new UUID(b.readLong(), b.readLong());
-                Optional<Timer.Sample> deserializeStreamSample = MicroMeterUtils.startTimer();
-                // The MultiObjectSMREntry payload is structure as follows:
-                // LogEntry Type | number of MultiSMREntry entries | MultiSMREntry id | serialized MultiSMREntry | ...
-                // Therefore we need to unpack the MultiSMREntry entries one-by-one
-                int multiSMRLen = 0;
-                try {
-                    int start = b.readerIndex();
-                    MultiSMREntry.seekToEnd(b);
-                    multiSMRLen = b.readerIndex() - start;
-                    b.readerIndex(start);
-                    byte[] streamUpdates = new byte[multiSMRLen];
-                    b.readBytes(streamUpdates);
-                    streamBuffers.put(streamId, streamUpdates);
-                } finally {
-                    MicroMeterUtils.time(deserializeStreamSample,
-                            METRIC_PREFIX + "." + "deserialize.stream",
-                            STREAM_ID, streamId.toString());
-                    MicroMeterUtils.measure(multiSMRLen,
-                            METRIC_PREFIX + "." + "deserialize.stream.size",
-                            STREAM_ID, streamId.toString());
-                }
+                streamIds[i] = new UUID(b.readLong(), b.readLong());
+                offsets[i] = b.readerIndex() - start;
+                MultiSMREntry.seekToEnd(b);
+                lengths[i] = b.readerIndex() - start - offsets[i];
             }
+
+            ByteBuf retained = b.retainedSlice(start, b.readerIndex() - start);
+            buffer.set(retained);
+            for (int i = 0; i < numStreams; i++) {
+                streamBuffers.put(streamIds[i], retained.slice(offsets[i], lengths[i]));
+            }
+            deserializedStreamIds = Arrays.asList(streamIds);
         } finally {
-            MicroMeterUtils.time(deserializeSample,
-                    METRIC_PREFIX + "." + "deserialize");
-            MicroMeterUtils.measure(numStreams, METRIC_PREFIX + "." + "deserialize.entries");
+            deserializeTimer.stop(deserializeStart);
+            deserializeEntries.record(numStreams);
         }
     }
 
     @Override
     public void serialize(ByteBuf b) {
-        Optional<Timer.Sample> serializeSample = MicroMeterUtils.startTimer();
+        long serializeStart = serializeTimer.start();
         int startIdx = b.writerIndex();
         try {
             super.serialize(b);
@@ -145,30 +183,22 @@ public class MultiObjectSMREntry extends LogEntry implements ISMRConsumable {
             streamUpdates.entrySet().stream()
                     .forEach(x -> {
                         int streamStart = b.writerIndex();
-                        Optional<Timer.Sample> serializeStreamSample = MicroMeterUtils.startTimer();
+                        TimerHandle serializeStreamTimer = serializeStreamTimers.get(x.getKey());
+                        long serializeStreamStart = serializeStreamTimer.start();
                         try {
                             b.writeLong(x.getKey().getMostSignificantBits());
                             b.writeLong(x.getKey().getLeastSignificantBits());
                             Serializers.CORFU.serialize(x.getValue(), b);
                         } finally {
-                            MicroMeterUtils.time(serializeStreamSample,
-                                    METRIC_PREFIX + "." + "serialize.stream",
-                                    STREAM_ID, x.getKey().toString());
-                            MicroMeterUtils.measure(b.writerIndex() - streamStart,
-                                    METRIC_PREFIX + "." + "serialize.stream.size",
-                                    STREAM_ID, x.getKey().toString());
-                            MicroMeterUtils.measure(x.getValue().getUpdates().size(),
-                                    METRIC_PREFIX + "." + "serialize.stream.updates",
-                                    STREAM_ID, x.getKey().toString());
+                            serializeStreamTimer.stop(serializeStreamStart);
+                            serializeStreamSizes.get(x.getKey()).record(b.writerIndex() - streamStart);
+                            serializeStreamUpdates.get(x.getKey()).record(x.getValue().getUpdates().size());
                         }
                     });
         } finally {
-            MicroMeterUtils.time(serializeSample,
-                    METRIC_PREFIX + "." + "serialize");
-            MicroMeterUtils.measure(b.writerIndex() - startIdx,
-                    METRIC_PREFIX + "." + "serialize.size");
-            MicroMeterUtils.measure(streamUpdates.size(),
-                    METRIC_PREFIX + "." + "serialize.entries");
+            serializeTimer.stop(serializeStart);
+            serializeSize.record(b.writerIndex() - startIdx);
+            serializeEntries.record(streamUpdates.size());
         }
     }
 
@@ -190,26 +220,38 @@ public class MultiObjectSMREntry extends LogEntry implements ISMRConsumable {
             }
 
             // The stream exists and it needs to be deserialized
-            Optional<Timer.Sample> deserializeStreamSample = MicroMeterUtils.startTimer();
+            TimerHandle lazyDeserializeStreamTimer = lazyDeserializeStreamTimers.get(id);
+            long lazyDeserializeStreamStart = lazyDeserializeStreamTimer.start();
             try {
-                byte[] streamUpdatesBuf = streamBuffers.get(id);
-                ByteBuf buf = Unpooled.wrappedBuffer(streamUpdatesBuf);
+                ByteBuf buf = streamBuffers.get(id).duplicate();
                 byte magicByte = buf.readByte(); //
                 checkState(magicByte == CorfuSerializer.corfuPayloadMagic, "Not a ICorfuSerializable object");// strip magic
                 MultiSMREntry multiSMREntry = (MultiSMREntry) MultiSMREntry.deserialize(buf, runtime, isOpaque());
                 multiSMREntry.setGlobalAddress(getGlobalAddress());
                 streamBuffers.remove(id);
+                if (streamBuffers.isEmpty()) {
+                    release();
+                }
                 return multiSMREntry;
             } finally {
-                MicroMeterUtils.time(deserializeStreamSample,
-                        METRIC_PREFIX + "." + "deserialize.stream.lazy",
-                        STREAM_ID, id.toString());
+                lazyDeserializeStreamTimer.stop(lazyDeserializeStreamStart);
             }
         });
 
         return resMultiSmrEntry == null ? Collections.emptyList() : resMultiSmrEntry.getUpdates();
     }
 
+    /**
+     * Release the buffer which backs the stream buffers, once no stream is left to deserialize.
+     * Synchronized with {@link #getPassThroughUpdates()}, which copies the stream buffers.
+     */
+    private synchronized void release() {
+        ByteBuf retained = buffer.getAndSet(null);
+        if (retained != null) {
+            retained.release();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -219,6 +261,14 @@ public class MultiObjectSMREntry extends LogEntry implements ISMRConsumable {
         streamUpdates.values().forEach(x -> x.setGlobalAddress(address));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setCompactEncoding(boolean compactEncoding) {
+        streamUpdates.values().forEach(x -> x.setCompactEncoding(compactEncoding));
+    }
+
     /**
      * Return updates for all streams, note that unlike getSMRUpdates this method
      * will deserialize all stream updates.
@@ -234,8 +284,50 @@ public class MultiObjectSMREntry extends LogEntry implements ISMRConsumable {
         return this.streamUpdates;
     }
 
+    /**
+     * Return updates for all streams, where the updates of the streams which have not been
+     * deserialized yet are read as pass-through entries (see {@link SMREntry#passThrough}),
+     * so their arguments are not deserialized.
+     *
+     * <p>The pass-through entries are slices of a copy of their stream buffer, since the buffer
+     * backing the stream buffers is released as soon as another reader of this entry deserializes
+     * the last of them.
+     */
+    Map<UUID, List<SMREntry>> getPassThroughUpdates() {
+        Map<UUID, List<SMREntry>> updates = new HashMap<>();
+        synchronized (this) {
+            streamBuffers.forEach((id, streamBuffer) ->
+                    updates.put(id, readPassThroughUpdates(Unpooled.copiedBuffer(streamBuffer))));
+        }
+
+        // The other streams have been deserialized, or are being deserialized by another reader
+        for (UUID id : deserializedStreamIds) {
+            if (!updates.containsKey(id)) {
+                updates.put(id, getSMRUpdates(id));
+            }
+        }
+        streamUpdates.forEach((id, multiSMREntry) -> updates.putIfAbsent(id, multiSMREntry.getUpdates()));
+        return updates;
+    }
+
+    private List<SMREntry> readPassThroughUpdates(ByteBuf buf) {
+        byte magicByte = buf.readByte();
+        checkState(magicByte == CorfuSerializer.corfuPayloadMagic, "Not a ICorfuSerializable object");
+        byte type = buf.readByte();
+        checkState(type == LogEntryType.MULTISMR.asByte(), "Not a MULTISMR!");
+        int numUpdates = buf.readInt();
+        List<SMREntry> streamEntries = new ArrayList<>(numUpdates);
+        for (int i = 0; i < numUpdates; i++) {
+            buf.readByte(); // strip magic
+            SMREntry entry = SMREntry.passThrough(buf);
+            entry.setGlobalAddress(getGlobalAddress());
+            streamEntries.add(entry);
+        }
+        return streamEntries;
+    }
+
     @VisibleForTesting
-    Map<UUID, byte[]> getStreamBuffers() {
+    Map<UUID, ByteBuf> getStreamBuffers() {
         return streamBuffers;
     }
 
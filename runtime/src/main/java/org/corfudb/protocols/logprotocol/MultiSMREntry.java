@@ -102,6 +102,11 @@ public class MultiSMREntry extends LogEntry implements ISMRConsumable {
         this.getUpdates().forEach(x -> x.setGlobalAddress(address));
     }
 
+    @Override
+    public void setCompactEncoding(boolean compactEncoding) {
+        updates.forEach(x -> x.setCompactEncoding(compactEncoding));
+    }
+
     @Override
     public List<SMREntry> getSMRUpdates(UUID id) {
         return updates;
@@ -6,18 +6,19 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
 import org.corfudb.protocols.CorfuProtocolCommon;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
 import org.corfudb.runtime.view.Address;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -67,6 +68,18 @@ public class OpaqueEntry implements Serializable {
     }
 
     public static OpaqueEntry deserialize(ByteBuf buf) {
+        return deserialize(buf, false);
+    }
+
+    /**
+     * Deserialize an entry written by {@link #serialize}.
+     *
+     * @param buf         the buffer to read from
+     * @param passThrough whether the SMR entries are read as pass-through entries, which are
+     *                    slices of the buffer (see {@link SMREntry#passThrough})
+     * @return the entry
+     */
+    public static OpaqueEntry deserialize(ByteBuf buf, boolean passThrough) {
         long version = buf.readLong();
         int numStreams = buf.readInt();
         Map<UUID, List<SMREntry>> updates = new HashMap<>(numStreams);
@@ -76,7 +89,8 @@ public class OpaqueEntry implements Serializable {
             int numStreamUpdates = buf.readInt();
             List<SMREntry> streamUpdates = new ArrayList<>(numStreamUpdates);
             for (int i = 0; i < numStreamUpdates; i++) {
-                streamUpdates.add((SMREntry) SMREntry.deserialize(buf, null, true));
+                streamUpdates.add(passThrough ? SMREntry.passThrough(buf)
+                        : (SMREntry) SMREntry.deserialize(buf, null, true));
             }
             updates.put(streamId, streamUpdates);
         }
@@ -85,6 +99,19 @@ public class OpaqueEntry implements Serializable {
     }
 
     public static OpaqueEntry unpack(ILogData logData) {
+        return unpack(logData, false);
+    }
+
+    /**
+     * Unpack the SMR entries of a log entry.
+     *
+     * @param logData     the log entry
+     * @param passThrough whether the SMR entries of transactions are read as pass-through
+     *                    entries (see {@link SMREntry#passThrough}), which are forwarded without
+     *                    deserializing their arguments
+     * @return the entry
+     */
+    public static OpaqueEntry unpack(ILogData logData, boolean passThrough) {
         byte[] payload = ((LogData) logData).getData();
         if (payload == null) return empty;
         // what if payload is null ?
@@ -122,6 +149,10 @@ public class OpaqueEntry implements Serializable {
                 break;
             case MULTIOBJSMR:
                 MultiObjectSMREntry multiObjectSMREntry = (MultiObjectSMREntry) entry;
+                if (passThrough) {
+                    res.putAll(multiObjectSMREntry.getPassThroughUpdates());
+                    break;
+                }
                 for (Map.Entry<UUID, MultiSMREntry> mapEntry : multiObjectSMREntry.getEntryMap().entrySet()) {
                     res.put(mapEntry.getKey(), mapEntry.getValue().getUpdates());
                 }
@@ -139,26 +170,38 @@ public class OpaqueEntry implements Serializable {
         return new OpaqueEntry(version, res);
     }
 
-    public static int write(FileOutputStream fileOutput, OpaqueEntry opaqueEntry) throws IOException {
+    public static int write(OutputStream output, OpaqueEntry opaqueEntry) throws IOException {
         ByteBuf byteBuf = Unpooled.buffer();
         OpaqueEntry.serialize(byteBuf, opaqueEntry);
         int size = byteBuf.writerIndex();
         byte[] intBytes = ByteBuffer.allocate(INT_BYTES).putInt(size).array();
-        byte[] dataBytes = Arrays.copyOfRange(byteBuf.array(), 0, size);
 
-        fileOutput.write(intBytes);
-        fileOutput.write(dataBytes);
+        output.write(intBytes);
+        output.write(byteBuf.array(), byteBuf.arrayOffset(), size);
 
         return size;
     }
 
-    public static OpaqueEntry read(FileInputStream fileInput) throws IOException {
+    /**
+     * Read the next entry written by {@link #write}.
+     *
+     * @param input the stream to read from
+     * @return the next entry, or null if the stream is at its end
+     * @throws IOException if the stream ends in the middle of an entry
+     */
+    public static OpaqueEntry read(InputStream input) throws IOException {
         byte[] intBytes = new byte[INT_BYTES];
-        fileInput.read(intBytes);
+        int read = IOUtils.read(input, intBytes);
+        if (read == 0) {
+            return null;
+        }
+        if (read < INT_BYTES) {
+            throw new EOFException("Truncated opaque entry header");
+        }
         int size = ByteBuffer.wrap(intBytes).getInt();
 
         byte[] dataBytes = new byte[size];
-        fileInput.read(dataBytes);
+        IOUtils.readFully(input, dataBytes);
 
         ByteBuf byteBuf = Unpooled.wrappedBuffer(dataBytes);
         OpaqueEntry opaqueEntry = OpaqueEntry.deserialize(byteBuf);
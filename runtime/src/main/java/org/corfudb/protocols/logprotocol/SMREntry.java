@@ -4,7 +4,7 @@ import static com.google.common.base.Preconditions.checkState;
 
 
 import io.netty.buffer.ByteBuf;
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -26,6 +26,37 @@ import org.corfudb.util.serializer.ISerializer;
 @EqualsAndHashCode
 public class SMREntry extends LogEntry implements ISMRConsumable {
 
+    /**
+     * The first byte of an entry in the compact encoding (version 1), which has its high bit
+     * set. An entry in the legacy encoding starts with the length of its method name as a
+     * non-negative short, whose first byte never has its high bit set.
+     *
+     * <p>In the compact encoding, the method is written as a varint whose lowest bit tells
+     * whether it is followed by the UTF-8 bytes of the method name, whose length is held by the
+     * remaining bits, or whether the remaining bits hold the id of the method in the
+     * {@link SMRMethodDictionary}. The length of every argument is written as a varint
+     * instead of an int.
+     */
+    private static final byte COMPACT_ENCODING_V1 = (byte) 0x81;
+
+    private static final int ENCODING_FLAG = 0x80;
+
+    private static final int INLINE_METHOD_FLAG = 1;
+
+    /**
+     * The number of bytes reserved for the length of an argument in the compact encoding,
+     * which fits the varint length of arguments of up to 16KB.
+     */
+    private static final int RESERVED_LENGTH_BYTES = 2;
+
+    private static final int VARINT_PAYLOAD_BITS = 7;
+
+    private static final int VARINT_PAYLOAD_MASK = 0x7F;
+
+    private static final int VARINT_CONTINUATION = 0x80;
+
+    private static final int VARINT_MAX_SHIFT = 28;
+
     /**
      * The name of the SMR method. Note that this is limited to the size of a short.
      */
@@ -75,6 +106,19 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
     @Getter
     Integer serializedSize = null;
 
+    /**
+     * Whether this entry is serialized with the compact encoding. An entry which is read
+     * from the log keeps the encoding it was written with.
+     */
+    @Getter
+    private transient boolean compactEncoding = false;
+
+    /**
+     * The serialized entry, from its type onwards, of an entry which is passed through without
+     * being deserialized (see {@link #passThrough(ByteBuf)}). It is written back verbatim.
+     */
+    private transient ByteBuf serializedEntry = null;
+
     /** Set the upcall result for this entry. */
     public void setUpcallResult(Object result) {
         upcallResult = result;
@@ -94,6 +138,11 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
     }
 
 
+    @Override
+    public void setCompactEncoding(boolean compactEncoding) {
+        this.compactEncoding = compactEncoding;
+    }
+
     /** SMREntry constructor. */
     public SMREntry(String smrMethod, @NonNull Object[] smrArguments, ISerializer serializer) {
         super(LogEntryType.SMR);
@@ -102,6 +151,47 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
         this.serializerType = serializer;
     }
 
+    /**
+     * Read a serialized entry, from its type onwards, without deserializing it. The method and
+     * arguments of the returned entry are not set, and it is serialized as the exact bytes it was
+     * read from, which are a slice of the given buffer. The entry is opaque, so it can be
+     * deserialized without a runtime with {@link #decodePassThrough()}.
+     *
+     * @param b The buffer, whose reader index is moved to the end of the entry.
+     * @return The pass-through entry.
+     */
+    public static SMREntry passThrough(ByteBuf b) {
+        int start = b.readerIndex();
+        skipEntry(b);
+        SMREntry entry = new SMREntry();
+        entry.type = LogEntryType.SMR;
+        entry.opaque = true;
+        entry.serializedEntry = b.slice(start, b.readerIndex() - start);
+        entry.serializedSize = entry.serializedEntry.readableBytes();
+        return entry;
+    }
+
+    /**
+     * Whether this entry was read by {@link #passThrough(ByteBuf)} and is not deserialized.
+     */
+    public boolean isPassThrough() {
+        return serializedEntry != null;
+    }
+
+    /**
+     * Deserialize a pass-through entry into an opaque entry.
+     *
+     * @return The deserialized entry, or this entry if it is not a pass-through entry.
+     */
+    public SMREntry decodePassThrough() {
+        if (!isPassThrough()) {
+            return this;
+        }
+        SMREntry entry = (SMREntry) LogEntry.deserialize(serializedEntry.duplicate(), null, true);
+        entry.setGlobalAddress(getGlobalAddress());
+        return entry;
+    }
+
     /**
      * This function provides the remaining buffer. Child entries
      * should initialize their contents based on the buffer.
@@ -113,10 +203,8 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
         int readIndex = b.readerIndex();
 
         super.deserializeBuffer(b, rt);
-        short methodLength = b.readShort();
-        byte[] methodBytes = new byte[methodLength];
-        b.readBytes(methodBytes, 0, methodLength);
-        SMRMethod = new String(methodBytes);
+        compactEncoding = readEncoding(b);
+        SMRMethod = compactEncoding ? readCompactMethod(b) : readString(b, b.readShort());
         byte serializerId = b.readByte();
         byte numArguments = b.readByte();
         Object[] arguments = new Object[numArguments];
@@ -128,7 +216,7 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
         }
 
         for (byte arg = 0; arg < numArguments; arg++) {
-            int len = b.readInt();
+            int len = compactEncoding ? readVarint(b) : b.readInt();
             ByteBuf objBuf = b.slice(b.readerIndex(), len);
             if (opaque) {
                 byte[] argBytes = new byte[len];
@@ -151,28 +239,119 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
         // Magic
         byte magicByte = b.readByte();
         checkState(magicByte == CorfuSerializer.corfuPayloadMagic, "Not a ICorfuSerializable object");
+        skipEntry(b);
+    }
+
+    /**
+     * Seek the reader index of a buffer pointing to the type of a serialized SMREntry
+     * to the end of the entry.
+     */
+    private static void skipEntry(ByteBuf b) {
         // container type
         byte type = b.readByte();
         checkState(type == LogEntryType.SMR.asByte(), "Not a SMREntry!");
+        boolean compact = readEncoding(b);
         // Method name
-        short methodLength = b.readShort();
-        b.skipBytes(methodLength);
+        if (!compact) {
+            short methodLength = b.readShort();
+            b.skipBytes(methodLength);
+        } else {
+            int method = readVarint(b);
+            if ((method & INLINE_METHOD_FLAG) != 0) {
+                b.skipBytes(method >>> 1);
+            }
+        }
         // Serializer type
         b.readByte();
         // num args
         int numArgs = b.readByte();
         for (int arg = 0; arg < numArgs; arg++) {
-            int len = b.readInt();
+            int len = compact ? readVarint(b) : b.readInt();
             b.skipBytes(len);
         }
     }
 
+    /**
+     * Read the encoding of the entry, consuming its first byte if it is compactly encoded.
+     *
+     * @return True if the entry is in the compact encoding.
+     */
+    private static boolean readEncoding(ByteBuf b) {
+        byte first = b.getByte(b.readerIndex());
+        if ((first & ENCODING_FLAG) == 0) {
+            return false;
+        }
+        b.readByte();
+        checkState(first == COMPACT_ENCODING_V1, "Unknown SMREntry encoding %s", first);
+        return true;
+    }
+
+    private static String readCompactMethod(ByteBuf b) {
+        int method = readVarint(b);
+        if ((method & INLINE_METHOD_FLAG) != 0) {
+            return readString(b, method >>> 1);
+        }
+        return SMRMethodDictionary.getMethod(method >>> 1);
+    }
+
+    private static String readString(ByteBuf b, int length) {
+        String value = b.toString(b.readerIndex(), length, StandardCharsets.UTF_8);
+        b.skipBytes(length);
+        return value;
+    }
+
+    static int readVarint(ByteBuf b) {
+        int value = 0;
+        for (int shift = 0; shift <= VARINT_MAX_SHIFT; shift += VARINT_PAYLOAD_BITS) {
+            byte next = b.readByte();
+            value |= (next & VARINT_PAYLOAD_MASK) << shift;
+            if ((next & VARINT_CONTINUATION) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    static void writeVarint(ByteBuf b, int value) {
+        while ((value & ~VARINT_PAYLOAD_MASK) != 0) {
+            b.writeByte((value & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION);
+            value >>>= VARINT_PAYLOAD_BITS;
+        }
+        b.writeByte(value);
+    }
+
+    static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~VARINT_PAYLOAD_MASK) != 0) {
+            value >>>= VARINT_PAYLOAD_BITS;
+            size++;
+        }
+        return size;
+    }
+
     @Override
     public void serialize(ByteBuf b) {
+        if (isPassThrough()) {
+            b.writeBytes(serializedEntry, serializedEntry.readerIndex(), serializedEntry.readableBytes());
+            return;
+        }
         int startWriterIndex = b.writerIndex();
         super.serialize(b);
-        b.writeShort(SMRMethod.length());
-        b.writeBytes(SMRMethod.getBytes());
+        if (compactEncoding) {
+            b.writeByte(COMPACT_ENCODING_V1);
+            int methodId = SMRMethodDictionary.getId(SMRMethod);
+            if (methodId == SMRMethodDictionary.NO_ID) {
+                byte[] methodBytes = SMRMethod.getBytes(StandardCharsets.UTF_8);
+                writeVarint(b, methodBytes.length << 1 | INLINE_METHOD_FLAG);
+                b.writeBytes(methodBytes);
+            } else {
+                writeVarint(b, methodId << 1);
+            }
+        } else {
+            byte[] methodBytes = SMRMethod.getBytes(StandardCharsets.UTF_8);
+            b.writeShort(methodBytes.length);
+            b.writeBytes(methodBytes);
+        }
         if (opaque) {
             //TODO(Maithem) add test for serialize/desrialize of opaque entries
             if (serializerId == -1) {
@@ -183,23 +362,61 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
             b.writeByte(serializerType.getType());
         }
         b.writeByte(SMRArguments.length);
-        Arrays.stream(SMRArguments)
-                .forEach(x -> {
-                    int lengthIndex = b.writerIndex();
-                    b.writeInt(0);
-                    if (opaque) {
-                        b.writeBytes((byte[]) x);
-                    } else {
-                        serializerType.serialize(x, b);
-                    }
-                    int length = b.writerIndex() - lengthIndex - 4;
-                    b.writerIndex(lengthIndex);
-                    b.writeInt(length);
-                    b.writerIndex(lengthIndex + length + 4);
-                });
+        for (Object argument : SMRArguments) {
+            if (compactEncoding) {
+                serializeCompactArgument(argument, b);
+            } else {
+                int lengthIndex = b.writerIndex();
+                b.writeInt(0);
+                serializeArgument(argument, b);
+                int length = b.writerIndex() - lengthIndex - 4;
+                b.writerIndex(lengthIndex);
+                b.writeInt(length);
+                b.writerIndex(lengthIndex + length + 4);
+            }
+        }
         serializedSize = b.writerIndex() - startWriterIndex;
     }
 
+    private void serializeArgument(Object argument, ByteBuf b) {
+        if (opaque) {
+            b.writeBytes((byte[]) argument);
+        } else {
+            serializerType.serialize(argument, b);
+        }
+    }
+
+    /**
+     * Serialize an argument preceded by its varint length. Since the length is only known once
+     * the argument is serialized, space is reserved for it first, and the argument is moved
+     * if its length does not take exactly the reserved number of bytes.
+     */
+    private void serializeCompactArgument(Object argument, ByteBuf b) {
+        int lengthIndex = b.writerIndex();
+        b.writeZero(RESERVED_LENGTH_BYTES);
+        serializeArgument(argument, b);
+        int argumentIndex = lengthIndex + RESERVED_LENGTH_BYTES;
+        int length = b.writerIndex() - argumentIndex;
+        int lengthBytes = varintSize(length);
+
+        if (lengthBytes < RESERVED_LENGTH_BYTES && b.hasArray()) {
+            // A short argument is moved back in place
+            System.arraycopy(b.array(), b.arrayOffset() + argumentIndex,
+                    b.array(), b.arrayOffset() + lengthIndex + lengthBytes, length);
+        } else if (lengthBytes != RESERVED_LENGTH_BYTES) {
+            byte[] argumentBytes = new byte[length];
+            b.getBytes(argumentIndex, argumentBytes);
+            b.writerIndex(lengthIndex);
+            writeVarint(b, length);
+            b.writeBytes(argumentBytes);
+            return;
+        }
+
+        b.writerIndex(lengthIndex);
+        writeVarint(b, length);
+        b.writerIndex(lengthIndex + lengthBytes + length);
+    }
+
     @Override
     public List<SMREntry> getSMRUpdates(UUID id) {
         // TODO: we should check that the id matches the id of this entry,
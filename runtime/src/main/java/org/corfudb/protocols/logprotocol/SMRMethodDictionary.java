@@ -0,0 +1,68 @@
+package org.corfudb.protocols.logprotocol;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The dictionary of the SMR method names which the compact {@link SMREntry} encoding writes
+ * as a one byte id instead of the method name. It holds the upcalls of the built-in tables:
+ * the upcall maps generated by the annotation processor for {@code CorfuTable} and the upcall
+ * map of {@code PersistentCorfuTable}.
+ *
+ * <p>The id of a method is its position in the dictionary plus one, which is persisted in
+ * the log, so methods can only be appended to the dictionary, never removed or reordered.
+ */
+public final class SMRMethodDictionary {
+
+    /**
+     * The id of a method which is not in the dictionary, whose name is written inline.
+     */
+    public static final int NO_ID = 0;
+
+    private static final List<String> METHODS = ImmutableList.of(
+            "put",
+            "remove",
+            "clear",
+            "putAll"
+    );
+
+    private static final Map<String, Integer> IDS;
+
+    static {
+        ImmutableMap.Builder<String, Integer> ids = ImmutableMap.builder();
+        for (int i = 0; i < METHODS.size(); i++) {
+            ids.put(METHODS.get(i), i + 1);
+        }
+        IDS = ids.build();
+    }
+
+    private SMRMethodDictionary() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Get the id of a method.
+     *
+     * @param method The name of the method.
+     * @return The id of the method, or {@link #NO_ID} if the method is not in the dictionary.
+     */
+    public static int getId(String method) {
+        return IDS.getOrDefault(method, NO_ID);
+    }
+
+    /**
+     * Get the name of a method.
+     *
+     * @param id The id of the method.
+     * @return The name of the method.
+     */
+    public static String getMethod(int id) {
+        if (id <= NO_ID || id > METHODS.size()) {
+            throw new IllegalArgumentException("Unknown SMR method id " + id);
+        }
+        return METHODS.get(id - 1);
+    }
+}
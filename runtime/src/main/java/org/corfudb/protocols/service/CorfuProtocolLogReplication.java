@@ -105,6 +105,18 @@ public final class CorfuProtocolLogReplication {
      * @return       list of extracted {@link OpaqueEntry}s
      */
     public static List<OpaqueEntry> extractOpaqueEntries(byte[] array) {
+        return extractOpaqueEntries(array, false);
+    }
+
+    /**
+     * Given a byte array, extract {@link OpaqueEntry}s.
+     *
+     * @param array        where to extract the data from
+     * @param passThrough  whether the SMR entries are extracted as pass-through entries,
+     *                     which are slices of the array
+     * @return             list of extracted {@link OpaqueEntry}s
+     */
+    public static List<OpaqueEntry> extractOpaqueEntries(byte[] array, boolean passThrough) {
         ArrayList<OpaqueEntry> opaqueEntryList = new ArrayList<>();
         ByteBuf dataBuf = Unpooled.wrappedBuffer(array);
 
@@ -112,7 +124,7 @@ public final class CorfuProtocolLogReplication {
 
         int opaqueEntryListSize = CorfuProtocolCommon.fromBuffer(dataBuf, Integer.class);
         for (int i = 0; i < opaqueEntryListSize; i++) {
-            opaqueEntryList.add(OpaqueEntry.deserialize(dataBuf));
+            opaqueEntryList.add(OpaqueEntry.deserialize(dataBuf, passThrough));
         }
 
         return opaqueEntryList;
@@ -128,6 +140,17 @@ public final class CorfuProtocolLogReplication {
         return extractOpaqueEntries(message.getData().toByteArray());
     }
 
+    /**
+     * Given a byte array, extract {@link OpaqueEntry}s.
+     *
+     * @param message      where to extract the data from
+     * @param passThrough  whether the SMR entries are extracted as pass-through entries
+     * @return             list of extracted {@link OpaqueEntry}s
+     */
+    public static List<OpaqueEntry> extractOpaqueEntries(LogReplicationEntryMsg message, boolean passThrough) {
+        return extractOpaqueEntries(message.getData().toByteArray(), passThrough);
+    }
+
     /**
      * Given a list {@link OpaqueEntry}s, generate a byte array representation.
      *
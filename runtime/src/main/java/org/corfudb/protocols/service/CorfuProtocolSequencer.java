@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.corfudb.protocols.CorfuProtocolCommon;
 import org.corfudb.protocols.wireprotocol.SequencerMetrics;
 import org.corfudb.protocols.wireprotocol.StreamAddressRange;
+import org.corfudb.protocols.wireprotocol.StreamsAddressNotification;
 import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.protocols.wireprotocol.TokenType;
@@ -21,12 +22,16 @@ import org.corfudb.runtime.proto.service.Sequencer.SequencerMetricsRequestMsg;
 import org.corfudb.runtime.proto.service.Sequencer.SequencerMetricsResponseMsg;
 import org.corfudb.runtime.proto.service.Sequencer.SequencerTrimRequestMsg;
 import org.corfudb.runtime.proto.service.Sequencer.SequencerTrimResponseMsg;
+import org.corfudb.runtime.proto.service.Sequencer.StreamsAddressNotificationMsg;
 import org.corfudb.runtime.proto.service.Sequencer.StreamsAddressRequestMsg;
+import org.corfudb.runtime.proto.service.Sequencer.StreamsSubscriptionRequestMsg;
+import org.corfudb.runtime.proto.service.Sequencer.StreamsSubscriptionResponseMsg;
 import org.corfudb.runtime.proto.service.Sequencer.TokenRequestMsg;
 import org.corfudb.runtime.proto.service.Sequencer.TokenRequestMsg.TokenRequestType;
 import org.corfudb.runtime.proto.service.Sequencer.TokenResponseMsg;
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -49,6 +54,8 @@ import static org.corfudb.protocols.CorfuProtocolTxResolution.getTxResolutionInf
  * - SequencerTrimRequestMsg
  * - SequencerMetricsRequestMsg
  * - StreamsAddressRequestMsg
+ * - StreamsSubscriptionRequestMsg
+ * as well as the StreamsAddressNotificationMsg pushed by the sequencer.
  * These methods are used by both the client and the server.
  */
 @Slf4j
@@ -339,4 +346,72 @@ public final class CorfuProtocolSequencer {
                         .build())
                 .build();
     }
+
+    /**
+     * Returns a new {@link RequestPayloadMsg} Protobuf object consisting of a
+     * {@link StreamsSubscriptionRequestMsg} object.
+     *
+     * @param streams the streams (tags) to be notified about, replaces any previous subscription
+     * @return a new {@link RequestPayloadMsg} Protobuf object
+     */
+    public static RequestPayloadMsg getStreamsSubscriptionRequestMsg(Collection<UUID> streams) {
+        return RequestPayloadMsg.newBuilder()
+                .setStreamsSubscriptionRequest(StreamsSubscriptionRequestMsg.newBuilder()
+                        .addAllStreams(streams.stream()
+                                .map(CorfuProtocolCommon::getUuidMsg)
+                                .collect(Collectors.toList()))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Returns a new {@link ResponsePayloadMsg} Protobuf object consisting of a
+     * {@link StreamsSubscriptionResponseMsg} object.
+     *
+     * @param logTail the global log tail at the time the subscription was registered
+     * @return a new {@link ResponsePayloadMsg} Protobuf object
+     */
+    public static ResponsePayloadMsg getStreamsSubscriptionResponseMsg(long logTail) {
+        return ResponsePayloadMsg.newBuilder()
+                .setStreamsSubscriptionResponse(StreamsSubscriptionResponseMsg.newBuilder()
+                        .setLogTail(logTail)
+                        .build())
+                .build();
+    }
+
+    /**
+     * Returns a new {@link ResponsePayloadMsg} Protobuf object consisting of a
+     * {@link StreamsAddressNotificationMsg} object.
+     *
+     * @param epoch       the sequencer epoch the addresses were allocated in
+     * @param streamTails the last allocated address of each notified stream
+     * @return a new {@link ResponsePayloadMsg} Protobuf object
+     */
+    public static ResponsePayloadMsg getStreamsAddressNotificationMsg(long epoch, Map<UUID, Long> streamTails) {
+        return ResponsePayloadMsg.newBuilder()
+                .setStreamsAddressNotification(StreamsAddressNotificationMsg.newBuilder()
+                        .setEpoch(epoch)
+                        .addAllStreamTails(streamTails.entrySet()
+                                .stream()
+                                .map(e -> UuidToLongPairMsg.newBuilder()
+                                        .setKey(getUuidMsg(e.getKey()))
+                                        .setValue(e.getValue())
+                                        .build())
+                                .collect(Collectors.toList()))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Returns the Java {@link StreamsAddressNotification} object from the
+     * {@link StreamsAddressNotificationMsg} Protobuf object.
+     *
+     * @param msg the {@link StreamsAddressNotificationMsg} Protobuf object
+     * @return the equivalent {@link StreamsAddressNotification} object
+     */
+    public static StreamsAddressNotification getStreamsAddressNotification(StreamsAddressNotificationMsg msg) {
+        return new StreamsAddressNotification(msg.getEpoch(),
+                msg.getStreamTailsList().stream().collect(Collectors.<UuidToLongPairMsg, UUID, Long>toMap(
+                        entry -> getUUID(entry.getKey()), UuidToLongPairMsg::getValue)));
+    }
 }
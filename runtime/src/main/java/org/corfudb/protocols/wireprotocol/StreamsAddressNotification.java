@@ -0,0 +1,19 @@
+package org.corfudb.protocols.wireprotocol;
+
+import lombok.Data;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Represents the notification pushed by the sequencer to subscribed clients when tokens are
+ * allocated on the streams they are interested in. For each stream it carries the last allocated
+ * address, which clients use as a hint of which streams have new deltas to discover.
+ */
+@Data
+public class StreamsAddressNotification {
+
+    private final long epoch;
+
+    private final Map<UUID, Long> streamTails;
+}
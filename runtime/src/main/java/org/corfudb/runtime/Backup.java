@@ -1,5 +1,11 @@
 package org.corfudb.runtime;
 
+import com.github.luben.zstd.ZstdOutputStream;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
@@ -11,20 +17,29 @@ import org.corfudb.runtime.exceptions.TrimmedException;
 import org.corfudb.runtime.view.StreamOptions;
 import org.corfudb.runtime.view.TableRegistry;
 import org.corfudb.runtime.view.stream.OpaqueStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
 
 /**
  * Provides Corfu native backup support.
@@ -32,9 +47,13 @@ import java.util.stream.Stream;
  * Backup a selective set of tables specified by stream id or UFO table option.
  *
  * Steps:
- * 1. Open the selective set of tables as OpaqueStreams
- * 2. Write each table to individual temporary file
- * 3. Merge temporary backup files into a single .tar file under a user-given path
+ * 1. Open the selective set of tables as OpaqueStreams, in parallel on a bounded pool of workers
+ * 2. Serialize and compress each table straight into a .tar file under a user-given path, as a sequence
+ *    of bounded entries, so that a table is neither buffered as a whole nor spooled to a temporary file
+ * 3. Append a manifest with the size and checksum of each table to the .tar file, see {@link BackupManifest}
+ *
+ * An incremental backup only saves the updates after the snapshot of a previous backup. It is
+ * restored on top of the tables restored from the previous backup.
  */
 @Slf4j
 public class Backup {
@@ -42,9 +61,6 @@ public class Backup {
     // The path of backup tar file
     private final String filePath;
 
-    // The path of a temporary directory under which table's backup files are stored
-    private String backupTempDirPath;
-
     // The stream IDs of tables which are backed up
     private final List<UUID> streamIDs;
 
@@ -57,11 +73,44 @@ public class Backup {
     // All tables in Corfu Db
     private List<UUID> allTablesInDb;
 
+    // The number of tables which are backed up in parallel
+    @Setter
+    private int parallelism;
+
+    // The compression of the tables in the backup tar file
+    @Setter
+    private BackupManifest.Compression compression = BackupManifest.Compression.ZSTD;
+
+    // The path of the previous backup tar file if the backup is incremental, null otherwise
+    @Setter
+    private String previousBackupFilePath;
+
+    // The maximum size of a tar entry which holds a part of the stored contents of a table
+    @Setter(AccessLevel.PACKAGE)
+    private int tableEntryChunkSize = DEFAULT_TABLE_ENTRY_CHUNK_SIZE;
+
+    // The manifest of the backup tar file
+    private BackupManifest manifest;
+
+    // Whether the workers are stopped, after which no table can be added to the backup tar file
+    private volatile boolean workersStopped;
+
     /**
-     * Backup files of tables are temporarily stored under BACKUP_TEMP_DIR. They are deleted after backup finishes.
+     * Backup files of tables were temporarily stored under BACKUP_TEMP_DIR by previous versions.
+     * They are deleted before backup starts.
      */
     private static final String BACKUP_TEMP_DIR_PREFIX = "corfu_backup_";
 
+    /**
+     * The default maximum size of a tar entry which holds a part of the stored contents of a table.
+     */
+    private static final int DEFAULT_TABLE_ENTRY_CHUNK_SIZE = 4 << 20;
+
+    /**
+     * The time to wait for the workers to stop when the backup fails.
+     */
+    private static final Duration WORKER_SHUTDOWN_TIMEOUT = Duration.ofMinutes(1);
+
     /**
      * @param filePath      - the filePath where the generated backup tar file will be placed
      * @param streamIDs     - the stream IDs of tables which are backed up
@@ -71,6 +120,7 @@ public class Backup {
         this.filePath = filePath;
         this.streamIDs = streamIDs;
         this.runtime = runtime;
+        this.parallelism = runtime.getParameters().getBackupRestoreParallelism();
     }
 
     /**
@@ -84,6 +134,7 @@ public class Backup {
     public Backup(String filePath, CorfuRuntime runtime, boolean taggedTablesOnly) {
         this.filePath = filePath;
         this.runtime = runtime;
+        this.parallelism = runtime.getParameters().getBackupRestoreParallelism();
         if (taggedTablesOnly) {
             this.streamIDs = getTaggedTables();
         } else {
@@ -106,15 +157,12 @@ public class Backup {
         this.timestamp = runtime.getAddressSpaceView().getLogTail();
 
         try {
-            // The cleanup() in finally block is not guaranteed to have
-            // been run in previous backups if there was OOM
             cleanup();
+            initManifest();
             backup();
-            generateTarFile();
         } catch (Exception e) {
+            deleteBackupFile();
             throw new BackupRestoreException("failed to backup tables " + streamIDs, e);
-        } finally {
-            cleanup();
         }
         log.info("backup completed");
     }
@@ -135,144 +183,218 @@ public class Backup {
         return allTablesInDb.contains(streamId);
     }
 
+    private void initManifest() throws IOException {
+        manifest = new BackupManifest();
+        manifest.setTimestamp(timestamp);
+        manifest.setCompression(compression);
+
+        if (previousBackupFilePath != null) {
+            BackupManifest previous = BackupManifest.read(previousBackupFilePath)
+                    .orElseThrow(() -> new IllegalArgumentException("previous backup file "
+                            + previousBackupFilePath + " has no manifest"));
+            if (previous.getTimestamp() > timestamp) {
+                throw new IllegalStateException("previous backup at " + previous.getTimestamp()
+                        + " is after the log tail " + timestamp);
+            }
+            manifest.setBaseTimestamp(previous.getTimestamp());
+            log.info("incremental backup of updates in ({}, {}]", previous.getTimestamp(), timestamp);
+        }
+    }
+
     /**
-     * All temp backupTable files will be placed under BACKUP_DIR_PATH directory.
+     * Back up the tables in parallel into the backup tar file, followed by the manifest.
      *
      * @throws IOException
      */
-    private void backup() throws IOException {
+    private void backup() throws IOException, InterruptedException {
         if (streamIDs.isEmpty()) {
             log.warn("back up is called with empty streamIDs!");
-            return;
         }
 
         long startTime = System.currentTimeMillis();
 
-        this.backupTempDirPath = Files.createTempDirectory(BACKUP_TEMP_DIR_PREFIX).toString();
         Map<UUID, String> streamIdToTableNameMap = getStreamIdToTableNameMap();
-        for (UUID streamId : streamIDs) {
-            if (!tableExists(streamId)) {
-                log.warn("cannot back up a non-existent table stream id {} table name {}",
-                        streamId, streamIdToTableNameMap.get(streamId));
-                continue;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(parallelism, 1),
+                new ThreadFactoryBuilder().setNameFormat("backup-worker-%d").setDaemon(true).build());
+
+        try (FileOutputStream fileOutput = new FileOutputStream(filePath);
+             TarArchiveOutputStream tarOutput = new TarArchiveOutputStream(new BufferedOutputStream(fileOutput))) {
+            // truncate file names if too long
+            tarOutput.setLongFileMode(TarArchiveOutputStream.LONGFILE_TRUNCATE);
+
+            List<Future<BackupManifest.TableManifest>> tableBackups = new ArrayList<>();
+            try {
+                for (UUID streamId : streamIDs) {
+                    if (!tableExists(streamId)) {
+                        log.warn("cannot back up a non-existent table stream id {} table name {}",
+                                streamId, streamIdToTableNameMap.get(streamId));
+                        continue;
+                    }
+
+                    // backup entry's name format: uuid.namespace$tableName
+                    String entryName = streamId + "." + streamIdToTableNameMap.get(streamId);
+                    tableBackups.add(executor.submit(() ->
+                            backupTable(tarOutput, entryName, streamId)));
+                }
+
+                for (Future<BackupManifest.TableManifest> tableBackup : tableBackups) {
+                    manifest.getTables().add(tableBackup.get());
+                }
+            } catch (ExecutionException e) {
+                Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+                Throwables.throwIfUnchecked(e.getCause());
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                executor.shutdownNow();
+                if (!executor.awaitTermination(WORKER_SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    log.warn("backup workers did not stop within {}", WORKER_SHUTDOWN_TIMEOUT);
+                }
+                // Wait for a worker which is still adding a table, so none writes to the closed tar file
+                synchronized (tarOutput) {
+                    workersStopped = true;
+                }
             }
 
-            // temporary backup file's name format: uuid.namespace$tableName
-            Path filePath = Paths.get(backupTempDirPath)
-                    .resolve(streamId + "." + streamIdToTableNameMap.get(streamId));
-            backupTable(filePath, streamId);
+            addManifest(tarOutput);
+        } catch (IOException e) {
+            log.error("failed to generate a backup tar file {}", filePath);
+            throw e;
         }
+
         long elapsedTime = System.currentTimeMillis() - startTime;
 
-        log.info("successfully backed up {} tables to {} directory, elapsed time {}ms",
-                streamIDs.size(), backupTempDirPath, elapsedTime);
+        log.info("successfully backed up {} tables to {}, elapsed time {}ms",
+                manifest.getTables().size(), filePath, elapsedTime);
     }
 
     /**
-     * Back up a single table
+     * Back up a single table into the backup tar file
      *
      * If the log is trimmed at timestamp, the backupTable will fail.
-     * If the table has no data to be backed up, it will create a file with empty contents.
+     * If the table has no data to be backed up, it will add an entry with empty contents.
      *
-     * @param filePath   - the path of the backup file
+     * @param tarOutput  - the backup tar file which contains all tables
+     * @param entryName  - the name of the table's entries in the backup tar file
      * @param uuid       - the uuid of the table which is being backed up
+     * @return the manifest of the table's entries
      * @throws IOException
      */
-    private void backupTable(Path filePath, UUID uuid) throws IOException {
+    private BackupManifest.TableManifest backupTable(TarArchiveOutputStream tarOutput, String entryName,
+                                                     UUID uuid) throws IOException {
         long startTime = System.currentTimeMillis();
         BackupTableStats backupTableStats;
 
-        try (FileOutputStream fileOutput = new FileOutputStream(filePath.toString())) {
+        TableEntryOutputStream tableOutput = new TableEntryOutputStream(tarOutput, entryName);
+        try (OutputStream output = compress(tableOutput)) {
             StreamOptions options = StreamOptions.builder()
                     .ignoreTrimmed(false)
                     .cacheEntries(false)
                     .build();
-            Stream<OpaqueEntry> stream = (new OpaqueStream(runtime.getStreamsView().get(uuid, options))).streamUpTo(timestamp);
+            OpaqueStream opaqueStream = new OpaqueStream(runtime.getStreamsView().get(uuid, options));
+            if (manifest.isIncremental()) {
+                opaqueStream.seek(manifest.getBaseTimestamp() + 1);
+            }
 
-            backupTableStats = writeTableToFile(fileOutput, stream, uuid);
-        } catch (IOException e) {
-            log.error("failed to back up table {} to file {}", uuid, filePath);
-            throw e;
+            backupTableStats = writeTableToStream(output, opaqueStream.streamUpTo(timestamp), uuid);
         } catch (TrimmedException e) {
             log.error("failed to back up tables as log was trimmed after back up starts.");
             throw e;
+        } finally {
+            tableOutput.close();
         }
 
         long elapsedTime = System.currentTimeMillis() - startTime;
 
-        log.info("{} entries (size: {} bytes, elapsed time: {} ms) saved to temp file {}",
-                backupTableStats.getNumOfEntries(), backupTableStats.getTableSize(), elapsedTime, filePath);
+        log.info("{} entries (size: {} bytes, stored size: {} bytes, elapsed time: {} ms) of table {} saved to {}",
+                backupTableStats.getNumOfEntries(), backupTableStats.getTableSize(), tableOutput.getSize(),
+                elapsedTime, uuid, filePath);
+
+        return new BackupManifest.TableManifest(uuid.toString(), entryName, backupTableStats.getNumOfEntries(),
+                backupTableStats.getTableSize(), tableOutput.getSize(), tableOutput.getChecksum().getValue());
+    }
+
+    private OutputStream compress(OutputStream output) throws IOException {
+        if (compression == BackupManifest.Compression.ZSTD) {
+            return new ZstdOutputStream(output);
+        }
+        return output;
     }
 
-    private BackupTableStats writeTableToFile(FileOutputStream fileOutput, Stream<OpaqueEntry> stream, UUID uuid) throws IOException {
+    private BackupTableStats writeTableToStream(OutputStream output, Stream<OpaqueEntry> stream, UUID uuid)
+            throws IOException {
         Iterator<OpaqueEntry> iterator = stream.iterator();
         int numOfEntries = 0;
-        int tableSize = 0;
+        long tableSize = 0;
         while (iterator.hasNext()) {
-            numOfEntries++;
             OpaqueEntry lastEntry = iterator.next();
             List<SMREntry> smrEntries = lastEntry.getEntries().get(uuid);
             if (smrEntries != null) {
+                numOfEntries++;
                 Map<UUID, List<SMREntry>> map = new HashMap<>();
                 map.put(uuid, smrEntries);
                 OpaqueEntry newOpaqueEntry = new OpaqueEntry(lastEntry.getVersion(), map);
-                tableSize = OpaqueEntry.write(fileOutput, newOpaqueEntry);
+                tableSize += OpaqueEntry.write(output, newOpaqueEntry);
             }
         }
-        fileOutput.flush();
+        output.flush();
         return new BackupTableStats(numOfEntries, tableSize);
     }
 
     /**
-     * All generated files under tmp directory will be composed into one tar file
+     * Add the manifest as the last entry of the backup tar file
      *
+     * @param tarOutput    - the backup tar file which contains all tables
      * @throws IOException
      */
-    private void generateTarFile() throws IOException {
-        File folder = new File(backupTempDirPath);
-        File[] srcFiles = folder.listFiles();
-        if (srcFiles == null) {
-            log.debug("no backup file found under directory {}", backupTempDirPath);
-            return;
-        }
-
-        try (FileOutputStream fileOutput = new FileOutputStream(filePath);
-             TarArchiveOutputStream tarOutput = new TarArchiveOutputStream(fileOutput)) {
-            // truncate file names if too long
-            tarOutput.setLongFileMode(TarArchiveOutputStream.LONGFILE_TRUNCATE);
-            for (File srcFile : srcFiles) {
-                addToTarFile(srcFile, tarOutput);
-            }
-        } catch (IOException e) {
-            log.error("failed to generate a backup tar file {}", filePath);
-            throw e;
-        }
-
+    private void addManifest(TarArchiveOutputStream tarOutput) throws IOException {
+        addToTarFile(tarOutput, BackupManifest.MANIFEST_ENTRY_NAME,
+                manifest.toJson().getBytes(StandardCharsets.UTF_8));
         log.info("backup tar file is generated at {}", filePath);
     }
 
     /**
-     * Add the table backup file to the backup tar file which contains all tables
+     * Add an entry to the backup tar file which contains all tables
+     *
+     * @param tarOutput    - the backup tar file which contains all tables
+     * @param entryName    - the name of the entry
+     * @param entryData    - the contents of the entry
+     * @throws IOException
+     */
+    private void addToTarFile(TarArchiveOutputStream tarOutput, String entryName, byte[] entryData)
+            throws IOException {
+        addToTarFile(tarOutput, entryName, entryData, entryData.length);
+    }
+
+    /**
+     * Add an entry to the backup tar file which contains all tables
      *
-     * @param tableFile    - the table backup file
      * @param tarOutput    - the backup tar file which contains all tables
+     * @param entryName    - the name of the entry
+     * @param entryData    - the buffer which holds the contents of the entry
+     * @param length       - the length of the contents of the entry
      * @throws IOException
      */
-    private void addToTarFile(File tableFile,TarArchiveOutputStream tarOutput) throws IOException {
-        try (FileInputStream fileInput = new FileInputStream(tableFile)) {
-            TarArchiveEntry tarEntry = new TarArchiveEntry(tableFile);
-            tarEntry.setName(tableFile.getName());
-            tarOutput.putArchiveEntry(tarEntry);
-
-            int count;
-            byte[] buf = new byte[1024];
-            while ((count = fileInput.read(buf, 0, 1024)) != -1) {
-                tarOutput.write(buf, 0, count);
+    private void addToTarFile(TarArchiveOutputStream tarOutput, String entryName, byte[] entryData, int length)
+            throws IOException {
+        TarArchiveEntry tarEntry = new TarArchiveEntry(entryName);
+        tarEntry.setSize(length);
+        synchronized (tarOutput) {
+            try {
+                tarOutput.putArchiveEntry(tarEntry);
+                tarOutput.write(entryData, 0, length);
+                tarOutput.closeArchiveEntry();
+            } catch (IOException e) {
+                log.error("failed to add backup entry {} to tar file", entryName);
+                throw e;
             }
-            tarOutput.closeArchiveEntry();
+        }
+    }
+
+    private void deleteBackupFile() {
+        try {
+            Files.deleteIfExists(Paths.get(filePath));
         } catch (IOException e) {
-            log.error("failed to add table backup file {} to tar file", tableFile.getName());
-            throw e;
+            log.error("failed to delete the incomplete backup file {}", filePath);
         }
     }
 
@@ -327,7 +449,8 @@ public class Backup {
     }
 
     /**
-     * Delete all temp backup directories under the system temp directory.
+     * Delete all temp backup directories under the system temp directory, which are not
+     * guaranteed to have been removed by previous backups if there was OOM.
      */
     private void cleanup() {
         File tmpdir = new File(System.getProperty("java.io.tmpdir"));
@@ -344,12 +467,95 @@ public class Backup {
         }
     }
 
+    /**
+     * Streams the stored contents of a table into the backup tar file. The contents are split into
+     * entries of at most tableEntryChunkSize bytes, all named after the table, since the size of a
+     * tar entry has to be known before its contents are written. The entries of the tables which are
+     * backed up in parallel are interleaved; Restore concatenates the entries of each table in order.
+     */
+    private class TableEntryOutputStream extends OutputStream {
+
+        private final TarArchiveOutputStream tarOutput;
+
+        private final String entryName;
+
+        private final byte[] chunk = new byte[tableEntryChunkSize];
+
+        private int chunkLength = 0;
+
+        private int numChunks = 0;
+
+        // The size of the stored contents of the table
+        @Getter
+        private long size = 0;
+
+        // The CRC32 checksum of the stored contents of the table
+        @Getter
+        private final CRC32 checksum = new CRC32();
+
+        private boolean closed = false;
+
+        TableEntryOutputStream(TarArchiveOutputStream tarOutput, String entryName) {
+            this.tarOutput = tarOutput;
+            this.entryName = entryName;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (chunkLength == chunk.length) {
+                addChunk();
+            }
+            chunk[chunkLength++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (chunkLength == chunk.length) {
+                    addChunk();
+                }
+                int n = Math.min(len, chunk.length - chunkLength);
+                System.arraycopy(b, off, chunk, chunkLength, n);
+                chunkLength += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        /**
+         * Add the remaining contents, or an empty entry if the table has no contents.
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (chunkLength > 0 || numChunks == 0) {
+                addChunk();
+            }
+        }
+
+        private void addChunk() throws IOException {
+            synchronized (tarOutput) {
+                if (workersStopped) {
+                    throw new IOException("backup of " + entryName + " is cancelled");
+                }
+                addToTarFile(tarOutput, entryName, chunk, chunkLength);
+            }
+            checksum.update(chunk, 0, chunkLength);
+            size += chunkLength;
+            numChunks++;
+            chunkLength = 0;
+        }
+    }
+
     private static class BackupTableStats {
 
         private final int numOfEntries;
-        private final int tableSize;
+        private final long tableSize;
 
-        BackupTableStats(int numOfEntries, int tableSize) {
+        BackupTableStats(int numOfEntries, long tableSize) {
             this.numOfEntries = numOfEntries;
             this.tableSize = tableSize;
         }
@@ -358,7 +564,7 @@ public class Backup {
             return numOfEntries;
         }
 
-        public int getTableSize() {
+        public long getTableSize() {
             return tableSize;
         }
     }
@@ -0,0 +1,142 @@
+package org.corfudb.runtime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarFile;
+import org.apache.commons.io.IOUtils;
+import org.corfudb.runtime.view.Address;
+import org.corfudb.util.JsonUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The manifest of a backup tar file, which is stored as the last entry of the tar file.
+ *
+ * It records the snapshot of the backup, the snapshot of the previous backup if the backup
+ * is incremental, how the table entries are compressed, and the size and checksum of each
+ * table so that its contents can be verified while it is restored.
+ *
+ * Since version 2, the stored contents of a table may be split into several tar entries named
+ * after the table, which are concatenated in the order of the tar file. Version 1 backups have a
+ * single tar entry per table.
+ *
+ * Backup tar files generated before the manifest was introduced have no manifest. Their table
+ * entries are full and uncompressed.
+ */
+@Data
+@NoArgsConstructor
+public class BackupManifest {
+
+    /**
+     * The name of the tar entry which holds the manifest.
+     */
+    public static final String MANIFEST_ENTRY_NAME = "manifest.json";
+
+    public static final int VERSION = 2;
+
+    /**
+     * How the table entries of a backup tar file are compressed.
+     */
+    public enum Compression {
+        NONE,
+        ZSTD
+    }
+
+    private int version = VERSION;
+
+    // The snapshot address up to which the tables are backed up
+    private long timestamp;
+
+    // The snapshot address of the previous backup if incremental, entries up to it are not backed up
+    private long baseTimestamp = Address.NON_ADDRESS;
+
+    private Compression compression = Compression.NONE;
+
+    private List<TableManifest> tables = new ArrayList<>();
+
+    /**
+     * The manifest of a table entry of the backup tar file.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TableManifest {
+
+        // The stream ID of the table
+        private String streamId;
+
+        // The name of the tar entries which hold the table
+        private String entryName;
+
+        // The number of OpaqueEntries of the table
+        private int numEntries;
+
+        // The size of the table entries before compression
+        private long tableSize;
+
+        // The size of the stored contents of the table, i.e. of its tar entries
+        private long entrySize;
+
+        // The CRC32 checksum of the stored contents of the table
+        private long checksum;
+
+        public UUID getStreamUUID() {
+            return UUID.fromString(streamId);
+        }
+    }
+
+    /**
+     * @return true if only the updates after the snapshot of a previous backup are backed up
+     */
+    public boolean isIncremental() {
+        return Address.isAddress(baseTimestamp);
+    }
+
+    public String toJson() {
+        return JsonUtils.toJson(this);
+    }
+
+    public static BackupManifest fromJson(String json) {
+        return JsonUtils.fromJson(json, BackupManifest.class);
+    }
+
+    /**
+     * Read the manifest of a backup tar file.
+     *
+     * @param tarFile the backup tar file
+     * @return the manifest, or empty if the backup tar file has no manifest
+     * @throws IOException if the tar file can't be read
+     */
+    public static Optional<BackupManifest> read(TarFile tarFile) throws IOException {
+        for (TarArchiveEntry entry : tarFile.getEntries()) {
+            if (entry.getName().equals(MANIFEST_ENTRY_NAME)) {
+                try (InputStream input = tarFile.getInputStream(entry)) {
+                    return Optional.of(fromJson(IOUtils.toString(input, StandardCharsets.UTF_8)));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Read the manifest of a backup tar file.
+     *
+     * @param filePath the path of the backup tar file
+     * @return the manifest, or empty if the backup tar file has no manifest
+     * @throws IOException if the tar file can't be read
+     */
+    public static Optional<BackupManifest> read(String filePath) throws IOException {
+        try (TarFile tarFile = new TarFile(new File(filePath))) {
+            return read(tarFile);
+        }
+    }
+}
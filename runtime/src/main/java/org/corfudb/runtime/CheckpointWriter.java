@@ -2,6 +2,7 @@ package org.corfudb.runtime;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import lombok.Getter;
@@ -9,17 +10,25 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.common.metrics.micrometer.MicroMeterUtils;
 import org.corfudb.protocols.logprotocol.CheckpointEntry;
+import org.corfudb.protocols.logprotocol.CheckpointEntry.CheckpointDictKey;
+import org.corfudb.protocols.logprotocol.ISMRConsumable;
 import org.corfudb.protocols.logprotocol.MultiSMREntry;
 import org.corfudb.protocols.logprotocol.SMREntry;
 import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.StreamAddressRange;
 import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.runtime.collections.ICorfuTable;
+import org.corfudb.runtime.exceptions.TrimmedException;
 import org.corfudb.runtime.object.transactions.TransactionType;
+import org.corfudb.runtime.view.Address;
 import org.corfudb.runtime.view.CacheOption;
+import org.corfudb.runtime.view.ReadOptions;
 import org.corfudb.runtime.view.StreamsView;
 import org.corfudb.runtime.view.TableRegistry;
+import org.corfudb.runtime.view.stream.StreamAddressSpace;
 import org.corfudb.util.serializer.DynamicProtobufSerializer;
 import org.corfudb.util.serializer.ISerializer;
 import org.corfudb.util.serializer.Serializers;
@@ -27,15 +36,19 @@ import org.corfudb.util.serializer.Serializers;
 import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 
@@ -72,6 +85,28 @@ public class CheckpointWriter<T extends ICorfuTable<?, ?>> {
     @Setter
     private int batchSize;
 
+    /** The maximum number of incremental checkpoints between two full checkpoints,
+     *  0 if every checkpoint is a full checkpoint.
+     */
+    @Getter
+    @Setter
+    private int maxIncrementalCheckpoints;
+
+    /** An incremental checkpoint is only written if it holds less than this fraction of the keys of the table.
+     */
+    private static final double MAX_INCREMENTAL_KEY_RATIO = 0.5;
+
+    /** The SMR methods whose first argument is the only key they update, see the upcalls of
+     *  {@link org.corfudb.runtime.collections.PersistentCorfuTable}.
+     */
+    private static final Set<String> KEYED_MUTATORS = new HashSet<>(Arrays.asList("put", "remove"));
+
+    /** The address of the START record of the full checkpoint that the last written checkpoint
+     *  is based on, which must not be trimmed while incremental checkpoints are based on it.
+     */
+    @Getter
+    private long retainAddress = Address.NON_ADDRESS;
+
     @SuppressWarnings("checkstyle:abbreviation")
     private final UUID checkpointStreamID;
     private final Map<CheckpointEntry.CheckpointDictKey, String> mdkv = new HashMap<>();
@@ -129,6 +164,7 @@ public class CheckpointWriter<T extends ICorfuTable<?, ?>> {
         checkpointStreamID = CorfuRuntime.getCheckpointStreamIdFromId(streamId);
         sv = rt.getStreamsView();
         batchSize = rt.getParameters().getCheckpointBatchSize();
+        maxIncrementalCheckpoints = rt.getParameters().getMaxIncrementalCheckpoints();
     }
 
     /**
@@ -169,7 +205,22 @@ public class CheckpointWriter<T extends ICorfuTable<?, ?>> {
 
         log.info("appendCheckpoint: Started checkpoint for {} at snapshot {}", streamId, snapshotTimestamp);
 
-        
+        try {
+            Optional<Set<Object>> changedKeys = getChangedKeys(snapshotTimestamp);
+            if (changedKeys.isPresent()) {
+                appendIncrementalCheckpoint(snapshotTimestamp, changedKeys.get(), livenessUpdater, start);
+            } else {
+                appendFullCheckpoint(snapshotTimestamp, livenessUpdater, start);
+            }
+        } finally {
+            rt.getObjectsView().TXEnd();
+        }
+
+        return snapshotTimestamp;
+    }
+
+    private void appendFullCheckpoint(Token snapshotTimestamp, Optional<LivenessUpdater> livenessUpdater,
+                                      long start) {
         try (Stream<? extends Map.Entry<?, ?>> entries = this.corfuTable.entryStream()) {
             // A checkpoint writer will do two accesses one to obtain the object
             // vlo version and to get a shallow copy of the entry set
@@ -180,22 +231,154 @@ public class CheckpointWriter<T extends ICorfuTable<?, ?>> {
 
             livenessUpdater.ifPresent(LivenessUpdater::notifyOnSyncComplete);
 
-            startCheckpoint(snapshotTimestamp);
+            this.mdkv.remove(CheckpointDictKey.PREVIOUS_CHECKPOINT_ID);
+            this.mdkv.put(CheckpointDictKey.BASE_CHECKPOINT_ID, checkpointId.toString());
+            this.mdkv.put(CheckpointDictKey.DELTA_COUNT, "0");
+            long startAddress = startCheckpoint(snapshotTimestamp);
+            this.mdkv.put(CheckpointDictKey.BASE_ADDRESS, Long.toString(startAddress));
             int entryCount = appendObjectState(entries);
             finishCheckpoint();
-            long cpDuration = System.currentTimeMillis() - start;
-            MicroMeterUtils.time(Duration.ofMillis(cpDuration), "checkpoint.timer",
-                    "streamId", streamId.toString());
-            MicroMeterUtils.measure(numBytes, "checkpoint.write_size");
-            MicroMeterUtils.measure(entryCount, "checkpoint.write_entries");
-            log.info("appendCheckpoint: completed checkpoint for {}, entries({}), " +
-                            "cpSize({}) bytes at snapshot {} in {} ms",
-                    streamId, entryCount, numBytes, snapshotTimestamp, cpDuration);
-        } finally {
-            rt.getObjectsView().TXEnd();
+            retainAddress = maxIncrementalCheckpoints > 0 ? startAddress : Address.NON_ADDRESS;
+            logCheckpoint("full", entryCount, snapshotTimestamp, start);
         }
+    }
 
-        return snapshotTimestamp;
+    /**
+     * Write an incremental checkpoint, which only holds the keys changed since the previous checkpoint:
+     * a put of the current value of the keys which are in the table, and a remove of the others.
+     */
+    private void appendIncrementalCheckpoint(Token snapshotTimestamp, Set<Object> changedKeys,
+                                             Optional<LivenessUpdater> livenessUpdater, long start) {
+        livenessUpdater.ifPresent(LivenessUpdater::notifyOnSyncComplete);
+
+        startCheckpoint(snapshotTimestamp);
+        int entryCount = appendObjectState(changedKeys.stream()
+                .map(key -> new AbstractMap.SimpleImmutableEntry<>(key, corfuTable.get(key))));
+        finishCheckpoint();
+        retainAddress = Long.decode(mdkv.get(CheckpointDictKey.BASE_ADDRESS));
+        logCheckpoint("incremental", entryCount, snapshotTimestamp, start);
+    }
+
+    private void logCheckpoint(String type, int entryCount, Token snapshotTimestamp, long start) {
+        long cpDuration = System.currentTimeMillis() - start;
+        MicroMeterUtils.time(Duration.ofMillis(cpDuration), "checkpoint.timer",
+                "streamId", streamId.toString());
+        MicroMeterUtils.measure(numBytes, "checkpoint.write_size");
+        MicroMeterUtils.measure(entryCount, "checkpoint.write_entries");
+        MicroMeterUtils.counterIncrement(1, "checkpoint.type", "type", type);
+        log.info("appendCheckpoint: completed {} checkpoint for {}, entries({}), " +
+                        "cpSize({}) bytes at snapshot {} in {} ms",
+                type, streamId, entryCount, numBytes, snapshotTimestamp, cpDuration);
+    }
+
+    /**
+     * Find the keys changed since the previous checkpoint, if an incremental checkpoint can be written, i.e.,
+     * 1. incremental checkpoints are enabled and the previous checkpoint isn't the last delta allowed, and
+     * 2. the previous checkpoint and its base are the last checkpoint of the stream and are not trimmed, and
+     * 3. the updates since the previous checkpoint are not trimmed and only update single keys, and
+     * 4. the changed keys are a small fraction of the table.
+     * If so, the metadata of the incremental checkpoint is set.
+     *
+     * @param snapshotTimestamp snapshot at which the checkpoint is taken.
+     * @return the keys changed since the previous checkpoint, or empty if a full checkpoint has to be written.
+     */
+    private Optional<Set<Object>> getChangedKeys(Token snapshotTimestamp) {
+        if (maxIncrementalCheckpoints <= 0) {
+            return Optional.empty();
+        }
+
+        Optional<CheckpointEntry> previous = getPreviousCheckpoint();
+        if (!previous.isPresent()) {
+            return Optional.empty();
+        }
+        Map<CheckpointDictKey, String> previousDict = previous.get().getDict();
+        int deltaCount = Integer.parseInt(previousDict.get(CheckpointDictKey.DELTA_COUNT));
+        long baseAddress = Long.decode(previousDict.get(CheckpointDictKey.BASE_ADDRESS));
+        long previousStart = Long.decode(previousDict.get(CheckpointDictKey.START_LOG_ADDRESS));
+        if (deltaCount >= maxIncrementalCheckpoints
+                || baseAddress < rt.getAddressSpaceView().getTrimMark().getSequence()) {
+            return Optional.empty();
+        }
+
+        Optional<Set<Object>> changedKeys = readChangedKeys(previousStart, snapshotTimestamp.getSequence());
+        if (!changedKeys.isPresent() || changedKeys.get().size() > MAX_INCREMENTAL_KEY_RATIO * corfuTable.size()) {
+            return Optional.empty();
+        }
+
+        mdkv.put(CheckpointDictKey.PREVIOUS_CHECKPOINT_ID, previous.get().getCheckpointId().toString());
+        mdkv.put(CheckpointDictKey.BASE_CHECKPOINT_ID, previousDict.get(CheckpointDictKey.BASE_CHECKPOINT_ID));
+        mdkv.put(CheckpointDictKey.BASE_ADDRESS, Long.toString(baseAddress));
+        mdkv.put(CheckpointDictKey.DELTA_COUNT, Integer.toString(deltaCount + 1));
+        return changedKeys;
+    }
+
+    /**
+     * The END record of the previous checkpoint, if it is the last record of the checkpoint stream
+     * and has the metadata of incremental checkpoints.
+     */
+    private Optional<CheckpointEntry> getPreviousCheckpoint() {
+        long checkpointTail = rt.getSequencerView().query(checkpointStreamID);
+        if (!Address.isAddress(checkpointTail)) {
+            return Optional.empty();
+        }
+
+        try {
+            ILogData data = rt.getAddressSpaceView().read(checkpointTail);
+            if (!data.hasCheckpointMetadata()) {
+                return Optional.empty();
+            }
+            CheckpointEntry cp = (CheckpointEntry) data.getPayload(rt);
+            if (cp.getCpType() != CheckpointEntry.CheckpointEntryType.END
+                    || !cp.getDict().containsKey(CheckpointDictKey.BASE_ADDRESS)) {
+                return Optional.empty();
+            }
+            return Optional.of(cp);
+        } catch (TrimmedException te) {
+            log.debug("getPreviousCheckpoint: previous checkpoint of {} is trimmed", streamId);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Read the keys updated by the stream in (fromAddress, toAddress].
+     *
+     * @return the updated keys, or empty if the updates are trimmed or can't be attributed to single keys.
+     */
+    private Optional<Set<Object>> readChangedKeys(long fromAddress, long toAddress) {
+        Set<Object> changedKeys = new HashSet<>();
+        if (toAddress <= fromAddress) {
+            return Optional.of(changedKeys);
+        }
+
+        StreamAddressSpace addressSpace = rt.getSequencerView()
+                .getStreamAddressSpace(new StreamAddressRange(streamId, toAddress, fromAddress));
+        if (addressSpace.getTrimMark() > fromAddress) {
+            return Optional.empty();
+        }
+
+        ReadOptions readOptions = ReadOptions.builder().clientCacheable(false).build();
+        List<Long> addresses = Arrays.stream(addressSpace.toArray()).boxed().collect(Collectors.toList());
+        try {
+            for (List<Long> batch : Iterables.partition(addresses, rt.getParameters().getStreamBatchSize())) {
+                for (ILogData data : rt.getAddressSpaceView().read(batch, readOptions).values()) {
+                    if (data.getType() != DataType.DATA || !(data.getPayload(rt) instanceof ISMRConsumable)) {
+                        continue;
+                    }
+                    for (SMREntry update : ((ISMRConsumable) data.getPayload(rt)).getSMRUpdates(streamId)) {
+                        if (!KEYED_MUTATORS.contains(update.getSMRMethod())) {
+                            log.debug("readChangedKeys: {} of {} updates the whole table",
+                                    update.getSMRMethod(), streamId);
+                            return Optional.empty();
+                        }
+                        changedKeys.add(update.getSMRArguments()[0]);
+                    }
+                }
+            }
+        } catch (TrimmedException te) {
+            log.debug("readChangedKeys: updates of {} since {} are trimmed", streamId, fromAddress);
+            return Optional.empty();
+        }
+        return Optional.of(changedKeys);
     }
 
     private Set<UUID> discoverTableTags(UUID stream) {
@@ -245,7 +428,7 @@ public class CheckpointWriter<T extends ICorfuTable<?, ?>> {
      *
      * @return Global log address of the START record.
      */
-    public void startCheckpoint(Token txnSnapshot) {
+    public long startCheckpoint(Token txnSnapshot) {
         long vloVersion = txnSnapshot.getSequence();
         LocalDateTime startTime = LocalDateTime.now();
         this.mdkv.put(CheckpointEntry.CheckpointDictKey.START_TIME, startTime.toString());
@@ -261,6 +444,7 @@ public class CheckpointWriter<T extends ICorfuTable<?, ?>> {
         long startAddress = nonCachedAppend(cp, checkpointStreamID);
 
         postAppendFunc.accept(cp, startAddress);
+        return startAddress;
     }
 
     /**
@@ -327,7 +511,10 @@ public class CheckpointWriter<T extends ICorfuTable<?, ?>> {
         Iterator<? extends Map.Entry<?, ?>> iterator = entryStream.iterator();
         while (iterator.hasNext()) {
             Map.Entry<?, ?> entry = iterator.next();
-            SMREntry smrPutEntry = new SMREntry("put",
+            // A key without value is a key removed since the previous checkpoint (incremental checkpoints)
+            SMREntry smrPutEntry = entry.getValue() == null
+                    ? new SMREntry("remove", new Object[]{keyMutator.apply(entry.getKey())}, serializer)
+                    : new SMREntry("put",
                     new Object[]{keyMutator.apply(entry.getKey()),
                             valueMutator.apply(entry.getValue())},
                     serializer);
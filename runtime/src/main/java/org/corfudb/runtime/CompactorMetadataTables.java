@@ -32,6 +32,8 @@ public class CompactorMetadataTables {
     public static final StringKey INSTANT_TIGGER = StringKey.newBuilder().setKey("InstantTrigger").build();
     public static final StringKey DISABLE_COMPACTION = StringKey.newBuilder().setKey("DisableCompaction").build();
     public static final StringKey INSTANT_TIGGER_WITH_TRIM = StringKey.newBuilder().setKey("InstantTriggerTrim").build();
+    // The snapshot address of the backup which was last restored, which an incremental backup must be based on
+    public static final StringKey LAST_RESTORED_BACKUP = StringKey.newBuilder().setKey("LastRestoredBackup").build();
 
     public static final int MAX_RETRIES = 5;
 
@@ -15,6 +15,7 @@ import org.corfudb.common.compression.Codec;
 import org.corfudb.common.metrics.micrometer.MeterRegistryProvider;
 import org.corfudb.common.metrics.micrometer.MeterRegistryProvider.MeterRegistryInitializer;
 import org.corfudb.common.metrics.micrometer.MicroMeterUtils;
+import org.corfudb.protocols.wireprotocol.StreamsAddressNotification;
 import org.corfudb.runtime.clients.BaseClient;
 import org.corfudb.runtime.clients.IClientRouter;
 import org.corfudb.runtime.clients.LayoutClient;
@@ -26,6 +27,7 @@ import org.corfudb.runtime.clients.SequencerHandler;
 import org.corfudb.runtime.exceptions.WrongClusterException;
 import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuError;
 import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuInterruptedError;
+import org.corfudb.runtime.object.MVOPrefetcher;
 import org.corfudb.runtime.proto.service.CorfuMessage.PriorityLevel;
 import org.corfudb.runtime.view.AddressSpaceView;
 import org.corfudb.runtime.view.Layout;
@@ -54,15 +56,21 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -164,6 +172,12 @@ public class CorfuRuntime {
     @Getter
     final ViewsGarbageCollector garbageCollector = new ViewsGarbageCollector(this);
 
+    /**
+     * Syncs the objects of the streams selected by mvoPrefetchStreams in the background.
+     */
+    @Getter
+    final MVOPrefetcher mvoPrefetcher = new MVOPrefetcher(this);
+
     /**
      * Notifies that the runtime is no longer used
      * and async retries to fetch the layout can be stopped.
@@ -182,6 +196,29 @@ public class CorfuRuntime {
             .setNameFormat("CorfuRuntime-%d")
             .build());
 
+    /**
+     * These threads prefetch the checkpoint entries of the streams being loaded from a checkpoint,
+     * see {@link CorfuRuntimeParameters#checkpointLoadThreads}.
+     */
+    @Getter
+    private final ExecutorService checkpointLoadExecutor;
+
+    /**
+     * These threads read and deserialize the entries of the streams being synced ahead of their consumption,
+     * see {@link CorfuRuntimeParameters#streamReadAheadThreads}.
+     */
+    @Getter
+    private final ExecutorService streamReadAheadExecutor;
+
+    /**
+     * This thread syncs forward the objects which served stale versions to bounded-staleness reads.
+     */
+    @Getter
+    private final ExecutorService staleSyncExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("StaleSync-%d")
+            .build());
+
     /**
      * Latest layout seen by the runtime.
      */
@@ -300,11 +337,22 @@ public class CorfuRuntime {
          */
         int checkpointBatchSize = 50;
 
+        /*
+         * The maximum number of incremental checkpoints, which only record the keys changed since the
+         * previous checkpoint, between two full checkpoints of a table. 0 disables incremental checkpoints.
+         */
+        int maxIncrementalCheckpoints = 0;
+
         /*
          * The maximum number of SMR entries that will be grouped in a MultiSMREntry during Restore
          */
         int restoreBatchSize = 50;
 
+        /*
+         * The number of tables which are backed up or restored in parallel
+         */
+        int backupRestoreParallelism = 4;
+
         /*
          * Stream Batch Size: number of addresses to fetch in advance when stream address discovery mechanism
          * relies on address maps instead of follow backpointers, i.e., followBackpointersEnabled = false;
@@ -317,6 +365,32 @@ public class CorfuRuntime {
          */
         int checkpointReadBatchSize = 5;
 
+        /*
+         * Checkpoint load memory budget: maximum number of serialized bytes of checkpoint entries held
+         * while a stream is loaded from a checkpoint, shared by the batch being applied and the batch
+         * being prefetched. When set to 0, checkpoint entries are read with the stream batch size.
+         */
+        long checkpointLoadMemoryBudget = 64 * 1024 * 1024;
+
+        /*
+         * Stream read-ahead batches: number of stream batches (see streamBatchSize) which are read and
+         * deserialized in the background, ahead of the entry being consumed, when a stream is synced
+         * with address maps. When set to 0, entries are read and deserialized by the syncing thread.
+         */
+        int streamReadAheadBatches = 0;
+
+        /*
+         * Checkpoint load threads: maximum number of threads prefetching checkpoint entries, shared by
+         * all the streams being loaded from a checkpoint. Prefetches beyond it wait for a thread.
+         */
+        int checkpointLoadThreads = 4;
+
+        /*
+         * Stream read-ahead threads: maximum number of threads reading stream batches ahead (see
+         * streamReadAheadBatches), shared by all the streams being synced. Reads beyond it wait for a thread.
+         */
+        int streamReadAheadThreads = 4;
+
         /*
          * Cache Option for local writes.
          *
@@ -343,6 +417,23 @@ public class CorfuRuntime {
          */
         Duration runtimeGCPeriod = Duration.ofMinutes(20);
 
+        /*
+         * The streams of the objects which are synced in the background close to their stream tails,
+         * so that transactions on them do not pay the catch-up cost inline. When empty, objects are
+         * only synced by the transactions accessing them.
+         */
+        Set<UUID> mvoPrefetchStreams = Collections.emptySet();
+
+        /*
+         * The period at which the tails of the prefetched streams are queried and their objects synced.
+         */
+        Duration mvoPrefetchPeriod = Duration.ofMillis(100);
+
+        /*
+         * The fraction of a core that the prefetcher thread may spend syncing objects, over time.
+         */
+        double mvoPrefetchCpuBudget = 0.1;
+
         /*
          * The {@link UUID} for the cluster this client is connecting to, or
          * {@code null} if the client should adopt the {@link UUID} of the first
@@ -385,6 +476,12 @@ public class CorfuRuntime {
          */
         private Codec.Type codecType = Codec.Type.ZSTD;
 
+        /*
+         * Serialize the SMR updates of a write with the compact SMREntry encoding. Every
+         * client and server which reads the log must be able to decode it before it is enabled.
+         */
+        private boolean compactSmrEntryEncoding = false;
+
         /*
          * Enable runtime metrics.
          */
@@ -416,6 +513,25 @@ public class CorfuRuntime {
          */
         private int streamingSchedulerPollThreshold = 5;
 
+        /*
+         * Maximum number of deltas that a streaming task reads (with a single multi-address read) and delivers
+         * to its listener on every run. A value larger than one enables batched delivery through
+         * StreamListener::onNextBatch.
+         */
+        private int streamingReadBatchSize = 1;
+
+        /*
+         * Subscribe to sequencer push notifications, so that streams are only polled when new addresses
+         * have been allocated for them (instead of on every streaming poll period).
+         */
+        private boolean streamingPushEnabled = false;
+
+        /*
+         * When push notifications are enabled, period at which all streams are polled regardless of
+         * notifications and the subscription is refreshed (e.g., after a sequencer failover).
+         */
+        private Duration streamingFallbackPollPeriod = Duration.ofSeconds(1);
+
         public static CorfuRuntimeParametersBuilder builder() {
             return new CorfuRuntimeParametersBuilder();
         }
@@ -438,21 +554,34 @@ public class CorfuRuntime {
             private int trimRetry = 2;
             private int checkpointRetries = 5;
             private int checkpointBatchSize = 50;
+            private int maxIncrementalCheckpoints = 0;
             private int restoreBatchSize = 50;
+            private int backupRestoreParallelism = 4;
             private int streamBatchSize = 10;
             private int checkpointReadBatchSize = 5;
+            private long checkpointLoadMemoryBudget = 64 * 1024 * 1024;
+            private int streamReadAheadBatches = 0;
+            private int checkpointLoadThreads = 4;
+            private int streamReadAheadThreads = 4;
             private Duration runtimeGCPeriod = Duration.ofMinutes(20);
+            private Set<UUID> mvoPrefetchStreams = Collections.emptySet();
+            private Duration mvoPrefetchPeriod = Duration.ofMillis(100);
+            private double mvoPrefetchCpuBudget = 0.1;
             private UUID clusterId = null;
             private int systemDownHandlerTriggerLimit = 20;
             private List<NodeLocator> layoutServers = new ArrayList<>();
             private int invalidateRetry = 5;
             private PriorityLevel priorityLevel = PriorityLevel.NORMAL;
             private Codec.Type codecType = Codec.Type.ZSTD;
+            private boolean compactSmrEntryEncoding = false;
             private boolean metricsEnabled = true;
             private int streamingWorkersThreadPoolSize = 2;
             private Duration streamingPollPeriod = Duration.ofMillis(50);
             private int streamingSchedulerPollBatchSize = 25;
             private int streamingSchedulerPollThreshold = 5;
+            private int streamingReadBatchSize = 1;
+            private boolean streamingPushEnabled = false;
+            private Duration streamingFallbackPollPeriod = Duration.ofSeconds(1);
             private boolean cacheWrites = true;
             private String clientName = "CorfuClient";
             private long checkpointTriggerFreqMillis = 0;
@@ -477,6 +606,21 @@ public class CorfuRuntime {
                 return this;
             }
 
+            public CorfuRuntimeParametersBuilder streamingReadBatchSize(int streamingReadBatchSize) {
+                this.streamingReadBatchSize = streamingReadBatchSize;
+                return this;
+            }
+
+            public CorfuRuntimeParametersBuilder streamingPushEnabled(boolean streamingPushEnabled) {
+                this.streamingPushEnabled = streamingPushEnabled;
+                return this;
+            }
+
+            public CorfuRuntimeParametersBuilder streamingFallbackPollPeriod(Duration streamingFallbackPollPeriod) {
+                this.streamingFallbackPollPeriod = streamingFallbackPollPeriod;
+                return this;
+            }
+
             public CorfuRuntimeParametersBuilder tlsEnabled(boolean tlsEnabled) {
                 super.tlsEnabled(tlsEnabled);
                 return this;
@@ -583,6 +727,11 @@ public class CorfuRuntime {
                 return this;
             }
 
+            public CorfuRuntimeParametersBuilder nettyBusyPollMicros(int nettyBusyPollMicros) {
+                super.nettyBusyPollMicros(nettyBusyPollMicros);
+                return this;
+            }
+
             public CorfuRuntimeParametersBuilder customNettyChannelOptions(Map<ChannelOption, Object> customNettyChannelOptions) {
                 super.customNettyChannelOptions(customNettyChannelOptions);
                 return this;
@@ -688,11 +837,23 @@ public class CorfuRuntime {
                 return this;
             }
 
+            public CorfuRuntimeParameters.CorfuRuntimeParametersBuilder maxIncrementalCheckpoints(
+                    int maxIncrementalCheckpoints) {
+                this.maxIncrementalCheckpoints = maxIncrementalCheckpoints;
+                return this;
+            }
+
             public CorfuRuntimeParameters.CorfuRuntimeParametersBuilder restoreBatchSize(int restoreBatchSize) {
                 this.restoreBatchSize = restoreBatchSize;
                 return this;
             }
 
+            public CorfuRuntimeParameters.CorfuRuntimeParametersBuilder backupRestoreParallelism(
+                    int backupRestoreParallelism) {
+                this.backupRestoreParallelism = backupRestoreParallelism;
+                return this;
+            }
+
             public CorfuRuntimeParameters.CorfuRuntimeParametersBuilder streamBatchSize(int streamBatchSize) {
                 this.streamBatchSize = streamBatchSize;
                 return this;
@@ -703,6 +864,30 @@ public class CorfuRuntime {
                 return this;
             }
 
+            public CorfuRuntimeParameters.CorfuRuntimeParametersBuilder checkpointLoadMemoryBudget(
+                    long checkpointLoadMemoryBudget) {
+                this.checkpointLoadMemoryBudget = checkpointLoadMemoryBudget;
+                return this;
+            }
+
+            public CorfuRuntimeParameters.CorfuRuntimeParametersBuilder checkpointLoadThreads(
+                    int checkpointLoadThreads) {
+                this.checkpointLoadThreads = checkpointLoadThreads;
+                return this;
+            }
+
+            public CorfuRuntimeParameters.CorfuRuntimeParametersBuilder streamReadAheadThreads(
+                    int streamReadAheadThreads) {
+                this.streamReadAheadThreads = streamReadAheadThreads;
+                return this;
+            }
+
+            public CorfuRuntimeParameters.CorfuRuntimeParametersBuilder streamReadAheadBatches(
+                    int streamReadAheadBatches) {
+                this.streamReadAheadBatches = streamReadAheadBatches;
+                return this;
+            }
+
             public CorfuRuntimeParameters.CorfuRuntimeParametersBuilder cacheWrites(boolean cacheWrites) {
                 this.cacheWrites = cacheWrites;
                 return this;
@@ -724,6 +909,23 @@ public class CorfuRuntime {
                 return this;
             }
 
+            public CorfuRuntimeParameters.CorfuRuntimeParametersBuilder mvoPrefetchStreams(
+                    Set<UUID> mvoPrefetchStreams) {
+                this.mvoPrefetchStreams = mvoPrefetchStreams;
+                return this;
+            }
+
+            public CorfuRuntimeParameters.CorfuRuntimeParametersBuilder mvoPrefetchPeriod(Duration mvoPrefetchPeriod) {
+                this.mvoPrefetchPeriod = mvoPrefetchPeriod;
+                return this;
+            }
+
+            public CorfuRuntimeParameters.CorfuRuntimeParametersBuilder mvoPrefetchCpuBudget(
+                    double mvoPrefetchCpuBudget) {
+                this.mvoPrefetchCpuBudget = mvoPrefetchCpuBudget;
+                return this;
+            }
+
             public CorfuRuntimeParameters.CorfuRuntimeParametersBuilder clusterId(UUID clusterId) {
                 this.clusterId = clusterId;
                 return this;
@@ -754,6 +956,12 @@ public class CorfuRuntime {
                 return this;
             }
 
+            public CorfuRuntimeParameters.CorfuRuntimeParametersBuilder compactSmrEntryEncoding(
+                    boolean compactSmrEntryEncoding) {
+                this.compactSmrEntryEncoding = compactSmrEntryEncoding;
+                return this;
+            }
+
             public CorfuRuntimeParameters.CorfuRuntimeParametersBuilder metricsEnabled(boolean enabled) {
                 this.metricsEnabled = enabled;
                 return this;
@@ -782,6 +990,7 @@ public class CorfuRuntime {
                 corfuRuntimeParameters.setNettyEventLoopThreadFormat(nettyEventLoopThreadFormat);
                 corfuRuntimeParameters.setNettyEventLoopThreads(nettyEventLoopThreads);
                 corfuRuntimeParameters.setShutdownNettyEventLoop(shutdownNettyEventLoop);
+                corfuRuntimeParameters.setNettyBusyPollMicros(nettyBusyPollMicros);
                 corfuRuntimeParameters.setCustomNettyChannelOptions(customNettyChannelOptions);
                 corfuRuntimeParameters.setUncaughtExceptionHandler(uncaughtExceptionHandler);
                 corfuRuntimeParameters.setSystemDownHandler(systemDownHandler);
@@ -803,21 +1012,34 @@ public class CorfuRuntime {
                 corfuRuntimeParameters.setTrimRetry(trimRetry);
                 corfuRuntimeParameters.setCheckpointRetries(checkpointRetries);
                 corfuRuntimeParameters.setCheckpointBatchSize(checkpointBatchSize);
+                corfuRuntimeParameters.setMaxIncrementalCheckpoints(maxIncrementalCheckpoints);
                 corfuRuntimeParameters.setRestoreBatchSize(restoreBatchSize);
+                corfuRuntimeParameters.setBackupRestoreParallelism(backupRestoreParallelism);
                 corfuRuntimeParameters.setStreamBatchSize(streamBatchSize);
                 corfuRuntimeParameters.setCheckpointReadBatchSize(checkpointReadBatchSize);
+                corfuRuntimeParameters.setCheckpointLoadMemoryBudget(checkpointLoadMemoryBudget);
+                corfuRuntimeParameters.setStreamReadAheadBatches(streamReadAheadBatches);
+                corfuRuntimeParameters.setCheckpointLoadThreads(checkpointLoadThreads);
+                corfuRuntimeParameters.setStreamReadAheadThreads(streamReadAheadThreads);
                 corfuRuntimeParameters.setRuntimeGCPeriod(runtimeGCPeriod);
+                corfuRuntimeParameters.setMvoPrefetchStreams(mvoPrefetchStreams);
+                corfuRuntimeParameters.setMvoPrefetchPeriod(mvoPrefetchPeriod);
+                corfuRuntimeParameters.setMvoPrefetchCpuBudget(mvoPrefetchCpuBudget);
                 corfuRuntimeParameters.setClusterId(clusterId);
                 corfuRuntimeParameters.setSystemDownHandlerTriggerLimit(systemDownHandlerTriggerLimit);
                 corfuRuntimeParameters.setLayoutServers(layoutServers);
                 corfuRuntimeParameters.setInvalidateRetry(invalidateRetry);
                 corfuRuntimeParameters.setPriorityLevel(priorityLevel);
                 corfuRuntimeParameters.setCodecType(codecType);
+                corfuRuntimeParameters.setCompactSmrEntryEncoding(compactSmrEntryEncoding);
                 corfuRuntimeParameters.setMetricsEnabled(metricsEnabled);
                 corfuRuntimeParameters.setStreamingWorkersThreadPoolSize(streamingWorkersThreadPoolSize);
                 corfuRuntimeParameters.setStreamingPollPeriod(streamingPollPeriod);
                 corfuRuntimeParameters.setStreamingSchedulerPollBatchSize(streamingSchedulerPollBatchSize);
                 corfuRuntimeParameters.setStreamingSchedulerPollThreshold(streamingSchedulerPollThreshold);
+                corfuRuntimeParameters.setStreamingReadBatchSize(streamingReadBatchSize);
+                corfuRuntimeParameters.setStreamingPushEnabled(streamingPushEnabled);
+                corfuRuntimeParameters.setStreamingFallbackPollPeriod(streamingFallbackPollPeriod);
                 corfuRuntimeParameters.setCacheWrites(cacheWrites);
                 corfuRuntimeParameters.setClientName(clientName);
                 corfuRuntimeParameters.setCheckpointTriggerFreqMillis(checkpointTriggerFreqMillis);
@@ -869,6 +1091,35 @@ public class CorfuRuntime {
         return tableRegistryObj;
     }
 
+    /**
+     * Consumers of the streams address notifications pushed by the primary sequencer.
+     */
+    private final List<Consumer<StreamsAddressNotification>> streamsNotificationConsumers =
+            new CopyOnWriteArrayList<>();
+
+    /**
+     * Register a consumer of the streams address notifications pushed by the sequencer,
+     * notifications are only pushed for streams subscribed through the {@link SequencerView}.
+     *
+     * @param consumer notification consumer, invoked on the channel's event loop.
+     */
+    public void registerStreamsNotificationConsumer(@Nonnull Consumer<StreamsAddressNotification> consumer) {
+        streamsNotificationConsumers.add(consumer);
+    }
+
+    public void deregisterStreamsNotificationConsumer(@Nonnull Consumer<StreamsAddressNotification> consumer) {
+        streamsNotificationConsumers.remove(consumer);
+    }
+
+    /**
+     * Dispatch a streams address notification received by one of the routers to all registered consumers.
+     *
+     * @param notification notification pushed by the sequencer.
+     */
+    public void notifyStreamsAddress(@Nonnull StreamsAddressNotification notification) {
+        streamsNotificationConsumers.forEach(consumer -> consumer.accept(notification));
+    }
+
     /**
      * When set, overrides the default getRouterFunction. Used by the testing
      * framework to ensure the default routers used are for testing.
@@ -892,7 +1143,7 @@ public class CorfuRuntime {
                 log.debug("Connecting to new router {}", node);
                 try {
                     newRouter.addClient(new LayoutHandler())
-                            .addClient(new SequencerHandler())
+                            .addClient(new SequencerHandler(this::notifyStreamsAddress))
                             .addClient(new LogUnitHandler())
                             .addClient(new ManagementHandler());
                 } catch (Exception e) {
@@ -933,6 +1184,9 @@ public class CorfuRuntime {
         // Set the initial cluster Id
         clusterId = parameters.getClusterId();
 
+        checkpointLoadExecutor = newBoundedExecutor(parameters.getCheckpointLoadThreads(), "CheckpointLoader-%d");
+        streamReadAheadExecutor = newBoundedExecutor(parameters.getStreamReadAheadThreads(), "StreamReadAhead-%d");
+
         // Generate or set the NettyEventLoop
         nettyEventLoop = parameters.nettyEventLoop == null ? getNewEventLoopGroup()
                 : parameters.nettyEventLoop;
@@ -958,6 +1212,24 @@ public class CorfuRuntime {
                 Long.toHexString(GitRepositoryState.getCorfuSourceCodeVersion()));
     }
 
+    /**
+     * Get a new executor of at most numThreads daemon threads, whose idle threads are stopped,
+     * so that it holds no thread while it isn't used. Tasks beyond numThreads are queued.
+     *
+     * @param numThreads The maximum number of threads.
+     * @param nameFormat The name format of the threads.
+     * @return An {@link ExecutorService}.
+     */
+    private static ExecutorService newBoundedExecutor(int numThreads, String nameFormat) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(Math.max(numThreads, 1), Math.max(numThreads, 1),
+                1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(nameFormat)
+                .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * Get a new {@link EventLoopGroup} for scheduling threads for Netty. The
      * {@link EventLoopGroup} is typically passed to a router.
@@ -974,7 +1246,7 @@ public class CorfuRuntime {
                 .setNameFormat(parameters.nettyEventLoopThreadFormat)
                 .setUncaughtExceptionHandler(this::handleUncaughtThread)
                 .build();
-        return parameters.socketType.getGenerator().generate(numThreads, factory);
+        return parameters.socketType.resolve().getGenerator().generate(numThreads, factory);
     }
 
     /**
@@ -1011,7 +1283,11 @@ public class CorfuRuntime {
             tableRegistryObj.shutdown();
         }
         garbageCollector.stop();
+        mvoPrefetcher.stop();
         runtimeExecutor.shutdownNow();
+        checkpointLoadExecutor.shutdownNow();
+        streamReadAheadExecutor.shutdownNow();
+        staleSyncExecutor.shutdownNow();
         if (layout != null) {
             try {
                 layout.cancel(true);
@@ -1311,6 +1587,9 @@ public class CorfuRuntime {
         }
 
         garbageCollector.start();
+        if (!parameters.getMvoPrefetchStreams().isEmpty()) {
+            mvoPrefetcher.start();
+        }
 
         return this;
     }
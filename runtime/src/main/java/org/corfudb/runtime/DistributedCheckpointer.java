@@ -15,6 +15,7 @@ import org.corfudb.runtime.exceptions.NetworkException;
 import org.corfudb.runtime.exceptions.TransactionAbortedException;
 import org.corfudb.runtime.exceptions.WrongClusterException;
 import org.corfudb.runtime.exceptions.WrongEpochException;
+import org.corfudb.runtime.view.Address;
 
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -168,11 +169,13 @@ public abstract class DistributedCheckpointer {
 
         this.livenessUpdater.updateLiveness(tableName);
         StatusType returnStatus = StatusType.FAILED;
+        long retainAddress = Address.NON_ADDRESS;
         for (int retry = 0; retry < MAX_RETRIES; retry++) {
             CheckpointWriter<ICorfuTable<?,?>> cpw = null;
             try {
                 cpw = checkpointWriterFn.apply(tableName);
                 cpw.appendCheckpoint(Optional.of(livenessUpdater));
+                retainAddress = cpw.getRetainAddress();
                 returnStatus = StatusType.COMPLETED;
                 break;
             } catch (RuntimeException re) {
@@ -192,6 +195,7 @@ public abstract class DistributedCheckpointer {
         return CheckpointingStatus.newBuilder()
                 .setStatus(returnStatus).setClientName(clientName)
                 .setCycleCount(compactorCycleCount).setTimeTaken(System.currentTimeMillis() - tableCkptStartTime)
+                .setRetainAddress(Address.isAddress(retainAddress) ? retainAddress : 0L)
                 .build();
     }
 
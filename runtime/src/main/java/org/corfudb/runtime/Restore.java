@@ -1,38 +1,54 @@
 package org.corfudb.runtime;
 
+import com.github.luben.zstd.ZstdInputStream;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
-import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarConstants;
+import org.apache.commons.compress.archivers.tar.TarFile;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.corfudb.protocols.logprotocol.MultiSMREntry;
 import org.corfudb.protocols.logprotocol.OpaqueEntry;
 import org.corfudb.protocols.logprotocol.SMREntry;
 import org.corfudb.runtime.collections.CorfuStore;
 import org.corfudb.runtime.collections.TxnContext;
 import org.corfudb.runtime.exceptions.BackupRestoreException;
+import org.corfudb.runtime.proto.RpcCommon;
+import org.corfudb.runtime.view.Address;
 import org.corfudb.runtime.view.CacheOption;
 import org.corfudb.runtime.view.TableRegistry;
 import org.corfudb.util.serializer.Serializers;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Array;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 
 import static org.corfudb.runtime.view.TableRegistry.getFullyQualifiedTableName;
 
@@ -42,8 +58,15 @@ import static org.corfudb.runtime.view.TableRegistry.getFullyQualifiedTableName;
  * Restore all tables in the given backup .tar file which is generated by Corfu Backup.
  *
  * Steps:
- * 1. Open the given .tar file, obtain a set of backup files for tables
- * 2. Restore tables by committing transactions using the OpaqueEntries from table backup files
+ * 1. Open the given .tar file, obtain the table entries and the manifest
+ * 2. Verify the tables and the sizes of their entries against the manifest, see {@link BackupManifest}
+ * 3. Restore the RegistryTable, then the other tables in parallel by appending the OpaqueEntries
+ *    read from their entries in the .tar file, verifying the checksum of each table as it is read
+ * 4. Record the snapshot of the restored backup
+ *
+ * Tables are not cleared before an incremental backup is restored, as it is restored on top of
+ * the tables restored from the previous backup. An incremental backup is only restored if the
+ * backup which was last restored is the one it is based on.
  */
 @Slf4j
 public class Restore {
@@ -51,11 +74,12 @@ public class Restore {
     // The path of backup tar file
     private final String filePath;
 
-    // The path of a temporary directory under which the unpacked table's backup files are stored
-    private String restoreTempDirPath;
+    // The table entries of backup tar file by stream ID, the RegistryTable first.
+    // Name format: uuid.namespace$tableName.
+    private Map<UUID, List<TarArchiveEntry>> tableBackups;
 
-    // The filename of each table's backup file, format: uuid.namespace$tableName.
-    private List<String> tableBackups;
+    // The manifest of backup tar file, empty for backup tar files generated before manifests were introduced
+    private Optional<BackupManifest> manifest = Optional.empty();
 
     private CorfuRuntime rt;
 
@@ -71,8 +95,13 @@ public class Restore {
     //
     private DistributedCheckpointerHelper cpHelper;
 
+    // The number of tables which are restored in parallel
+    @Setter
+    private int parallelism;
+
     /**
-     * Unpacked files from backup tar file are stored under RESTORE_TEMP_DIR. They are deleted after restore finishes.
+     * Unpacked files from backup tar file were stored under RESTORE_TEMP_DIR by previous versions.
+     * They are deleted before restore starts.
      */
     private static final String RESTORE_TEMP_DIR_PREFIX = "corfu_restore_";
 
@@ -83,10 +112,11 @@ public class Restore {
      */
     public Restore(String filePath, CorfuRuntime runtime, RestoreMode restoreMode) throws IOException {
         this.filePath = filePath;
-        this.tableBackups = new ArrayList<>();
+        this.tableBackups = new LinkedHashMap<>();
         this.rt = runtime;
         this.corfuStore = new CorfuStore(runtime);
         this.restoreMode = restoreMode;
+        this.parallelism = runtime.getParameters().getBackupRestoreParallelism();
     }
 
     /**
@@ -104,6 +134,7 @@ public class Restore {
             openTarFile();
             verify();
             restore();
+            recordRestoredBackup();
         } catch (Exception e) {
             log.error("failed to run restore.", e);
             throw new BackupRestoreException("failed to restore from backup file " + filePath, e);
@@ -133,90 +164,201 @@ public class Restore {
         cpHelper.enableCompaction();
     }
 
-    private void restore() throws IOException {
-        if (restoreMode == RestoreMode.FULL) {
+    private boolean isIncremental() {
+        return manifest.map(BackupManifest::isIncremental).orElse(false);
+    }
+
+    private void restore() throws IOException, InterruptedException {
+        if (isIncremental()) {
+            log.info("restoring an incremental backup on top of the backup at {}, tables are not cleared",
+                    manifest.get().getBaseTimestamp());
+        } else if (restoreMode == RestoreMode.FULL) {
             clearAllTables();
         }
 
         long startTime = System.currentTimeMillis();
-        for (String tableBackup : tableBackups) {
-            log.info("start restoring table {}", tableBackup);
-            if (restoreMode == RestoreMode.PARTIAL_TAGGED && !isTableTagged(tableBackup)) {
-                log.info("skip restoring table {} since it doesn't have requires_backup_support tag", tableBackup);
-                continue;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(parallelism, 1),
+                new ThreadFactoryBuilder().setNameFormat("restore-worker-%d").setDaemon(true).build());
+        List<Future<?>> tableRestores = new ArrayList<>();
+        try {
+            for (Map.Entry<UUID, List<TarArchiveEntry>> tableBackup : tableBackups.entrySet()) {
+                UUID streamId = tableBackup.getKey();
+                String tableBackupName = tableBackup.getValue().get(0).getName();
+                log.info("start restoring table {}", tableBackupName);
+                if (restoreMode == RestoreMode.PARTIAL_TAGGED && !isTableTagged(streamId)) {
+                    log.info("skip restoring table {} since it doesn't have requires_backup_support tag",
+                            tableBackupName);
+                    continue;
+                }
+
+                if (isRegistryTable(streamId)) {
+                    // The tags of the other tables are read from the restored RegistryTable
+                    restoreTable(tableBackup.getValue(), streamId);
+                } else {
+                    tableRestores.add(executor.submit(() -> {
+                        restoreTable(tableBackup.getValue(), streamId);
+                        return null;
+                    }));
+                }
             }
 
-            UUID streamId = UUID.fromString(tableBackup.substring(0, tableBackup.indexOf(".")));
-            try {
-                Path tableBackupPath = Paths.get(restoreTempDirPath).resolve(tableBackup);
-                restoreTable(tableBackupPath, streamId);
-            } catch (IOException e) {
-                log.error("failed to restore table {} from temp file {}", streamId, tableBackup);
-                throw e;
+            for (Future<?> tableRestore : tableRestores) {
+                tableRestore.get();
             }
+        } catch (ExecutionException e) {
+            Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
+
         long elapsedTime = System.currentTimeMillis() - startTime;
         log.info("successfully restored {} tables to, elapsed time {}ms",
                 tableBackups.size(), elapsedTime);
     }
 
     /**
-     * Restore a single table
+     * Restore a single table. The checksum of the table's entries is verified against the manifest
+     * as they are read, and the restore fails before its last batch is written if it doesn't match.
      *
-     * @param filePath   - the path of the temp backup file
-     * @param streamId   - the stream ID of the table which is to be restored
+     * @param tableBackup   - the entries of the table in backup tar file, in order
+     * @param streamId      - the stream ID of the table which is to be restored
      * @throws IOException
      */
-    private void restoreTable(Path filePath, UUID streamId) throws IOException {
+    private void restoreTable(List<TarArchiveEntry> tableBackup, UUID streamId) throws IOException {
         long startTime = System.currentTimeMillis();
 
-        try (FileInputStream fileInput = new FileInputStream(filePath.toString())) {
+        try (CheckedInputStream storedInput = new CheckedInputStream(openEntries(tableBackup), new CRC32());
+             InputStream input = decompress(storedInput)) {
 
             // Clear table before restore
-            if (restoreMode == RestoreMode.PARTIAL || restoreMode == RestoreMode.PARTIAL_TAGGED) {
+            if (!isIncremental() &&
+                    (restoreMode == RestoreMode.PARTIAL || restoreMode == RestoreMode.PARTIAL_TAGGED)) {
                 SMREntry entry = new SMREntry("clear", new Array[0], Serializers.PRIMITIVE);
                 nonCachedAppendSMREntries(streamId, entry);
             }
 
             StreamBatchWriter sbw = new StreamBatchWriter(rt.getParameters().getRestoreBatchSize(),
                     rt.getParameters().getMaxWriteSize(), streamId);
-            while (fileInput.available() > 0) {
-                OpaqueEntry opaqueEntry = OpaqueEntry.read(fileInput);
-                List<SMREntry> smrEntries = opaqueEntry.getEntries().get(streamId);
-                if (smrEntries == null || smrEntries.isEmpty()) {
-                    continue;
+            try {
+                OpaqueEntry opaqueEntry;
+                while ((opaqueEntry = OpaqueEntry.read(input)) != null) {
+                    List<SMREntry> smrEntries = opaqueEntry.getEntries().get(streamId);
+                    if (smrEntries == null || smrEntries.isEmpty()) {
+                        continue;
+                    }
+
+                    sbw.batchWrite(smrEntries);
                 }
-
-                sbw.batchWrite(smrEntries);
+            } catch (IOException | RuntimeException e) {
+                // Corrupted contents may fail to be decompressed or read, report them as such
+                ByteStreams.exhaust(storedInput);
+                verifyChecksum(streamId, storedInput.getChecksum().getValue());
+                throw e;
             }
+
+            // The decompressor may not have read the end of the stored contents
+            ByteStreams.exhaust(storedInput);
+            verifyChecksum(streamId, storedInput.getChecksum().getValue());
             sbw.shutdown();
 
             long elapsedTime = System.currentTimeMillis() - startTime;
 
             log.info("completed restore of table {} with {} numEntries, total size {} byte(s), elapsed time {}ms",
                     streamId, sbw.getTotalNumSMREntries(), sbw.getTotalWriteSize(), elapsedTime);
-        } catch (FileNotFoundException e) {
-            log.error("restoreTable can not find file {}", filePath);
+        } catch (IOException e) {
+            log.error("failed to restore table {} from backup entry {}", streamId, tableBackup.get(0).getName());
             throw e;
         }
     }
 
+    private void verifyChecksum(UUID streamId, long checksum) {
+        if (!manifest.isPresent()) {
+            return;
+        }
+        BackupManifest.TableManifest table = manifest.get().getTables().stream()
+                .filter(tableManifest -> tableManifest.getStreamUUID().equals(streamId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("table " + streamId + " is not in the manifest"));
+        if (checksum != table.getChecksum()) {
+            throw new IllegalStateException("checksum of backup entry of table "
+                    + table.getEntryName() + " does not match the manifest");
+        }
+    }
+
     /**
-     * Check if the table has requires_backup_tag. Return true if it's RegistryTable.
+     * Open the contents of an entry of backup tar file
+     *
+     * @param entry   - the entry of backup tar file
+     * @return the stream of the stored contents of the entry
+     * @throws IOException
+     */
+    private InputStream openEntry(TarArchiveEntry entry) throws IOException {
+        FileInputStream fileInput = new FileInputStream(filePath);
+        try {
+            fileInput.getChannel().position(entry.getDataOffset());
+        } catch (IOException e) {
+            fileInput.close();
+            throw e;
+        }
+        return new BoundedInputStream(fileInput, entry.getSize());
+    }
+
+    /**
+     * Open the concatenated contents of the entries of a table, each of which is opened once the
+     * previous one is read
+     *
+     * @param entries   - the entries of the table in backup tar file, in order
+     * @return the stream of the stored contents of the table
      */
-    private boolean isTableTagged(String tableBackup) {
+    private InputStream openEntries(List<TarArchiveEntry> entries) {
+        Iterator<TarArchiveEntry> iterator = entries.iterator();
+        return new BufferedInputStream(new SequenceInputStream(new Enumeration<InputStream>() {
+            @Override
+            public boolean hasMoreElements() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                try {
+                    return openEntry(iterator.next());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }));
+    }
+
+    private InputStream decompress(InputStream input) throws IOException {
+        if (manifest.isPresent() && manifest.get().getCompression() == BackupManifest.Compression.ZSTD) {
+            return new ZstdInputStream(input);
+        }
+        return input;
+    }
+
+    private static UUID getStreamId(String tableBackup) {
         // tableBackup name format: uuid.namespace$tableName
-        UUID uuid = UUID.fromString(tableBackup.substring(0, tableBackup.indexOf(".")));
+        return UUID.fromString(tableBackup.substring(0, tableBackup.indexOf(".")));
+    }
 
+    private static boolean isRegistryTable(UUID streamId) {
+        return streamId.equals(CorfuRuntime.getStreamID(getFullyQualifiedTableName(
+                TableRegistry.CORFU_SYSTEM_NAMESPACE, TableRegistry.REGISTRY_TABLE_NAME)));
+    }
+
+    /**
+     * Check if the table has requires_backup_tag. Return true if it's RegistryTable.
+     */
+    private boolean isTableTagged(UUID uuid) {
         if (!tableTagged.isEmpty()) {
             // tableTagged is read from RegistryTable which should contain all tables
             Preconditions.checkState(tableTagged.containsKey(uuid));
             return tableTagged.get(uuid);
         }
 
-        String[] strings = tableBackup.substring(tableBackup.indexOf(".")+1).split("\\$");
-        if (Objects.equals(strings[0], TableRegistry.CORFU_SYSTEM_NAMESPACE) &&
-                Objects.equals(strings[1], TableRegistry.REGISTRY_TABLE_NAME)) {
+        if (isRegistryTable(uuid)) {
             return true;
         }
 
@@ -252,53 +394,104 @@ public class Restore {
     }
 
     /**
-     * Open the backup tar file and save the table backups to tableDir directory
+     * Open the backup tar file and read its table entries and manifest
      */
     private void openTarFile() throws IOException {
-        this.restoreTempDirPath = Files.createTempDirectory(RESTORE_TEMP_DIR_PREFIX).toString();
+        // FileInputStream reports a missing backup tar file as FileNotFoundException
         try (FileInputStream fileInput = new FileInputStream(filePath);
-             TarArchiveInputStream tarInput = new TarArchiveInputStream(fileInput)) {
-            getTablesFromTarFile(tarInput);
+             TarFile tarFile = new TarFile(fileInput.getChannel(),
+                     TarConstants.DEFAULT_BLKSIZE, TarConstants.DEFAULT_RCDSIZE, null, false)) {
+            manifest = BackupManifest.read(tarFile);
+            // The RegistryTable is restored first
+            Map<UUID, List<TarArchiveEntry>> registryTableBackup = new LinkedHashMap<>();
+            for (TarArchiveEntry entry : tarFile.getEntries()) {
+                if (!entry.getName().equals(BackupManifest.MANIFEST_ENTRY_NAME)) {
+                    UUID streamId = getStreamId(entry.getName());
+                    Map<UUID, List<TarArchiveEntry>> backups =
+                            isRegistryTable(streamId) ? registryTableBackup : tableBackups;
+                    backups.computeIfAbsent(streamId, id -> new ArrayList<>()).add(entry);
+                }
+            }
+            registryTableBackup.putAll(tableBackups);
+            tableBackups = registryTableBackup;
         } catch (IOException e) {
             log.error("failed to get tables from tar file {}", filePath);
             throw e;
         }
     }
 
-    private void getTablesFromTarFile(TarArchiveInputStream tarInput) throws IOException {
-        int count;
-        byte[] buf = new byte[1024];
-        TarArchiveEntry entry;
-        while ((entry = tarInput.getNextTarEntry()) != null) {
-            tableBackups.add(entry.getName());
-
-            String tablePath = restoreTempDirPath + File.separator + entry.getName();
-            try (FileOutputStream fos = new FileOutputStream(tablePath)) {
-                while ((count = tarInput.read(buf, 0, 1024)) != -1) {
-                    fos.write(buf, 0, count);
-                }
+    /**
+     * Verify the table entries of backup tar file against its manifest: each table in the manifest
+     * must have entries, whose total size matches the manifest. Their checksums are verified as the
+     * tables are restored. An incremental backup must be based on the backup which was last restored.
+     */
+    private void verify() {
+        if (!manifest.isPresent()) {
+            log.info("backup file {} has no manifest, skip verification", filePath);
+            return;
+        }
+
+        BackupManifest backupManifest = manifest.get();
+        if (backupManifest.getVersion() > BackupManifest.VERSION) {
+            throw new IllegalStateException("unsupported backup manifest version " + backupManifest.getVersion());
+        }
+
+        if (tableBackups.size() != backupManifest.getTables().size()) {
+            throw new IllegalStateException("backup file has " + tableBackups.size()
+                    + " tables, but its manifest has " + backupManifest.getTables().size());
+        }
+
+        for (BackupManifest.TableManifest table : backupManifest.getTables()) {
+            List<TarArchiveEntry> entries = tableBackups.get(table.getStreamUUID());
+            if (entries == null || entries.stream().mapToLong(TarArchiveEntry::getSize).sum() != table.getEntrySize()) {
+                throw new IllegalStateException("backup entry of table " + table.getEntryName()
+                        + " does not match the manifest");
+            }
+        }
+
+        if (backupManifest.isIncremental()) {
+            long lastRestored = getLastRestoredBackup();
+            if (lastRestored != backupManifest.getBaseTimestamp()) {
+                throw new IllegalStateException("incremental backup is based on the backup at "
+                        + backupManifest.getBaseTimestamp() + ", but the backup last restored is at " + lastRestored);
             }
         }
+        log.info("verified {} tables of backup file {} taken at {}", backupManifest.getTables().size(),
+                filePath, backupManifest.getTimestamp());
+    }
 
-        // Move the RegistryTable to the beginning of the list
-        String registryTableName = getFullyQualifiedTableName(
-                TableRegistry.CORFU_SYSTEM_NAMESPACE, TableRegistry.REGISTRY_TABLE_NAME);
-        UUID registryTableUUID = CorfuRuntime.getStreamID(registryTableName);
-        // format: uuid.namespace$tableName
-        String backupEntry = registryTableUUID + "." + registryTableName;
-        int index = tableBackups.indexOf(backupEntry);
-        if (index != -1) {
-            Collections.swap(tableBackups, 0, index);
+    /**
+     * Get the snapshot address of the backup which was last restored.
+     *
+     * @return the snapshot address, or NON_ADDRESS if it is unknown
+     */
+    private long getLastRestoredBackup() {
+        try (TxnContext txn = corfuStore.txn(TableRegistry.CORFU_SYSTEM_NAMESPACE)) {
+            RpcCommon.TokenMsg lastRestored = (RpcCommon.TokenMsg) txn.getRecord(
+                    CompactorMetadataTables.COMPACTION_CONTROLS_TABLE,
+                    CompactorMetadataTables.LAST_RESTORED_BACKUP).getPayload();
+            txn.commit();
+            return lastRestored == null ? Address.NON_ADDRESS : lastRestored.getSequence();
         }
     }
 
     /**
-     * Some verification logic (TBD) such as
-     * - Compare the user provided streamIds and names of table backups under tmp directory, or some metadata file
-     * - Checksum
+     * Record the snapshot address of the restored backup, which the next incremental backup to
+     * restore must be based on. It is unknown for backup tar files without a manifest.
      */
-    private void verify() {
-        // TODO: verification logic to be implemented
+    private void recordRestoredBackup() {
+        try (TxnContext txn = corfuStore.txn(TableRegistry.CORFU_SYSTEM_NAMESPACE)) {
+            if (manifest.isPresent()) {
+                txn.putRecord(cpHelper.getCompactorMetadataTables().getCompactionControlsTable(),
+                        CompactorMetadataTables.LAST_RESTORED_BACKUP,
+                        RpcCommon.TokenMsg.newBuilder().setSequence(manifest.get().getTimestamp()).build(),
+                        null);
+            } else {
+                txn.delete(CompactorMetadataTables.COMPACTION_CONTROLS_TABLE,
+                        CompactorMetadataTables.LAST_RESTORED_BACKUP);
+            }
+            txn.commit();
+        }
     }
 
     /**
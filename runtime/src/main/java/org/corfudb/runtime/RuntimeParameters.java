@@ -144,6 +144,13 @@ public class RuntimeParameters {
          */
         public boolean shutdownNettyEventLoop = true;
 
+        /**
+         * The SO_BUSY_POLL timeout, in microseconds, of the channels of {@link NettyClientRouter}s
+         * using the EPOLL {@code socketType}, or 0 to disable busy polling. Busy polling trades
+         * CPU for lower latency and is ignored by other socket types.
+         */
+        public int nettyBusyPollMicros = 0;
+
         /**
          * Default channel options, used if there are no options in the
          * {@link this#customNettyChannelOptions} field.
@@ -33,6 +33,7 @@ public class RuntimeParametersBuilder {
     protected String nettyEventLoopThreadFormat = "netty-%d";
     protected int nettyEventLoopThreads = 0;
     protected boolean shutdownNettyEventLoop = true;
+    protected int nettyBusyPollMicros = 0;
     protected static final Map<ChannelOption, Object> DEFAULT_CHANNEL_OPTIONS =
             ImmutableMap.<ChannelOption, Object>builder()
                     .put(ChannelOption.TCP_NODELAY, true)
@@ -149,6 +150,11 @@ public class RuntimeParametersBuilder {
         return this;
     }
 
+    public RuntimeParametersBuilder nettyBusyPollMicros(int nettyBusyPollMicros) {
+        this.nettyBusyPollMicros = nettyBusyPollMicros;
+        return this;
+    }
+
     public RuntimeParametersBuilder customNettyChannelOptions(Map<ChannelOption, Object> customNettyChannelOptions) {
         this.customNettyChannelOptions = customNettyChannelOptions;
         return this;
@@ -192,6 +198,7 @@ public class RuntimeParametersBuilder {
         runtimeParameters.setNettyEventLoopThreadFormat(nettyEventLoopThreadFormat);
         runtimeParameters.setNettyEventLoopThreads(nettyEventLoopThreads);
         runtimeParameters.setShutdownNettyEventLoop(shutdownNettyEventLoop);
+        runtimeParameters.setNettyBusyPollMicros(nettyBusyPollMicros);
         runtimeParameters.setCustomNettyChannelOptions(customNettyChannelOptions);
         runtimeParameters.setUncaughtExceptionHandler(uncaughtExceptionHandler);
         runtimeParameters.setSystemDownHandler(systemDownHandler);
@@ -2,6 +2,7 @@ package org.corfudb.runtime;
 
 import com.google.common.reflect.TypeToken;
 import lombok.extern.slf4j.Slf4j;
+import org.corfudb.runtime.CorfuCompactorManagement.CheckpointingStatus;
 import org.corfudb.runtime.CorfuStoreMetadata.TableName;
 import org.corfudb.runtime.collections.*;
 import org.corfudb.runtime.object.CorfuCompileProxy;
@@ -16,7 +17,11 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Supplier;
 
@@ -87,12 +92,23 @@ public class ServerTriggeredCheckpointer extends DistributedCheckpointer {
         return corfuTableBuilder.open();
     }
 
+    /**
+     * Returns the tables of the compaction cycle, the tables of highest priority first.
+     */
     private List<TableName> getAllTablesToCheckpoint() {
         List<TableName> tablesToCheckpoint = Collections.emptyList();
         final int maxRetry = 5;
         for (int retry = 0; retry < maxRetry; retry++) {
             try (TxnContext txn = corfuStore.txn(CORFU_SYSTEM_NAMESPACE)) {
-                tablesToCheckpoint = new ArrayList<>(txn.keySet(CompactorMetadataTables.CHECKPOINT_STATUS_TABLE_NAME));
+                Map<TableName, Long> priorities = new HashMap<>();
+                Set<TableName> tableNames = txn.keySet(CompactorMetadataTables.CHECKPOINT_STATUS_TABLE_NAME);
+                for (TableName tableName : tableNames) {
+                    CheckpointingStatus status = (CheckpointingStatus) txn.getRecord(
+                            CompactorMetadataTables.CHECKPOINT_STATUS_TABLE_NAME, tableName).getPayload();
+                    priorities.put(tableName, status == null ? 0L : status.getPriority());
+                }
+                tablesToCheckpoint = new ArrayList<>(priorities.keySet());
+                tablesToCheckpoint.sort(Comparator.<TableName>comparingLong(priorities::get).reversed());
                 txn.commit();
                 break;
             } catch (RuntimeException re) {
@@ -235,7 +235,9 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<Object> imple
         shutdown = false;
         Bootstrap b = new Bootstrap();
         b.group(eventLoopGroup);
-        b.channel(parameters.getSocketType().getChannelClass());
+        b.channel(parameters.getSocketType().resolve().getChannelClass());
+        // Transport options first, so that they can be overridden by the configured options
+        parameters.getSocketType().getTransportOptions(parameters.getNettyBusyPollMicros()).forEach(b::option);
         parameters.getNettyChannelOptions().forEach(b::option);
         b.handler(getChannelInitializer());
         b.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeoutConnect);
@@ -704,7 +706,7 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<Object> imple
 
     public NettyClientRouter(@Nonnull NodeLocator node,
                              @Nonnull RuntimeParameters parameters) {
-        this(node, parameters.getSocketType()
+        this(node, parameters.getSocketType().resolve()
                 .getGenerator().generate(parameters.getNettyEventLoopThreads(),
                         new ThreadFactoryBuilder()
                                 .setDaemon(true)
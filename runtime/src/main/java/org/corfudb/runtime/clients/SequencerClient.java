@@ -9,6 +9,7 @@ import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.protocols.wireprotocol.TxResolutionInfo;
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -18,6 +19,7 @@ import static org.corfudb.protocols.service.CorfuProtocolSequencer.getBootstrapS
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getDefaultSequencerMetricsRequestMsg;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getSequencerTrimRequestMsg;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getStreamsAddressRequestMsg;
+import static org.corfudb.protocols.service.CorfuProtocolSequencer.getStreamsSubscriptionRequestMsg;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getTokenRequestMsg;
 
 /**
@@ -79,6 +81,18 @@ public class SequencerClient extends AbstractClient {
                 ClusterIdCheck.CHECK, EpochCheck.CHECK);
     }
 
+    /**
+     * Subscribes to push notifications for the given streams. Every call replaces the previous
+     * subscription of this client, an empty collection cancels it.
+     *
+     * @param streams streams (tags) to receive address notifications for.
+     * @return A completable future with the global log tail at subscription time.
+     */
+    public CompletableFuture<Long> subscribeStreams(Collection<UUID> streams) {
+        return sendRequestWithFuture(getStreamsSubscriptionRequestMsg(streams),
+                ClusterIdCheck.CHECK, EpochCheck.CHECK);
+    }
+
     public CompletableFuture<Void> trimCache(Long address) {
         return sendRequestWithFuture(getSequencerTrimRequestMsg(address),
                 ClusterIdCheck.CHECK, EpochCheck.CHECK);
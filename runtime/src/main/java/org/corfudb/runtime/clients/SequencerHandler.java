@@ -4,6 +4,7 @@ import io.netty.channel.ChannelHandlerContext;
 import lombok.Getter;
 import lombok.Setter;
 import org.corfudb.protocols.wireprotocol.SequencerMetrics;
+import org.corfudb.protocols.wireprotocol.StreamsAddressNotification;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.runtime.proto.RpcCommon.SequencerMetricsMsg;
 import org.corfudb.runtime.proto.service.CorfuMessage.ResponseMsg;
@@ -11,11 +12,14 @@ import org.corfudb.runtime.proto.service.CorfuMessage.ResponsePayloadMsg.Payload
 import org.corfudb.runtime.proto.service.Sequencer.SequencerMetricsResponseMsg;
 import org.corfudb.runtime.proto.service.Sequencer.TokenResponseMsg;
 
+import javax.annotation.Nonnull;
 import java.lang.invoke.MethodHandles;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.corfudb.protocols.CorfuProtocolCommon.getSequencerMetrics;
 import static org.corfudb.protocols.CorfuProtocolCommon.getStreamsAddressResponse;
+import static org.corfudb.protocols.service.CorfuProtocolSequencer.getStreamsAddressNotification;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getTokenResponse;
 
 /**
@@ -30,6 +34,19 @@ public class SequencerHandler implements IClient, IHandler<SequencerClient> {
     @Getter
     IClientRouter router;
 
+    /**
+     * Consumer of the streams address notifications pushed by the sequencer.
+     */
+    private final Consumer<StreamsAddressNotification> notificationConsumer;
+
+    public SequencerHandler() {
+        this(notification -> { });
+    }
+
+    public SequencerHandler(@Nonnull Consumer<StreamsAddressNotification> notificationConsumer) {
+        this.notificationConsumer = notificationConsumer;
+    }
+
     @Override
     public SequencerClient getClient(long epoch, UUID clusterID) {
         return new SequencerClient(router, epoch, clusterID);
@@ -124,4 +141,37 @@ public class SequencerHandler implements IClient, IHandler<SequencerClient> {
                 msg.getPayload().getStreamsAddressResponse().getEpoch(),
                 msg.getPayload().getStreamsAddressResponse().getAddressMapList());
     }
+
+    /**
+     * Handle a streams subscription response from the server.
+     *
+     * @param msg      The streams subscription response message.
+     * @param ctx      The context the message was sent under.
+     * @param router   A reference to the router.
+     * @return The global log tail at the time the subscription was registered.
+     */
+    @ResponseHandler(type = PayloadCase.STREAMS_SUBSCRIPTION_RESPONSE)
+    private static Object handleStreamsSubscriptionResponse(ResponseMsg msg,
+                                                            ChannelHandlerContext ctx,
+                                                            IClientRouter router) {
+        return msg.getPayload().getStreamsSubscriptionResponse().getLogTail();
+    }
+
+    /**
+     * Handle a streams address notification pushed by the server. Notifications are not
+     * replies to outstanding requests, so no request is completed.
+     *
+     * @param msg      The streams address notification message.
+     * @param ctx      The context the message was sent under.
+     * @param router   A reference to the router.
+     * @return Always null, since there is no request to complete.
+     */
+    @ResponseHandler(type = PayloadCase.STREAMS_ADDRESS_NOTIFICATION)
+    private Object handleStreamsAddressNotification(ResponseMsg msg,
+                                                    ChannelHandlerContext ctx,
+                                                    IClientRouter router) {
+        notificationConsumer.accept(getStreamsAddressNotification(
+                msg.getPayload().getStreamsAddressNotification()));
+        return null;
+    }
 }
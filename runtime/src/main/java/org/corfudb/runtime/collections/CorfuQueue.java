@@ -58,6 +58,7 @@ public class CorfuQueue {
     CorfuQueue(CorfuRuntime runtime, String streamName, ISerializer serializer) {
         corfuTable = runtime.getObjectsView().build()
                 .setTypeToken(new TypeToken<PersistentCorfuTable<CorfuRecordId, ByteString>>() {})
+                .setArguments(new Index.OrderSpec<CorfuRecordId, ByteString, CorfuRecordId>((id, entry) -> id))
                 .setStreamName(streamName)
                 .setSerializer(serializer)
                 .open();
@@ -310,16 +311,9 @@ public class CorfuQueue {
         }
         log.trace("entryList: "+maxEntries+" entries after:"+entriesAfter);
 
-        List<CorfuQueueRecord> copy = new ArrayList<>(
-                Math.min(corfuTable.size(), maxEntries)
-        );
-
-        Comparator<Map.Entry<CorfuRecordId, ByteString>> recordIdComparator = Comparator.comparing(Map.Entry::getKey);
-        for (Map.Entry<CorfuRecordId, ByteString> entry : corfuTable.entryStream()
-                .filter(e -> e.getKey().compareTo(entriesAfter) > 0)
-                .sorted(recordIdComparator)
-                .limit(maxEntries)
-                .collect(Collectors.toList())) {
+        List<Map.Entry<CorfuRecordId, ByteString>> entries = corfuTable.getByOrder(entriesAfter, maxEntries);
+        List<CorfuQueueRecord> copy = new ArrayList<>(entries.size());
+        for (Map.Entry<CorfuRecordId, ByteString> entry : entries) {
             copy.add(new CorfuQueueRecord(entry.getKey(), entry.getValue()));
         }
         return copy;
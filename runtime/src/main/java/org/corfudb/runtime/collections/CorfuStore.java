@@ -106,6 +106,28 @@ public class CorfuStore {
         return table;
     }
 
+    /**
+     * Creates and registers many tables at once, which is much faster than opening them one by one
+     * when there are many tables: the tables are opened in parallel and registered in a few transactions.
+     *
+     * @param tableDefinitions Definitions of the tables to open.
+     * @return Table instances, in the order of their definitions.
+     * @throws NoSuchMethodException     Thrown if key/value class are not protobuf classes.
+     * @throws InvocationTargetException Thrown if key/value class are not protobuf classes.
+     * @throws IllegalAccessException    Thrown if key/value class are not protobuf classes.
+     */
+    @Nonnull
+    public List<Table<Message, Message, Message>> openTables(
+            @Nonnull final List<TableDefinition<?, ?, ?>> tableDefinitions)
+            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        long startTime = System.currentTimeMillis();
+        List<Table<Message, Message, Message>> tables = runtime.getTableRegistry().openTables(tableDefinitions);
+        tables.forEach(table -> corfuStoreMetrics.recordTableCount());
+        log.info(CorfuRuntime.LOG_NOT_IMPORTANT, "openTables {} tables took {}ms", tables.size(),
+                (System.currentTimeMillis() - startTime));
+        return tables;
+    }
+
     /**
      * Fetches an existing table. This table should have been registered with this instance
      * of the Corfu runtime.
@@ -14,7 +14,12 @@ import org.corfudb.runtime.object.ICorfuExecutionContext;
 import org.corfudb.runtime.object.ICorfuSMR;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.AbstractMap;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -38,6 +43,9 @@ public class ImmutableCorfuTable<K, V> implements ICorfuSMR<ImmutableCorfuTable<
     // Data structures for secondary indexes.
     private final SecondaryIndexesWrapper<K, V> secondaryIndexesWrapper;
 
+    // Data structure for the order of the records, if the table is ordered.
+    private final OrderedIndexWrapper<K, V> orderedIndexWrapper;
+
     /**
      * Get a type token for this particular type of ImmutableCorfuTable.
      * @param <K> The key type.
@@ -51,11 +59,26 @@ public class ImmutableCorfuTable<K, V> implements ICorfuSMR<ImmutableCorfuTable<
     public ImmutableCorfuTable() {
         this.mainMap = HashMap.empty();
         this.secondaryIndexesWrapper = new SecondaryIndexesWrapper<>();
+        this.orderedIndexWrapper = new OrderedIndexWrapper<>();
     }
 
     public ImmutableCorfuTable(@Nonnull final Index.Registry<K, V> indices) {
         this.mainMap = HashMap.empty();
         this.secondaryIndexesWrapper = new SecondaryIndexesWrapper<>(indices);
+        this.orderedIndexWrapper = new OrderedIndexWrapper<>();
+    }
+
+    public ImmutableCorfuTable(@Nonnull final Index.OrderSpec<K, V, ?> order) {
+        this.mainMap = HashMap.empty();
+        this.secondaryIndexesWrapper = new SecondaryIndexesWrapper<>();
+        this.orderedIndexWrapper = new OrderedIndexWrapper<>(order);
+    }
+
+    public ImmutableCorfuTable(@Nonnull final Index.Registry<K, V> indices,
+                               @Nonnull final Index.OrderSpec<K, V, ?> order) {
+        this.mainMap = HashMap.empty();
+        this.secondaryIndexesWrapper = new SecondaryIndexesWrapper<>(indices);
+        this.orderedIndexWrapper = new OrderedIndexWrapper<>(order);
     }
 
     @Override
@@ -86,7 +109,11 @@ public class ImmutableCorfuTable<K, V> implements ICorfuSMR<ImmutableCorfuTable<
                 .getOrElse(secondaryIndexesWrapper);
 
         newSecondaryIndexesWrapper = newSecondaryIndexesWrapper.mapSecondaryIndexes(key, value);
-        return new ImmutableCorfuTable<>(mainMap.put(key, value), newSecondaryIndexesWrapper);
+        OrderedIndexWrapper<K, V> newOrderedIndexWrapper = mainMap.get(key)
+                .map(prev -> orderedIndexWrapper.unmap(key, prev))
+                .getOrElse(orderedIndexWrapper)
+                .map(key, value);
+        return new ImmutableCorfuTable<>(mainMap.put(key, value), newSecondaryIndexesWrapper, newOrderedIndexWrapper);
     }
 
     /**
@@ -100,8 +127,12 @@ public class ImmutableCorfuTable<K, V> implements ICorfuSMR<ImmutableCorfuTable<
                 .get(key)
                 .map(prev -> secondaryIndexesWrapper.unmapSecondaryIndexes(key, prev))
                 .getOrElse(secondaryIndexesWrapper);
+        OrderedIndexWrapper<K, V> newOrderedIndexWrapper = mainMap
+                .get(key)
+                .map(prev -> orderedIndexWrapper.unmap(key, prev))
+                .getOrElse(orderedIndexWrapper);
 
-        return new ImmutableCorfuTable<>(mainMap.remove(key), newSecondaryIndexesWrapper);
+        return new ImmutableCorfuTable<>(mainMap.remove(key), newSecondaryIndexesWrapper, newOrderedIndexWrapper);
     }
 
     /**
@@ -128,7 +159,8 @@ public class ImmutableCorfuTable<K, V> implements ICorfuSMR<ImmutableCorfuTable<
     public ImmutableCorfuTable<K, V> clear() {
         return new ImmutableCorfuTable<>(
                 HashMap.empty(),
-                secondaryIndexesWrapper.clear()
+                secondaryIndexesWrapper.clear(),
+                orderedIndexWrapper.clear()
         );
     }
 
@@ -161,6 +193,76 @@ public class ImmutableCorfuTable<K, V> implements ICorfuSMR<ImmutableCorfuTable<
                 .getOrElse(Collections.emptySet());
     }
 
+    /**
+     * Get the mappings of every index key of the specified index which satisfies the provided predicate.
+     * Only the index keys and the mappings which are returned are visited. A mapping is returned once
+     * for each of its index keys which satisfies the predicate.
+     * @param indexName Name of the secondary index to query.
+     * @param indexKeyPredicate The predicate on the index keys.
+     * @return An Iterable of map entries satisfying this index query.
+     */
+    public Iterable<java.util.Map.Entry<K, V>> getByIndexRange(@Nonnull final Index.Name indexName,
+                                                                @Nonnull final Predicate<Object> indexKeyPredicate) {
+        return new TupleIterableWrapper<>(secondaryIndexesWrapper.getMapping(indexName.get())
+                .filterKeys(indexKeyPredicate)
+                .values()
+                .flatMap(slot -> slot));
+    }
+
+    /**
+     * Count the mappings of an index key, without visiting them.
+     * @param indexName Name of the secondary index to query.
+     * @param indexKey The index key used to query the secondary index
+     * @param <I> The type of the index key.
+     * @return The number of mappings of this index key.
+     */
+    public <I> int countByIndex(@Nonnull final Index.Name indexName, I indexKey) {
+        return secondaryIndexesWrapper.contains(indexName.get(), indexKey).map(Map::size).getOrElse(0);
+    }
+
+    /**
+     * Count the distinct index keys of the specified index, without visiting them.
+     * @param indexName Name of the secondary index to query.
+     * @return The number of distinct index keys.
+     */
+    public int countIndexKeys(@Nonnull final Index.Name indexName) {
+        return secondaryIndexesWrapper.getMapping(indexName.get()).size();
+    }
+
+    /**
+     * Count the mappings of every index key of the specified index which satisfies the provided
+     * predicate, without visiting them.
+     * @param indexName Name of the secondary index to query.
+     * @param indexKeyPredicate The predicate on the index keys.
+     * @return The number of mappings of these index keys.
+     */
+    public int countByIndexRange(@Nonnull final Index.Name indexName,
+                                 @Nonnull final Predicate<Object> indexKeyPredicate) {
+        int count = 0;
+        for (Tuple2<Object, Map<K, V>> slot : secondaryIndexesWrapper.getMapping(indexName.get())) {
+            if (indexKeyPredicate.test(slot._1())) {
+                count += slot._2().size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the mappings in the order of the table, starting after the provided order key.
+     * The cursor seeks to the provided order key, so only the returned records are visited.
+     * @param after The order key (exclusive) after which the mappings are returned, or null
+     *              to return the mappings from the head of the table.
+     * @param maxEntries The maximum number of mappings to return.
+     * @return A list of at most maxEntries mappings sorted by their order key.
+     */
+    public List<java.util.Map.Entry<K, V>> getByOrder(@Nullable Object after, int maxEntries) {
+        return orderedIndexWrapper.keysAfter(after)
+                .take(maxEntries)
+                .<java.util.Map.Entry<K, V>>map(key ->
+                        new AbstractMap.SimpleImmutableEntry<>(key, mainMap.get(key).get()))
+                .toJavaList();
+    }
+
     @AllArgsConstructor
     @Getter
     private static class IndexMapping<K, V> {
@@ -238,14 +340,18 @@ public class ImmutableCorfuTable<K, V> implements ICorfuSMR<ImmutableCorfuTable<
         }
 
         private <I> Option<Map<K, V>> contains(@Nonnull final String index, I indexKey) {
+            return getMapping(index).get(indexKey);
+        }
+
+        private Map<Object, Map<K, V>> getMapping(@Nonnull final String index) {
             if (secondaryIndexes.containsKey(index)) {
-                return secondaryIndexes.get(index).get().getMapping().get(indexKey);
+                return secondaryIndexes.get(index).get().getMapping();
             }
 
             if (secondaryIndexesAliasToPath.containsKey(index)) {
                 final String path = secondaryIndexesAliasToPath.get(index).get();
                 if (secondaryIndexes.containsKey(path)) {
-                    return secondaryIndexes.get(path).get().getMapping().get(indexKey);
+                    return secondaryIndexes.get(path).get().getMapping();
                 }
             }
 
@@ -312,4 +418,54 @@ public class ImmutableCorfuTable<K, V> implements ICorfuSMR<ImmutableCorfuTable<
             }
         }
     }
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    private static class OrderedIndexWrapper<K, V> {
+        @SuppressWarnings("unchecked")
+        private static final Comparator<Object> ORDER_KEY_COMPARATOR =
+                (o1, o2) -> ((Comparable<Object>) o1).compareTo(o2);
+
+        // The order of the table, or null if the table is not ordered.
+        private final Index.OrderSpec<K, V, ?> order;
+
+        // Mapping from the order key of each record to its primary key.
+        private final OrderedKeyIndex<Object, K> orderedKeys;
+
+        private OrderedIndexWrapper() {
+            this.order = null;
+            this.orderedKeys = OrderedKeyIndex.empty(ORDER_KEY_COMPARATOR);
+        }
+
+        private OrderedIndexWrapper(@Nonnull final Index.OrderSpec<K, V, ?> order) {
+            this.order = order;
+            this.orderedKeys = OrderedKeyIndex.empty(ORDER_KEY_COMPARATOR);
+            log.info("ImmutableCorfuTable: creating PersistentCorfuTable with an ordered index");
+        }
+
+        private OrderedIndexWrapper<K, V> map(@Nonnull K key, @Nonnull V value) {
+            if (order == null) {
+                return this;
+            }
+            return new OrderedIndexWrapper<>(order, orderedKeys.put(order.getOrderFunction().apply(key, value), key));
+        }
+
+        private OrderedIndexWrapper<K, V> unmap(@Nonnull K key, @Nonnull V value) {
+            if (order == null) {
+                return this;
+            }
+            return new OrderedIndexWrapper<>(order, orderedKeys.remove(order.getOrderFunction().apply(key, value)));
+        }
+
+        private OrderedIndexWrapper<K, V> clear() {
+            return new OrderedIndexWrapper<>(order, orderedKeys.clear());
+        }
+
+        private io.vavr.collection.Iterator<K> keysAfter(@Nullable Object after) {
+            if (order == null) {
+                log.error("ImmutableCorfuTable: table is not ordered, cannot complete the get by order.");
+                throw new IllegalStateException("Table is not ordered.");
+            }
+            return orderedKeys.keysAfter(after);
+        }
+    }
 }
@@ -96,6 +96,27 @@ public class Index {
         }
     }
 
+    /**
+     * Descriptor of the order of the records of a table. The order function maps a
+     * record to an order key, which must be unique among the records of the table and
+     * must not change once the record is inserted.
+     *
+     * @param <K> type of the record key.
+     * @param <V> type of the record value.
+     * @param <O> type of the order key computed.
+     */
+    public static class OrderSpec<K, V, O extends Comparable<? super O>> {
+        private final Function<K, V, O> orderFunction;
+
+        public OrderSpec(Function<K, V, O> orderFunction) {
+            this.orderFunction = orderFunction;
+        }
+
+        public Function<K, V, O> getOrderFunction() {
+            return orderFunction;
+        }
+    }
+
     /**
      * Registry hosting of a collection of {@link Index}.
      *
@@ -1,5 +1,6 @@
 package org.corfudb.runtime.collections;
 
+import com.google.common.base.Preconditions;
 import lombok.Getter;
 import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.runtime.CorfuStoreMetadata;
@@ -12,22 +13,41 @@ import org.corfudb.runtime.CorfuStoreMetadata;
  *            or on commit in the absence of reads.
  *      1.b - timestamp: on which the transaction needs to be validated can also be explicitly provided
  *            for SNAPSHOT isolation.
+ *  2. BOUNDED_STALENESS(maxStaleness) - like SNAPSHOT(), but a table which has not yet been synced
+ *            up to the snapshot timestamp is read at the latest version it has already materialized,
+ *            as long as that version is at most maxStaleness addresses behind the snapshot timestamp.
+ *            The table is synced forward in the background instead of blocking the read, so reads
+ *            of different tables may observe different versions. Such a transaction is read-only,
+ *            since its writes could not be validated against the updates its stale reads missed.
  *
  *  created by hisundar on 2020-09-09
  */
 public class IsolationLevel {
     @Getter
     private Token timestamp;
+
+    /**
+     * How many addresses behind the snapshot timestamp a read may be served, 0 if reads are never stale.
+     */
+    @Getter
+    private final long maxStaleness;
+
     // Initialize this class using one of the following Isolation types
-    private IsolationLevel(Token timestamp) {
+    private IsolationLevel(Token timestamp, long maxStaleness) {
         this.timestamp = timestamp;
+        this.maxStaleness = maxStaleness;
     }
 
     public static IsolationLevel snapshot() {
-        return new IsolationLevel(Token.UNINITIALIZED);
+        return new IsolationLevel(Token.UNINITIALIZED, 0L);
     }
 
     public static IsolationLevel snapshot(CorfuStoreMetadata.Timestamp timestamp) {
-        return new IsolationLevel(new Token(timestamp.getEpoch(), timestamp.getSequence()));
+        return new IsolationLevel(new Token(timestamp.getEpoch(), timestamp.getSequence()), 0L);
+    }
+
+    public static IsolationLevel boundedStaleness(long maxStaleness) {
+        Preconditions.checkArgument(maxStaleness >= 0, "maxStaleness %s must be >= 0", maxStaleness);
+        return new IsolationLevel(Token.UNINITIALIZED, maxStaleness);
     }
 }
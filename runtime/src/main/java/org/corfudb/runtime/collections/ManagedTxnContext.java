@@ -327,6 +327,42 @@ public class ManagedTxnContext implements AutoCloseable {
         return this.txnContext.executeQuery(tableName, corfuStoreEntryPredicate);
     }
 
+    /**
+     * Execute a query, planned over the secondary indexes of the table.
+     *
+     * @param table Table< K, V, M > object on which the query must be done.
+     * @param query Query with conditions on the fields of the values.
+     * @return Collection of the entries satisfying the query.
+     */
+    public <K extends Message, V extends Message, M extends Message>
+    List<CorfuStoreEntry<K, V, M>> executeQuery(@Nonnull Table<K, V, M> table, @Nonnull Query query) {
+        return this.txnContext.executeQuery(table, query);
+    }
+
+    /**
+     * Execute a query, planned over the secondary indexes of the table.
+     *
+     * @param tableName fullyQualified tablename on which the query must be done.
+     * @param query     Query with conditions on the fields of the values.
+     * @return Collection of the entries satisfying the query.
+     */
+    public <K extends Message, V extends Message, M extends Message>
+    List<CorfuStoreEntry<K, V, M>> executeQuery(@Nonnull String tableName, @Nonnull Query query) {
+        return this.txnContext.executeQuery(tableName, query);
+    }
+
+    /**
+     * Describe how a query would be executed, without executing it.
+     *
+     * @param table Table< K, V, M > object on which the query would be done.
+     * @param query Query with conditions on the fields of the values.
+     * @return A description of the plan of the query.
+     */
+    public <K extends Message, V extends Message, M extends Message>
+    String explainQuery(@Nonnull Table<K, V, M> table, @Nonnull Query query) {
+        return this.txnContext.explainQuery(table, query);
+    }
+
     /**
      * Execute a join of 2 tables.
      *
@@ -429,6 +465,33 @@ public class ManagedTxnContext implements AutoCloseable {
         return this.txnContext.entryList(table);
     }
 
+    /**
+     * Return the first Queue entries ordered by their parent transaction.
+     *
+     * @param table      Table< K, V, M > object aka queue to peek.
+     * @param maxEntries Maximum number of entries to return.
+     * @return Collection of at most maxEntries Queue records from the head of the queue.
+     */
+    public <K extends Message, V extends Message, M extends Message>
+    List<Table.CorfuQueueRecord> peek(@Nonnull Table<K, V, M> table, int maxEntries) {
+        return this.txnContext.peek(table, maxEntries);
+    }
+
+    /**
+     * Return the Queue entries which follow the given entry, ordered by their parent transaction.
+     *
+     * @param table        Table< K, V, M > object aka queue on which the scan must be done.
+     * @param entriesAfter The entry (exclusive) after which the entries are returned.
+     * @param maxEntries   Maximum number of entries to return.
+     * @return Collection of at most maxEntries Queue records which follow entriesAfter.
+     */
+    public <K extends Message, V extends Message, M extends Message>
+    List<Table.CorfuQueueRecord> entryList(@Nonnull Table<K, V, M> table,
+                                           @Nonnull Table.CorfuQueueRecord entriesAfter,
+                                           int maxEntries) {
+        return this.txnContext.entryList(table, entriesAfter, maxEntries);
+    }
+
     /**
      * @return true if the transaction was started by this layer, false otherwise
      */
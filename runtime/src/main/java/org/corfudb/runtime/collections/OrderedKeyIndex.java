@@ -0,0 +1,176 @@
+package org.corfudb.runtime.collections;
+
+import io.vavr.collection.Iterator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An immutable and persistent ordered mapping from order keys to primary keys, backed by a treap.
+ * Unlike VAVR's TreeMap, it can seek to an order key, so a cursor positioned anywhere in the
+ * index costs O(log n) before it starts iterating.
+ * @param <O> The type of the order key.
+ * @param <K> The type of the primary key.
+ */
+final class OrderedKeyIndex<O, K> {
+
+    private final Comparator<? super O> comparator;
+
+    private final Node<O, K> root;
+
+    private OrderedKeyIndex(@Nonnull Comparator<? super O> comparator, @Nullable Node<O, K> root) {
+        this.comparator = comparator;
+        this.root = root;
+    }
+
+    static <O, K> OrderedKeyIndex<O, K> empty(@Nonnull Comparator<? super O> comparator) {
+        return new OrderedKeyIndex<>(comparator, null);
+    }
+
+    /**
+     * Map an order key to a primary key, overwriting any previous mapping.
+     * @param orderKey The order key.
+     * @param key      The primary key.
+     * @return An index containing the new mapping.
+     */
+    OrderedKeyIndex<O, K> put(@Nonnull O orderKey, @Nonnull K key) {
+        return new OrderedKeyIndex<>(comparator,
+                insert(delete(root, orderKey), orderKey, key, ThreadLocalRandom.current().nextInt()));
+    }
+
+    /**
+     * Remove the mapping of an order key, if present.
+     * @param orderKey The order key.
+     * @return An index without the mapping.
+     */
+    OrderedKeyIndex<O, K> remove(@Nonnull O orderKey) {
+        return new OrderedKeyIndex<>(comparator, delete(root, orderKey));
+    }
+
+    OrderedKeyIndex<O, K> clear() {
+        return empty(comparator);
+    }
+
+    /**
+     * Get the primary keys in order, starting after the provided order key.
+     * @param after The order key (exclusive) to seek to, or null to start from the head.
+     * @return A lazy iterator over the primary keys.
+     */
+    Iterator<K> keysAfter(@Nullable O after) {
+        final Deque<Node<O, K>> path = new ArrayDeque<>();
+        Node<O, K> node = root;
+        while (node != null) {
+            if (after == null || comparator.compare(node.orderKey, after) > 0) {
+                path.push(node);
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+
+        return Iterator.ofAll(new java.util.Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public K next() {
+                if (path.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<O, K> next = path.pop();
+                for (Node<O, K> n = next.right; n != null; n = n.left) {
+                    path.push(n);
+                }
+                return next.key;
+            }
+        });
+    }
+
+    private Node<O, K> insert(@Nullable Node<O, K> node, O orderKey, K key, int priority) {
+        if (node == null || priority > node.priority) {
+            Node<O, K>[] split = split(node, orderKey);
+            return new Node<>(orderKey, key, priority, split[0], split[1]);
+        }
+        if (comparator.compare(orderKey, node.orderKey) < 0) {
+            return node.withChildren(insert(node.left, orderKey, key, priority), node.right);
+        }
+        return node.withChildren(node.left, insert(node.right, orderKey, key, priority));
+    }
+
+    private Node<O, K> delete(@Nullable Node<O, K> node, O orderKey) {
+        if (node == null) {
+            return null;
+        }
+        final int cmp = comparator.compare(orderKey, node.orderKey);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            Node<O, K> left = delete(node.left, orderKey);
+            return left == node.left ? node : node.withChildren(left, node.right);
+        }
+        Node<O, K> right = delete(node.right, orderKey);
+        return right == node.right ? node : node.withChildren(node.left, right);
+    }
+
+    /**
+     * Split a tree, which must not contain the order key, into the nodes before and after it.
+     */
+    @SuppressWarnings("unchecked")
+    private Node<O, K>[] split(@Nullable Node<O, K> node, O orderKey) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (comparator.compare(node.orderKey, orderKey) < 0) {
+            Node<O, K>[] split = split(node.right, orderKey);
+            split[0] = node.withChildren(node.left, split[0]);
+            return split;
+        }
+        Node<O, K>[] split = split(node.left, orderKey);
+        split[1] = node.withChildren(split[1], node.right);
+        return split;
+    }
+
+    /**
+     * Merge two trees, where every order key of the first precedes every order key of the second.
+     */
+    private Node<O, K> merge(@Nullable Node<O, K> left, @Nullable Node<O, K> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return left.withChildren(left.left, merge(left.right, right));
+        }
+        return right.withChildren(merge(left, right.left), right.right);
+    }
+
+    private static final class Node<O, K> {
+        private final O orderKey;
+        private final K key;
+        private final int priority;
+        private final Node<O, K> left;
+        private final Node<O, K> right;
+
+        private Node(O orderKey, K key, int priority, Node<O, K> left, Node<O, K> right) {
+            this.orderKey = orderKey;
+            this.key = key;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+        }
+
+        private Node<O, K> withChildren(Node<O, K> left, Node<O, K> right) {
+            return new Node<>(orderKey, key, priority, left, right);
+        }
+    }
+}
@@ -8,9 +8,12 @@ import org.corfudb.runtime.object.ICorfuSMRUpcallTarget;
 import org.corfudb.runtime.object.MVOCorfuCompileProxy;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 public class PersistentCorfuTable<K, V> implements ICorfuTable<K, V>, ICorfuSMR<PersistentCorfuTable<K, V>> {
@@ -99,6 +102,63 @@ public class PersistentCorfuTable<K, V> implements ICorfuTable<K, V>, ICorfuSMR<
         return proxy.access(corfuSmr -> corfuSmr.getByIndex(indexName, indexKey), null);
     }
 
+    /**
+     * Get the entries of the index keys which satisfy a predicate, see {@link ImmutableCorfuTable#getByIndexRange}.
+     *
+     * @param indexName         Name of the secondary index to query.
+     * @param indexKeyPredicate The predicate on the index keys.
+     * @return An Iterable of Map.Entry<K, V>
+     */
+    public Iterable<Map.Entry<K, V>> getByIndexRange(@Nonnull final Index.Name indexName,
+                                                     @Nonnull final Predicate<Object> indexKeyPredicate) {
+        return proxy.access(corfuSmr -> corfuSmr.getByIndexRange(indexName, indexKeyPredicate), null);
+    }
+
+    /**
+     * Count the entries of an index key, see {@link ImmutableCorfuTable#countByIndex}.
+     *
+     * @param indexName Name of the secondary index to query.
+     * @param indexKey  The index key used to query the secondary index
+     * @return The number of entries of this index key.
+     */
+    public <I> int countByIndex(@Nonnull final Index.Name indexName, I indexKey) {
+        return proxy.access(corfuSmr -> corfuSmr.countByIndex(indexName, indexKey), null);
+    }
+
+    /**
+     * Count the distinct index keys of an index, see {@link ImmutableCorfuTable#countIndexKeys}.
+     *
+     * @param indexName Name of the secondary index to query.
+     * @return The number of distinct index keys.
+     */
+    public int countIndexKeys(@Nonnull final Index.Name indexName) {
+        return proxy.access(corfuSmr -> corfuSmr.countIndexKeys(indexName), null);
+    }
+
+    /**
+     * Count the entries of the index keys which satisfy a predicate, see {@link ImmutableCorfuTable#countByIndexRange}.
+     *
+     * @param indexName         Name of the secondary index to query.
+     * @param indexKeyPredicate The predicate on the index keys.
+     * @return The number of entries of these index keys.
+     */
+    public int countByIndexRange(@Nonnull final Index.Name indexName,
+                                 @Nonnull final Predicate<Object> indexKeyPredicate) {
+        return proxy.access(corfuSmr -> corfuSmr.countByIndexRange(indexName, indexKeyPredicate), null);
+    }
+
+    /**
+     * Get the entries in the order of the table, see {@link ImmutableCorfuTable#getByOrder}.
+     *
+     * @param after      The order key (exclusive) after which the entries are returned,
+     *                   or null to return the entries from the head of the table.
+     * @param maxEntries The maximum number of entries to return.
+     * @return A list of at most maxEntries entries sorted by their order key.
+     */
+    public List<Map.Entry<K, V>> getByOrder(@Nullable final Object after, int maxEntries) {
+        return proxy.access(corfuSmr -> corfuSmr.getByOrder(after, maxEntries), null);
+    }
+
     @Override
     public PersistentCorfuTable<K, V> getContext(ICorfuExecutionContext.Context context) {
         return null;
@@ -402,6 +402,27 @@ public class ProtobufIndexer implements Index.Registry<Message, CorfuRecord<Mess
         });
     }
 
+    /**
+     * Whether a field is indexed.
+     *
+     * @param indexPath The path of the field.
+     * @return True if a secondary index is defined on this path.
+     */
+    boolean isIndexed(String indexPath) {
+        return indices.containsKey(indexPath);
+    }
+
+    /**
+     * Get the values of an indexed field of a record, as they are indexed.
+     *
+     * @param indexPath The path of the field, which has to be indexed.
+     * @param record    The record.
+     * @return The indexed values of the field.
+     */
+    Iterable<?> getIndexedValues(String indexPath, CorfuRecord<Message, Message> record) {
+        return indices.get(indexPath).getMultiValueIndexFunction().apply(null, record);
+    }
+
     @Override
     public Iterator<Index.Spec<Message, CorfuRecord<Message, Message>, ?>> iterator() {
         return indices.values().iterator();
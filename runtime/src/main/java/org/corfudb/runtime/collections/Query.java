@@ -0,0 +1,423 @@
+package org.corfudb.runtime.collections;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import lombok.Getter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A declarative query over the values of a table, which {@link TxnContext#executeQuery(Table, Query)}
+ * plans over the secondary indexes of the table.
+ * <p>
+ * The conditions of a query reference the fields of the value by their path, in the same dot-separated
+ * format as the secondary keys of the schema, e.g., 'person.address.street'. A field which is repeated,
+ * or nested in a repeated field, satisfies a condition if any of its values does. An unset message field
+ * has a null value.
+ * <p>
+ * The values of a condition have the Java type protobuf maps the field to, e.g., Long for an int64
+ * field, which is validated when the query is executed.
+ * <p>
+ * For example, the entries whose int64 'age' is between 18 (inclusive) and 65 (exclusive) and whose
+ * 'city' is either 'Paris' or 'Rome', 10 at most:
+ * <pre>
+ *     Query.where(Query.and(
+ *             Query.range("age", 18L, true, 65L, false),
+ *             Query.or(Query.eq("address.city", "Paris"), Query.eq("address.city", "Rome"))))
+ *         .limit(10);
+ * </pre>
+ */
+@Getter
+public class Query {
+
+    /**
+     * The condition the values of the returned entries satisfy.
+     */
+    private final Condition condition;
+
+    /**
+     * The maximum number of entries to return.
+     */
+    private final int limit;
+
+    private Query(Condition condition, int limit) {
+        this.condition = condition;
+        this.limit = limit;
+    }
+
+    /**
+     * Query the entries whose value satisfies a condition.
+     *
+     * @param condition The condition.
+     * @return A query which returns all the entries satisfying the condition.
+     */
+    public static Query where(@Nonnull Condition condition) {
+        return new Query(condition, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Limit the number of entries returned by this query. Which of the matching entries are
+     * returned is left to the planner.
+     *
+     * @param limit The maximum number of entries to return.
+     * @return A copy of this query returning at most limit entries.
+     */
+    public Query limit(int limit) {
+        Preconditions.checkArgument(limit > 0, "limit=%s has to be > 0", limit);
+        return new Query(condition, limit);
+    }
+
+    /**
+     * A field is equal to a value.
+     *
+     * @param fieldPath The path of the field.
+     * @param value     The value, of the Java type protobuf maps the field to (e.g., Long for int64).
+     * @return The condition.
+     */
+    public static Condition eq(@Nonnull String fieldPath, @Nullable Object value) {
+        return new Eq(fieldPath, value);
+    }
+
+    /**
+     * A field is within a range of values.
+     *
+     * @param fieldPath      The path of the field, which has to be a numeric, boolean or string field.
+     * @param from           The lower bound of the range, or null if it is unbounded. The bounds are of
+     *                       the Java type protobuf maps the field to (e.g., Long for int64).
+     * @param fromInclusive  Whether the lower bound is in the range.
+     * @param to             The upper bound of the range, or null if it is unbounded.
+     * @param toInclusive    Whether the upper bound is in the range.
+     * @return The condition.
+     */
+    public static Condition range(@Nonnull String fieldPath,
+                                  @Nullable Comparable<?> from, boolean fromInclusive,
+                                  @Nullable Comparable<?> to, boolean toInclusive) {
+        Preconditions.checkArgument(from != null || to != null, "Range on %s has no bound", fieldPath);
+        return new Range(fieldPath, from, fromInclusive, to, toInclusive);
+    }
+
+    public static Condition gt(@Nonnull String fieldPath, @Nonnull Comparable<?> value) {
+        return range(fieldPath, value, false, null, false);
+    }
+
+    public static Condition ge(@Nonnull String fieldPath, @Nonnull Comparable<?> value) {
+        return range(fieldPath, value, true, null, false);
+    }
+
+    public static Condition lt(@Nonnull String fieldPath, @Nonnull Comparable<?> value) {
+        return range(fieldPath, null, false, value, false);
+    }
+
+    public static Condition le(@Nonnull String fieldPath, @Nonnull Comparable<?> value) {
+        return range(fieldPath, null, false, value, true);
+    }
+
+    /**
+     * All the conditions are satisfied.
+     *
+     * @param conditions The conditions.
+     * @return The conjunction of the conditions.
+     */
+    public static Condition and(@Nonnull Condition... conditions) {
+        Preconditions.checkArgument(conditions.length > 0, "and() requires at least one condition");
+        return new And(ImmutableList.copyOf(conditions));
+    }
+
+    /**
+     * Any of the conditions is satisfied.
+     *
+     * @param conditions The conditions.
+     * @return The disjunction of the conditions.
+     */
+    public static Condition or(@Nonnull Condition... conditions) {
+        Preconditions.checkArgument(conditions.length > 0, "or() requires at least one condition");
+        return new Or(ImmutableList.copyOf(conditions));
+    }
+
+    /**
+     * A condition on the fields of a value.
+     */
+    public abstract static class Condition {
+
+        private Condition() {
+            // Only the conditions of this class are supported by the planner
+        }
+
+        /**
+         * Evaluate this condition.
+         *
+         * @param fieldValues A function returning the values of a field from its path.
+         * @return Whether the condition is satisfied.
+         */
+        abstract boolean test(Function<String, Iterable<?>> fieldValues);
+
+        /**
+         * Validate the field paths of this condition against the schema of the values.
+         *
+         * @param descriptor The descriptor of the values.
+         */
+        abstract void validate(Descriptor descriptor);
+    }
+
+    /**
+     * A condition on the values of a single field.
+     */
+    @Getter
+    abstract static class FieldCondition extends Condition {
+        private final String fieldPath;
+
+        private FieldCondition(String fieldPath) {
+            this.fieldPath = fieldPath.replaceAll("\\s+", "");
+        }
+
+        /**
+         * Whether a value of the field satisfies this condition.
+         *
+         * @param value The value of the field.
+         * @return Whether the value satisfies this condition.
+         */
+        abstract boolean matches(@Nullable Object value);
+
+        @Override
+        boolean test(Function<String, Iterable<?>> fieldValues) {
+            for (Object value : fieldValues.apply(fieldPath)) {
+                if (matches(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        void validate(Descriptor descriptor) {
+            validateValues(getField(descriptor));
+        }
+
+        /**
+         * Validate the values of this condition against the type of the field.
+         *
+         * @param field The descriptor of the field.
+         */
+        abstract void validateValues(FieldDescriptor field);
+
+        private FieldDescriptor getField(Descriptor descriptor) {
+            String[] fields = fieldPath.split("\\.");
+            FieldDescriptor field = null;
+            for (int i = 0; i < fields.length; i++) {
+                field = descriptor.findFieldByName(fields[i]);
+                Preconditions.checkArgument(field != null, "Invalid field path %s, field %s does not exist",
+                        fieldPath, fields[i]);
+                if (i < fields.length - 1) {
+                    Preconditions.checkArgument(field.getJavaType() == FieldDescriptor.JavaType.MESSAGE,
+                            "Invalid field path %s, field %s is a primitive type", fieldPath, fields[i]);
+                    descriptor = field.getMessageType();
+                }
+            }
+            return field;
+        }
+
+        /**
+         * Check that a value has the Java type protobuf maps a scalar field to. The values of
+         * enum, bytes and message fields are not checked.
+         */
+        void checkValueType(FieldDescriptor field, @Nullable Object value) {
+            final Class<?> valueType = getScalarType(field.getJavaType());
+            Preconditions.checkArgument(value == null || valueType == null || valueType.isInstance(value),
+                    "Invalid value %s of type %s for field %s of type %s", value,
+                    value == null ? null : value.getClass().getSimpleName(), fieldPath, field.getJavaType());
+        }
+
+        @Nullable
+        static Class<?> getScalarType(FieldDescriptor.JavaType javaType) {
+            switch (javaType) {
+                case INT:
+                    return Integer.class;
+                case LONG:
+                    return Long.class;
+                case FLOAT:
+                    return Float.class;
+                case DOUBLE:
+                    return Double.class;
+                case BOOLEAN:
+                    return Boolean.class;
+                case STRING:
+                    return String.class;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    @Getter
+    static class Eq extends FieldCondition {
+        private final Object value;
+
+        private Eq(String fieldPath, Object value) {
+            super(fieldPath);
+            this.value = value;
+        }
+
+        @Override
+        boolean matches(Object fieldValue) {
+            return Objects.equals(value, fieldValue);
+        }
+
+        @Override
+        void validateValues(FieldDescriptor field) {
+            checkValueType(field, value);
+        }
+
+        @Override
+        public String toString() {
+            return getFieldPath() + " = " + value;
+        }
+    }
+
+    @Getter
+    static class Range extends FieldCondition {
+        private final Comparable<Object> from;
+        private final boolean fromInclusive;
+        private final Comparable<Object> to;
+        private final boolean toInclusive;
+
+        @SuppressWarnings("unchecked")
+        private Range(String fieldPath, Comparable<?> from, boolean fromInclusive,
+                      Comparable<?> to, boolean toInclusive) {
+            super(fieldPath);
+            this.from = (Comparable<Object>) from;
+            this.fromInclusive = fromInclusive;
+            this.to = (Comparable<Object>) to;
+            this.toInclusive = toInclusive;
+        }
+
+        @Override
+        boolean matches(Object fieldValue) {
+            if (fieldValue == null) {
+                return false;
+            }
+            if (from != null) {
+                int cmp = from.compareTo(fieldValue);
+                if (cmp > 0 || (cmp == 0 && !fromInclusive)) {
+                    return false;
+                }
+            }
+            if (to != null) {
+                int cmp = to.compareTo(fieldValue);
+                return cmp > 0 || (cmp == 0 && toInclusive);
+            }
+            return true;
+        }
+
+        @Override
+        void validateValues(FieldDescriptor field) {
+            Preconditions.checkArgument(getScalarType(field.getJavaType()) != null,
+                    "Invalid range on field %s of type %s, which is not ordered", getFieldPath(), field.getJavaType());
+            checkValueType(field, from);
+            checkValueType(field, to);
+        }
+
+        @Override
+        public String toString() {
+            return getFieldPath() + " in " + (from == null ? "(-inf" : (fromInclusive ? "[" : "(") + from)
+                    + ", " + (to == null ? "+inf)" : to + (toInclusive ? "]" : ")"));
+        }
+    }
+
+    @Getter
+    static class And extends Condition {
+        private final List<Condition> conditions;
+
+        private And(List<Condition> conditions) {
+            this.conditions = conditions;
+        }
+
+        @Override
+        boolean test(Function<String, Iterable<?>> fieldValues) {
+            return conditions.stream().allMatch(condition -> condition.test(fieldValues));
+        }
+
+        @Override
+        void validate(Descriptor descriptor) {
+            conditions.forEach(condition -> condition.validate(descriptor));
+        }
+
+        @Override
+        public String toString() {
+            return conditions.stream().map(Object::toString).collect(Collectors.joining(" and ", "(", ")"));
+        }
+    }
+
+    @Getter
+    static class Or extends Condition {
+        private final List<Condition> conditions;
+
+        private Or(List<Condition> conditions) {
+            this.conditions = conditions;
+        }
+
+        @Override
+        boolean test(Function<String, Iterable<?>> fieldValues) {
+            return conditions.stream().anyMatch(condition -> condition.test(fieldValues));
+        }
+
+        @Override
+        void validate(Descriptor descriptor) {
+            conditions.forEach(condition -> condition.validate(descriptor));
+        }
+
+        @Override
+        public String toString() {
+            return conditions.stream().map(Object::toString).collect(Collectors.joining(" or ", "(", ")"));
+        }
+    }
+
+    /**
+     * Get the values of a field of a message.
+     *
+     * @param message   The message.
+     * @param fieldPath The path of the field.
+     * @return The values of the field, null for an unset message field.
+     */
+    static List<Object> getFieldValues(@Nonnull Message message, @Nonnull String fieldPath) {
+        List<Object> values = new ArrayList<>();
+        collectFieldValues(message, fieldPath.split("\\."), 0, values);
+        return values;
+    }
+
+    private static void collectFieldValues(Message message, String[] fields, int level, List<Object> values) {
+        final FieldDescriptor field = message.getDescriptorForType().findFieldByName(fields[level]);
+        final boolean lastField = level == fields.length - 1;
+
+        if (field.isRepeated()) {
+            for (int i = 0; i < message.getRepeatedFieldCount(field); i++) {
+                Object value = message.getRepeatedField(field, i);
+                if (lastField) {
+                    values.add(value);
+                } else {
+                    collectFieldValues((Message) value, fields, level + 1, values);
+                }
+            }
+        } else if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+            if (!message.hasField(field)) {
+                if (lastField) {
+                    values.add(null);
+                }
+            } else if (lastField) {
+                values.add(message.getField(field));
+            } else {
+                collectFieldValues((Message) message.getField(field), fields, level + 1, values);
+            }
+        } else if (field.getContainingOneof() == null || message.hasField(field)) {
+            values.add(message.getField(field));
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package org.corfudb.runtime.collections;
+
+import com.google.common.collect.ImmutableList;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.common.metrics.micrometer.MeterHandles;
+import org.corfudb.common.metrics.micrometer.SummaryHandle;
+import org.corfudb.common.metrics.micrometer.TimerHandle;
+import org.corfudb.runtime.collections.Query.Condition;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * The plan of a {@link Query} over a table, which picks how the entries satisfying the
+ * condition of the query are found: through lookups of the secondary indexes of the table,
+ * or through a parallel scan of the whole table.
+ * <p>
+ * The cost of a plan is estimated in entries visited, from the number of entries of each
+ * index key, which the indexes maintain. A condition on an indexed field is an index lookup,
+ * or an index range for a range condition. The indexes are hash maps, so an index range also
+ * visits every distinct key of its index. For a conjunction, the lookup of its most selective
+ * indexed condition is intersected with the lookups of its other indexed conditions which are
+ * cheaper than filtering the entries they could exclude. A disjunction is the union of the
+ * lookups of its conditions, if all of them are indexed. The table is scanned when the query has
+ * no such lookups, or when they are estimated to cost more than a scan. In both cases, the
+ * condition of the query is then evaluated on each entry found.
+ *
+ * @param <K> The type of the keys of the table.
+ * @param <R> The type of the records of the table.
+ */
+@Slf4j
+public class QueryPlan<K, R> {
+
+    /**
+     * The cost of evaluating a condition on an entry, relative to visiting an entry of an index.
+     */
+    static final int FILTER_COST = 4;
+
+    private static final String TABLE_NAME_TAG = "tableName";
+
+    private static final MeterHandles.Family<TimerHandle> scanTimers =
+            MeterHandles.timers("table.query", TABLE_NAME_TAG, "access", "scan");
+
+    private static final MeterHandles.Family<TimerHandle> indexTimers =
+            MeterHandles.timers("table.query", TABLE_NAME_TAG, "access", "index");
+
+    private static final MeterHandles.Family<SummaryHandle> scanExamined =
+            MeterHandles.summaries("table.query.examined", TABLE_NAME_TAG, "access", "scan");
+
+    private static final MeterHandles.Family<SummaryHandle> indexExamined =
+            MeterHandles.summaries("table.query.examined", TABLE_NAME_TAG, "access", "index");
+
+    /**
+     * The access to the entries and indexes of the table that a plan is executed against.
+     */
+    interface Source<K, R> {
+        String getTableName();
+
+        int size();
+
+        boolean isIndexed(String fieldPath);
+
+        int countByIndex(String fieldPath, Object indexKey);
+
+        int countIndexKeys(String fieldPath);
+
+        int countByIndexRange(String fieldPath, Predicate<Object> indexKeyPredicate);
+
+        Iterable<Map.Entry<K, R>> getByIndex(String fieldPath, Object indexKey);
+
+        Iterable<Map.Entry<K, R>> getByIndexRange(String fieldPath, Predicate<Object> indexKeyPredicate);
+
+        List<Map.Entry<K, R>> scan(Predicate<Map.Entry<K, R>> entryPredicate, int limit);
+
+        Function<String, Iterable<?>> getFieldValues(R record);
+    }
+
+    private final Query query;
+
+    private final int tableSize;
+
+    // The index lookups finding the entries, or null if the table is scanned
+    private final Node<K, R> access;
+
+    /**
+     * The estimated number of entries visited by this plan.
+     */
+    @Getter
+    private final long estimatedCost;
+
+    private QueryPlan(Query query, int tableSize, Node<K, R> access, long estimatedCost) {
+        this.query = query;
+        this.tableSize = tableSize;
+        this.access = access;
+        this.estimatedCost = estimatedCost;
+    }
+
+    /**
+     * Plan a query.
+     *
+     * @param query  The query.
+     * @param source The table to query.
+     * @return The cheapest plan of the query.
+     */
+    static <K, R> QueryPlan<K, R> plan(Query query, Source<K, R> source) {
+        final int tableSize = source.size();
+        final long scanCost = (long) tableSize * FILTER_COST;
+        final Node<K, R> access = planAccess(query.getCondition(), source, scanCost);
+
+        if (access != null) {
+            long indexCost = access.getCost() + access.getEstimatedRows() * FILTER_COST;
+            if (indexCost < scanCost) {
+                return new QueryPlan<>(query, tableSize, access, indexCost);
+            }
+        }
+        return new QueryPlan<>(query, tableSize, null, scanCost);
+    }
+
+    private static <K, R> Node<K, R> planAccess(Condition condition, Source<K, R> source, long scanCost) {
+        if (condition instanceof Query.Eq) {
+            Query.Eq eq = (Query.Eq) condition;
+            return source.isIndexed(eq.getFieldPath())
+                    ? new IndexLookup<>(eq, source.countByIndex(eq.getFieldPath(), eq.getValue()))
+                    : null;
+        } else if (condition instanceof Query.Range) {
+            Query.Range range = (Query.Range) condition;
+            if (!source.isIndexed(range.getFieldPath())) {
+                return null;
+            }
+            // Counting the entries of the range visits the same keys as fetching them, so it is
+            // skipped when visiting the keys alone costs as much as a scan
+            final int indexKeys = source.countIndexKeys(range.getFieldPath());
+            if (indexKeys >= scanCost) {
+                return null;
+            }
+            return new IndexRange<>(range, indexKeys,
+                    source.countByIndexRange(range.getFieldPath(), range::matches));
+        } else if (condition instanceof Query.Or) {
+            List<Node<K, R>> children = new ArrayList<>();
+            for (Condition child : ((Query.Or) condition).getConditions()) {
+                Node<K, R> node = planAccess(child, source, scanCost);
+                if (node == null) {
+                    // The entries satisfying this condition can only be found with a scan
+                    return null;
+                }
+                children.add(node);
+            }
+            return children.size() == 1 ? children.get(0) : new Union<>(children);
+        } else if (condition instanceof Query.And) {
+            List<Node<K, R>> children = new ArrayList<>();
+            for (Condition child : ((Query.And) condition).getConditions()) {
+                Node<K, R> node = planAccess(child, source, scanCost);
+                if (node != null) {
+                    children.add(node);
+                }
+            }
+            if (children.isEmpty()) {
+                return null;
+            }
+
+            children.sort(Comparator.comparingLong(Node::getEstimatedRows));
+            List<Node<K, R>> intersected = new ArrayList<>();
+            intersected.add(children.get(0));
+            long rows = children.get(0).getEstimatedRows();
+            for (Node<K, R> child : children.subList(1, children.size())) {
+                if (child.getCost() < rows * FILTER_COST) {
+                    intersected.add(child);
+                    rows = Math.min(rows, child.getEstimatedRows());
+                }
+            }
+            return intersected.size() == 1 ? intersected.get(0) : new Intersect<>(intersected);
+        }
+
+        throw new IllegalArgumentException("Unsupported condition " + condition);
+    }
+
+    /**
+     * Whether this plan scans the whole table.
+     *
+     * @return True if the table is scanned, false if its indexes are used.
+     */
+    public boolean isScan() {
+        return access == null;
+    }
+
+    /**
+     * Describe this plan, with the estimated number of entries of each of its steps.
+     *
+     * @return A description of this plan, one step per line.
+     */
+    public String explain() {
+        StringBuilder sb = new StringBuilder();
+        int depth = 0;
+        if (query.getLimit() != Integer.MAX_VALUE) {
+            sb.append("Limit ").append(query.getLimit()).append('\n');
+            depth++;
+        }
+        indent(sb, depth).append("Filter ").append(query.getCondition())
+                .append(" (cost=").append(estimatedCost).append(")\n");
+        if (access == null) {
+            indent(sb, depth + 1).append("Scan (rows=").append(tableSize).append(")\n");
+        } else {
+            access.explain(sb, depth + 1);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Execute this plan, and record how long it took and how many entries it visited.
+     *
+     * @param source The table to query.
+     * @return The entries satisfying the condition of the query.
+     */
+    List<Map.Entry<K, R>> execute(Source<K, R> source) {
+        final TimerHandle timer = (access == null ? scanTimers : indexTimers).get(source.getTableName());
+        final long startTime = timer.start();
+        final Condition condition = query.getCondition();
+        final List<Map.Entry<K, R>> result;
+        final long examined;
+
+        if (access == null) {
+            result = source.scan(entry -> condition.test(source.getFieldValues(entry.getValue())), query.getLimit());
+            examined = tableSize;
+        } else {
+            Map<K, R> candidates = access.fetch(source);
+            result = new ArrayList<>();
+            for (Map.Entry<K, R> entry : candidates.entrySet()) {
+                if (condition.test(source.getFieldValues(entry.getValue()))) {
+                    result.add(entry);
+                    if (result.size() >= query.getLimit()) {
+                        break;
+                    }
+                }
+            }
+            examined = candidates.size();
+        }
+
+        timer.stop(startTime);
+        (access == null ? scanExamined : indexExamined).get(source.getTableName()).record(examined);
+        if (log.isDebugEnabled()) {
+            log.debug("execute[{}]: examined {} entries, returned {}, plan:\n{}",
+                    source.getTableName(), examined, result.size(), explain());
+        }
+        return result;
+    }
+
+    private static StringBuilder indent(StringBuilder sb, int depth) {
+        for (int i = 0; i < depth; i++) {
+            sb.append("  ");
+        }
+        return sb;
+    }
+
+    /**
+     * A step of a plan which finds entries through the indexes of the table.
+     */
+    @Getter
+    private abstract static class Node<K, R> {
+        private final long estimatedRows;
+        private final long cost;
+
+        Node(long estimatedRows, long cost) {
+            this.estimatedRows = estimatedRows;
+            this.cost = cost;
+        }
+
+        /**
+         * Find the entries of this step.
+         *
+         * @param source The table to query.
+         * @return The entries found, each once.
+         */
+        abstract Map<K, R> fetch(Source<K, R> source);
+
+        abstract void explain(StringBuilder sb, int depth);
+
+        static <K, R> Map<K, R> collect(Iterable<Map.Entry<K, R>> entries) {
+            // A record with multiple values in a field is found once per value
+            Map<K, R> result = new LinkedHashMap<>();
+            entries.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+            return result;
+        }
+    }
+
+    private static class IndexLookup<K, R> extends Node<K, R> {
+        private final Query.Eq condition;
+
+        IndexLookup(Query.Eq condition, long estimatedRows) {
+            super(estimatedRows, estimatedRows);
+            this.condition = condition;
+        }
+
+        @Override
+        Map<K, R> fetch(Source<K, R> source) {
+            return collect(source.getByIndex(condition.getFieldPath(), condition.getValue()));
+        }
+
+        @Override
+        void explain(StringBuilder sb, int depth) {
+            indent(sb, depth).append("IndexLookup ").append(condition)
+                    .append(" (rows=").append(getEstimatedRows()).append(")\n");
+        }
+    }
+
+    private static class IndexRange<K, R> extends Node<K, R> {
+        private final Query.Range condition;
+        private final int indexKeys;
+
+        IndexRange(Query.Range condition, int indexKeys, long estimatedRows) {
+            super(estimatedRows, indexKeys + estimatedRows);
+            this.condition = condition;
+            this.indexKeys = indexKeys;
+        }
+
+        @Override
+        Map<K, R> fetch(Source<K, R> source) {
+            return collect(source.getByIndexRange(condition.getFieldPath(), condition::matches));
+        }
+
+        @Override
+        void explain(StringBuilder sb, int depth) {
+            indent(sb, depth).append("IndexRange ").append(condition)
+                    .append(" (keys=").append(indexKeys)
+                    .append(", rows=").append(getEstimatedRows()).append(")\n");
+        }
+    }
+
+    private static class Intersect<K, R> extends Node<K, R> {
+        private final List<Node<K, R>> children;
+
+        Intersect(List<Node<K, R>> children) {
+            super(children.stream().mapToLong(Node::getEstimatedRows).min().orElse(0),
+                    children.stream().mapToLong(Node::getCost).sum());
+            this.children = ImmutableList.copyOf(children);
+        }
+
+        @Override
+        Map<K, R> fetch(Source<K, R> source) {
+            // The children are sorted by selectivity, the most selective one drives the intersection
+            Map<K, R> result = children.get(0).fetch(source);
+            for (Node<K, R> child : children.subList(1, children.size())) {
+                if (result.isEmpty()) {
+                    break;
+                }
+                result.keySet().retainAll(child.fetch(source).keySet());
+            }
+            return result;
+        }
+
+        @Override
+        void explain(StringBuilder sb, int depth) {
+            indent(sb, depth).append("Intersect (rows=").append(getEstimatedRows()).append(")\n");
+            children.forEach(child -> child.explain(sb, depth + 1));
+        }
+    }
+
+    private static class Union<K, R> extends Node<K, R> {
+        private final List<Node<K, R>> children;
+
+        Union(List<Node<K, R>> children) {
+            super(children.stream().mapToLong(Node::getEstimatedRows).sum(),
+                    children.stream().mapToLong(Node::getCost).sum());
+            this.children = ImmutableList.copyOf(children);
+        }
+
+        @Override
+        Map<K, R> fetch(Source<K, R> source) {
+            Map<K, R> result = new LinkedHashMap<>();
+            children.forEach(child -> result.putAll(child.fetch(source)));
+            return result;
+        }
+
+        @Override
+        void explain(StringBuilder sb, int depth) {
+            indent(sb, depth).append("Union (rows=").append(getEstimatedRows()).append(")\n");
+            children.forEach(child -> child.explain(sb, depth + 1));
+        }
+    }
+}
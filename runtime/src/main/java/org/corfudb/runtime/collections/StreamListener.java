@@ -1,5 +1,7 @@
 package org.corfudb.runtime.collections;
 
+import java.util.List;
+
 /**
  * This is the callback interface that any client subscribing to CorfuStore updates must implement.
  *
@@ -11,6 +13,19 @@ public interface StreamListener {
         onNext(results);
     }
 
+    /**
+     * Batched variant of {@link #onNextEntry(CorfuStreamEntries)} used when the streaming layer
+     * reads deltas in batches. Listeners that can process many updates at once (e.g., in a single
+     * transaction) should override this method, by default each update is delivered individually.
+     *
+     * Note: the updates are ordered by their log address.
+     *
+     * @param results list of updates, one per transaction, ordered by address.
+     */
+    default void onNextBatch(List<CorfuStreamEntries> results) {
+        results.forEach(this::onNextEntry);
+    }
+
     /**
      * A corfu update can/may have multiple updates belonging to different streams.
      * This callback will return those updates as a list grouped by their Stream UUIDs.
@@ -33,6 +33,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -65,6 +66,11 @@ public class Table<K extends Message, V extends Message, M extends Message> {
 
     private ICorfuTable<K, CorfuRecord<V, M>> corfuTable;
 
+    /**
+     * The secondary indexes of the table, or null if they are disabled.
+     */
+    private ProtobufIndexer indexer;
+
     /**
      * Namespace this table belongs in.
      */
@@ -145,8 +151,7 @@ public class Table<K extends Message, V extends Message, M extends Message> {
         this.valueClass = tableParameters.getVClass();
         this.metadataClass = tableParameters.getMClass();
 
-        if (keyClass == Queue.CorfuGuidMsg.class &&
-                metadataClass == Queue.CorfuQueueMetadataMsg.class) { // Really a Queue
+        if (isQueue()) { // Really a Queue
             this.guidGenerator = CorfuGuidGenerator.getInstance(corfuRuntime);
         } else {
             this.guidGenerator = null;
@@ -246,12 +251,18 @@ public class Table<K extends Message, V extends Message, M extends Message> {
         final Deque<Object> arguments = new ArrayDeque<>();
 
         if (!tableParameters.isSecondaryIndexesDisabled()) {
-            arguments.add(new ProtobufIndexer(
+            indexer = new ProtobufIndexer(
                     tableParameters.getValueSchema(),
-                    tableParameters.getSchemaOptions()));
+                    tableParameters.getSchemaOptions());
+            arguments.add(indexer);
         }
 
         if (streamingMapSupplier == null) {
+            if (isQueue()) {
+                arguments.add(new Index.OrderSpec<K, CorfuRecord<V, M>, CorfuQueue.CorfuRecordId>(
+                        Table::getQueueOrder));
+            }
+
             // PersistentCorfuTable
             builder = runtime.getObjectsView().build()
                     .setTypeToken(new TypeToken<PersistentCorfuTable<K, CorfuRecord<V, M>>>() {})
@@ -332,19 +343,57 @@ public class Table<K extends Message, V extends Message, M extends Message> {
      * @return List of Entries sorted by their enqueue order
      */
     public List<CorfuQueueRecord> entryList() {
-        Comparator<Map.Entry<K, CorfuRecord<V, M>>> queueComparator =
-                (Map.Entry<K, CorfuRecord<V, M>> rec1, Map.Entry<K, CorfuRecord<V, M>> rec2) -> {
-                    long r1EntryId = ((Queue.CorfuGuidMsg) rec1.getKey()).getInstanceId();
-                    long r1Sequence = ((Queue.CorfuQueueMetadataMsg) rec1.getValue().getMetadata()).getTxSequence();
-
-                    long r2EntryId = ((Queue.CorfuGuidMsg) rec2.getKey()).getInstanceId();
-                    long r2Sequence = ((Queue.CorfuQueueMetadataMsg) rec2.getValue().getMetadata()).getTxSequence();
-                    return CorfuQueueRecord.compareTo(r1EntryId, r2EntryId, r1Sequence, r2Sequence);
-                };
-
-        List<CorfuQueueRecord> copy = new ArrayList<>(corfuTable.size());
-        for (Map.Entry<K, CorfuRecord<V, M>> entry : corfuTable.entryStream()
-                .sorted(queueComparator).collect(Collectors.toList())) {
+        return queueEntries(null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the first entries of the queue, in the order in which the enqueue materialized.
+     *
+     * @param maxEntries - Limit the number of entries returned from the head of the queue
+     * @throws IllegalArgumentException if maxEntries is zero or negative.
+     * @return List of at most maxEntries entries sorted by their enqueue order
+     */
+    public List<CorfuQueueRecord> peek(int maxEntries) {
+        return queueEntries(null, maxEntries);
+    }
+
+    /**
+     * Returns the entries of the queue which follow the given entry, in the order in which
+     * the enqueue materialized. This allows to iterate over the queue in bounded batches
+     * with the last entry of a batch as the cursor of the next one.
+     *
+     * @param entriesAfter - Return only entries which follow this entry in the queue
+     * @param maxEntries - Limit the number of entries returned
+     * @throws IllegalArgumentException if maxEntries is zero or negative.
+     * @return List of at most maxEntries entries sorted by their enqueue order
+     */
+    public List<CorfuQueueRecord> entryList(@Nonnull CorfuQueueRecord entriesAfter, int maxEntries) {
+        return queueEntries(new CorfuQueue.CorfuRecordId(entriesAfter.getTxSequence().getTxSequence(),
+                entriesAfter.getRecordId().getInstanceId()), maxEntries);
+    }
+
+    private List<CorfuQueueRecord> queueEntries(@Nullable CorfuQueue.CorfuRecordId entriesAfter, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("entryList can't take zero or negative maxEntries");
+        }
+
+        final List<Map.Entry<K, CorfuRecord<V, M>>> entries;
+        if (corfuTable instanceof PersistentCorfuTable) {
+            // Queues backed by a PersistentCorfuTable are ordered by their enqueue order
+            entries = ((PersistentCorfuTable<K, CorfuRecord<V, M>>) corfuTable).getByOrder(entriesAfter, maxEntries);
+        } else {
+            Comparator<Map.Entry<K, CorfuRecord<V, M>>> queueComparator =
+                    Comparator.comparing(entry -> getQueueOrder(entry.getKey(), entry.getValue()));
+            entries = corfuTable.entryStream()
+                    .filter(entry -> entriesAfter == null
+                            || getQueueOrder(entry.getKey(), entry.getValue()).compareTo(entriesAfter) > 0)
+                    .sorted(queueComparator)
+                    .limit(maxEntries)
+                    .collect(Collectors.toList());
+        }
+
+        List<CorfuQueueRecord> copy = new ArrayList<>(entries.size());
+        for (Map.Entry<K, CorfuRecord<V, M>> entry : entries) {
             copy.add(new CorfuQueueRecord((Queue.CorfuGuidMsg) entry.getKey(),
                     (Queue.CorfuQueueMetadataMsg) entry.getValue().getMetadata(),
                     entry.getValue().getPayload()));
@@ -352,6 +401,19 @@ public class Table<K extends Message, V extends Message, M extends Message> {
         return copy;
     }
 
+    /**
+     * The position of an entry in the queue: its transaction sequence, then its entry id.
+     */
+    private static CorfuQueue.CorfuRecordId getQueueOrder(Message key, CorfuRecord<?, ? extends Message> record) {
+        return new CorfuQueue.CorfuRecordId(((Queue.CorfuQueueMetadataMsg) record.getMetadata()).getTxSequence(),
+                ((Queue.CorfuGuidMsg) key).getInstanceId());
+    }
+
+    private boolean isQueue() {
+        return tableParameters.getKClass() == Queue.CorfuGuidMsg.class &&
+                tableParameters.getMClass() == Queue.CorfuQueueMetadataMsg.class;
+    }
+
     /**
      * CorfuQueueRecord encapsulates each entry enqueued into CorfuQueue with its unique ID.
      * It is a read-only type returned by the entryList() method.
@@ -499,6 +561,106 @@ public class Table<K extends Message, V extends Message, M extends Message> {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Plan a query over the secondary indexes of this table.
+     *
+     * @param query The query.
+     * @return The plan of the query.
+     */
+    @Nonnull
+    QueryPlan<K, CorfuRecord<V, M>> planQuery(@Nonnull final Query query) {
+        query.getCondition().validate(tableParameters.getValueSchema().getDescriptorForType());
+        return QueryPlan.plan(query, new QuerySource());
+    }
+
+    /**
+     * Execute a query over the secondary indexes of this table, see {@link QueryPlan}.
+     *
+     * @param query The query.
+     * @return Collection of the entries satisfying the query.
+     */
+    @Nonnull
+    List<CorfuStoreEntry<K, V, M>> executeQuery(@Nonnull final Query query) {
+        return planQuery(query).execute(new QuerySource()).stream()
+                .map(entry -> new CorfuStoreEntry<>(
+                        entry.getKey(),
+                        entry.getValue().getPayload(),
+                        entry.getValue().getMetadata()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The entries and indexes of this table, as queries see them. Indexes are only used
+     * on tables backed by a PersistentCorfuTable, which can estimate their selectivity.
+     */
+    private class QuerySource implements QueryPlan.Source<K, CorfuRecord<V, M>> {
+
+        @Override
+        public String getTableName() {
+            return fullyQualifiedTableName;
+        }
+
+        @Override
+        public int size() {
+            return corfuTable.size();
+        }
+
+        @Override
+        public boolean isIndexed(String fieldPath) {
+            return indexer != null && corfuTable instanceof PersistentCorfuTable && indexer.isIndexed(fieldPath);
+        }
+
+        @Override
+        public int countByIndex(String fieldPath, Object indexKey) {
+            return getPersistentTable().countByIndex(() -> fieldPath, indexKey);
+        }
+
+        @Override
+        public int countIndexKeys(String fieldPath) {
+            return getPersistentTable().countIndexKeys(() -> fieldPath);
+        }
+
+        @Override
+        public int countByIndexRange(String fieldPath, Predicate<Object> indexKeyPredicate) {
+            return getPersistentTable().countByIndexRange(() -> fieldPath, indexKeyPredicate);
+        }
+
+        @Override
+        public Iterable<Map.Entry<K, CorfuRecord<V, M>>> getByIndex(String fieldPath, Object indexKey) {
+            return getPersistentTable().getByIndex(() -> fieldPath, indexKey);
+        }
+
+        @Override
+        public Iterable<Map.Entry<K, CorfuRecord<V, M>>> getByIndexRange(String fieldPath,
+                                                                         Predicate<Object> indexKeyPredicate) {
+            return getPersistentTable().getByIndexRange(() -> fieldPath, indexKeyPredicate);
+        }
+
+        @Override
+        public List<Map.Entry<K, CorfuRecord<V, M>>> scan(Predicate<Map.Entry<K, CorfuRecord<V, M>>> entryPredicate,
+                                                          int limit) {
+            try (Stream<Map.Entry<K, CorfuRecord<V, M>>> stream = corfuTable.entryStream()) {
+                return pool.submit(() -> stream
+                        .parallel()
+                        .filter(entryPredicate)
+                        .limit(limit)
+                        .collect(Collectors.toList())).join();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Function<String, Iterable<?>> getFieldValues(CorfuRecord<V, M> record) {
+            return fieldPath -> indexer != null && indexer.isIndexed(fieldPath)
+                    ? indexer.getIndexedValues(fieldPath, (CorfuRecord<Message, Message>) record)
+                    : Query.getFieldValues(record.getPayload(), fieldPath);
+        }
+
+        private PersistentCorfuTable<K, CorfuRecord<V, M>> getPersistentTable() {
+            return (PersistentCorfuTable<K, CorfuRecord<V, M>>) corfuTable;
+        }
+    }
+
     public CheckpointWriter<ICorfuTable<?,?>> getCheckpointWriter(CorfuRuntime rt, String author) {
         CheckpointWriter<ICorfuTable<?,?>> cpw = new CheckpointWriter(rt, streamUUID, author, this.corfuTable);
         cpw.setSerializer(serializer);
@@ -0,0 +1,49 @@
+package org.corfudb.runtime.collections;
+
+import com.google.protobuf.Message;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Everything which is needed to open a Corfu Store table: its namespace and name,
+ * the protobuf classes of its key, value and metadata, and its table options.
+ * This class is used to open many tables at once, see {@link CorfuStore#openTables}.
+ *
+ * @param <K> - Default instance type of the protobuf generated key schema
+ * @param <V> - Default instance type of the protobuf generated payload schema
+ * @param <M> - Default instance type of the protobuf generated metadata schema
+ */
+@Builder(access = AccessLevel.PUBLIC)
+public class TableDefinition<K extends Message, V extends Message, M extends Message> {
+
+    // Namespace of the table
+    @NonNull
+    @Getter
+    private final String namespace;
+
+    // Name of the table
+    @NonNull
+    @Getter
+    private final String tableName;
+
+    // Key class
+    @NonNull
+    @Getter
+    private final Class<K> kClass;
+
+    // Value class
+    @NonNull
+    @Getter
+    private final Class<V> vClass;
+
+    // Metadata class
+    @Getter
+    private final Class<M> mClass;
+
+    // Table options
+    @NonNull
+    @Getter
+    private final TableOptions tableOptions;
+}
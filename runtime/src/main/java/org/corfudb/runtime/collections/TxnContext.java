@@ -105,7 +105,8 @@ public class TxnContext implements AutoCloseable {
         log.trace("TxnContext: begin transaction in namespace {}", namespace);
         Transaction.TransactionBuilder transactionBuilder = this.objectsView
                 .TXBuild()
-                .type(TransactionType.WRITE_AFTER_WRITE);
+                .type(TransactionType.WRITE_AFTER_WRITE)
+                .maxStaleness(isolationLevel.getMaxStaleness());
         Token snapshotToken;
         if (isolationLevel.getTimestamp() != Token.UNINITIALIZED) {
             transactionBuilder.snapshot(isolationLevel.getTimestamp());
@@ -176,6 +177,10 @@ public class TxnContext implements AutoCloseable {
                     "TxnContext cannot be used after a transaction has ended on " +
                             table.getFullyQualifiedTableName());
         }
+        if (TransactionalContext.getRootContext().getTransaction().getMaxStaleness() > 0) {
+            throw new UnsupportedOperationException("Bounded-staleness transactions are read-only, can't write to "
+                    + table.getFullyQualifiedTableName());
+        }
         if (validateKey && key == null) {
             throw new IllegalArgumentException("Key cannot be null on "
                     + table.getFullyQualifiedTableName() + " in transaction on namespace " + namespace);
@@ -596,6 +601,44 @@ public class TxnContext implements AutoCloseable {
         return this.executeQuery(this.getTable(tableName), entryPredicate);
     }
 
+    /**
+     * Execute a query, planned over the secondary indexes of the table, see {@link QueryPlan}.
+     *
+     * @param table Table< K, V, M > object on which the query must be done.
+     * @param query Query with conditions on the fields of the values.
+     * @return Collection of the entries satisfying the query.
+     */
+    public <K extends Message, V extends Message, M extends Message>
+    List<CorfuStoreEntry<K, V, M>> executeQuery(@Nonnull final Table<K, V, M> table,
+                                                @Nonnull final Query query) {
+        return table.executeQuery(query);
+    }
+
+    /**
+     * Execute a query, planned over the secondary indexes of the table, see {@link QueryPlan}.
+     *
+     * @param tableName fullyQualified tablename on which the query must be done.
+     * @param query     Query with conditions on the fields of the values.
+     * @return Collection of the entries satisfying the query.
+     */
+    public <K extends Message, V extends Message, M extends Message>
+    List<CorfuStoreEntry<K, V, M>> executeQuery(@Nonnull final String tableName,
+                                                @Nonnull final Query query) {
+        return this.executeQuery(this.<K, V, M>getTable(tableName), query);
+    }
+
+    /**
+     * Describe how a query would be executed, without executing it.
+     *
+     * @param table Table< K, V, M > object on which the query would be done.
+     * @param query Query with conditions on the fields of the values.
+     * @return A description of the plan of the query, see {@link QueryPlan#explain()}.
+     */
+    public <K extends Message, V extends Message, M extends Message>
+    String explainQuery(@Nonnull final Table<K, V, M> table, @Nonnull final Query query) {
+        return table.planQuery(query).explain();
+    }
+
     /**
      * Execute a join of 2 tables.
      *
@@ -713,6 +756,33 @@ public class TxnContext implements AutoCloseable {
         return table.entryList();
     }
 
+    /**
+     * Return the first Queue entries ordered by their parent transaction.
+     *
+     * @param table      Table< K, V, M > object aka queue to peek.
+     * @param maxEntries Maximum number of entries to return.
+     * @return Collection of at most maxEntries entries from the head of the queue.
+     */
+    public <K extends Message, V extends Message, M extends Message>
+    List<Table.CorfuQueueRecord> peek(@Nonnull final Table<K, V, M> table, int maxEntries) {
+        return table.peek(maxEntries);
+    }
+
+    /**
+     * Return the Queue entries which follow the given entry, ordered by their parent transaction.
+     *
+     * @param table        Table< K, V, M > object aka queue on which the scan must be done.
+     * @param entriesAfter The entry (exclusive) after which the entries are returned.
+     * @param maxEntries   Maximum number of entries to return.
+     * @return Collection of at most maxEntries entries which follow entriesAfter.
+     */
+    public <K extends Message, V extends Message, M extends Message>
+    List<Table.CorfuQueueRecord> entryList(@Nonnull final Table<K, V, M> table,
+                                           @Nonnull final Table.CorfuQueueRecord entriesAfter,
+                                           int maxEntries) {
+        return table.entryList(entriesAfter, maxEntries);
+    }
+
     /**
      * @return The the thread local's TxnContext, null if not in a transaction.
      */
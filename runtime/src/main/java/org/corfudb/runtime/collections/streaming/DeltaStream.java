@@ -17,6 +17,9 @@ import org.corfudb.runtime.view.ReadOptions;
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -201,41 +204,79 @@ public class DeltaStream {
     }
 
     public ILogData next() {
+        return nextBatch(1).get(0);
+    }
+
+    /**
+     * Consume up to maxEntries buffered addresses with a single multi-address read, instead of
+     * issuing one read per address. The returned entries are ordered by address.
+     *
+     * @param maxEntries maximum number of buffered addresses to consume
+     * @return a non-empty list of log data ordered by address
+     */
+    public List<ILogData> nextBatch(int maxEntries) {
+        Preconditions.checkArgument(maxEntries > 0, "maxEntries=%s has to be > 0", maxEntries);
 
         if (lastAddressRead.get() < trimMark.get()) {
             throw new TrimmedException(String.format("lastAddressRead %s trimMark %s", lastAddressRead, trimMark));
         }
 
-        TimeStampedRead stampedRead = (TimeStampedRead) addressesToRead.remove();
-        long readAddress = stampedRead.getAddress();
+        List<TimeStampedRead> stampedReads = new ArrayList<>(Math.min(maxEntries, bufferSize));
+        long previousAddress = lastAddressRead.get();
+        do {
+            TimeStampedRead stampedRead = (TimeStampedRead) addressesToRead.remove();
+            long readAddress = stampedRead.getAddress();
 
-        Preconditions.checkState(lastAddressRead.get() < readAddress,
-                "%d must be greater than %d", readAddress, lastAddressRead);
+            Preconditions.checkState(previousAddress < readAddress,
+                    "%d must be greater than %d", readAddress, previousAddress);
 
-        if (readAddress <= trimMark.get()) {
-            throw new TrimmedException(String.format("current %d trimMark %s", readAddress, trimMark));
-        }
+            if (readAddress <= trimMark.get()) {
+                throw new TrimmedException(String.format("current %d trimMark %s", readAddress, trimMark));
+            }
+
+            stampedReads.add(stampedRead);
+            previousAddress = readAddress;
+        } while (stampedReads.size() < maxEntries && !addressesToRead.isEmpty());
 
         long startRead = System.nanoTime();
-        ILogData logData = addressSpaceView.read(readAddress, options);
+        List<ILogData> batch = new ArrayList<>(stampedReads.size());
+        if (stampedReads.size() == 1) {
+            batch.add(addressSpaceView.read(stampedReads.get(0).getAddress(), options));
+        } else {
+            List<Long> addresses = new ArrayList<>(stampedReads.size());
+            stampedReads.forEach(stampedRead -> addresses.add(stampedRead.getAddress()));
+            Map<Long, ILogData> readResult = addressSpaceView.read(addresses, options);
+            for (long address : addresses) {
+                Preconditions.checkState(readResult.containsKey(address), "Address %s missing from read", address);
+                batch.add(readResult.get(address));
+            }
+        }
         MicroMeterUtils.time(Duration.ofNanos(System.nanoTime() - startRead),"delta_stream.read");
 
-        if (!logData.isHole()) {
-            // if its not a hole then it must belong to our stream
-            Preconditions.checkState(logData.hasBackpointer(streamId), "%s must contain %s",
-                    logData.getBackpointerMap().keySet(), streamId);
+        for (int idx = 0; idx < batch.size(); idx++) {
+            ILogData logData = batch.get(idx);
+            long readAddress = stampedReads.get(idx).getAddress();
+
+            if (!logData.isHole()) {
+                // if its not a hole then it must belong to our stream
+                Preconditions.checkState(logData.hasBackpointer(streamId), "%s must contain %s",
+                        logData.getBackpointerMap().keySet(), streamId);
+            }
+
+            Preconditions.checkState(logData.getGlobalAddress().equals(readAddress));
+            // The delta stream shouldn't see any checkpoint entries
+            Preconditions.checkState(!logData.hasCheckpointMetadata(),
+                    "Address %s has checkpoint data", logData.getGlobalAddress());
         }
 
-        Preconditions.checkState(logData.getGlobalAddress().equals(readAddress));
-        // The delta stream shouldn't see any checkpoint entries
-        Preconditions.checkState(!logData.hasCheckpointMetadata(),
-                "Address %s has checkpoint data", logData.getGlobalAddress());
-        lastAddressRead.set(readAddress);
+        lastAddressRead.set(previousAddress);
 
         // Since this method is called by the consumer the queuing delay reflects the time
         // the time difference between when the address was read and when the address was discovered
-        MicroMeterUtils.time(Duration.ofNanos(System.nanoTime() - stampedRead.getTimestamp()),
-                "delta_stream.queuing_delay", "streamId", streamId.toString());
-        return logData;
+        for (TimeStampedRead stampedRead : stampedReads) {
+            MicroMeterUtils.time(Duration.ofNanos(System.nanoTime() - stampedRead.getTimestamp()),
+                    "delta_stream.queuing_delay", "streamId", streamId.toString());
+        }
+        return batch;
     }
 }
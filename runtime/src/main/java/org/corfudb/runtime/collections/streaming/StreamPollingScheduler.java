@@ -6,9 +6,11 @@ import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.common.metrics.micrometer.MicroMeterUtils;
 import org.corfudb.protocols.wireprotocol.StreamAddressRange;
+import org.corfudb.protocols.wireprotocol.StreamsAddressNotification;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.collections.StreamListener;
 import org.corfudb.runtime.exceptions.StreamingException;
+import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuInterruptedError;
 import org.corfudb.runtime.view.Address;
 import org.corfudb.runtime.view.SequencerView;
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
@@ -19,11 +21,15 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -63,6 +69,12 @@ import java.util.stream.Collectors;
  * it can, this prevents superfluous polling and overwhelming the listener. Furthermore, syncing and listener
  * notification is executed on a shared thread pool in round robin fashion, therefore if a stream produces
  * more deltas relative to other streams that particular stream will have more CPU time than other tasks.
+ * <p>
+ * Optionally, the scheduler can subscribe to push notifications from the sequencer for all the stream tags
+ * it manages. In that case, streams are only polled when the sequencer notified new allocations for them,
+ * which avoids querying the sequencer for idle streams and lets notified streams be polled right away.
+ * Since notifications can be lost (e.g., sequencer failover), all streams are still polled and the
+ * subscription refreshed on a longer fallback period.
  */
 
 
@@ -99,25 +111,84 @@ public class StreamPollingScheduler {
      */
     final Duration pollPeriod;
 
+    /**
+     * Maximum number of deltas that a task reads and delivers to its listener per dispatch
+     */
+    final int readBatchSize;
+
+    /**
+     * Whether streams are polled on sequencer notifications instead of on every tick
+     */
+    final boolean pushEnabled;
+
+    /**
+     * The frequency at which all streams are polled and the subscription is refreshed, when push is enabled
+     */
+    final Duration fallbackPollPeriod;
+
+    /**
+     * Last address notified by the sequencer for each subscribed stream tag
+     */
+    private final Map<UUID, Long> notifiedTails = new ConcurrentHashMap<>();
+
+    /**
+     * Whether a notification has been received and is waiting to be processed by the scheduler thread
+     */
+    private final AtomicBoolean notificationPending = new AtomicBoolean(false);
+
+    /**
+     * Set when the subscription doesn't reflect the registered tasks (or hasn't been acknowledged)
+     */
+    private volatile boolean subscriptionStale = true;
+
+    /**
+     * Time of the last cycle that polled all streams (only accessed by the scheduler thread)
+     */
+    private long lastFullPollTimeNs;
+
+    private final Consumer<StreamsAddressNotification> notificationConsumer = this::onNotification;
+
     private final SequencerView sequencerView;
     private final CorfuRuntime runtime;
 
     public StreamPollingScheduler(CorfuRuntime runtime, ScheduledExecutorService scheduler, ExecutorService workers,
                                   Duration pollPeriod, int pollBatchSize, int pollThreshold) {
+        this(runtime, scheduler, workers, pollPeriod, pollBatchSize, pollThreshold, 1);
+    }
+
+    public StreamPollingScheduler(CorfuRuntime runtime, ScheduledExecutorService scheduler, ExecutorService workers,
+                                  Duration pollPeriod, int pollBatchSize, int pollThreshold, int readBatchSize) {
+        this(runtime, scheduler, workers, pollPeriod, pollBatchSize, pollThreshold, readBatchSize,
+                false, pollPeriod);
+    }
+
+    public StreamPollingScheduler(CorfuRuntime runtime, ScheduledExecutorService scheduler, ExecutorService workers,
+                                  Duration pollPeriod, int pollBatchSize, int pollThreshold, int readBatchSize,
+                                  boolean pushEnabled, Duration fallbackPollPeriod) {
         Preconditions.checkArgument(pollBatchSize > 1, "pollBatchSize=%s has to be > 1",
                 pollBatchSize);
         Preconditions.checkArgument(pollThreshold > 1, "pollThreshold=%s has to be > 1",
                 pollThreshold);
         Preconditions.checkArgument(pollPeriod.toMillis() > 1, "pollPeriod=%s has to be > 1ms",
                 pollPeriod.toMillis());
+        Preconditions.checkArgument(readBatchSize > 0, "readBatchSize=%s has to be > 0",
+                readBatchSize);
+        Preconditions.checkArgument(fallbackPollPeriod.compareTo(pollPeriod) >= 0,
+                "fallbackPollPeriod=%s has to be >= pollPeriod=%s", fallbackPollPeriod, pollPeriod);
 
         this.scheduler = scheduler;
         this.workers = workers;
         this.pollPeriod = pollPeriod;
         this.pollBatchSize = pollBatchSize;
         this.pollThreshold = pollThreshold;
+        this.readBatchSize = readBatchSize;
+        this.pushEnabled = pushEnabled;
+        this.fallbackPollPeriod = fallbackPollPeriod;
         this.runtime = runtime;
         this.sequencerView = runtime.getSequencerView();
+        if (pushEnabled) {
+            runtime.registerStreamsNotificationConsumer(notificationConsumer);
+        }
         tick();
     }
 
@@ -126,9 +197,8 @@ public class StreamPollingScheduler {
         public void run() {
             try {
                 schedule();
-            } catch (InterruptedException ie) {
+            } catch (UnrecoverableCorfuInterruptedError ie) {
                 log.warn("Scheduler thread has been interrupted!", ie);
-                Thread.currentThread().interrupt();
             } catch (Throwable t) {
                 log.error("Unexpected throwable!", t);
             }
@@ -152,8 +222,9 @@ public class StreamPollingScheduler {
                         "StreamingManager::subscribe: listener already registered " + streamListener);
             }
             StreamingTask task = new StreamingTask(runtime, workers, namespace, streamTag, streamListener,
-                    tablesOfInterest, lastAddress, bufferSize);
+                    tablesOfInterest, lastAddress, bufferSize, readBatchSize);
             allTasks.put(streamListener, task);
+            subscriptionStale = true;
             log.info("addTask: added {} {} {} address {}", streamListener, namespace, streamTag, lastAddress);
             allTasks.notifyAll();
         }
@@ -187,6 +258,55 @@ public class StreamPollingScheduler {
         return getTasks(status, t -> true);
     }
 
+    /**
+     * Invoked (on a netty event loop) when the sequencer pushes a notification, it records the
+     * notified tails and wakes up the scheduler thread to poll the notified streams.
+     */
+    private void onNotification(StreamsAddressNotification notification) {
+        notification.getStreamTails().forEach((streamId, tail) -> notifiedTails.merge(streamId, tail, Math::max));
+        MicroMeterUtils.counterIncrement(1, "StreamPollingScheduler.notifications");
+
+        if (notificationPending.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::processNotifications);
+            } catch (RejectedExecutionException ree) {
+                log.debug("onNotification: scheduler is shutdown, dropping notification.");
+            }
+        }
+    }
+
+    private void processNotifications() {
+        notificationPending.set(false);
+        scheduleTasks(this::hasNotifiedDeltas);
+    }
+
+    private boolean hasNotifiedDeltas(StreamingTask task) {
+        Long notifiedTail = notifiedTails.get(task.getStream().getStreamId());
+        return notifiedTail != null && notifiedTail > task.getStream().getMaxAddressSeen();
+    }
+
+    private boolean isFallbackPollDue(long nowNs) {
+        return !pushEnabled || subscriptionStale || nowNs - lastFullPollTimeNs >= fallbackPollPeriod.toNanos();
+    }
+
+    /**
+     * (Re-)subscribe to notifications for the stream tags of all registered tasks. If the subscription
+     * fails, it stays stale and all streams keep being polled on every tick until it succeeds.
+     */
+    private void refreshSubscription() {
+        Set<UUID> streamTags = allTasks.values().stream()
+                .map(task -> task.getStream().getStreamId())
+                .collect(Collectors.toSet());
+        try {
+            subscriptionStale = false;
+            sequencerView.subscribeStreams(streamTags);
+        } catch (Exception e) {
+            subscriptionStale = true;
+            log.warn("refreshSubscription: failed to subscribe to {} streams, falling back to polling.",
+                    streamTags.size(), e);
+        }
+    }
+
     private List<StreamAddressRange> getPollQueries(List<StreamingTask> tasks) {
         List<StreamAddressRange> pollRequests = new ArrayList<>(tasks.size());
         for (StreamingTask task : tasks) {
@@ -318,9 +438,10 @@ public class StreamPollingScheduler {
      * decisions periodically. If there are no threads it will just block. The scheduler mainly does three things,
      * it discovers new deltas by querying the sequencer and passes them to the DeltaStreams, it schedules
      * StreamingTasks to consume new deltas and propagates errors to listeners and unregisters them (i.e., remove
-     * them from the scheduler).
+     * them from the scheduler). When push notifications are enabled, only notified streams are polled, except
+     * on every fallback poll period.
      */
-    public void schedule() throws InterruptedException {
+    public void schedule() {
         long cycleStartTimeNs = 0L;
 
         try {
@@ -329,9 +450,37 @@ public class StreamPollingScheduler {
 
             cycleStartTimeNs = System.nanoTime();
 
-            final List<StreamingTask> runnableTasks = getTasks(StreamStatus.RUNNABLE);
+            if (isFallbackPollDue(cycleStartTimeNs)) {
+                lastFullPollTimeNs = cycleStartTimeNs;
+                if (pushEnabled) {
+                    refreshSubscription();
+                }
+                scheduleTasks(t -> true);
+            } else {
+                scheduleTasks(this::hasNotifiedDeltas);
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new UnrecoverableCorfuInterruptedError(ie);
+        } finally {
+            long elapsedTimeNs = cycleStartTimeNs != 0L ? (System.nanoTime() - cycleStartTimeNs) : 0L;
+            MicroMeterUtils.time(Duration.ofNanos(elapsedTimeNs), "schedule.cycle");
+            long nextSchedule = Math.max(0, pollPeriod.toNanos() - elapsedTimeNs);
+            Preconditions.checkState(nextSchedule <= pollPeriod.toNanos());
+            scheduler.schedule(this::tick, nextSchedule, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Poll the tasks that match the filter, dispatch the ones that discovered deltas and handle failed tasks.
+     *
+     * @param pollFilter selects the tasks that should be polled in this cycle
+     */
+    private void scheduleTasks(Predicate<StreamingTask> pollFilter) {
+        try {
+            final List<StreamingTask> runnableTasks = getTasks(StreamStatus.RUNNABLE, pollFilter);
             final List<StreamingTask> syncingTasks = getTasks(StreamStatus.SYNCING,
-                    t -> t.getStream().availableSpace() >= pollThreshold);
+                    pollFilter.and(t -> t.getStream().availableSpace() >= pollThreshold));
             final List<StreamingTask> failedTasks = getTasks(StreamStatus.ERROR);
 
             runnableTasks.forEach(t -> {
@@ -351,8 +500,6 @@ public class StreamPollingScheduler {
 
             // handle tasks that have failed (i.e., remove them and propagate the errors to the listeners)
             handleFailures(failedTasks);
-        } catch (InterruptedException ie) {
-            throw ie;
         } catch (Exception e) {
             // In the event that scheduling fails due to an exception not related to a specific task
             // we'll error all tasks to give it the opportunity to recover
@@ -361,16 +508,13 @@ public class StreamPollingScheduler {
             getTasks(StreamStatus.SCHEDULING).forEach(t -> t.setError(e));
             getTasks(StreamStatus.SYNCING).forEach(t -> t.setError(e));
             handleFailures(getTasks(StreamStatus.ERROR));
-        } finally {
-            long elapsedTimeNs = cycleStartTimeNs != 0L ? (System.nanoTime() - cycleStartTimeNs) : 0L;
-            MicroMeterUtils.time(Duration.ofNanos(elapsedTimeNs), "schedule.cycle");
-            long nextSchedule = Math.max(0, pollPeriod.toNanos() - elapsedTimeNs);
-            Preconditions.checkState(nextSchedule <= pollPeriod.toNanos());
-            scheduler.schedule(this::tick, nextSchedule, TimeUnit.NANOSECONDS);
         }
     }
 
     public void shutdown() {
+        if (pushEnabled) {
+            runtime.deregisterStreamsNotificationConsumer(notificationConsumer);
+        }
         this.allTasks.clear();
         this.scheduler.shutdown();
         this.workers.shutdown();
@@ -53,7 +53,10 @@ public class StreamingManager {
         this.scheduler = new StreamPollingScheduler(runtime, schedulerThread, workersPool,
                 runtime.getParameters().getStreamingPollPeriod(),
                 runtime.getParameters().getStreamingSchedulerPollBatchSize(),
-                runtime.getParameters().getStreamingSchedulerPollThreshold());
+                runtime.getParameters().getStreamingSchedulerPollThreshold(),
+                runtime.getParameters().getStreamingReadBatchSize(),
+                runtime.getParameters().isStreamingPushEnabled(),
+                runtime.getParameters().getStreamingFallbackPollPeriod());
     }
 
     /**
@@ -69,6 +69,10 @@ public class StreamingTask<K extends Message, V extends Message, M extends Messa
 
     private final AtomicReference<StreamStatus> status;
 
+    // Maximum number of deltas read and delivered to the listener on every run, when larger than one
+    // the listener is notified through its batch callback.
+    private final int batchSize;
+
     private volatile Throwable error;
 
     public StreamingTask(CorfuRuntime runtime, ExecutorService workerPool, String namespace, String streamTag,
@@ -76,7 +80,18 @@ public class StreamingTask<K extends Message, V extends Message, M extends Messa
                          List<String> tablesOfInterest,
                          long address,
                          int bufferSize) {
+        this(runtime, workerPool, namespace, streamTag, listener, tablesOfInterest, address, bufferSize, 1);
+    }
+
+    public StreamingTask(CorfuRuntime runtime, ExecutorService workerPool, String namespace, String streamTag,
+                         StreamListener listener,
+                         List<String> tablesOfInterest,
+                         long address,
+                         int bufferSize,
+                         int batchSize) {
+        Preconditions.checkArgument(batchSize > 0, "batchSize=%s has to be > 0", batchSize);
 
+        this.batchSize = batchSize;
         this.runtime = runtime;
         this.workerPool = workerPool;
         this.listenerId = String.format("listener_%s_%s_%s", listener, namespace, streamTag);
@@ -187,14 +202,31 @@ public class StreamingTask<K extends Message, V extends Message, M extends Messa
     private void produce() {
         Preconditions.checkState(status.get() == StreamStatus.SYNCING);
         Preconditions.checkState(stream.hasNext());
-        ILogData logData = stream.next();
-        Optional<CorfuStreamEntries> streamEntries = transform(logData);
-        log.debug("producing {}@{} {} on {}", logData.getEpoch(), logData.getGlobalAddress(), logData.getType(), listenerId);
-
-        streamEntries.ifPresent(e -> MicroMeterUtils.time(() -> listener.onNextEntry(e),
-                "stream.notify.duration",
-                "listener",
-                listenerId));
+
+        if (batchSize == 1) {
+            ILogData logData = stream.next();
+            Optional<CorfuStreamEntries> streamEntries = transform(logData);
+            log.debug("producing {}@{} {} on {}", logData.getEpoch(), logData.getGlobalAddress(), logData.getType(),
+                    listenerId);
+
+            streamEntries.ifPresent(e -> MicroMeterUtils.time(() -> listener.onNextEntry(e),
+                    "stream.notify.duration",
+                    "listener",
+                    listenerId));
+        } else {
+            List<ILogData> batch = stream.nextBatch(batchSize);
+            List<CorfuStreamEntries> batchEntries = new ArrayList<>(batch.size());
+            batch.forEach(logData -> transform(logData).ifPresent(batchEntries::add));
+            log.debug("producing batch [{}, {}] of {} entries on {}", batch.get(0).getGlobalAddress(),
+                    batch.get(batch.size() - 1).getGlobalAddress(), batch.size(), listenerId);
+
+            if (!batchEntries.isEmpty()) {
+                MicroMeterUtils.time(() -> listener.onNextBatch(batchEntries),
+                        "stream.notify.duration",
+                        "listener",
+                        listenerId);
+            }
+        }
 
         // Re-schedule, give other streams a chance to produce
         if (stream.hasNext()) {
@@ -0,0 +1,145 @@
+package org.corfudb.runtime.object;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.common.metrics.micrometer.MeterHandles;
+import org.corfudb.common.metrics.micrometer.TimerHandle;
+import org.corfudb.protocols.wireprotocol.TokenResponse;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuInterruptedError;
+import org.corfudb.util.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Syncs the objects opened on the streams selected by the mvoPrefetchStreams runtime parameter
+ * in the background, so that the first transaction accessing them after a burst of writes does
+ * not pay the whole catch-up cost inline.
+ *
+ * <p>On every cycle, the tails of the selected streams are discovered with a single sequencer
+ * query, and every object behind its stream tail is synced up to it. The prefetcher thread
+ * then sleeps for at least mvoPrefetchPeriod, and long enough for the time spent syncing to
+ * stay within mvoPrefetchCpuBudget of the elapsed time.
+ */
+@Slf4j
+public class MVOPrefetcher {
+
+    private static final String STREAM_ID_TAG_NAME = "streamId";
+
+    /**
+     * Time spent syncing objects in the background, which transactions would have otherwise spent
+     * syncing them inline.
+     */
+    private static final MeterHandles.Family<TimerHandle> prefetchTimers =
+            MeterHandles.timers("mvo.prefetch.timer", STREAM_ID_TAG_NAME);
+
+    private final ScheduledExecutorService prefetchThread = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true)
+                    .setNameFormat("MVOPrefetcher")
+                    .build());
+
+    private final CorfuRuntime runtime;
+
+    @Getter
+    private volatile boolean started = false;
+
+    public MVOPrefetcher(CorfuRuntime runtime) {
+        this.runtime = runtime;
+    }
+
+    public void start() {
+        double cpuBudget = runtime.getParameters().getMvoPrefetchCpuBudget();
+        Preconditions.checkArgument(cpuBudget > 0 && cpuBudget <= 1,
+                "mvoPrefetchCpuBudget=%s has to be in (0, 1]", cpuBudget);
+        schedule(runtime.getParameters().getMvoPrefetchPeriod().toNanos());
+        this.started = true;
+    }
+
+    public void stop() {
+        prefetchThread.shutdownNow();
+        this.started = false;
+    }
+
+    private void schedule(long delayNs) {
+        try {
+            prefetchThread.schedule(this::runPrefetch, delayNs, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException ree) {
+            log.debug("schedule: prefetcher is shutdown.");
+        }
+    }
+
+    private void runPrefetch() {
+        long busyNs = 0;
+        try {
+            busyNs = prefetch();
+        } catch (Exception e) {
+            if (e.getCause() instanceof InterruptedException) {
+                throw new UnrecoverableCorfuInterruptedError((InterruptedException) e.getCause());
+            }
+            log.error("runPrefetch: encountered an error while prefetching objects", e);
+        }
+
+        // Idle for long enough that syncing only takes cpuBudget of the cycle
+        double cpuBudget = runtime.getParameters().getMvoPrefetchCpuBudget();
+        long idleNs = (long) (busyNs * (1 - cpuBudget) / cpuBudget);
+        schedule(Math.max(runtime.getParameters().getMvoPrefetchPeriod().toNanos(), idleNs));
+    }
+
+    /**
+     * Sync every opened object of a selected stream up to its stream tail.
+     *
+     * @return The time in nanoseconds spent syncing objects.
+     */
+    public long prefetch() {
+        Set<UUID> prefetchStreams = runtime.getParameters().getMvoPrefetchStreams();
+        List<MultiVersionObject<?>> objects = new ArrayList<>();
+        for (Object obj : runtime.getObjectsView().getObjectCache().values()) {
+            ICorfuSMRProxy<?> proxy = ((ICorfuSMR<?>) obj).getCorfuSMRProxy();
+            if (proxy instanceof MVOCorfuCompileProxy && prefetchStreams.contains(proxy.getStreamID())) {
+                objects.add(((MVOCorfuCompileProxy<?>) proxy).getUnderlyingMVO());
+            }
+        }
+
+        if (objects.isEmpty()) {
+            return 0;
+        }
+
+        TokenResponse tails = runtime.getSequencerView().query(objects.stream()
+                .map(MultiVersionObject::getID)
+                .distinct()
+                .toArray(UUID[]::new));
+
+        long busyNs = 0;
+        for (MultiVersionObject<?> object : objects) {
+            final long streamTail = tails.getStreamTail(object.getID());
+            if (streamTail <= object.getResolvedUpTo()) {
+                continue;
+            }
+
+            final long startTime = System.nanoTime();
+            try {
+                object.getSnapshotProxy(streamTail);
+            } catch (Exception e) {
+                if (e.getCause() instanceof InterruptedException) {
+                    throw e;
+                }
+                // The transactions accessing the object will retry the sync
+                log.warn("prefetch[{}]: failed to sync to {}", Utils.toReadableId(object.getID()), streamTail, e);
+            }
+            final long elapsedNs = System.nanoTime() - startTime;
+            prefetchTimers.get(object.getID()).record(elapsedNs);
+            busyNs += elapsedNs;
+        }
+
+        return busyNs;
+    }
+}
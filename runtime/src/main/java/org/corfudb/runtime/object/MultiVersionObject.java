@@ -3,7 +3,8 @@ package org.corfudb.runtime.object;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import lombok.extern.slf4j.Slf4j;
-import org.corfudb.common.metrics.micrometer.MicroMeterUtils;
+import org.corfudb.common.metrics.micrometer.MeterHandles;
+import org.corfudb.common.metrics.micrometer.TimerHandle;
 import org.corfudb.protocols.logprotocol.SMREntry;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.exceptions.TrimmedException;
@@ -16,10 +17,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
-import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.Supplier;
 
@@ -106,10 +110,37 @@ public class MultiVersionObject<T extends ICorfuSMR<T>> {
      */
     private final int trimRetry;
 
+    /**
+     * The executor which syncs this object forward after it served a stale version.
+     */
+    private final ExecutorService staleSyncExecutor;
+
+    /**
+     * The most recent timestamp this object served a stale version for.
+     */
+    private final AtomicLong staleSyncTarget = new AtomicLong(Address.NON_ADDRESS);
+
+    /**
+     * Whether a background sync of this object is pending on the staleSyncExecutor.
+     */
+    private final AtomicBoolean staleSyncScheduled = new AtomicBoolean(false);
+
     private static final String CORRECTNESS_LOG_MSG = "Version, {}";
 
     private static final String STREAM_ID_TAG_NAME = "streamId";
 
+    private static final TimerHandle cacheQueryTimer = MeterHandles.timer("mvo.cache.query");
+
+    private static final MeterHandles.Family<TimerHandle> lockWaitTimers =
+            MeterHandles.timers("mvo.lock.wait", STREAM_ID_TAG_NAME);
+
+    private static final MeterHandles.Family<TimerHandle> syncTimers =
+            MeterHandles.timers("mvo.sync.timer", STREAM_ID_TAG_NAME);
+
+    private final TimerHandle lockWaitTimer;
+
+    private final TimerHandle syncTimer;
+
     /**
      * Create a new MultiVersionObject.
      * @param corfuRuntime  The Corfu runtime containing the MVOCache used to store and
@@ -132,6 +163,9 @@ public class MultiVersionObject<T extends ICorfuSMR<T>> {
         this.currentObject = newObjectFn.get();
         this.mvoCache = corfuRuntime.getObjectsView().getMvoCache();
         this.trimRetry = corfuRuntime.getParameters().getTrimRetry();
+        this.staleSyncExecutor = corfuRuntime.getStaleSyncExecutor();
+        this.lockWaitTimer = lockWaitTimers.get(smrStream.getID());
+        this.syncTimer = syncTimers.get(smrStream.getID());
         wrapperObject.closeWrapper();
     }
 
@@ -176,10 +210,9 @@ public class MultiVersionObject<T extends ICorfuSMR<T>> {
             lockTs = lock.tryConvertToWriteLock(lockTs);
 
             if (lockTs == 0) {
-                long startTime = System.nanoTime();
+                long startTime = lockWaitTimer.start();
                 lockTs = lock.writeLock();
-                MicroMeterUtils.time(Duration.ofNanos(System.nanoTime() - startTime),
-                        "mvo.lock.wait", STREAM_ID_TAG_NAME, getID().toString());
+                lockWaitTimer.stop(startTime);
             }
 
             // Check if our timestamp has since been materialized by another thread.
@@ -225,6 +258,102 @@ public class MultiVersionObject<T extends ICorfuSMR<T>> {
         }
     }
 
+    /**
+     * Obtain a snapshot proxy for the provided timestamp as {@link #getSnapshotProxy(long)} does, but
+     * without waiting for a sync when the object has already resolved a version at most maxStaleness
+     * addresses behind the timestamp. That version is served instead, and the object is synced up to
+     * the timestamp in the background.
+     * @param timestamp    The desired version of the object.
+     * @param maxStaleness How many addresses behind the timestamp the served version may be.
+     * @return A snapshot proxy containing the most recent state of the object for the provided timestamp,
+     * or for a timestamp at most maxStaleness addresses older.
+     */
+    public ICorfuSMRSnapshotProxy<T> getSnapshotProxy(long timestamp, long maxStaleness) {
+        if (maxStaleness <= 0 || timestamp == Address.NON_EXIST || timestamp == Address.NON_ADDRESS) {
+            return getSnapshotProxy(timestamp);
+        }
+
+        long lockTs = lock.tryOptimisticRead();
+        if (lockTs != 0) {
+            try {
+                Optional<ICorfuSMRSnapshotProxy<T>> snapshot = getFromCacheUnsafe(
+                        new VersionedObjectIdentifier(getID(), timestamp), lockTs);
+                if (snapshot.isPresent()) {
+                    return snapshot.get();
+                }
+
+                snapshot = getStaleUnsafe(timestamp, maxStaleness, lockTs);
+                if (snapshot.isPresent()) {
+                    syncInBackground(timestamp);
+                    return snapshot.get();
+                }
+            } catch (Exception e) {
+                if (lock.validate(lockTs)) {
+                    throw e;
+                }
+            }
+        }
+
+        return getSnapshotProxy(timestamp);
+    }
+
+    /**
+     * Attempt to retrieve the current version of this object, if it is at most maxStaleness
+     * addresses behind the provided timestamp.
+     * @param timestamp    The desired version of the object.
+     * @param maxStaleness How many addresses behind the timestamp the current version may be.
+     * @param lockTs       The stamp previously obtained from the stamped lock.
+     * @return If available, a snapshot proxy containing the current state of the object.
+     */
+    private Optional<ICorfuSMRSnapshotProxy<T>> getStaleUnsafe(long timestamp, long maxStaleness, long lockTs) {
+        // The current object reflects every update up to resolvedUpTo, even if the
+        // last update to this stream was materialized at an earlier address.
+        final long resolvedTs = resolvedUpTo;
+        final long streamTs = materializedUpTo;
+        final T versionedObject = currentObject;
+
+        // A timestamp which is already resolved has to be served from its own version.
+        if (resolvedTs == Address.NON_ADDRESS || timestamp <= resolvedTs || timestamp - resolvedTs > maxStaleness
+                || !lock.validate(lockTs)) {
+            return Optional.empty();
+        }
+
+        if (log.isTraceEnabled()) {
+            log.trace("SnapshotProxy[{}] stale request at {} for {}", Utils.toReadableId(getID()), streamTs, timestamp);
+        }
+
+        correctnessLogger.trace(CORRECTNESS_LOG_MSG, streamTs);
+        return Optional.of(new SnapshotProxy<>(versionedObject, streamTs, upcallTargetMap));
+    }
+
+    /**
+     * Sync this object up to the provided timestamp on the staleSyncExecutor. Requests which
+     * arrive while a sync is pending are coalesced into that sync.
+     * @param timestamp The timestamp to sync up to.
+     */
+    private void syncInBackground(long timestamp) {
+        staleSyncTarget.accumulateAndGet(timestamp, Long::max);
+        if (!staleSyncScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            staleSyncExecutor.execute(() -> {
+                // Cleared before reading the target, so that a later target schedules another sync.
+                staleSyncScheduled.set(false);
+                final long target = staleSyncTarget.get();
+                try {
+                    getSnapshotProxy(target);
+                } catch (Exception e) {
+                    log.warn("SnapshotProxy[{}] background sync to {} failed", Utils.toReadableId(getID()), target, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The runtime is shutting down.
+            staleSyncScheduled.set(false);
+        }
+    }
+
     /**
      * Determine if a particular timestamp/version has been materialized by the MVO.
      * @param timestamp The timestamp that needs determination.
@@ -253,7 +382,7 @@ public class MultiVersionObject<T extends ICorfuSMR<T>> {
      * the provided timestamp.
      */
     private Optional<ICorfuSMRSnapshotProxy<T>> getFromCacheUnsafe(@Nonnull VersionedObjectIdentifier voId, long lockTs) {
-        long startTime = System.nanoTime();
+        long startTime = cacheQueryTimer.start();
 
         try {
             if (isTimestampMaterializedUnsafe(voId.getVersion())) {
@@ -287,7 +416,7 @@ public class MultiVersionObject<T extends ICorfuSMR<T>> {
 
             return Optional.empty();
         } finally {
-            MicroMeterUtils.time(Duration.ofNanos(System.nanoTime() - startTime), "mvo.cache.query");
+            cacheQueryTimer.stop(startTime);
         }
 
     }
@@ -346,7 +475,7 @@ public class MultiVersionObject<T extends ICorfuSMR<T>> {
                     }
                 });
 
-        MicroMeterUtils.time(syncStreamRunnable, "mvo.sync.timer", STREAM_ID_TAG_NAME, getID().toString());
+        syncTimer.record(syncStreamRunnable);
     }
 
     /**
@@ -384,6 +513,19 @@ public class MultiVersionObject<T extends ICorfuSMR<T>> {
         return smrStream.pos();
     }
 
+    /**
+     * Get the timestamp up to which this object has been synced, without acquiring the lock.
+     * Like {@link #getStaleUnsafe}, the timestamp is read under an optimistic stamp, so that a
+     * timestamp observed while a sync or a reset holds the lock is not reported.
+     * @return The timestamp up to which this object has been synced, or Address.NON_ADDRESS
+     *         if the lock was held while reading it.
+     */
+    long getResolvedUpTo() {
+        final long lockTs = lock.tryOptimisticRead();
+        final long resolvedTs = resolvedUpTo;
+        return lock.validate(lockTs) ? resolvedTs : Address.NON_ADDRESS;
+    }
+
     /**
      * Run GC on this object.
      *
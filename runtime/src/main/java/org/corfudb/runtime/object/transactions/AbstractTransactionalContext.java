@@ -163,7 +163,7 @@ public abstract class AbstractTransactionalContext implements
         ICorfuSMRSnapshotProxy<T> snapshotProxy = (ICorfuSMRSnapshotProxy<T>) snapshotProxyMap.get(proxy);
         final MVOCorfuCompileProxy<T> persistentProxy = (MVOCorfuCompileProxy<T>) proxy;
         if (snapshotProxy == null) {
-            snapshotProxy = persistentProxy.getUnderlyingMVO().getSnapshotProxy(ts);
+            snapshotProxy = persistentProxy.getUnderlyingMVO().getSnapshotProxy(ts, transaction.getMaxStaleness());
             snapshotProxyMap.put(proxy, snapshotProxy);
         }
 
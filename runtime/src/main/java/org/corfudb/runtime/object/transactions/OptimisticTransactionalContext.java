@@ -179,6 +179,7 @@ public class OptimisticTransactionalContext extends AbstractTransactionalContext
     public <T extends ICorfuSMR<T>> long logUpdate(ICorfuSMRProxyInternal<T> proxy,
                                                    SMREntry updateEntry,
                                                    Object[] conflictObjects) {
+        checkWritable();
         long startLogUpdateTime = System.nanoTime();
 
         try {
@@ -201,19 +202,33 @@ public class OptimisticTransactionalContext extends AbstractTransactionalContext
 
     @Override
     public void logUpdate(UUID streamId, SMREntry updateEntry) {
+        checkWritable();
         addToWriteSet(streamId, updateEntry);
     }
 
     @Override
     public void logUpdate(UUID streamId, SMREntry updateEntry, List<UUID> streamTags) {
+        checkWritable();
         addToWriteSet(streamId, updateEntry, streamTags);
     }
 
     @Override
     public void logUpdate(UUID streamId, List<SMREntry> updateEntries) {
+        checkWritable();
         addToWriteSet(streamId, updateEntries);
     }
 
+    /**
+     * A transaction which may read objects behind its snapshot is read-only: its writes would
+     * be validated at the snapshot, and miss the conflicts with the updates it did not observe.
+     */
+    private void checkWritable() {
+        if (getTransaction().getMaxStaleness() > 0) {
+            throw new UnsupportedOperationException(
+                    "Can't modify object during a bounded-staleness transaction!");
+        }
+    }
+
     /**
      * Commit a transaction into this transaction by merging the read/write
      * sets.
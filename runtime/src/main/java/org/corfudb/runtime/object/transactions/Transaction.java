@@ -40,6 +40,14 @@ public class Transaction {
     @Default
     final Token snapshot = Token.UNINITIALIZED;
 
+    /**
+     * How many addresses behind the snapshot an object which is
+     * being synced may be read at, 0 if reads are never stale.
+     * A transaction with stale reads is read-only.
+     */
+    @Default
+    final long maxStaleness = 0L;
+
     /**
      * Start the transaction with the parameters given
      * to the builder.
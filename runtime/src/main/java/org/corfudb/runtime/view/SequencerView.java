@@ -138,6 +138,19 @@ public class SequencerView extends AbstractView {
                 .nextToken(Lists.newArrayList(streamIDs), numTokens, conflictInfo)));
     }
 
+    /**
+     * Subscribe to push notifications from the primary sequencer for the given streams. The
+     * subscription replaces any previous one from this runtime, and it is lost on sequencer
+     * failover, so callers are expected to refresh it periodically.
+     *
+     * @param streamIds streams (tags) to be notified about, an empty set cancels the subscription.
+     * @return the global log tail at the time the subscription was registered.
+     */
+    public long subscribeStreams(Set<UUID> streamIds) {
+        return layoutHelper(e -> CFUtils.getUninterruptibly(e.getPrimarySequencerClient()
+                .subscribeStreams(streamIds)));
+    }
+
     public void trimCache(long address) {
         runtime.getLayoutView().getRuntimeLayout().getPrimarySequencerClient().trimCache(address);
     }
@@ -2,6 +2,7 @@ package org.corfudb.runtime.view;
 
 import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
+import org.corfudb.protocols.logprotocol.LogEntry;
 import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
@@ -141,6 +142,9 @@ public class StreamsView extends AbstractView {
                        @Nonnull UUID... streamIDs) {
 
         final boolean serializeMetadata = false;
+        if (runtime.getParameters().isCompactSmrEntryEncoding() && object instanceof LogEntry) {
+            ((LogEntry) object).setCompactEncoding(true);
+        }
         final LogData ld = new LogData(DataType.DATA, object, runtime.getParameters().getCodecType());
         TokenResponse tokenResponse = null;
 
@@ -1,6 +1,9 @@
 package org.corfudb.runtime.view;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import com.google.common.reflect.TypeToken;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.Any;
 import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
 import com.google.protobuf.Descriptors.Descriptor;
@@ -24,11 +27,13 @@ import org.corfudb.runtime.collections.PersistedStreamingMap;
 import org.corfudb.runtime.collections.PersistentCorfuTable;
 import org.corfudb.runtime.collections.StreamingMap;
 import org.corfudb.runtime.collections.Table;
+import org.corfudb.runtime.collections.TableDefinition;
 import org.corfudb.runtime.collections.TableOptions;
 import org.corfudb.runtime.collections.TableParameters;
 import org.corfudb.runtime.collections.streaming.StreamingManager;
 import org.corfudb.runtime.exceptions.SerializerException;
 import org.corfudb.runtime.exceptions.TransactionAbortedException;
+import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuInterruptedError;
 import org.corfudb.runtime.object.transactions.TransactionType;
 import org.corfudb.runtime.object.transactions.TransactionalContext;
 import org.corfudb.runtime.view.ObjectsView.StreamTagInfo;
@@ -56,6 +61,10 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -88,6 +97,11 @@ public class TableRegistry {
      */
     private static final String STREAM_TAG_PREFIX = "stream_tag$";
 
+    /**
+     * The maximum number of tables registered in a single transaction by openTables.
+     */
+    private static final int REGISTER_TABLES_BATCH_SIZE = 100;
+
     /**
      * Connected runtime instance.
      */
@@ -207,6 +221,41 @@ public class TableRegistry {
                        @Nullable Class<M> metadataClass,
                        @Nonnull final TableOptions tableOptions)
             throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        registerTables(Collections.singletonList(
+                getTableRecord(namespace, tableName, keyClass, payloadClass, metadataClass, tableOptions)));
+    }
+
+    /**
+     * The record of a table in the Table Registry, along with the protobuf file descriptors of its schemas.
+     */
+    private static class TableRecord {
+        private final TableName tableName;
+        private final CorfuRecord<TableDescriptors, TableMetadata> record;
+        private final Map<ProtobufFileName, CorfuRecord<ProtobufFileDescriptor, TableMetadata>> descriptors;
+
+        private TableRecord(TableName tableName, CorfuRecord<TableDescriptors, TableMetadata> record,
+                            Map<ProtobufFileName, CorfuRecord<ProtobufFileDescriptor, TableMetadata>> descriptors) {
+            this.tableName = tableName;
+            this.record = record;
+            this.descriptors = descriptors;
+        }
+    }
+
+    /**
+     * Build the record of a table in the Table Registry.
+     *
+     * @throws NoSuchMethodException     If this is not a protobuf message.
+     * @throws InvocationTargetException If this is not a protobuf message.
+     * @throws IllegalAccessException    If this is not a protobuf message.
+     */
+    private <K extends Message, V extends Message, M extends Message>
+    TableRecord getTableRecord(@Nonnull String namespace,
+                               @Nonnull String tableName,
+                               @Nonnull Class<K> keyClass,
+                               @Nonnull Class<V> payloadClass,
+                               @Nullable Class<M> metadataClass,
+                               @Nonnull final TableOptions tableOptions)
+            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
 
         TableName tableNameKey = TableName.newBuilder()
                 .setNamespace(namespace)
@@ -247,6 +296,43 @@ public class TableRegistry {
         }
         TableMetadata tableMetadata = metadataBuilder.build();
 
+        return new TableRecord(tableNameKey, new CorfuRecord<>(tableDescriptors, tableMetadata), allDescriptors);
+    }
+
+    /**
+     * Register tables in the internal Table Registry, in transactions of up to REGISTER_TABLES_BATCH_SIZE
+     * tables. The protobuf file descriptors shared by the tables are validated (and updated) only once.
+     *
+     * @param tableRecords the records of the tables to register.
+     */
+    private void registerTables(List<TableRecord> tableRecords) {
+        // The protobuf files validated by the committed transactions, and the ones among them which were updated
+        Set<ProtobufFileName> checkedFiles = new HashSet<>();
+        Set<ProtobufFileName> changedFiles = new HashSet<>();
+
+        for (List<TableRecord> batch : Lists.partition(tableRecords, REGISTER_TABLES_BATCH_SIZE)) {
+            Map<ProtobufFileName, CorfuRecord<ProtobufFileDescriptor, TableMetadata>> batchDescriptors =
+                    new HashMap<>();
+            batch.forEach(tableRecord -> tableRecord.descriptors.forEach(batchDescriptors::putIfAbsent));
+            batchDescriptors.keySet().removeAll(checkedFiles);
+
+            changedFiles.addAll(registerTableBatch(batch, batchDescriptors, changedFiles));
+            checkedFiles.addAll(batchDescriptors.keySet());
+        }
+    }
+
+    /**
+     * Register a batch of tables in a single transaction.
+     *
+     * @param batch        the records of the tables to register.
+     * @param descriptors  the protobuf file descriptors of the tables which weren't validated yet.
+     * @param changedFiles the protobuf files which were updated by previous batches.
+     * @return the protobuf files updated by this batch.
+     */
+    private Set<ProtobufFileName> registerTableBatch(
+            List<TableRecord> batch,
+            Map<ProtobufFileName, CorfuRecord<ProtobufFileDescriptor, TableMetadata>> descriptors,
+            Set<ProtobufFileName> changedFiles) {
         int numRetries = 9; // Since this is an internal transaction, retry a few times before giving up.
         while (numRetries-- > 0) {
             // Schema validation to ensure that there is either proper modification of the schema across open calls.
@@ -269,29 +355,33 @@ public class TableRegistry {
                         .type(TransactionType.WRITE_AFTER_WRITE)
                         .build()
                         .begin();
-                CorfuRecord<TableDescriptors, TableMetadata> oldRecord =
-                        this.registryTable.get(tableNameKey);
-                CorfuRecord<TableDescriptors, TableMetadata> newRecord =
-                        new CorfuRecord<>(tableDescriptors, tableMetadata);
-                boolean protoFileChanged = tryUpdateTableSchemas(allDescriptors);
-
-                String fullyQualifiedTableName = getFullyQualifiedTableName(namespace, tableName);
-                UUID streamId = CorfuRuntime.getStreamID(fullyQualifiedTableName);
-
-                if (oldRecord == null) {
-                    StreamAddressSpace streamAddressSpace = this.runtime.getSequencerView()
-                            .getStreamAddressSpace(new StreamAddressRange(streamId, Address.MAX, Address.NON_ADDRESS));
-                    if (streamAddressSpace.size() == 0
-                            && streamAddressSpace.getTrimMark() != Address.NON_ADDRESS) {
-                        log.info("Found trimmed table that is re-opened. Reset table {}", fullyQualifiedTableName);
-                        resetTrimmedTable(fullyQualifiedTableName);
+                Set<ProtobufFileName> batchChangedFiles = tryUpdateTableSchemas(descriptors);
+
+                for (TableRecord tableRecord : batch) {
+                    CorfuRecord<TableDescriptors, TableMetadata> oldRecord =
+                            this.registryTable.get(tableRecord.tableName);
+                    boolean protoFileChanged = tableRecord.descriptors.keySet().stream()
+                            .anyMatch(file -> batchChangedFiles.contains(file) || changedFiles.contains(file));
+
+                    String fullyQualifiedTableName = getFullyQualifiedTableName(tableRecord.tableName);
+                    UUID streamId = CorfuRuntime.getStreamID(fullyQualifiedTableName);
+
+                    if (oldRecord == null) {
+                        StreamAddressSpace streamAddressSpace = this.runtime.getSequencerView()
+                                .getStreamAddressSpace(new StreamAddressRange(streamId, Address.MAX,
+                                        Address.NON_ADDRESS));
+                        if (streamAddressSpace.size() == 0
+                                && streamAddressSpace.getTrimMark() != Address.NON_ADDRESS) {
+                            log.info("Found trimmed table that is re-opened. Reset table {}", fullyQualifiedTableName);
+                            resetTrimmedTable(fullyQualifiedTableName);
+                        }
+                    }
+                    if (oldRecord == null || protoFileChanged || tableRecordChanged(oldRecord, tableRecord.record)) {
+                        this.registryTable.insert(tableRecord.tableName, tableRecord.record);
                     }
-                }
-                if (oldRecord == null || protoFileChanged || tableRecordChanged(oldRecord, newRecord)) {
-                    this.registryTable.insert(tableNameKey, newRecord);
                 }
                 this.runtime.getObjectsView().TXEnd();
-                break;
+                return batchChangedFiles;
             } catch (TransactionAbortedException txAbort) {
                 if (numRetries <= 0) {
                     throw txAbort;
@@ -303,6 +393,7 @@ public class TableRegistry {
                 }
             }
         }
+        return Collections.emptySet();
     }
 
     /**
@@ -403,11 +494,11 @@ public class TableRegistry {
      *
      * @param allTableDescriptors  - A map of all the names of the protobuf files with their
      *                               protobuf file descriptors.
-     * @return true if a schema change was detected and new schema was updated, false otherwise
+     * @return the protobuf files whose schema change was detected and updated
      */
-    private boolean tryUpdateTableSchemas(Map<ProtobufFileName,
-                                          CorfuRecord<ProtobufFileDescriptor, TableMetadata>> allTableDescriptors) {
-        boolean schemaChangeDetected = false;
+    private Set<ProtobufFileName> tryUpdateTableSchemas(Map<ProtobufFileName,
+            CorfuRecord<ProtobufFileDescriptor, TableMetadata>> allTableDescriptors) {
+        Set<ProtobufFileName> changedFiles = new HashSet<>();
         for (Map.Entry<ProtobufFileName, CorfuRecord<ProtobufFileDescriptor, TableMetadata>> e :
                 allTableDescriptors.entrySet()) {
             ProtobufFileName protoName = e.getKey();
@@ -428,7 +519,7 @@ public class TableRegistry {
                     currentSchema.getPayload().getVersion() == newProtoFd.getPayload().getVersion()) {
                 continue; // old schema is same as the new schema, avoid doing an expensive I/O
             } // else this process is running a new code version, conservatively update the schemas
-            schemaChangeDetected = true;
+            changedFiles.add(protoName);
             this.protobufDescriptorTable.insert(protoName, newProtoFd);
             if (currentSchema != null) {
                 log.info("Schema change in {}: {} -> {}", protoName,
@@ -437,7 +528,7 @@ public class TableRegistry {
                 log.debug("New Descriptor {}", newProtoFd.getPayload().getFileDescriptor());
             }
         }
-        return schemaChangeDetected;
+        return changedFiles;
     }
 
     /**
@@ -582,6 +673,92 @@ public class TableRegistry {
                              @Nullable final Class<M> mClass,
                              @Nonnull final TableOptions tableOptions)
             throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Table<K, V, M> table = openTableObject(namespace, tableName, kClass, vClass, mClass, tableOptions);
+        registerTable(namespace, tableName, kClass, vClass, mClass, tableOptions);
+        return table;
+    }
+
+    /**
+     * Opens many Corfu tables at once. The tables are opened in parallel, and then registered in a few
+     * transactions, which validate the protobuf file descriptors shared by the tables only once.
+     *
+     * @param tableDefinitions Definitions of the tables to open.
+     * @return Table instances, in the order of their definitions.
+     * @throws NoSuchMethodException     If a schema is not a protobuf message.
+     * @throws InvocationTargetException If a schema is not a protobuf message.
+     * @throws IllegalAccessException    If a schema is not a protobuf message.
+     */
+    public List<Table<Message, Message, Message>> openTables(
+            @Nonnull final List<TableDefinition<?, ?, ?>> tableDefinitions)
+            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        if (TransactionalContext.isInTransaction()) {
+            throw new IllegalThreadStateException("openTables: Called on an existing transaction");
+        }
+        if (tableDefinitions.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final int parallelism = Math.min(tableDefinitions.size(), Runtime.getRuntime().availableProcessors());
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("OpenTables-%d")
+                .build());
+        List<Table<Message, Message, Message>> tables = new ArrayList<>();
+        List<TableRecord> tableRecords = new ArrayList<>();
+        try {
+            List<Future<Table<Message, Message, Message>>> openedTables = new ArrayList<>();
+            List<Future<TableRecord>> builtRecords = new ArrayList<>();
+            for (TableDefinition<?, ?, ?> definition : tableDefinitions) {
+                openedTables.add(executor.submit(() -> (Table<Message, Message, Message>) openTableObject(
+                        definition.getNamespace(), definition.getTableName(), definition.getKClass(),
+                        definition.getVClass(), definition.getMClass(), definition.getTableOptions())));
+                builtRecords.add(executor.submit(() -> getTableRecord(
+                        definition.getNamespace(), definition.getTableName(), definition.getKClass(),
+                        definition.getVClass(), definition.getMClass(), definition.getTableOptions())));
+            }
+            for (int i = 0; i < tableDefinitions.size(); i++) {
+                tables.add(getOpened(openedTables.get(i)));
+                tableRecords.add(getOpened(builtRecords.get(i)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        registerTables(tableRecords);
+        return tables;
+    }
+
+    /**
+     * Wait for a table opened by openTables, and rethrow its failure as thrown by openTable.
+     */
+    private static <T> T getOpened(Future<T> future)
+            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        try {
+            return future.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new UnrecoverableCorfuInterruptedError("Interrupted while opening tables", ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            Throwables.throwIfInstanceOf(cause, NoSuchMethodException.class);
+            Throwables.throwIfInstanceOf(cause, InvocationTargetException.class);
+            Throwables.throwIfInstanceOf(cause, IllegalAccessException.class);
+            Throwables.throwIfUnchecked(cause);
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Opens the table object of a Corfu table, without registering it.
+     */
+    private <K extends Message, V extends Message, M extends Message>
+    Table<K, V, M> openTableObject(@Nonnull final String namespace,
+                                   @Nonnull final String tableName,
+                                   @Nonnull final Class<K> kClass,
+                                   @Nonnull final Class<V> vClass,
+                                   @Nullable final Class<M> mClass,
+                                   @Nonnull final TableOptions tableOptions)
+            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
 
         // Register the schemas to schema table.
         if (kClass == null) {
@@ -655,8 +832,6 @@ public class TableRegistry {
                 streamTagIdsForTable,
                 mapSupplier);
         tableMap.put(fullyQualifiedTableName, (Table<Message, Message, Message>) table);
-
-        registerTable(namespace, tableName, kClass, vClass, mClass, tableOptions);
         return table;
     }
 
@@ -7,6 +7,7 @@ import lombok.Setter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.protocols.logprotocol.CheckpointEntry;
+import org.corfudb.protocols.logprotocol.LogEntry;
 import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
@@ -25,6 +26,8 @@ import org.corfudb.util.Utils;
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
@@ -179,6 +182,9 @@ public abstract class AbstractQueuedStreamView extends
     public long append(Object object,
                        Function<TokenResponse, Boolean> acquisitionCallback,
                        Function<TokenResponse, Boolean> deacquisitionCallback) {
+        if (runtime.getParameters().isCompactSmrEntryEncoding() && object instanceof LogEntry) {
+            ((LogEntry) object).setCompactEncoding(true);
+        }
         final LogData ld = new LogData(DataType.DATA, object, runtime.getParameters().getCodecType());
 
         // Opening serialization handle before acquiring token, this way we prevent the
@@ -639,6 +645,9 @@ public abstract class AbstractQueuedStreamView extends
     // Keeps the latest valid checkpoint (based on the snapshot it covers)
     private StreamCheckpoint latestValidCheckpoint = new StreamCheckpoint();
 
+    // Keeps all the checkpoints found while scanning, as incremental checkpoints require previous checkpoints
+    private Map<UUID, StreamCheckpoint> scannedCheckpoints = new HashMap<>();
+
     /**
      * Resolve all potential checkpoints for the given max global.
      *
@@ -655,6 +664,9 @@ public abstract class AbstractQueuedStreamView extends
      * | CP1 (snapshot 15) |  |  |  | CP2 (snapshot 10) |
      * +------------------------------------------------+
      *
+     * An incremental checkpoint only holds the keys changed since its previous checkpoint, so the
+     * checkpoints it chains back to, up to a full (base) checkpoint, are kept as well.
+     *
      * @param context this stream's current context
      * @param data checkpoint log data entry
      * @param maxGlobal maximum global address to resolve this stream up to.
@@ -665,6 +677,18 @@ public abstract class AbstractQueuedStreamView extends
     protected boolean scanCheckpointStream(final QueuedStreamContext context, ILogData data,
                                            long maxGlobal) {
         if (data.hasCheckpointMetadata()) {
+            // CONTINUATION entries are accounted from their metadata, so that scanning a checkpoint
+            // doesn't deserialize its (possibly large) payloads before it is even selected.
+            if (data.getCheckpointType() == CheckpointEntry.CheckpointEntryType.CONTINUATION) {
+                StreamCheckpoint checkpoint = scannedCheckpoints.get(data.getCheckpointId());
+                if (checkpoint != null) {
+                    checkpoint.addBytes((long) data.getSizeEstimate());
+                    checkpoint.addNumEntries(1);
+                    checkpoint.addAddress(data.getGlobalAddress());
+                }
+                return false;
+            }
+
             CheckpointEntry cpEntry = (CheckpointEntry) data.getPayload(runtime);
 
             // Consider only checkpoints that are less than maxGlobal
@@ -687,32 +711,39 @@ public abstract class AbstractQueuedStreamView extends
                 boolean isCheckpointForHighestVLOVersion = latestValidCheckpoint.validateHigher(checkpointId,
                         checkpointVLOVersion);
 
+                // Accumulate relevant info (addresses, numEntries) of every checkpoint, as the checkpoint
+                // for the highest VLO version might be an incremental checkpoint of a previous one.
+                StreamCheckpoint checkpoint = new StreamCheckpoint(checkpointId);
+                checkpoint.setStartAddress(data.getCheckpointedStreamStartLogAddress());
+                checkpoint.setNumEntries(1);
+                checkpoint.setTotalBytes((long) data.getSizeEstimate());
+                checkpoint.addAddress(data.getGlobalAddress());
+
+                if (cpEntry.getDict().get(CheckpointEntry.CheckpointDictKey
+                        .SNAPSHOT_ADDRESS) != null) {
+                    checkpoint.setSnapshot(Long.decode(cpEntry.getDict()
+                            .get(CheckpointEntry.CheckpointDictKey.SNAPSHOT_ADDRESS)));
+                }
+                String previousId = cpEntry.getDict().get(CheckpointEntry.CheckpointDictKey.PREVIOUS_CHECKPOINT_ID);
+                String baseId = cpEntry.getDict().get(CheckpointEntry.CheckpointDictKey.BASE_CHECKPOINT_ID);
+                checkpoint.setPreviousId(previousId == null ? null : UUID.fromString(previousId));
+                checkpoint.setBaseId(baseId == null ? checkpointId : UUID.fromString(baseId));
+                scannedCheckpoints.put(checkpointId, checkpoint);
+
                 // If the entry being inspected represents a checkpoint for a higher VLO
-                // take this as our latest valid checkpoint, and accumulate relevant info
-                // (addresses, numEntries).
+                // take this as our latest valid checkpoint.
                 if (isCheckpointForHighestVLOVersion) {
-                    // We found a highest checkpoint, set this as our valid checkpoint.
-                    latestValidCheckpoint = new StreamCheckpoint(checkpointId);
-                    latestValidCheckpoint.setStartAddress(data.getCheckpointedStreamStartLogAddress());
-                    latestValidCheckpoint.setNumEntries(1);
-                    latestValidCheckpoint.setTotalBytes((long) data.getSizeEstimate());
-                    latestValidCheckpoint.addAddress(data.getGlobalAddress());
-
-                    if (cpEntry.getDict().get(CheckpointEntry.CheckpointDictKey
-                            .SNAPSHOT_ADDRESS) != null) {
-                        latestValidCheckpoint.setSnapshot(Long.decode(cpEntry.getDict()
-                                .get(CheckpointEntry.CheckpointDictKey.SNAPSHOT_ADDRESS)));
-                    }
+                    latestValidCheckpoint = checkpoint;
                 }
-            } else if (latestValidCheckpoint.getId() != null &&
-                    latestValidCheckpoint.getId().equals(cpEntry.getCheckpointId())) {
+            } else if (scannedCheckpoints.containsKey(cpEntry.getCheckpointId())) {
                 // Case: all other markers other than END of a checkpoint.
 
                 // Add checkpoint entry data to the summarized state of the checkpoint, which will be used
                 // when the definite checkpoint is selected.
-                latestValidCheckpoint.addBytes((long) data.getSizeEstimate());
-                latestValidCheckpoint.addNumEntries(1);
-                latestValidCheckpoint.addAddress(data.getGlobalAddress());
+                StreamCheckpoint checkpoint = scannedCheckpoints.get(cpEntry.getCheckpointId());
+                checkpoint.addBytes((long) data.getSizeEstimate());
+                checkpoint.addNumEntries(1);
+                checkpoint.addAddress(data.getGlobalAddress());
 
                 if (cpEntry.getCpType().equals(CheckpointEntry.CheckpointEntryType.START)) {
                     // Only for the case of START markers add some extra information.
@@ -720,13 +751,33 @@ public abstract class AbstractQueuedStreamView extends
                             this, data.getGlobalAddress(), cpEntry.getCpType(),
                             Utils.toReadableId(cpEntry.getCheckpointId()),
                             cpEntry.getCheckpointAuthorId());
-                    return true;
+                    checkpoint.setComplete(true);
+                    // The latest valid checkpoint is resolved once the START of its base is found
+                    return checkpoint.getId().equals(latestValidCheckpoint.getBaseId());
                 }
             }
         }
         return false;
     }
 
+    /**
+     * Returns the chain of checkpoints a checkpoint is based on, from the checkpoint itself down to
+     * its full (base) checkpoint. The chain is empty if a previous checkpoint wasn't found completely.
+     */
+    private List<StreamCheckpoint> getCheckpointChain(StreamCheckpoint checkpoint) {
+        List<StreamCheckpoint> chain = new ArrayList<>();
+        chain.add(checkpoint);
+        StreamCheckpoint current = checkpoint;
+        while (current.getPreviousId() != null) {
+            current = scannedCheckpoints.get(current.getPreviousId());
+            if (current == null || !current.isComplete()) {
+                return Collections.emptyList();
+            }
+            chain.add(current);
+        }
+        return chain;
+    }
+
     /**
      * Resolves the valid checkpoint for the current view of the stream and returns
      * addresses belonging to this checkpoint.
@@ -739,16 +790,35 @@ public abstract class AbstractQueuedStreamView extends
 
         List<Long> checkpointAddresses = new ArrayList<>();
 
-        if (latestValidCheckpoint != null && latestValidCheckpoint.getId() != null) {
-            // Select checkpoint with the highest start address
-            log.trace("resolveCheckpoint[{}]: selecting checkpoint {} with start address {}", this,
-                    latestValidCheckpoint.getId(), latestValidCheckpoint.getStartAddress());
-            context.checkpoint = latestValidCheckpoint;
-            checkpointAddresses.addAll(latestValidCheckpoint.getCheckpointAddresses());
+        // Select the complete checkpoint with the highest start address, whose previous checkpoints (if it
+        // is incremental) were all found. Otherwise, fall back to the next highest checkpoint.
+        List<StreamCheckpoint> candidates = scannedCheckpoints.values().stream()
+                .sorted(Comparator.comparingLong(StreamCheckpoint::getStartAddress).reversed())
+                .collect(Collectors.toList());
+        for (StreamCheckpoint candidate : candidates) {
+            if (!candidate.isComplete()) {
+                log.warn("resolveCheckpoint[{}]: skipping checkpoint {}, its START was not found",
+                        this, candidate.getId());
+                continue;
+            }
+
+            List<StreamCheckpoint> chain = getCheckpointChain(candidate);
+            if (chain.isEmpty()) {
+                log.warn("resolveCheckpoint[{}]: skipping checkpoint {}, a previous checkpoint was not found",
+                        this, candidate.getId());
+                continue;
+            }
+
+            log.trace("resolveCheckpoint[{}]: selecting checkpoint {} with start address {} and {} previous " +
+                            "checkpoints", this, candidate.getId(), candidate.getStartAddress(), chain.size() - 1);
+            context.checkpoint = candidate;
+            chain.forEach(checkpoint -> checkpointAddresses.addAll(checkpoint.getCheckpointAddresses()));
+            break;
         }
 
         // Checkpoint has been resolved, reset latest valid checkpoint.
         latestValidCheckpoint = new StreamCheckpoint();
+        scannedCheckpoints = new HashMap<>();
         return checkpointAddresses;
     }
 
@@ -967,6 +1037,12 @@ public abstract class AbstractQueuedStreamView extends
         long snapshot = Address.NEVER_READ;
         // List of addresses belonging to this checkpoint
         List<Long> checkpointAddresses = new ArrayList<>();
+        // The checkpoint this checkpoint is incremental to, null for full checkpoints
+        UUID previousId = null;
+        // The full checkpoint at the start of the chain of incremental checkpoints
+        UUID baseId = null;
+        // Whether the START marker of this checkpoint was found
+        boolean complete = false;
 
         /**
          * Create a new stream checkpoint to contain basic checkpoint information.
@@ -1007,6 +1083,9 @@ public abstract class AbstractQueuedStreamView extends
             numEntries = 0;
             totalBytes = 0;
             checkpointAddresses = new ArrayList<>();
+            previousId = null;
+            baseId = null;
+            complete = false;
         }
 
         public void addBytes(long bytes) {
@@ -1,7 +1,9 @@
 package org.corfudb.runtime.view.stream;
 
 import com.google.common.collect.Iterables;
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.corfudb.protocols.logprotocol.ISMRConsumable;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.StreamAddressRange;
 import org.corfudb.runtime.CorfuRuntime;
@@ -11,15 +13,22 @@ import org.corfudb.runtime.view.ObjectsView;
 import org.corfudb.runtime.view.StreamOptions;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 
@@ -36,6 +45,16 @@ import java.util.function.Function;
  * in the presence of holes is no longer a need as address space is determined
  * by the map provided by the sequencer.
  *
+ * Checkpoint entries are never cached, so when the runtime has a checkpoint load memory
+ * budget, they are streamed instead: they are read in batches bounded by the budget, and
+ * the next batch is read and deserialized in the background while the current one is
+ * being applied to the object.
+ *
+ * Similarly, when the runtime has a stream read-ahead, the batches of data entries which follow
+ * the entry being consumed are read and deserialized in the background (each batch by a worker
+ * of the read-ahead executor), so that syncing an object mostly consists of applying updates
+ * which are already deserialized, in order.
+ *
  * Created by annym on 04/25/19.
  */
 @Slf4j
@@ -45,6 +64,25 @@ public class AddressMapStreamView extends AbstractQueuedStreamView {
 
     private long addressCount = 0L;
 
+    // The serialized sizes of the entries of the selected checkpoint, by address
+    private Map<Long, Integer> checkpointEntrySizes = new HashMap<>();
+
+    // The addresses of the batch of checkpoint entries being applied, which were not consumed yet
+    private final NavigableSet<Long> checkpointBatchAddresses = new TreeSet<>();
+
+    // The entries of the batch of checkpoint entries being applied (trimmed entries are missing)
+    private Map<Long, ILogData> checkpointBatch = new HashMap<>();
+
+    // The addresses and the read of the next batch of checkpoint entries
+    private List<Long> prefetchAddresses = Collections.emptyList();
+    private CompletableFuture<Map<Long, ILogData>> prefetch = null;
+
+    // The batches of data entries being read ahead, in order
+    private final Deque<ReadAheadBatch> readAheadBatches = new ArrayDeque<>();
+
+    // The last address which was read ahead, or read with the batch of an entry which was not read ahead
+    private long readAheadUpTo = Address.NON_ADDRESS;
+
     /** Create a new address map stream view.
      *
      * @param runtime   The runtime to use for accessing the log.
@@ -63,6 +101,13 @@ public class AddressMapStreamView extends AbstractQueuedStreamView {
 
     @Override
     protected ILogData removeFromQueue(NavigableSet<Long> queue) {
+        if (queue == getCurrentContext().readCpQueue
+                && runtime.getParameters().getCheckpointLoadMemoryBudget() > 0) {
+            return removeFromCheckpointQueue(queue);
+        }
+
+        final boolean readAhead = queue == getCurrentContext().readQueue
+                && runtime.getParameters().getStreamReadAheadBatches() > 0;
         boolean readNext;
         ILogData ld = null;
         Long currentRead;
@@ -81,7 +126,7 @@ public class AddressMapStreamView extends AbstractQueuedStreamView {
                 // the stream's full address map, without reading the actual data), entries can be read in
                 // batches whenever we have a cache miss. This allows next reads
                 // to be serviced immediately, rather than reading one entry at a time.
-                ld = read(currentRead, queue);
+                ld = readAhead ? readAhead(currentRead, queue) : read(currentRead, queue);
 
                 if (queue == getCurrentContext().readQueue) {
                     // Validate that the data entry belongs to this stream, otherwise, skip.
@@ -123,6 +168,233 @@ public class AddressMapStreamView extends AbstractQueuedStreamView {
         return ld;
     }
 
+    /**
+     * Get a data entry from the batches read ahead, and start reading the following batches. If the
+     * entry was not read ahead (or its read failed), it is read with its batch by this thread, so that
+     * errors (e.g. trimmed addresses) are raised and handled by this thread.
+     *
+     * @param currentRead the address of the entry, which was removed from the queue.
+     * @param queue       queue of data entries.
+     * @return the entry.
+     */
+    private ILogData readAhead(long currentRead, NavigableSet<Long> queue) {
+        // Drop the batches the queue moved past, e.g. because of trimmed addresses
+        while (!readAheadBatches.isEmpty() && readAheadBatches.peekFirst().getLast() < currentRead) {
+            readAheadBatches.pollFirst().cancel();
+        }
+
+        ILogData ld = null;
+        ReadAheadBatch head = readAheadBatches.peekFirst();
+        if (head != null && head.contains(currentRead)) {
+            ld = head.get(currentRead);
+            if (head.getLast() == currentRead) {
+                readAheadBatches.pollFirst();
+            }
+        }
+
+        if (ld == null) {
+            clearReadAhead();
+            ld = read(currentRead, queue);
+            // read() reads the entry along with the following addresses of the queue (a stream batch)
+            readAheadUpTo = currentRead;
+            Iterator<Long> it = queue.iterator();
+            for (int i = 1; i < runtime.getParameters().getStreamBatchSize() && it.hasNext(); i++) {
+                readAheadUpTo = it.next();
+            }
+        }
+
+        scheduleReadAhead(queue);
+        return ld;
+    }
+
+    /**
+     * Start reading and deserializing the batches of data entries which follow the last address
+     * read ahead, up to the number of read-ahead batches of the runtime.
+     */
+    private void scheduleReadAhead(NavigableSet<Long> queue) {
+        final int batchSize = runtime.getParameters().getStreamBatchSize();
+        Long next = queue.higher(readAheadUpTo);
+        while (next != null && readAheadBatches.size() < runtime.getParameters().getStreamReadAheadBatches()) {
+            List<Long> batch = new ArrayList<>(batchSize);
+            for (long address : queue.tailSet(next, true)) {
+                if (batch.size() == batchSize) {
+                    break;
+                }
+                batch.add(address);
+            }
+
+            readAheadBatches.addLast(new ReadAheadBatch(batch, CompletableFuture.supplyAsync(() -> {
+                Map<Long, ILogData> entries = runtime.getAddressSpaceView().read(batch, getReadOptions());
+                entries.values().forEach(this::deserialize);
+                return entries;
+            }, runtime.getStreamReadAheadExecutor())));
+            readAheadUpTo = batch.get(batch.size() - 1);
+            next = queue.higher(readAheadUpTo);
+        }
+    }
+
+    /**
+     * Deserialize the updates of this stream in a data entry.
+     */
+    private void deserialize(ILogData ld) {
+        if (ld.isData() && ld.containsStream(id)) {
+            Object payload = ld.getPayload(runtime);
+            if (payload instanceof ISMRConsumable) {
+                ((ISMRConsumable) payload).getSMRUpdates(id);
+            }
+        }
+    }
+
+    private void clearReadAhead() {
+        readAheadBatches.forEach(ReadAheadBatch::cancel);
+        readAheadBatches.clear();
+        readAheadUpTo = Address.NON_ADDRESS;
+    }
+
+    /**
+     * A batch of data entries being read ahead.
+     */
+    @AllArgsConstructor
+    private static class ReadAheadBatch {
+        private final List<Long> addresses;
+        private final CompletableFuture<Map<Long, ILogData>> read;
+
+        long getLast() {
+            return addresses.get(addresses.size() - 1);
+        }
+
+        boolean contains(long address) {
+            return address >= addresses.get(0) && address <= getLast();
+        }
+
+        /**
+         * Get an entry of the batch, or null if the batch could not be read.
+         */
+        ILogData get(long address) {
+            try {
+                return read.join().get(address);
+            } catch (RuntimeException e) {
+                log.debug("ReadAheadBatch: read of {} failed", addresses, e);
+                return null;
+            }
+        }
+
+        void cancel() {
+            read.cancel(false);
+        }
+    }
+
+    /**
+     * Remove the next entry from the checkpoint queue, which is served from the current batch of
+     * checkpoint entries. When the current batch doesn't hold it, the prefetched batch becomes the
+     * current one (or the batch is read, if the queue changed), and the read of the following
+     * batch is started.
+     *
+     * @param queue queue of checkpoint entries.
+     * @return next available entry, or null if there are no more entries.
+     */
+    private ILogData removeFromCheckpointQueue(NavigableSet<Long> queue) {
+        Long currentRead;
+        while ((currentRead = queue.pollFirst()) != null) {
+            if (!checkpointBatchAddresses.contains(currentRead)) {
+                List<Long> batch = getCheckpointBatch(currentRead, queue);
+                checkpointBatch = batch.equals(prefetchAddresses) ? getPrefetched(batch) : readCheckpointBatch(batch);
+                checkpointBatchAddresses.clear();
+                checkpointBatchAddresses.addAll(batch);
+                prefetchCheckpointBatch(queue);
+            }
+
+            checkpointBatchAddresses.remove(currentRead);
+            ILogData ld = checkpointBatch.remove(currentRead);
+            if (ld != null) {
+                return ld;
+            }
+
+            // Trimmed addresses are only missing from a batch if trimmed exceptions are ignored
+            log.debug("removeFromCheckpointQueue[{}]: ignoring trimmed address {}", this, currentRead);
+        }
+
+        clearCheckpointBatches();
+        return null;
+    }
+
+    /**
+     * Get the batch of checkpoint addresses which starts at the given address and is followed by the
+     * next addresses of the queue, such that the batch fits in half of the checkpoint load memory
+     * budget (the other half is used by the prefetched batch). A batch has at least one address.
+     */
+    private List<Long> getCheckpointBatch(long firstAddress, NavigableSet<Long> queue) {
+        final long batchBudget = runtime.getParameters().getCheckpointLoadMemoryBudget() / 2;
+        List<Long> batch = new ArrayList<>();
+        batch.add(firstAddress);
+        long batchSize = checkpointEntrySizes.getOrDefault(firstAddress, 0);
+
+        for (long address : queue.tailSet(firstAddress, false)) {
+            batchSize += checkpointEntrySizes.getOrDefault(address, 0);
+            if (batchSize > batchBudget) {
+                break;
+            }
+            batch.add(address);
+        }
+        return batch;
+    }
+
+    private Map<Long, ILogData> readCheckpointBatch(List<Long> batch) {
+        Map<Long, ILogData> entries = new HashMap<>();
+        readAll(batch).forEach(ld -> entries.put(ld.getGlobalAddress(), ld));
+        return entries;
+    }
+
+    /**
+     * Start reading and deserializing the batch of checkpoint entries which follows the current batch.
+     */
+    private void prefetchCheckpointBatch(NavigableSet<Long> queue) {
+        if (prefetch != null) {
+            prefetch.cancel(false);
+        }
+
+        Long next = queue.higher(checkpointBatchAddresses.last());
+        if (next == null) {
+            prefetchAddresses = Collections.emptyList();
+            prefetch = null;
+            return;
+        }
+
+        prefetchAddresses = getCheckpointBatch(next, queue);
+        final List<Long> addresses = prefetchAddresses;
+        prefetch = CompletableFuture.supplyAsync(() -> {
+            Map<Long, ILogData> entries = runtime.getAddressSpaceView().read(addresses, getReadOptions());
+            entries.values().forEach(ld -> ld.getPayload(runtime));
+            return entries;
+        }, runtime.getCheckpointLoadExecutor());
+    }
+
+    /**
+     * Get the prefetched batch of checkpoint entries. If prefetching failed, the batch is read again,
+     * so that errors (e.g. trimmed addresses) are raised and handled by this thread.
+     */
+    private Map<Long, ILogData> getPrefetched(List<Long> batch) {
+        try {
+            return prefetch.join();
+        } catch (RuntimeException e) {
+            log.debug("getPrefetched[{}]: prefetch of {} failed, reading it again", this, batch, e);
+            return readCheckpointBatch(batch);
+        } finally {
+            prefetchAddresses = Collections.emptyList();
+            prefetch = null;
+        }
+    }
+
+    private void clearCheckpointBatches() {
+        checkpointBatchAddresses.clear();
+        checkpointBatch = new HashMap<>();
+        if (prefetch != null) {
+            prefetch.cancel(false);
+        }
+        prefetchAddresses = Collections.emptyList();
+        prefetch = null;
+    }
+
     /**
      * Retrieve this stream's address map, i.e., a map of all addresses corresponding to this stream between
      * (stop address, start address] and return a boolean indicating if addresses were found in this range.
@@ -242,18 +514,26 @@ public class AddressMapStreamView extends AbstractQueuedStreamView {
         Iterable<List<Long>> batches = Iterables.partition(checkpointAddresses,
                 runtime.getParameters().getCheckpointReadBatchSize());
 
+        // Keep the sizes of the checkpoint entries, to stream them within the memory budget
+        clearCheckpointBatches();
+        Map<Long, Integer> entrySizes = new HashMap<>();
+        Function<ILogData, Boolean> sizedFilter = data -> {
+            entrySizes.put(data.getGlobalAddress(), data.getSizeEstimate());
+            return filter.apply(data);
+        };
+
         for (List<Long> batch : batches) {
             try {
                 List<ILogData> entries = readAll(batch);
                 for (ILogData data : entries) {
-                    filter.apply(data);
+                    sizedFilter.apply(data);
                 }
             } catch (TrimmedException te) {
                 log.warn("processCheckpoint: trimmed addresses {}", te.getTrimmedAddresses());
                 // Read one entry at a time for the last failed batch, this way we might load
                 // the required checkpoint entries until the stop condition is fulfilled
                 // without hitting a trimmed position.
-                processCheckpointBatchByEntry(batch, filter);
+                processCheckpointBatchByEntry(batch, sizedFilter);
 
                 // Because checkpoint addresses were ordered in reverse,
                 // we don't need to continue reading entries (prefix trim).
@@ -264,6 +544,8 @@ public class AddressMapStreamView extends AbstractQueuedStreamView {
         // Select correct checkpoint - Highest
         List<Long> checkpointEntries = resolveCheckpoint(getCurrentContext());
         queue.addAll(checkpointEntries);
+        entrySizes.keySet().retainAll(queue);
+        checkpointEntrySizes = entrySizes;
     }
 
     /**
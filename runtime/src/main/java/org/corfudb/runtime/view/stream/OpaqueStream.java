@@ -15,8 +15,18 @@ public class OpaqueStream {
      */
     private final IStreamView streamView;
 
+    /**
+     * Whether the SMR entries of transactions are unpacked as pass-through entries.
+     */
+    private final boolean passThrough;
+
     public OpaqueStream(IStreamView streamView) {
+        this(streamView, false);
+    }
+
+    public OpaqueStream(IStreamView streamView, boolean passThrough) {
         this.streamView = streamView;
+        this.passThrough = passThrough;
     }
 
     private OpaqueEntry processLogData(ILogData logData) {
@@ -37,7 +47,7 @@ public class OpaqueStream {
             throw new IllegalStateException("Must have a payload");
         }
 
-        return OpaqueEntry.unpack(logData);
+        return OpaqueEntry.unpack(logData, passThrough);
     }
 
     public long pos() {
@@ -0,0 +1,53 @@
+package org.corfudb.comm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.kqueue.KQueue;
+import java.util.Map;
+import org.junit.Test;
+
+public class ChannelImplementationTest {
+
+    private static final int BUSY_POLL_MICROS = 50;
+
+    /** Tests that implementations resolve to themselves, or to NIO if they are not available. **/
+    @Test
+    public void resolveFallsBackToNio() {
+        assertThat(ChannelImplementation.NIO.resolve()).isEqualTo(ChannelImplementation.NIO);
+        assertThat(ChannelImplementation.LOCAL.resolve()).isEqualTo(ChannelImplementation.LOCAL);
+        assertThat(ChannelImplementation.EPOLL.resolve())
+                .isEqualTo(Epoll.isAvailable() ? ChannelImplementation.EPOLL : ChannelImplementation.NIO);
+        assertThat(ChannelImplementation.KQUEUE.resolve())
+                .isEqualTo(KQueue.isAvailable() ? ChannelImplementation.KQUEUE : ChannelImplementation.NIO);
+        assertThat(ChannelImplementation.AUTO.resolve()).isNotEqualTo(ChannelImplementation.AUTO);
+    }
+
+    /** Tests that only options supported by the resolved implementation are returned. **/
+    @Test
+    public void transportOptions() {
+        Map<ChannelOption, Object> nioOptions = ChannelImplementation.NIO.getTransportOptions(BUSY_POLL_MICROS);
+        assertThat(nioOptions)
+                .containsEntry(ChannelOption.TCP_NODELAY, true)
+                .containsEntry(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .doesNotContainKeys(EpollChannelOption.EPOLL_MODE, EpollChannelOption.SO_BUSY_POLL);
+
+        assertThat(ChannelImplementation.LOCAL.getTransportOptions(BUSY_POLL_MICROS)).isEmpty();
+
+        Map<ChannelOption, Object> epollOptions = ChannelImplementation.EPOLL.getTransportOptions(BUSY_POLL_MICROS);
+        if (Epoll.isAvailable()) {
+            assertThat(epollOptions)
+                    .containsAllEntriesOf(nioOptions)
+                    .containsEntry(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED)
+                    .containsEntry(EpollChannelOption.SO_BUSY_POLL, BUSY_POLL_MICROS);
+            assertThat(ChannelImplementation.EPOLL.getTransportOptions(0))
+                    .doesNotContainKey(EpollChannelOption.SO_BUSY_POLL);
+        } else {
+            assertThat(epollOptions).isEqualTo(nioOptions);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.corfudb.protocols.service.CorfuProtocolMessage.ClusterIdCheck;
 import org.corfudb.protocols.service.CorfuProtocolMessage.EpochCheck;
 import org.corfudb.protocols.wireprotocol.SequencerMetrics;
+import org.corfudb.protocols.wireprotocol.StreamsAddressNotification;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
@@ -24,6 +25,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.corfudb.protocols.CorfuProtocolCommon.DEFAULT_UUID;
 import static org.corfudb.protocols.CorfuProtocolCommon.getStreamsAddressResponseMsg;
@@ -33,11 +35,14 @@ import static org.corfudb.protocols.service.CorfuProtocolMessage.getResponseMsg;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getBootstrapSequencerResponseMsg;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getSequencerMetricsResponseMsg;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getSequencerTrimResponseMsg;
+import static org.corfudb.protocols.service.CorfuProtocolSequencer.getStreamsAddressNotificationMsg;
+import static org.corfudb.protocols.service.CorfuProtocolSequencer.getStreamsSubscriptionResponseMsg;
 import static org.corfudb.protocols.service.CorfuProtocolSequencer.getTokenResponseMsg;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
@@ -306,4 +311,45 @@ public class SequencerHandlerTest {
             assertEquals(defaultMap.get(id).toString(), retMap.get(id).toString());
         }
     }
+
+    /**
+     * Test that the SequencerHandler correctly handles a STREAMS_SUBSCRIPTION_RESPONSE.
+     */
+    @Test
+    public void testStreamsSubscriptionResponse() {
+        long defaultLogTail = 5L;
+        ResponseMsg response = getResponseMsg(
+                getBasicHeader(ClusterIdCheck.CHECK, EpochCheck.CHECK),
+                getStreamsSubscriptionResponseMsg(defaultLogTail)
+        );
+
+        sequencerHandler.handleMessage(response, mockChannelHandlerContext);
+        verify(mockClientRouter, never()).completeExceptionally(anyLong(), any(Throwable.class));
+        verify(mockClientRouter).completeRequest(response.getHeader().getRequestId(), defaultLogTail);
+    }
+
+    /**
+     * Test that a STREAMS_ADDRESS_NOTIFICATION is handed to the notification consumer
+     * and does not complete any request.
+     */
+    @Test
+    public void testStreamsAddressNotification() {
+        AtomicReference<StreamsAddressNotification> notified = new AtomicReference<>();
+        sequencerHandler = new SequencerHandler(notified::set);
+        sequencerHandler.setRouter(mockClientRouter);
+
+        long defaultEpoch = 10L;
+        Map<UUID, Long> streamTails = Collections.singletonMap(UUID.randomUUID(), 15L);
+        ResponseMsg response = getResponseMsg(
+                getBasicHeader(ClusterIdCheck.CHECK, EpochCheck.CHECK),
+                getStreamsAddressNotificationMsg(defaultEpoch, streamTails)
+        );
+
+        sequencerHandler.handleMessage(response, mockChannelHandlerContext);
+        verify(mockClientRouter, never()).completeExceptionally(anyLong(), any(Throwable.class));
+        verify(mockClientRouter, never()).completeRequest(anyLong(), anyObject());
+
+        assertEquals(defaultEpoch, notified.get().getEpoch());
+        assertEquals(streamTails, notified.get().getStreamTails());
+    }
 }
@@ -0,0 +1,100 @@
+package org.corfudb.browser;
+
+import com.google.common.collect.ImmutableMap;
+import io.netty.buffer.Unpooled;
+import org.corfudb.AbstractCorfuTest;
+import org.corfudb.infrastructure.BatchProcessor.BatchProcessorContext;
+import org.corfudb.infrastructure.ServerContext;
+import org.corfudb.infrastructure.ServerContextBuilder;
+import org.corfudb.infrastructure.log.StreamLogFiles;
+import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.LogData;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the offline index of the segment files of a log directory.
+ */
+public class OfflineLogIndexTest extends AbstractCorfuTest {
+
+    private static final int NUM_ENTRIES = 20;
+    private static final int PARALLELISM = 2;
+
+    private final UUID streamA = UUID.nameUUIDFromBytes("A".getBytes());
+    private final UUID streamB = UUID.nameUUIDFromBytes("B".getBytes());
+
+    private static LogData getEntry(long address, int payloadSize, Map<UUID, Long> backpointers) {
+        byte[] payload = new byte[payloadSize];
+        Arrays.fill(payload, (byte) address);
+        LogData data = new LogData(DataType.DATA, Unpooled.wrappedBuffer(payload));
+        data.setGlobalAddress(address);
+        data.setBackpointerMap(backpointers);
+        return data;
+    }
+
+    /**
+     * Verifies the stream sizes, the largest entries and the entries of a stream read
+     * through the index, and that the index is reused once built.
+     */
+    @Test
+    public void testIndexQueries() {
+        String logDir = com.google.common.io.Files.createTempDir().getAbsolutePath();
+        ServerContext context = new ServerContextBuilder()
+                .setLogPath(logDir)
+                .setMemory(false)
+                .build();
+        StreamLogFiles streamLog = new StreamLogFiles(context, new BatchProcessorContext());
+
+        // Stream A has the even addresses and stream B the odd ones, whose payloads grow
+        for (long address = 0; address < NUM_ENTRIES; address++) {
+            UUID stream = address % 2 == 0 ? streamA : streamB;
+            int payloadSize = address % 2 == 0 ? 1 : (int) address;
+            streamLog.append(address, getEntry(address, payloadSize, Collections.singletonMap(stream, address - 1)));
+        }
+        // The largest entry belongs to both streams
+        streamLog.append(NUM_ENTRIES, getEntry(NUM_ENTRIES, NUM_ENTRIES * 2,
+                ImmutableMap.of(streamA, (long) NUM_ENTRIES - 2, streamB, (long) NUM_ENTRIES - 1)));
+        LogData hole = new LogData(DataType.HOLE);
+        hole.setGlobalAddress(NUM_ENTRIES + 1L);
+        streamLog.append(NUM_ENTRIES + 1, hole);
+        streamLog.close();
+
+        Path indexDir = Paths.get(com.google.common.io.Files.createTempDir().getAbsolutePath());
+        OfflineLogIndex index = new OfflineLogIndex(Paths.get(logDir), indexDir, PARALLELISM);
+        assertThat(index.build()).isEqualTo(1);
+        assertThat(new OfflineLogIndex(Paths.get(logDir), indexDir, PARALLELISM).build()).isZero();
+
+        Map<UUID, OfflineLogIndex.StreamStats> stats = index.getStreamStats();
+        assertThat(stats.keySet()).containsExactlyInAnyOrder(streamA, streamB);
+        assertThat(stats.get(streamA).getNumEntries()).isEqualTo(NUM_ENTRIES / 2 + 1);
+        assertThat(stats.get(streamB).getNumEntries()).isEqualTo(NUM_ENTRIES / 2 + 1);
+        assertThat(stats.get(streamB).getPayloadBytes()).isGreaterThan(stats.get(streamA).getPayloadBytes());
+
+        List<OfflineLogIndex.IndexRecord> largest = index.getLargestEntries(2);
+        assertThat(largest.stream().map(OfflineLogIndex.IndexRecord::getAddress).collect(Collectors.toList()))
+                .containsExactly((long) NUM_ENTRIES, (long) NUM_ENTRIES - 1);
+
+        List<Long> addresses = new ArrayList<>();
+        index.forEachEntry(Collections.singleton(streamA), data -> {
+            assertThat(data.containsStream(streamA)).isTrue();
+            assertThat(data.getData()[0]).isEqualTo((byte) data.getGlobalAddress().longValue());
+            addresses.add(data.getGlobalAddress());
+        });
+        List<Long> expected = new ArrayList<>();
+        for (long address = 0; address <= NUM_ENTRIES; address += 2) {
+            expected.add(address);
+        }
+        assertThat(addresses).isEqualTo(expected);
+    }
+}
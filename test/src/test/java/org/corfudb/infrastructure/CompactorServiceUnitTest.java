@@ -142,14 +142,14 @@ public class CompactorServiceUnitTest {
                 .thenReturn(CheckpointingStatus.newBuilder().setStatus(StatusType.STARTED).build());
         when(dynamicTriggerPolicy.shouldTrigger(Matchers.anyLong(), Matchers.any(CorfuStore.class))).thenReturn(true).thenReturn(false);
         doNothing().when(leaderServices).validateLiveness();
-        doReturn(CompactorLeaderServices.LeaderInitStatus.SUCCESS).when(leaderServices).initCompactionCycle();
+        doReturn(CompactorLeaderServices.LeaderInitStatus.SUCCESS).when(leaderServices).initCompactionCycle(Matchers.anyMap());
         when(invokeCheckpointingJvm.isRunning()).thenReturn(false).thenReturn(true);
         when(invokeCheckpointingJvm.isInvoked()).thenReturn(false).thenReturn(true);
 
         compactorServiceSpy.start(Duration.ofSeconds(SCHEDULER_INTERVAL));
 
         verify(leaderServices, timeout(TIMEOUT.toMillis())).validateLiveness();
-        verify(leaderServices, timeout(TIMEOUT.toMillis())).initCompactionCycle();
+        verify(leaderServices, timeout(TIMEOUT.toMillis())).initCompactionCycle(Matchers.anyMap());
         verify(invokeCheckpointingJvm, timeout(TIMEOUT.toMillis())).shutdown();
     }
 
@@ -165,11 +165,11 @@ public class CompactorServiceUnitTest {
                         new TxResolutionInfo(UUID.randomUUID(), new Token(0, 0)),
                         AbortCause.CONFLICT, new Throwable(), null));
         when(dynamicTriggerPolicy.shouldTrigger(Matchers.anyLong(), Matchers.any(CorfuStore.class))).thenReturn(true);
-        doReturn(CompactorLeaderServices.LeaderInitStatus.SUCCESS).when(leaderServices).initCompactionCycle();
+        doReturn(CompactorLeaderServices.LeaderInitStatus.SUCCESS).when(leaderServices).initCompactionCycle(Matchers.anyMap());
 
         compactorServiceSpy.start(Duration.ofSeconds(SCHEDULER_INTERVAL));
 
-        verify(leaderServices, after((int) TIMEOUT.toMillis()).never()).initCompactionCycle();
+        verify(leaderServices, after((int) TIMEOUT.toMillis()).never()).initCompactionCycle(Matchers.anyMap());
     }
 
     @Test
@@ -187,14 +187,14 @@ public class CompactorServiceUnitTest {
                 .thenReturn(CheckpointingStatus.newBuilder().setStatus(StatusType.STARTED).build());
         when(dynamicTriggerPolicy.shouldTrigger(Matchers.anyLong(), Matchers.any(CorfuStore.class))).thenReturn(true).thenReturn(false);
         doNothing().when(leaderServices).validateLiveness();
-        doReturn(CompactorLeaderServices.LeaderInitStatus.SUCCESS).when(leaderServices).initCompactionCycle();
+        doReturn(CompactorLeaderServices.LeaderInitStatus.SUCCESS).when(leaderServices).initCompactionCycle(Matchers.anyMap());
         when(invokeCheckpointingJvm.isRunning())
                 .thenReturn(false).thenReturn(true);
         when(invokeCheckpointingJvm.isInvoked()).thenReturn(false).thenReturn(true);
 
         compactorServiceSpy.start(Duration.ofSeconds(SCHEDULER_INTERVAL));
 
-        verify(leaderServices, timeout(TIMEOUT.toMillis())).initCompactionCycle();
+        verify(leaderServices, timeout(TIMEOUT.toMillis())).initCompactionCycle(Matchers.anyMap());
         verify(invokeCheckpointingJvm, timeout(TIMEOUT.toMillis())).shutdown();
     }
 
@@ -216,7 +216,7 @@ public class CompactorServiceUnitTest {
         compactorServiceSpy.start(Duration.ofSeconds(SCHEDULER_INTERVAL));
 
         verify(leaderServices, after((int) TIMEOUT.toMillis()).never()).validateLiveness();
-        verify(leaderServices, after((int) TIMEOUT.toMillis()).never()).initCompactionCycle();
+        verify(leaderServices, after((int) TIMEOUT.toMillis()).never()).initCompactionCycle(Matchers.anyMap());
         verify(leaderServices, atLeastOnce()).finishCompactionCycle();
     }
 }
@@ -11,6 +11,7 @@ import java.util.function.Consumer;
 
 import org.corfudb.AbstractCorfuTest;
 import org.corfudb.infrastructure.datastore.DataStore;
+import org.corfudb.infrastructure.datastore.KvDataStore;
 import org.corfudb.infrastructure.datastore.KvDataStore.KvRecord;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
 import org.junit.Test;
@@ -121,7 +122,7 @@ public class DataStoreTest extends AbstractCorfuTest {
                 .setLogPath(serviceDirPath)
                 .setRetention(String.valueOf(numRetention))
                 .build();
-        DataStore dataStore = serverContext.getDataStore();
+        KvDataStore dataStore = serverContext.getDataStore();
         Set<String> prefixesToClean = serverContext.getDsFilePrefixesForCleanup();
 
         for (int i = 1; i < numRetention + 2; i++) {
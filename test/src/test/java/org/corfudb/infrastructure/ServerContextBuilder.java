@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableMap;
 import lombok.Data;
 import lombok.experimental.Accessors;
 import org.corfudb.common.config.ConfigParamNames;
+import org.corfudb.infrastructure.log.tier.SegmentTier;
 import org.corfudb.security.tls.TlsUtils.CertStoreConfig.TrustStoreConfig;
 import org.corfudb.test.concurrent.TestThreadGroups;
 
@@ -40,6 +41,13 @@ public class ServerContextBuilder {
     String seqCache = "1000";
     String logSizeLimitPercentage = "100.0";
     String reservedSpaceBytes = "0";
+    String logSegmentMaxBytes = "0";
+    boolean compressColdSegments = false;
+    boolean workloadAwareCompaction = false;
+    String logTier = null;
+    SegmentTier providedLogTier = null;
+    String logTierOffloadAge = "3600";
+    String logTierCacheSegments = "8";
     String batchSize = "100";
     String managementBootstrapEndpoint = null;
     IServerRouter serverRouter;
@@ -65,11 +73,22 @@ public class ServerContextBuilder {
                 .put("--sequencer-cache-size", seqCache)
                 .put("--log-size-quota-percentage", logSizeLimitPercentage)
                 .put("--reserved-space-bytes", reservedSpaceBytes)
+                .put("--log-segment-max-bytes", logSegmentMaxBytes)
+                .put("--compress-cold-segments", compressColdSegments)
+                .put("--workload-aware-compaction", workloadAwareCompaction)
+                .put("--log-tier-offload-age", logTierOffloadAge)
+                .put("--log-tier-cache-segments", logTierCacheSegments)
                 .put("--batch-size", batchSize)
                 .put("--metadata-retention", retention);
         if (logPath != null) {
          builder.put("--log-path", logPath);
         }
+        if (logTier != null) {
+            builder.put("--log-tier", logTier);
+        }
+        if (providedLogTier != null) {
+            builder.put("log-tier", providedLogTier);
+        }
         if (managementBootstrapEndpoint != null) {
             builder.put("--management-server", managementBootstrapEndpoint);
         }
@@ -0,0 +1,124 @@
+package org.corfudb.infrastructure;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.Message;
+import org.corfudb.runtime.CorfuStoreMetadata;
+import org.corfudb.runtime.CorfuStoreMetadata.TableName;
+import org.corfudb.runtime.collections.CorfuStore;
+import org.corfudb.runtime.collections.CorfuStoreEntry;
+import org.corfudb.runtime.collections.TxnContext;
+import org.corfudb.runtime.view.Address;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WorkloadAwareTriggerPolicyUnitTest {
+
+    private static final long INTERVAL = Duration.ofHours(1).toMillis();
+    private static final double QUOTA_USAGE_THRESHOLD = 0.5;
+    private static final long RECLAIMABLE_BYTES_THRESHOLD = 1000;
+    private static final long STREAM_GROWTH_THRESHOLD = 100;
+    private static final long QUOTA_LIMIT = 10_000;
+    private static final long GLOBAL_TAIL = 99;
+
+    private final CorfuStore corfuStore = mock(CorfuStore.class);
+    private final CompactionSignalsCollector signalsCollector = mock(CompactionSignalsCollector.class);
+    private final CorfuStoreEntry<? extends Message, ? extends Message, ? extends Message> corfuStoreEntry =
+            (CorfuStoreEntry<? extends Message, ? extends Message, ? extends Message>) mock(CorfuStoreEntry.class);
+    private final TxnContext txn = mock(TxnContext.class);
+
+    private final TableName hotTable = TableName.newBuilder().setNamespace("ns").setTableName("hot").build();
+    private final TableName coldTable = TableName.newBuilder().setNamespace("ns").setTableName("cold").build();
+
+    @Before
+    public void setup() {
+        // Compaction is neither disabled, frozen nor force triggered
+        when(corfuStore.txn(Matchers.any())).thenReturn(txn);
+        when(txn.getRecord(Matchers.anyString(), Matchers.any(Message.class))).thenReturn(corfuStoreEntry);
+        when(txn.commit()).thenReturn(CorfuStoreMetadata.Timestamp.getDefaultInstance());
+        when(corfuStoreEntry.getPayload()).thenReturn(null);
+    }
+
+    private WorkloadAwareTriggerPolicy getPolicy(Duration minInterval) {
+        return new WorkloadAwareTriggerPolicy(signalsCollector, minInterval, QUOTA_USAGE_THRESHOLD,
+                RECLAIMABLE_BYTES_THRESHOLD, STREAM_GROWTH_THRESHOLD);
+    }
+
+    private CompactionSignals getSignals(long quotaUsedBytes, long trimAddress, Map<TableName, Long> streamGrowth) {
+        return CompactionSignals.builder()
+                .quotaUsedBytes(quotaUsedBytes)
+                .quotaLimitBytes(QUOTA_LIMIT)
+                .globalTail(GLOBAL_TAIL)
+                .trimMark(0L)
+                .trimAddress(trimAddress)
+                .streamGrowth(streamGrowth)
+                .build();
+    }
+
+    @Test
+    public void testNoTriggerBeforeMinInterval() throws Exception {
+        when(signalsCollector.collect(Matchers.any(), Matchers.anyLong()))
+                .thenReturn(getSignals(QUOTA_LIMIT, GLOBAL_TAIL, Collections.emptyMap()));
+
+        WorkloadAwareTriggerPolicy policy = getPolicy(Duration.ofHours(1));
+        assertThat(policy.shouldTrigger(INTERVAL, corfuStore)).isFalse();
+        verify(signalsCollector, never()).collect(Matchers.any(), Matchers.anyLong());
+    }
+
+    @Test
+    public void testTriggerOnQuotaUsage() throws Exception {
+        when(signalsCollector.collect(Matchers.any(), Matchers.anyLong()))
+                .thenReturn(getSignals(QUOTA_LIMIT / 10, 0L, Collections.emptyMap()))
+                .thenReturn(getSignals(QUOTA_LIMIT / 2, 0L, Collections.emptyMap()));
+
+        WorkloadAwareTriggerPolicy policy = getPolicy(Duration.ZERO);
+        assertThat(policy.shouldTrigger(INTERVAL, corfuStore)).isFalse();
+        assertThat(policy.shouldTrigger(INTERVAL, corfuStore)).isTrue();
+    }
+
+    @Test
+    public void testNoTriggerOnQuotaUsageWithoutReclaimableBytes() throws Exception {
+        // The previous cycle didn't complete, so its trim reclaims nothing
+        when(signalsCollector.collect(Matchers.any(), Matchers.anyLong()))
+                .thenReturn(getSignals(QUOTA_LIMIT, Address.NON_ADDRESS, Collections.emptyMap()));
+
+        assertThat(getPolicy(Duration.ZERO).shouldTrigger(INTERVAL, corfuStore)).isFalse();
+    }
+
+    @Test
+    public void testTriggerOnReclaimableBytes() throws Exception {
+        // Half of the addresses are trimmed when the next cycle starts
+        CompactionSignals signals = getSignals(QUOTA_LIMIT / 4, GLOBAL_TAIL / 2, Collections.emptyMap());
+        assertThat(signals.getEstimatedReclaimableBytes()).isEqualTo(QUOTA_LIMIT / 8);
+        when(signalsCollector.collect(Matchers.any(), Matchers.anyLong())).thenReturn(signals);
+
+        assertThat(getPolicy(Duration.ZERO).shouldTrigger(INTERVAL, corfuStore)).isTrue();
+    }
+
+    @Test
+    public void testTriggerOnStreamGrowthAndPrioritize() throws Exception {
+        Map<TableName, Long> streamGrowth = ImmutableMap.of(hotTable, STREAM_GROWTH_THRESHOLD, coldTable, 0L);
+        when(signalsCollector.collect(Matchers.any(), Matchers.anyLong()))
+                .thenReturn(getSignals(0L, Address.NON_ADDRESS, streamGrowth));
+
+        WorkloadAwareTriggerPolicy policy = getPolicy(Duration.ZERO);
+        assertThat(policy.shouldTrigger(INTERVAL, corfuStore)).isTrue();
+        assertThat(policy.getTablePriorities(corfuStore)).isEqualTo(streamGrowth);
+        policy.markCompactionCycleStart();
+        verify(signalsCollector).collect(corfuStore, Address.NON_ADDRESS);
+
+        // The growth of the next cycle is counted from the global tail when this cycle started
+        policy.shouldTrigger(INTERVAL, corfuStore);
+        verify(signalsCollector).collect(corfuStore, GLOBAL_TAIL);
+    }
+}
@@ -0,0 +1,173 @@
+package org.corfudb.infrastructure.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.corfudb.infrastructure.log.StreamLogFiles.RECORDS_PER_LOG_FILE;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.corfudb.AbstractCorfuTest;
+import org.corfudb.infrastructure.BatchProcessor.BatchProcessorContext;
+import org.corfudb.infrastructure.ResourceQuota;
+import org.corfudb.infrastructure.ServerContext;
+import org.corfudb.infrastructure.ServerContextBuilder;
+import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.runtime.exceptions.DataCorruptionException;
+import org.corfudb.runtime.exceptions.OverwriteException;
+import org.corfudb.util.serializer.Serializers;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+/**
+ * Tests the compression of cold segments of {@link StreamLogFiles}.
+ */
+public class SegmentCompressorTest extends AbstractCorfuTest {
+
+    private ServerContext getContext() {
+        return new ServerContextBuilder()
+                .setLogPath(PARAMETERS.TEST_TEMP_DIR)
+                .setMemory(false)
+                .setCompressColdSegments(true)
+                .build();
+    }
+
+    private File getSegmentFile(long segmentId) {
+        return new File(PARAMETERS.TEST_TEMP_DIR + File.separator + "log"
+                + File.separator + segmentId + ".log");
+    }
+
+    private static String getPayload(long address) {
+        return "Payload of a cold log entry at address " + address;
+    }
+
+    private void writeToLog(StreamLog log, long address) {
+        ByteBuf b = Unpooled.buffer();
+        Serializers.CORFU.serialize(getPayload(address).getBytes(), b);
+        log.append(address, new LogData(DataType.DATA, b));
+    }
+
+    private boolean isCompressed(StreamLogFiles log, long address) {
+        Segment segment = log.getSegmentHandleForAddress(address);
+        try {
+            return segment.isCompressed();
+        } finally {
+            segment.release();
+        }
+    }
+
+    private void assertReadable(StreamLog log, long numEntries) {
+        for (long x = 0; x < numEntries; x++) {
+            assertThat(log.read(x).getPayload(null)).isEqualTo(getPayload(x).getBytes());
+        }
+    }
+
+    /**
+     * Verifies that only the segments whose addresses are all committed are compressed,
+     * and that their entries can be read, also after a restart.
+     */
+    @Test
+    public void testCompressColdSegments() {
+        final long numEntries = 2 * RECORDS_PER_LOG_FILE + RECORDS_PER_LOG_FILE / 2;
+        StreamLogFiles log = new StreamLogFiles(getContext(), new BatchProcessorContext());
+        for (long x = 0; x < numEntries; x++) {
+            writeToLog(log, x);
+        }
+        final long rawSize0 = getSegmentFile(0).length();
+        final long rawSize1 = getSegmentFile(1).length();
+
+        // Only the first segment is committed
+        log.updateCommittedTail(RECORDS_PER_LOG_FILE + 1);
+        log.compressColdSegments();
+        assertThat(isCompressed(log, 0L)).isTrue();
+        assertThat(isCompressed(log, RECORDS_PER_LOG_FILE)).isFalse();
+        assertThat(getSegmentFile(0).length()).isLessThan(rawSize0);
+        assertThat(getSegmentFile(1).length()).isEqualTo(rawSize1);
+
+        log.updateCommittedTail(numEntries - 1);
+        log.compressColdSegments();
+        assertThat(getSegmentFile(1).length()).isLessThan(rawSize1);
+        assertThat(isCompressed(log, 2 * RECORDS_PER_LOG_FILE)).isFalse();
+        assertReadable(log, numEntries);
+
+        // Compressed segments are read only
+        assertThatThrownBy(() -> writeToLog(log, 1L)).isInstanceOf(OverwriteException.class);
+        log.close();
+
+        StreamLogFiles restarted = new StreamLogFiles(getContext(), new BatchProcessorContext());
+        assertThat(restarted.getLogTail()).isEqualTo(numEntries - 1);
+        assertReadable(restarted, numEntries);
+        assertThat(restarted.getKnownAddressesInRange(0L, numEntries - 1)).hasSize((int) numEntries);
+        restarted.close();
+    }
+
+    /**
+     * Verifies that a compressed segment is opened without decompressing its blocks, so
+     * that a corrupted block is only detected when an entry of the block is read.
+     */
+    @Test
+    public void testCorruptedBlockDetectedOnRead() throws Exception {
+        StreamLogFiles log = new StreamLogFiles(getContext(), new BatchProcessorContext());
+        for (long x = 0; x < RECORDS_PER_LOG_FILE + 1; x++) {
+            writeToLog(log, x);
+        }
+        log.updateCommittedTail(RECORDS_PER_LOG_FILE);
+        log.compressColdSegments();
+        assertThat(isCompressed(log, 0L)).isTrue();
+        log.close();
+
+        // Flip the last byte of the last block
+        File segmentFile = getSegmentFile(0);
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile, "rw")) {
+            file.seek(file.length() - 1);
+            byte last = file.readByte();
+            file.seek(file.length() - 1);
+            file.writeByte(~last);
+        }
+
+        Segment segment = new Segment(0L, RECORDS_PER_LOG_FILE, segmentFile.getParentFile().toPath(),
+                new ResourceQuota("LogSizeQuota", Long.MAX_VALUE));
+        try {
+            assertThat(segment.isCompressed()).isTrue();
+            assertThat(segment.getNumAddresses()).isEqualTo(RECORDS_PER_LOG_FILE);
+            assertThat(segment.read(0L).getPayload(null)).isEqualTo(getPayload(0L).getBytes());
+            assertThatThrownBy(() -> segment.read(RECORDS_PER_LOG_FILE - 1))
+                    .isInstanceOf(DataCorruptionException.class);
+        } finally {
+            segment.close();
+        }
+    }
+
+    /**
+     * Verifies that segments with holes are not compressed, even if committed, and that
+     * compressed segments are trimmed like raw segments.
+     */
+    @Test
+    public void testCompressAndTrimColdSegments() {
+        final long numSegments = 3;
+        StreamLogFiles log = new StreamLogFiles(getContext(), new BatchProcessorContext());
+        for (long x = 0; x < numSegments * RECORDS_PER_LOG_FILE; x++) {
+            // Leave a hole in the second segment
+            if (x != RECORDS_PER_LOG_FILE + 1) {
+                writeToLog(log, x);
+            }
+        }
+
+        log.updateCommittedTail(numSegments * RECORDS_PER_LOG_FILE - 1);
+        log.compressColdSegments();
+        assertThat(isCompressed(log, 0L)).isTrue();
+        assertThat(isCompressed(log, RECORDS_PER_LOG_FILE)).isFalse();
+        assertThat(isCompressed(log, 2 * RECORDS_PER_LOG_FILE)).isTrue();
+
+        log.prefixTrim(RECORDS_PER_LOG_FILE);
+        log.compact();
+        assertThat(getSegmentFile(0)).doesNotExist();
+        assertThat(log.read(RECORDS_PER_LOG_FILE + 2).getPayload(null))
+                .isEqualTo(getPayload(RECORDS_PER_LOG_FILE + 2).getBytes());
+        assertThat(log.read(2 * RECORDS_PER_LOG_FILE).getPayload(null))
+                .isEqualTo(getPayload(2 * RECORDS_PER_LOG_FILE).getBytes());
+        log.close();
+    }
+}
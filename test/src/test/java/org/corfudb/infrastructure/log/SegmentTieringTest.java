@@ -0,0 +1,176 @@
+package org.corfudb.infrastructure.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.corfudb.infrastructure.log.StreamLogFiles.RECORDS_PER_LOG_FILE;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.corfudb.AbstractCorfuTest;
+import org.corfudb.infrastructure.BatchProcessor.BatchProcessorContext;
+import org.corfudb.infrastructure.ServerContext;
+import org.corfudb.infrastructure.ServerContextBuilder;
+import org.corfudb.infrastructure.log.tier.FileSystemSegmentTier;
+import org.corfudb.infrastructure.log.tier.InMemoryObjectStore;
+import org.corfudb.infrastructure.log.tier.SegmentTier;
+import org.corfudb.infrastructure.log.tier.SegmentTiers;
+import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.util.serializer.Serializers;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests the offloading of cold segments of {@link StreamLogFiles} to a secondary tier.
+ */
+public class SegmentTieringTest extends AbstractCorfuTest {
+
+    private static final long NUM_ENTRIES = 2 * RECORDS_PER_LOG_FILE + RECORDS_PER_LOG_FILE / 2;
+
+    private ServerContextBuilder getContextBuilder() {
+        return new ServerContextBuilder()
+                .setLogPath(PARAMETERS.TEST_TEMP_DIR)
+                .setMemory(false)
+                .setLogTierOffloadAge("0")
+                .setLogTierCacheSegments("1");
+    }
+
+    private ServerContext getContext(String logTier) {
+        return getContextBuilder().setLogTier(logTier).build();
+    }
+
+    private ServerContext getContext(SegmentTier logTier) {
+        return getContextBuilder().setProvidedLogTier(logTier).build();
+    }
+
+    private File getLogDir() {
+        return new File(PARAMETERS.TEST_TEMP_DIR, "log");
+    }
+
+    private void writeToLog(StreamLog log, long address) {
+        ByteBuf b = Unpooled.buffer();
+        Serializers.CORFU.serialize(("Payload" + address).getBytes(), b);
+        log.append(address, new LogData(DataType.DATA, b));
+    }
+
+    private void assertReadable(StreamLog log, long fromAddress) {
+        for (long x = fromAddress; x < NUM_ENTRIES; x++) {
+            assertThat(log.read(x).getPayload(null)).isEqualTo(("Payload" + x).getBytes());
+        }
+    }
+
+    /**
+     * Writes two committed segments and a partial segment, and offloads the committed ones.
+     */
+    private StreamLogFiles writeAndOffload(ServerContext context) {
+        StreamLogFiles log = new StreamLogFiles(context, new BatchProcessorContext());
+        for (long x = 0; x < NUM_ENTRIES; x++) {
+            writeToLog(log, x);
+        }
+        log.updateCommittedTail(NUM_ENTRIES - 1);
+
+        long usedBeforeOffload = FileSystemAgent.getResourceQuota().getUsed().get();
+        log.offloadColdSegments();
+        assertThat(getLogDir().list((dir, name) -> name.endsWith(".log"))).containsExactly("2.log");
+        assertThat(FileSystemAgent.getResourceQuota().getUsed().get()).isLessThan(usedBeforeOffload);
+        return log;
+    }
+
+    /**
+     * Verifies that offloaded segments are read through the tier cache, also after a restart,
+     * and that they are deleted from the tier once trimmed.
+     */
+    @Test
+    public void testOffloadToFileSystemTier() {
+        File tierDir = new File(PARAMETERS.TEST_TEMP_DIR, "tier");
+        ServerContext context = getContext(tierDir.toURI().toString());
+
+        StreamLogFiles log = writeAndOffload(context);
+        assertThat(tierDir.list()).containsExactlyInAnyOrder("0.log", "1.log");
+
+        // The cache holds one segment, so reading both offloaded segments evicts one of them
+        assertReadable(log, 0L);
+        assertThat(new File(PARAMETERS.TEST_TEMP_DIR, "log-tier-cache").list()).hasSize(1);
+        log.close();
+
+        log = new StreamLogFiles(context, new BatchProcessorContext());
+        assertThat(log.getLogTail()).isEqualTo(NUM_ENTRIES - 1);
+        assertReadable(log, 0L);
+
+        log.prefixTrim(RECORDS_PER_LOG_FILE);
+        log.compact();
+        assertThat(tierDir.list()).containsExactly("1.log");
+        assertThat(log.read(0L).isTrimmed()).isTrue();
+        assertReadable(log, RECORDS_PER_LOG_FILE + 1);
+        log.close();
+    }
+
+    /**
+     * Verifies that segments can be offloaded to the object store stand-in.
+     */
+    @Test
+    public void testOffloadToObjectStoreTier() {
+        String bucket = "bucket-" + UUID.randomUUID();
+        ServerContext context = getContext(InMemoryObjectStore.getSegmentTier(bucket, "segments/"));
+
+        StreamLogFiles log = writeAndOffload(context);
+        assertThat(InMemoryObjectStore.getInstance().listObjects(bucket, ""))
+                .containsExactlyInAnyOrder("segments/0.log", "segments/1.log");
+        log.close();
+
+        log = new StreamLogFiles(context, new BatchProcessorContext());
+        assertReadable(log, 0L);
+
+        log.reset();
+        assertThat(InMemoryObjectStore.getInstance().listObjects(bucket, "")).isEmpty();
+        log.close();
+    }
+
+    /**
+     * Verifies that a segment which is only partially downloaded is not cached, so that it
+     * is downloaded again instead of being read truncated.
+     */
+    @Test
+    public void testPartialDownloadIsNotCached() throws Exception {
+        File tierDir = new File(PARAMETERS.TEST_TEMP_DIR, "tier");
+        AtomicBoolean truncateDownload = new AtomicBoolean(false);
+        SegmentTier tier = new FileSystemSegmentTier(tierDir.toPath()) {
+            @Override
+            public void download(String fileName, Path target) throws IOException {
+                super.download(fileName, target);
+                if (truncateDownload.getAndSet(false)) {
+                    try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+                        channel.truncate(channel.size() / 2);
+                    }
+                }
+            }
+        };
+        ServerContext context = getContext(tier);
+
+        StreamLogFiles log = writeAndOffload(context);
+        File cacheDir = new File(PARAMETERS.TEST_TEMP_DIR, "log-tier-cache");
+
+        truncateDownload.set(true);
+        assertThatThrownBy(() -> log.read(0L)).isInstanceOf(IllegalStateException.class);
+        assertThat(cacheDir.list()).isEmpty();
+
+        assertReadable(log, 0L);
+        log.close();
+    }
+
+    /**
+     * Verifies that a tier URI without a durable tier implementation is rejected.
+     */
+    @Test
+    public void testUnsupportedTierIsRejected() {
+        assertThatThrownBy(() -> SegmentTiers.fromUri("s3://bucket/segments"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -17,6 +17,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -36,6 +37,7 @@ import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
 import org.corfudb.runtime.exceptions.OverwriteException;
+import org.corfudb.runtime.exceptions.TrimmedException;
 import org.corfudb.runtime.view.Address;
 import org.corfudb.test.LsofSpec;
 import org.corfudb.util.serializer.Serializers;
@@ -92,7 +94,7 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
             logFile.writeInt(OVERWRITE_BYTES);
         }
 
-        log.closeSegmentHandlers(0);
+        log.closeSegmentHandlers(Collections.singleton(0L));
         try {
             log.read(address0);
             throw new IllegalStateException("Must not get here");
@@ -515,6 +517,74 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
         assertThat(trimmedExceptions).isEqualTo(trimAddress + 1);
     }
 
+    /**
+     * Verifies that compaction doesn't close the channels of a trimmed segment while it is in
+     * use, and that they are closed when the last reader releases the segment.
+     */
+    @Test
+    public void testCompactionDefersCloseOfRetainedSegment() throws Exception {
+        StreamLogFiles log = new StreamLogFiles(getContext(), new BatchProcessorContext());
+
+        final long numSegments = 3;
+        for (long x = 0; x < numSegments * RECORDS_PER_LOG_FILE; x++) {
+            writeToLog(log, x);
+        }
+
+        // A reader in the middle of a read of the first segment
+        Segment retained = log.getSegmentHandleForAddress(0L);
+
+        log.prefixTrim(RECORDS_PER_LOG_FILE);
+        log.compact();
+
+        assertThat(log.getOpenSegments()).doesNotContain(retained);
+        assertThat(retained.getWriteChannel().isOpen()).isTrue();
+        assertThat(retained.read(0L)).isNotNull();
+        assertThat(log.read(0L).isTrimmed()).isTrue();
+
+        retained.release();
+        assertThat(retained.getWriteChannel().isOpen()).isFalse();
+        assertThat(retained.retain()).isFalse();
+
+        // Trimmed segments are not opened (and their files not created) again
+        assertThatThrownBy(() -> log.getSegmentHandleForAddress(0L))
+                .isInstanceOf(TrimmedException.class);
+        assertThat(log.getKnownAddressesInRange(0L, RECORDS_PER_LOG_FILE)).isEmpty();
+    }
+
+    /**
+     * Verifies that reads concurrent with prefix trims and compactions either return the data
+     * or a trimmed entry, and never fail.
+     */
+    @Test
+    public void testConcurrentReadsAndCompaction() throws Exception {
+        StreamLogFiles log = new StreamLogFiles(getContext(), new BatchProcessorContext());
+
+        final long numSegments = 10;
+        final long numAddresses = numSegments * RECORDS_PER_LOG_FILE;
+        for (long x = 0; x < numAddresses; x++) {
+            writeToLog(log, x);
+        }
+
+        final int numReaders = 4;
+        scheduleConcurrently(numReaders, t -> {
+            for (long x = 0; x < numAddresses; x++) {
+                LogData data = log.read(x);
+                assertThat(data.isTrimmed() || data.isData()).isTrue();
+            }
+        });
+        scheduleConcurrently(t -> {
+            for (long segment = 1; segment < numSegments; segment++) {
+                log.prefixTrim(segment * RECORDS_PER_LOG_FILE);
+                log.compact();
+            }
+        });
+        executeScheduled(numReaders + 1, PARAMETERS.TIMEOUT_LONG);
+
+        log.compact();
+        assertThat(log.getOpenSegments())
+                .allMatch(segment -> segment.id == numSegments - 1);
+    }
+
     @Test
     public void testPrefixTrimAndStartUp() {
         StreamLog log = new StreamLogFiles(getContext(), new BatchProcessorContext());
@@ -707,6 +777,127 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
         assertThat(log.read(address0).getPayload(null)).isEqualTo(streamEntry);
     }
 
+    private ServerContext getContext(long segmentMaxBytes) {
+        return new ServerContextBuilder()
+                .setLogPath(getDirPath())
+                .setMemory(false)
+                .setLogSegmentMaxBytes(Long.toString(segmentMaxBytes))
+                .build();
+    }
+
+    private List<String> getSegmentFileNames() {
+        File logDir = new File(getDirPath() + File.separator + "log");
+        List<String> names = new ArrayList<>();
+        for (File file : logDir.listFiles()) {
+            if (file.getName().endsWith(".log")) {
+                names.add(file.getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Verifies that segments roll over once they reach the maximum segment size, and that
+     * the entries of rolled over segments can be read, also after a restart.
+     */
+    @Test
+    public void testSegmentRolloverBySize() {
+        final long segmentMaxBytes = 4096;
+        final long numEntries = 500;
+
+        StreamLogFiles log = new StreamLogFiles(getContext(segmentMaxBytes), new BatchProcessorContext());
+        for (long x = 0; x < numEntries; x++) {
+            writeToLog(log, x);
+        }
+
+        // Segments started by a rollover are not aligned to RECORDS_PER_LOG_FILE
+        List<String> segmentFiles = getSegmentFileNames();
+        assertThat(segmentFiles.size()).isGreaterThan(2);
+        assertThat(segmentFiles).contains("0.log");
+        assertThat(segmentFiles).anyMatch(name -> name.startsWith("0_"));
+
+        log.close();
+
+        log = new StreamLogFiles(getContext(segmentMaxBytes), new BatchProcessorContext());
+        assertThat(log.getLogTail()).isEqualTo(numEntries - 1);
+        for (long x = 0; x < numEntries; x++) {
+            assertThat(log.read(x).getPayload(null)).isEqualTo("Payload".getBytes());
+        }
+        assertThat(log.getKnownAddressesInRange(0L, numEntries - 1)).hasSize((int) numEntries);
+
+        // The next entries go to a new segment, since the last one was full
+        final long nextAddress = numEntries + 1;
+        writeToLog(log, nextAddress);
+        assertThat(log.read(nextAddress).getPayload(null)).isEqualTo("Payload".getBytes());
+        assertThat(log.contains(numEntries)).isFalse();
+        log.close();
+    }
+
+    /**
+     * Verifies that compaction deletes the rolled over segments which only hold trimmed
+     * addresses and keeps the segment which holds the trim mark.
+     */
+    @Test
+    public void testTrimRolledOverSegments() {
+        final long segmentMaxBytes = 4096;
+        final long numEntries = 500;
+        final long trimAddress = 250;
+
+        StreamLogFiles log = new StreamLogFiles(getContext(segmentMaxBytes), new BatchProcessorContext());
+        for (long x = 0; x < numEntries; x++) {
+            writeToLog(log, x);
+        }
+        final int segmentsBeforeTrim = getSegmentFileNames().size();
+
+        log.prefixTrim(trimAddress);
+        log.compact();
+
+        assertThat(getSegmentFileNames().size()).isLessThan(segmentsBeforeTrim);
+        assertThat(getSegmentFileNames()).doesNotContain("0.log");
+        for (long x = 0; x < numEntries; x++) {
+            if (x <= trimAddress) {
+                assertThat(log.read(x).isTrimmed()).isTrue();
+            } else {
+                assertThat(log.read(x).getPayload(null)).isEqualTo("Payload".getBytes());
+            }
+        }
+        log.close();
+
+        // The remaining segments are loaded on restart
+        log = new StreamLogFiles(getContext(segmentMaxBytes), new BatchProcessorContext());
+        assertThat(log.getLogTail()).isEqualTo(numEntries - 1);
+        assertThat(log.read(trimAddress + 1).getPayload(null)).isEqualTo("Payload".getBytes());
+        log.close();
+    }
+
+    /**
+     * Verifies that a log written with fixed size segments is loaded as is when rollover by
+     * size is enabled, and that its segments keep their file names.
+     */
+    @Test
+    public void testLoadFixedSizeSegmentsWithRollover() {
+        final long numSegments = 2;
+        StreamLogFiles log = new StreamLogFiles(getContext(), new BatchProcessorContext());
+        for (long x = 0; x < numSegments * RECORDS_PER_LOG_FILE; x += RECORDS_PER_LOG_FILE / 2) {
+            writeToLog(log, x);
+        }
+        log.close();
+        assertThat(getSegmentFileNames()).containsExactlyInAnyOrder("0.log", "1.log");
+
+        final long segmentMaxBytes = 1;
+        log = new StreamLogFiles(getContext(segmentMaxBytes), new BatchProcessorContext());
+        for (long x = 0; x < numSegments * RECORDS_PER_LOG_FILE; x += RECORDS_PER_LOG_FILE / 2) {
+            assertThat(log.read(x).getPayload(null)).isEqualTo("Payload".getBytes());
+        }
+
+        // The tail segment is over the maximum size, so the next write rolls it over
+        final long nextAddress = RECORDS_PER_LOG_FILE + RECORDS_PER_LOG_FILE / 2 + 1;
+        writeToLog(log, nextAddress);
+        log.close();
+        assertThat(getSegmentFileNames()).containsExactlyInAnyOrder("0.log", "1.log",
+                "1_" + (nextAddress + 1) % RECORDS_PER_LOG_FILE + ".log");
+    }
+
     @Test
     public void estimateSizeTest() throws IOException {
         // Create two nested directories and create files in each,
@@ -0,0 +1,82 @@
+package org.corfudb.infrastructure.log.tier;
+
+import com.google.common.io.ByteStreams;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * An in-process stand-in for an S3-compatible object store, for tests only. The objects live
+ * as long as the JVM.
+ */
+public class InMemoryObjectStore implements ObjectStore {
+
+    private static final InMemoryObjectStore INSTANCE = new InMemoryObjectStore();
+
+    private final Map<String, Map<String, byte[]>> buckets = new ConcurrentHashMap<>();
+
+    public static InMemoryObjectStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get a segment tier backed by this object store.
+     *
+     * @param bucket the bucket of the segment objects
+     * @param prefix the key prefix of the segment objects
+     * @return the segment tier
+     */
+    public static SegmentTier getSegmentTier(String bucket, String prefix) {
+        return new ObjectStoreSegmentTier(INSTANCE, bucket, prefix);
+    }
+
+    private Map<String, byte[]> getBucket(String bucket) {
+        return buckets.computeIfAbsent(bucket, b -> new ConcurrentHashMap<>());
+    }
+
+    private byte[] getData(String bucket, String key) throws FileNotFoundException {
+        byte[] data = getBucket(bucket).get(key);
+        if (data == null) {
+            throw new FileNotFoundException(bucket + "/" + key);
+        }
+        return data;
+    }
+
+    @Override
+    public void putObject(String bucket, String key, InputStream data, long length) throws IOException {
+        byte[] bytes = ByteStreams.toByteArray(data);
+        if (bytes.length != length) {
+            throw new IOException("Read " + bytes.length + " bytes of " + bucket + "/" + key
+                    + ", expected " + length);
+        }
+        getBucket(bucket).put(key, bytes);
+    }
+
+    @Override
+    public InputStream getObject(String bucket, String key) throws FileNotFoundException {
+        return new ByteArrayInputStream(getData(bucket, key));
+    }
+
+    @Override
+    public long getObjectSize(String bucket, String key) throws FileNotFoundException {
+        return getData(bucket, key).length;
+    }
+
+    @Override
+    public Set<String> listObjects(String bucket, String prefix) {
+        return getBucket(bucket).keySet().stream()
+                .filter(key -> key.startsWith(prefix))
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void deleteObject(String bucket, String key) {
+        getBucket(bucket).remove(key);
+    }
+}
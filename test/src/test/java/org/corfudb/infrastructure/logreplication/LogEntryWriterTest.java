@@ -27,6 +27,7 @@ import static org.mockito.Mockito.times;
 public class LogEntryWriterTest extends AbstractViewTest {
 
     private CorfuRuntime corfuRuntime;
+    private LogReplicationConfig replicationConfig;
     private LogReplicationMetadataManager metadataManager;
     private LogEntryWriter logEntryWriter;
     private TxnContext txnContext;
@@ -39,7 +40,7 @@ public class LogEntryWriterTest extends AbstractViewTest {
         corfuRuntime = getDefaultRuntime();
         // Initialize TableRegistry and register ProtobufSerializer
         corfuRuntime.getTableRegistry();
-        LogReplicationConfig replicationConfig = Mockito.mock(LogReplicationConfig.class);
+        replicationConfig = Mockito.mock(LogReplicationConfig.class);
         metadataManager = Mockito.mock(LogReplicationMetadataManager.class);
         initMocksForMetadataManager();
         // Mocking steps for initializing LogEntryWriter.
@@ -345,6 +346,43 @@ public class LogEntryWriterTest extends AbstractViewTest {
         verifyMetadataAppliedAndOrder(0, txnContexts, metadataTypes, timestamps);
     }
 
+    /**
+     * This test verifies that in the coalesced apply mode, the opaque entries of a message are applied in a single
+     * transaction which advances LAST_LOG_ENTRY_APPLIED to the last of them, and that a message overlapping the
+     * applied entries only applies the new ones.
+     */
+    @Test
+    public void testCoalescedLogEntryApply() {
+        Mockito.doReturn(1 << 20).when(replicationConfig).getMaxLogEntryApplySize();
+
+        LogReplicationEntryMsg lrEntryMsg = utils.generateLogEntryMsg(1, numOpaqueEntries, Address.NON_ADDRESS,
+            topologyConfigId, Address.NON_ADDRESS);
+        Map<LogReplicationMetadataType, Long> metadataMap = constructMetadataMgrMap(topologyConfigId,
+            Address.NON_ADDRESS, Address.NON_ADDRESS, Address.NON_ADDRESS);
+        updateMetadataManagerMap(metadataMap, false);
+
+        Assert.assertTrue(logEntryWriter.apply(lrEntryMsg));
+        verifyNumberOfTx(1);
+        verifyMetadataAppliedAndOrder(2, Arrays.asList(txnContext, txnContext),
+            Arrays.asList(LogReplicationMetadataType.LAST_LOG_ENTRY_APPLIED,
+                LogReplicationMetadataType.LAST_LOG_ENTRY_BATCH_PROCESSED),
+            Arrays.asList((long) numOpaqueEntries, (long) numOpaqueEntries));
+
+        // Replay the message with sequence numbers [2-4]: only sequence number 4 is applied
+        int endTs = numOpaqueEntries + 1;
+        lrEntryMsg = utils.generateLogEntryMsg(2, endTs, numOpaqueEntries, topologyConfigId, Address.NON_ADDRESS);
+        metadataMap = constructMetadataMgrMap(topologyConfigId, numOpaqueEntries, numOpaqueEntries,
+            Address.NON_ADDRESS);
+        updateMetadataManagerMap(metadataMap, true);
+
+        Assert.assertTrue(logEntryWriter.apply(lrEntryMsg));
+        verifyNumberOfTx(1);
+        verifyMetadataAppliedAndOrder(2, Arrays.asList(txnContext, txnContext),
+            Arrays.asList(LogReplicationMetadataType.LAST_LOG_ENTRY_APPLIED,
+                LogReplicationMetadataType.LAST_LOG_ENTRY_BATCH_PROCESSED),
+            Arrays.asList((long) endTs, (long) endTs));
+    }
+
     private void verifyNumberOfTx(int numExpectedTx) {
         // Verify that each opaque entry was applied in a separate transaction
         // The number of times commit() is invoked should be equal to numOpaqueEntries
@@ -387,6 +425,7 @@ public class LogEntryWriterTest extends AbstractViewTest {
     private void initMocksForMetadataManager() {
         Mockito.doReturn(Address.NON_ADDRESS).when(metadataManager).getLastAppliedSnapshotTimestamp();
         Mockito.doReturn(Address.NON_ADDRESS).when(metadataManager).getLastProcessedLogEntryBatchTimestamp();
+        Mockito.doReturn(corfuRuntime).when(metadataManager).getRuntime();
 
         txnContext = Mockito.mock(TxnContext.class);
         Mockito.doReturn(txnContext).when(metadataManager).getTxnContext();
@@ -2,7 +2,11 @@ package org.corfudb.protocols.logprotocol;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import com.google.common.reflect.TypeToken;
 import org.corfudb.CustomSerializer;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.CorfuTable$CORFUSMR;
+import org.corfudb.runtime.collections.PersistentCorfuTable;
 import org.corfudb.runtime.exceptions.SerializerException;
 import org.corfudb.runtime.view.AbstractViewTest;
 import org.corfudb.util.serializer.ISerializer;
@@ -11,8 +15,10 @@ import org.junit.After;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -157,4 +163,180 @@ public class LogEntryTest extends AbstractViewTest {
         multiSMREntry2.getUpdates().stream().forEach(entry -> assertThat(entry.getGlobalAddress())
                 .isEqualTo(entryAddress));
     }
+
+    @Test
+    public void testZeroCopyStreamBuffers() {
+        // Deserialize an entry with three streams from a buffer, verify that the stream
+        // buffers are slices of the serialized entry, and that the serialized entry is
+        // retained until the updates of every stream are deserialized
+        MultiObjectSMREntry multiObjSmrEntry = new MultiObjectSMREntry();
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+        UUID id3 = UUID.randomUUID();
+        SMREntry update1 = new SMREntry("method1", new Object[]{"arg1"}, Serializers.PRIMITIVE);
+        SMREntry update2 = new SMREntry("method2", new Object[]{"arg2"}, Serializers.PRIMITIVE);
+        multiObjSmrEntry.addTo(id1, update1);
+        multiObjSmrEntry.addTo(id2, Arrays.asList(update1, update2));
+        multiObjSmrEntry.addTo(id3, update2);
+
+        ByteBuf buf = Unpooled.buffer();
+        multiObjSmrEntry.serialize(buf);
+        MultiObjectSMREntry deserializedEntry = (MultiObjectSMREntry) LogEntry.deserialize(buf, getDefaultRuntime());
+        assertThat(buf.readerIndex()).isEqualTo(buf.writerIndex());
+
+        // The caller releases its own reference, the entry keeps the buffer alive
+        assertThat(buf.refCnt()).isEqualTo(2);
+        buf.release();
+        deserializedEntry.getStreamBuffers().values()
+                .forEach(streamBuf -> assertThat(streamBuf.unwrap()).isSameAs(buf));
+
+        assertThat(deserializedEntry.getSMRUpdates(id2)).containsExactly(update1, update2);
+        assertThat(deserializedEntry.getSMRUpdates(id2)).containsExactly(update1, update2);
+        assertThat(deserializedEntry.getSMRUpdates(id1)).containsExactly(update1);
+        assertThat(buf.refCnt()).isEqualTo(1);
+        assertThat(deserializedEntry.getSMRUpdates(UUID.randomUUID())).isEmpty();
+
+        assertThat(deserializedEntry.getSMRUpdates(id3)).containsExactly(update2);
+        assertThat(deserializedEntry.getStreamBuffers()).isEmpty();
+        assertThat(buf.refCnt()).isZero();
+        assertThat(deserializedEntry.getEntryMap()).containsOnlyKeys(id1, id2, id3);
+    }
+
+    @Test
+    public void testPassThroughUpdatesOutliveStreamBuffers() {
+        // Take the pass-through updates of an entry, then deserialize all its streams,
+        // which releases the serialized entry: the pass-through updates are still valid
+        MultiObjectSMREntry multiObjSmrEntry = new MultiObjectSMREntry();
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+        SMREntry update1 = new SMREntry("method1", new Object[]{"arg1"}, Serializers.PRIMITIVE);
+        SMREntry update2 = new SMREntry("method2", new Object[]{"arg2"}, Serializers.PRIMITIVE);
+        multiObjSmrEntry.addTo(id1, update1);
+        multiObjSmrEntry.addTo(id2, Arrays.asList(update1, update2));
+
+        ByteBuf buf = Unpooled.buffer();
+        multiObjSmrEntry.serialize(buf);
+        MultiObjectSMREntry deserializedEntry = (MultiObjectSMREntry) LogEntry.deserialize(buf, getDefaultRuntime());
+        buf.release();
+
+        assertThat(deserializedEntry.getSMRUpdates(id1)).containsExactly(update1);
+        Map<UUID, List<SMREntry>> passThroughUpdates = deserializedEntry.getPassThroughUpdates();
+        assertThat(passThroughUpdates).containsOnlyKeys(id1, id2);
+        assertThat(passThroughUpdates.get(id2)).hasSize(2).allMatch(SMREntry::isPassThrough);
+
+        assertThat(deserializedEntry.getSMRUpdates(id2)).containsExactly(update1, update2);
+        assertThat(buf.refCnt()).isZero();
+
+        for (SMREntry entry : passThroughUpdates.get(id2)) {
+            ByteBuf out = Unpooled.buffer();
+            entry.serialize(out);
+            out.release();
+        }
+        assertThat(passThroughUpdates.get(id2).get(1).decodePassThrough().getSMRMethod()).isEqualTo("method2");
+        assertThat(deserializedEntry.getPassThroughUpdates().get(id2)).containsExactly(update1, update2);
+    }
+
+    private static SMREntry roundTrip(SMREntry entry, CorfuRuntime rt) {
+        ByteBuf buf = Unpooled.buffer();
+        Serializers.CORFU.serialize(entry, buf);
+        SMREntry deserialized = (SMREntry) Serializers.CORFU.deserialize(buf, rt);
+        assertThat(buf.readerIndex()).isEqualTo(buf.writerIndex());
+        buf.resetReaderIndex();
+        SMREntry.seekToEnd(buf);
+        assertThat(buf.readerIndex()).isEqualTo(buf.writerIndex());
+        return deserialized;
+    }
+
+    @Test
+    public void testCompactSMREntryEncoding() {
+        // Arguments whose varint length takes one, two and three bytes
+        final int mediumSize = 1000;
+        final int largeSize = 20000;
+        char[] large = new char[largeSize];
+        Arrays.fill(large, 'a');
+        Object[][] arguments = {
+                new Object[]{"key", "value"},
+                new Object[]{"key", new String(large, 0, mediumSize)},
+                new Object[]{new String(large)},
+                new Object[]{}
+        };
+
+        for (String method : Arrays.asList("put", "remove", "clear", "customMethod")) {
+            for (Object[] args : arguments) {
+                SMREntry legacy = new SMREntry(method, args, Serializers.PRIMITIVE);
+                SMREntry compact = new SMREntry(method, args, Serializers.PRIMITIVE);
+                compact.setCompactEncoding(true);
+
+                SMREntry legacyRead = roundTrip(legacy, getDefaultRuntime());
+                SMREntry compactRead = roundTrip(compact, getDefaultRuntime());
+                assertThat(legacyRead).isEqualTo(legacy);
+                assertThat(compactRead).isEqualTo(compact);
+                assertThat(compactRead.getSMRArguments()).isEqualTo(legacy.getSMRArguments());
+                assertThat(legacyRead.isCompactEncoding()).isFalse();
+                assertThat(compactRead.isCompactEncoding()).isTrue();
+                if (SMRMethodDictionary.getId(method) != SMRMethodDictionary.NO_ID) {
+                    assertThat(compact.getSerializedSize()).isLessThan(legacy.getSerializedSize());
+                } else {
+                    assertThat(compact.getSerializedSize()).isLessThanOrEqualTo(legacy.getSerializedSize());
+                }
+            }
+        }
+
+        // A MultiSMREntry with compact updates can be skipped and propagates the encoding
+        MultiSMREntry multiSMREntry = new MultiSMREntry();
+        multiSMREntry.addTo(new SMREntry("put", arguments[0], Serializers.PRIMITIVE));
+        multiSMREntry.addTo(new SMREntry("putAll", arguments[2], Serializers.PRIMITIVE));
+        multiSMREntry.setCompactEncoding(true);
+        ByteBuf buf = Unpooled.buffer();
+        Serializers.CORFU.serialize(multiSMREntry, buf);
+        MultiSMREntry.seekToEnd(buf);
+        assertThat(buf.readerIndex()).isEqualTo(buf.writerIndex());
+        buf.resetReaderIndex();
+        MultiSMREntry read = (MultiSMREntry) Serializers.CORFU.deserialize(buf, getDefaultRuntime());
+        assertThat(read).isEqualTo(multiSMREntry);
+        assertThat(read.getUpdates()).allMatch(SMREntry::isCompactEncoding);
+    }
+
+    @Test
+    public void testSMRMethodDictionaryCoversUpcalls() {
+        Set<String> upcalls = new HashSet<>(new PersistentCorfuTable<String, String>().getSMRUpcallMap().keySet());
+        upcalls.addAll(new CorfuTable$CORFUSMR<String, String>().getCorfuSMRUpcallMap().keySet());
+        upcalls.forEach(method -> {
+            int id = SMRMethodDictionary.getId(method);
+            assertThat(id).isNotEqualTo(SMRMethodDictionary.NO_ID);
+            assertThat(SMRMethodDictionary.getMethod(id)).isEqualTo(method);
+        });
+    }
+
+    @Test
+    public void testReadCompactEncodingFromAnotherRuntime() {
+        final int numKeys = 10;
+        final String streamName = "compact";
+        getDefaultRuntime();
+        CorfuRuntime writer = getNewRuntime(getDefaultNode()).connect();
+        writer.getParameters().setCompactSmrEntryEncoding(true);
+        PersistentCorfuTable<String, String> table = writer.getObjectsView().build()
+                .setTypeToken(new TypeToken<PersistentCorfuTable<String, String>>() {})
+                .setStreamName(streamName)
+                .open();
+        for (int i = 0; i < numKeys; i++) {
+            table.insert(String.valueOf(i), String.valueOf(i));
+        }
+        writer.getObjectsView().TXBegin();
+        table.delete("0");
+        table.insert("1", "one");
+        writer.getObjectsView().TXEnd();
+
+        CorfuRuntime reader = getNewRuntime(getDefaultNode()).connect();
+        PersistentCorfuTable<String, String> readTable = reader.getObjectsView().build()
+                .setTypeToken(new TypeToken<PersistentCorfuTable<String, String>>() {})
+                .setStreamName(streamName)
+                .open();
+        assertThat(readTable.size()).isEqualTo(numKeys - 1);
+        assertThat(readTable.get("0")).isNull();
+        assertThat(readTable.get("1")).isEqualTo("one");
+        assertThat(readTable.get("2")).isEqualTo("2");
+        writer.shutdown();
+        reader.shutdown();
+    }
 }
@@ -286,6 +286,9 @@ public class BackupRestoreIT extends AbstractIT {
         TarArchiveInputStream tarInput = new TarArchiveInputStream(fileInput);
         TarArchiveEntry entry;
         while ((entry = tarInput.getNextTarEntry()) != null) {
+            if (entry.getName().equals(BackupManifest.MANIFEST_ENTRY_NAME)) {
+                continue;
+            }
             String streamId = entry.getName().substring(0, entry.getName().indexOf("."));
             streamIDs.add(UUID.fromString(streamId));
         }
@@ -0,0 +1,213 @@
+package org.corfudb.runtime;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarFile;
+import org.corfudb.runtime.collections.CorfuStore;
+import org.corfudb.runtime.collections.CorfuStoreEntry;
+import org.corfudb.runtime.collections.Table;
+import org.corfudb.runtime.collections.TableOptions;
+import org.corfudb.runtime.collections.TxnContext;
+import org.corfudb.runtime.exceptions.BackupRestoreException;
+import org.corfudb.runtime.view.AbstractViewTest;
+import org.corfudb.runtime.view.TableRegistry;
+import org.corfudb.test.SampleSchema.EventInfo;
+import org.corfudb.test.SampleSchema.Uuid;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the compressed, verified and incremental backup tar files of Backup and Restore.
+ */
+public class BackupRestoreTest extends AbstractViewTest {
+
+    private static final String NAMESPACE = "test_namespace";
+    private static final String TABLE_NAME = "test_table";
+    private static final int NUM_KEYS = 20;
+
+    private final UUID streamId = CorfuRuntime.getStreamID(
+            TableRegistry.getFullyQualifiedTableName(NAMESPACE, TABLE_NAME));
+
+    private Table<Uuid, EventInfo, Uuid> openTable(CorfuStore corfuStore) throws Exception {
+        return corfuStore.openTable(NAMESPACE, TABLE_NAME, Uuid.class, EventInfo.class, Uuid.class,
+                TableOptions.fromProtoSchema(EventInfo.class));
+    }
+
+    private static Uuid getKey(int i) {
+        return Uuid.newBuilder().setMsb(i).setLsb(i).build();
+    }
+
+    private void put(CorfuStore corfuStore, Table<Uuid, EventInfo, Uuid> table, int i, String name) {
+        try (TxnContext txn = corfuStore.txn(NAMESPACE)) {
+            txn.putRecord(table, getKey(i), EventInfo.newBuilder().setId(i).setName(name).build(), null);
+            txn.commit();
+        }
+    }
+
+    private String backup(String previousBackupFilePath) throws Exception {
+        return backup(previousBackupFilePath, backup -> { });
+    }
+
+    private String backup(String previousBackupFilePath, Consumer<Backup> configure) throws Exception {
+        File file = File.createTempFile("backup", ".tar");
+        file.deleteOnExit();
+        Backup backup = new Backup(file.getAbsolutePath(), Collections.singletonList(streamId), getDefaultRuntime());
+        backup.setPreviousBackupFilePath(previousBackupFilePath);
+        configure.accept(backup);
+        backup.start();
+        return file.getAbsolutePath();
+    }
+
+    private void restore(String filePath) throws Exception {
+        CorfuRuntime rt = getNewRuntime(getDefaultNode()).connect();
+        new Restore(filePath, rt, Restore.RestoreMode.PARTIAL).start();
+        rt.shutdown();
+    }
+
+    private List<CorfuStoreEntry<Uuid, EventInfo, Uuid>> readTable() throws Exception {
+        CorfuRuntime rt = getNewRuntime(getDefaultNode()).connect();
+        CorfuStore corfuStore = new CorfuStore(rt);
+        Table<Uuid, EventInfo, Uuid> table = openTable(corfuStore);
+        try (TxnContext txn = corfuStore.txn(NAMESPACE)) {
+            List<CorfuStoreEntry<Uuid, EventInfo, Uuid>> entries = txn.executeQuery(table, entry -> true);
+            txn.commit();
+            return entries;
+        } finally {
+            rt.shutdown();
+        }
+    }
+
+    /**
+     * Verifies that a compressed full backup and an incremental backup on top of it are listed
+     * in their manifests, and that restoring both brings back the latest state of the table.
+     */
+    @Test
+    public void testFullAndIncrementalBackupRestore() throws Exception {
+        CorfuStore corfuStore = new CorfuStore(getDefaultRuntime());
+        Table<Uuid, EventInfo, Uuid> table = openTable(corfuStore);
+        for (int i = 0; i < NUM_KEYS; i++) {
+            put(corfuStore, table, i, "full");
+        }
+
+        String fullBackup = backup(null);
+        BackupManifest fullManifest = BackupManifest.read(fullBackup).get();
+        assertThat(fullManifest.isIncremental()).isFalse();
+        assertThat(fullManifest.getCompression()).isEqualTo(BackupManifest.Compression.ZSTD);
+        assertThat(fullManifest.getTables()).hasSize(1);
+        BackupManifest.TableManifest tableManifest = fullManifest.getTables().get(0);
+        assertThat(tableManifest.getStreamUUID()).isEqualTo(streamId);
+        assertThat(tableManifest.getNumEntries()).isEqualTo(NUM_KEYS);
+        assertThat(tableManifest.getEntrySize()).isLessThan(tableManifest.getTableSize());
+
+        put(corfuStore, table, 0, "incremental");
+        put(corfuStore, table, NUM_KEYS, "incremental");
+
+        String incrementalBackup = backup(fullBackup);
+        BackupManifest incrementalManifest = BackupManifest.read(incrementalBackup).get();
+        assertThat(incrementalManifest.isIncremental()).isTrue();
+        assertThat(incrementalManifest.getBaseTimestamp()).isEqualTo(fullManifest.getTimestamp());
+        assertThat(incrementalManifest.getTables().get(0).getNumEntries()).isEqualTo(2);
+
+        // Lose the table, then restore it from the full backup followed by the incremental one
+        try (TxnContext txn = corfuStore.txn(NAMESPACE)) {
+            txn.clear(table);
+            txn.commit();
+        }
+
+        // The incremental backup can't be restored before the backup it is based on
+        BackupRestoreException e = assertThrows(BackupRestoreException.class, () -> restore(incrementalBackup));
+        assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+
+        restore(fullBackup);
+        List<CorfuStoreEntry<Uuid, EventInfo, Uuid>> entries = readTable();
+        assertThat(entries).hasSize(NUM_KEYS);
+        assertThat(entries).allMatch(entry -> entry.getPayload().getName().equals("full"));
+
+        restore(incrementalBackup);
+        entries = readTable();
+        assertThat(entries).hasSize(NUM_KEYS + 1);
+        assertThat(entries.stream().filter(entry -> entry.getPayload().getName().equals("incremental")))
+                .extracting(entry -> entry.getKey().getMsb())
+                .containsExactlyInAnyOrder(0L, (long) NUM_KEYS);
+
+        // Nor can it be restored twice
+        e = assertThrows(BackupRestoreException.class, () -> restore(incrementalBackup));
+        assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * Verifies that a table whose stored contents are split into several entries of the backup
+     * tar file is restored from their concatenation.
+     */
+    @Test
+    public void testTableSplitIntoEntriesIsRestored() throws Exception {
+        final int chunkSize = 64;
+        CorfuStore corfuStore = new CorfuStore(getDefaultRuntime());
+        Table<Uuid, EventInfo, Uuid> table = openTable(corfuStore);
+        for (int i = 0; i < NUM_KEYS; i++) {
+            put(corfuStore, table, i, "full");
+        }
+        String fullBackup = backup(null, backup -> backup.setTableEntryChunkSize(chunkSize));
+
+        BackupManifest.TableManifest tableManifest = BackupManifest.read(fullBackup).get().getTables().get(0);
+        try (TarFile tarFile = new TarFile(new File(fullBackup))) {
+            List<TarArchiveEntry> entries = tarFile.getEntries().stream()
+                    .filter(entry -> entry.getName().startsWith(streamId.toString()))
+                    .collect(Collectors.toList());
+            assertThat(entries).hasSizeGreaterThan(1);
+            assertThat(entries).allMatch(entry -> entry.getSize() <= chunkSize);
+            assertThat(entries.stream().mapToLong(TarArchiveEntry::getSize).sum())
+                    .isEqualTo(tableManifest.getEntrySize());
+        }
+
+        try (TxnContext txn = corfuStore.txn(NAMESPACE)) {
+            txn.clear(table);
+            txn.commit();
+        }
+
+        restore(fullBackup);
+        assertThat(readTable()).hasSize(NUM_KEYS);
+    }
+
+    /**
+     * Verifies that a backup tar file whose table entry doesn't match its manifest is not restored.
+     */
+    @Test
+    public void testCorruptedBackupIsNotRestored() throws Exception {
+        CorfuStore corfuStore = new CorfuStore(getDefaultRuntime());
+        Table<Uuid, EventInfo, Uuid> table = openTable(corfuStore);
+        for (int i = 0; i < NUM_KEYS; i++) {
+            put(corfuStore, table, i, "full");
+        }
+        String fullBackup = backup(null);
+
+        long dataOffset;
+        try (TarFile tarFile = new TarFile(new File(fullBackup))) {
+            TarArchiveEntry entry = tarFile.getEntries().get(0);
+            assertThat(entry.getName()).startsWith(streamId.toString());
+            dataOffset = entry.getDataOffset();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(fullBackup, "rw")) {
+            file.seek(dataOffset);
+            int b = file.read();
+            file.seek(dataOffset);
+            file.write(~b);
+        }
+
+        Restore restore = new Restore(fullBackup, getNewRuntime(getDefaultNode()).connect(),
+                Restore.RestoreMode.PARTIAL);
+        BackupRestoreException e = assertThrows(BackupRestoreException.class, restore::start);
+        assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+        Files.deleteIfExists(new File(fullBackup).toPath());
+    }
+}
@@ -306,8 +306,8 @@ public class DistributedCheckpointerTest extends AbstractViewTest {
                 corfuStore, livenessValidator);
 
         ExecutorService scheduler = Executors.newFixedThreadPool(2);
-        Future<LeaderInitStatus> future1 = scheduler.submit(compactorLeaderServices1::initCompactionCycle);
-        Future<LeaderInitStatus> future2 = scheduler.submit(compactorLeaderServices2::initCompactionCycle);
+        Future<LeaderInitStatus> future1 = scheduler.submit(() -> compactorLeaderServices1.initCompactionCycle());
+        Future<LeaderInitStatus> future2 = scheduler.submit(() -> compactorLeaderServices2.initCompactionCycle());
 
         try {
             if (!future1.get().equals(future2.get())) {
@@ -0,0 +1,158 @@
+package org.corfudb.runtime.checkpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.reflect.TypeToken;
+import org.corfudb.protocols.logprotocol.CheckpointEntry;
+import org.corfudb.protocols.logprotocol.CheckpointEntry.CheckpointDictKey;
+import org.corfudb.protocols.wireprotocol.StreamAddressRange;
+import org.corfudb.protocols.wireprotocol.Token;
+import org.corfudb.runtime.CheckpointWriter;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.PersistentCorfuTable;
+import org.corfudb.runtime.view.AbstractViewTest;
+import org.corfudb.runtime.view.Address;
+import org.corfudb.runtime.view.ObjectOpenOption;
+import org.corfudb.runtime.view.stream.StreamAddressSpace;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tests incremental checkpoints, which only hold the keys changed since the previous checkpoint.
+ */
+public class IncrementalCheckpointTest extends AbstractViewTest {
+
+    private static final String STREAM_NAME = "test";
+    private static final int NUM_KEYS = 10;
+    private static final int MAX_INCREMENTAL_CHECKPOINTS = 2;
+
+    private final UUID streamId = CorfuRuntime.getStreamID(STREAM_NAME);
+    private final UUID checkpointStreamId = CorfuRuntime.getCheckpointStreamIdFromId(streamId);
+
+    private PersistentCorfuTable<String, String> openTable(CorfuRuntime rt) {
+        return rt.getObjectsView()
+                .build()
+                .setTypeToken(new TypeToken<PersistentCorfuTable<String, String>>() {})
+                .option(ObjectOpenOption.NO_CACHE)
+                .setStreamName(STREAM_NAME)
+                .open();
+    }
+
+    private CheckpointWriter<PersistentCorfuTable<String, String>> checkpoint(
+            PersistentCorfuTable<String, String> table) {
+        CheckpointWriter<PersistentCorfuTable<String, String>> cpw =
+                new CheckpointWriter<>(getDefaultRuntime(), streamId, "author", table);
+        cpw.setMaxIncrementalCheckpoints(MAX_INCREMENTAL_CHECKPOINTS);
+        cpw.appendCheckpoint();
+        return cpw;
+    }
+
+    private Map<CheckpointDictKey, String> getLastCheckpointDict() {
+        CorfuRuntime rt = getDefaultRuntime();
+        long tail = rt.getSequencerView().query(checkpointStreamId);
+        CheckpointEntry end = (CheckpointEntry) rt.getAddressSpaceView().read(tail).getPayload(rt);
+        assertThat(end.getCpType()).isEqualTo(CheckpointEntry.CheckpointEntryType.END);
+        return end.getDict();
+    }
+
+    /**
+     * @return the number of SMR entries of the last checkpoint of the stream
+     */
+    private int getLastCheckpointSize() {
+        CorfuRuntime rt = getDefaultRuntime();
+        long tail = rt.getSequencerView().query(checkpointStreamId);
+        StreamAddressSpace addressSpace = rt.getSequencerView()
+                .getStreamAddressSpace(new StreamAddressRange(checkpointStreamId, tail, Address.NON_ADDRESS));
+        UUID checkpointId = ((CheckpointEntry) rt.getAddressSpaceView().read(tail).getPayload(rt)).getCheckpointId();
+
+        int size = 0;
+        for (long address : addressSpace.toArray()) {
+            CheckpointEntry cp = (CheckpointEntry) rt.getAddressSpaceView().read(address).getPayload(rt);
+            if (cp.getCheckpointId().equals(checkpointId) && cp.getSmrEntries() != null) {
+                size += cp.getSmrEntries().getSMRUpdates(streamId).size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Verifies that the changes since a full checkpoint are written as an incremental checkpoint,
+     * and that the table is loaded from the chain of checkpoints after the updates are trimmed.
+     */
+    @Test
+    public void testIncrementalCheckpointChain() {
+        PersistentCorfuTable<String, String> table = openTable(getDefaultRuntime());
+        for (int x = 0; x < NUM_KEYS; x++) {
+            table.insert(String.valueOf(x), String.valueOf(x));
+        }
+
+        CheckpointWriter<PersistentCorfuTable<String, String>> base = checkpoint(table);
+        Map<CheckpointDictKey, String> baseDict = getLastCheckpointDict();
+        assertThat(baseDict.get(CheckpointDictKey.DELTA_COUNT)).isEqualTo("0");
+        assertThat(baseDict).doesNotContainKey(CheckpointDictKey.PREVIOUS_CHECKPOINT_ID);
+        assertThat(getLastCheckpointSize()).isEqualTo(NUM_KEYS);
+        final long retainAddress = base.getRetainAddress();
+        assertThat(Address.isAddress(retainAddress)).isTrue();
+
+        table.insert("0", "updated");
+        table.delete("1");
+        table.insert("new", "new");
+
+        CheckpointWriter<PersistentCorfuTable<String, String>> delta = checkpoint(table);
+        Map<CheckpointDictKey, String> deltaDict = getLastCheckpointDict();
+        assertThat(deltaDict.get(CheckpointDictKey.DELTA_COUNT)).isEqualTo("1");
+        assertThat(deltaDict.get(CheckpointDictKey.BASE_CHECKPOINT_ID))
+                .isEqualTo(baseDict.get(CheckpointDictKey.BASE_CHECKPOINT_ID));
+        assertThat(deltaDict).containsKey(CheckpointDictKey.PREVIOUS_CHECKPOINT_ID);
+        assertThat(getLastCheckpointSize()).isEqualTo(3);
+        assertThat(delta.getRetainAddress()).isEqualTo(retainAddress);
+
+        // Trim the log up to the base checkpoint, as the compactor does while the chain is based on it
+        getDefaultRuntime().getAddressSpaceView().prefixTrim(
+                new Token(getDefaultRuntime().getLayoutView().getLayout().getEpoch(), retainAddress - 1));
+
+        CorfuRuntime rt = getNewRuntime(getDefaultNode()).connect();
+        PersistentCorfuTable<String, String> newTable = openTable(rt);
+        assertThat(newTable.size()).isEqualTo(NUM_KEYS);
+        assertThat(newTable.get("0")).isEqualTo("updated");
+        assertThat(newTable.get("1")).isNull();
+        assertThat(newTable.get("2")).isEqualTo("2");
+        assertThat(newTable.get("new")).isEqualTo("new");
+        rt.shutdown();
+    }
+
+    /**
+     * Verifies that a full checkpoint is written once the chain has the maximum number of
+     * incremental checkpoints, or when the table is cleared.
+     */
+    @Test
+    public void testFullCheckpointIsForced() {
+        PersistentCorfuTable<String, String> table = openTable(getDefaultRuntime());
+        for (int x = 0; x < NUM_KEYS; x++) {
+            table.insert(String.valueOf(x), String.valueOf(x));
+        }
+        checkpoint(table);
+
+        for (int x = 1; x <= MAX_INCREMENTAL_CHECKPOINTS; x++) {
+            table.insert(String.valueOf(x), "updated");
+            checkpoint(table);
+            assertThat(getLastCheckpointDict().get(CheckpointDictKey.DELTA_COUNT)).isEqualTo(String.valueOf(x));
+        }
+
+        table.insert("0", "updated");
+        checkpoint(table);
+        assertThat(getLastCheckpointDict().get(CheckpointDictKey.DELTA_COUNT)).isEqualTo("0");
+
+        table.clear();
+        table.insert("0", "cleared");
+        checkpoint(table);
+        assertThat(getLastCheckpointDict().get(CheckpointDictKey.DELTA_COUNT)).isEqualTo("0");
+        assertThat(getLastCheckpointSize()).isEqualTo(1);
+
+        CorfuRuntime rt = getNewRuntime(getDefaultNode()).connect();
+        assertThat(openTable(rt).get("0")).isEqualTo("cleared");
+        rt.shutdown();
+    }
+}
@@ -0,0 +1,66 @@
+package org.corfudb.runtime.checkpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.reflect.TypeToken;
+import org.corfudb.protocols.wireprotocol.Token;
+import org.corfudb.runtime.CheckpointWriter;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.PersistentCorfuTable;
+import org.corfudb.runtime.view.AbstractViewTest;
+import org.corfudb.runtime.view.ObjectOpenOption;
+import org.junit.Test;
+
+/**
+ * Tests loading a table from a checkpoint whose entries are streamed within a memory budget.
+ */
+public class StreamingCheckpointLoadTest extends AbstractViewTest {
+
+    private static final String STREAM_NAME = "test";
+    private static final int NUM_KEYS = 100;
+    private static final int CHECKPOINT_BATCH_SIZE = 5;
+    private static final long SMALL_BUDGET = 2048;
+
+    private PersistentCorfuTable<String, String> openTable(CorfuRuntime rt) {
+        return rt.getObjectsView()
+                .build()
+                .setTypeToken(new TypeToken<PersistentCorfuTable<String, String>>() {})
+                .option(ObjectOpenOption.NO_CACHE)
+                .setStreamName(STREAM_NAME)
+                .open();
+    }
+
+    private void verifyTable(long checkpointLoadMemoryBudget) {
+        CorfuRuntime rt = getNewRuntime(getDefaultNode()).connect();
+        rt.getParameters().setCheckpointLoadMemoryBudget(checkpointLoadMemoryBudget);
+        PersistentCorfuTable<String, String> table = openTable(rt);
+        assertThat(table.size()).isEqualTo(NUM_KEYS);
+        for (int x = 0; x < NUM_KEYS; x++) {
+            assertThat(table.get(String.valueOf(x))).isEqualTo(String.valueOf(x));
+        }
+        rt.shutdown();
+    }
+
+    /**
+     * Verifies that a table is loaded from a checkpoint of many CONTINUATION entries after the
+     * updates are trimmed, whether its entries are streamed in small batches, in a single batch,
+     * or read without a memory budget.
+     */
+    @Test
+    public void testLoadCheckpointWithinBudget() {
+        PersistentCorfuTable<String, String> table = openTable(getDefaultRuntime());
+        for (int x = 0; x < NUM_KEYS; x++) {
+            table.insert(String.valueOf(x), String.valueOf(x));
+        }
+
+        CheckpointWriter<PersistentCorfuTable<String, String>> cpw = new CheckpointWriter<>(getDefaultRuntime(),
+                CorfuRuntime.getStreamID(STREAM_NAME), "author", table);
+        cpw.setBatchSize(CHECKPOINT_BATCH_SIZE);
+        Token checkpointAddress = cpw.appendCheckpoint();
+        getDefaultRuntime().getAddressSpaceView().prefixTrim(checkpointAddress);
+
+        verifyTable(SMALL_BUDGET);
+        verifyTable(Long.MAX_VALUE);
+        verifyTable(0);
+    }
+}
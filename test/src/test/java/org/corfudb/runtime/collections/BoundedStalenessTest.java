@@ -0,0 +1,113 @@
+package org.corfudb.runtime.collections;
+
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.view.AbstractViewTest;
+import org.corfudb.test.SampleSchema.Uuid;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests transactions which read tables with a bounded staleness.
+ */
+public class BoundedStalenessTest extends AbstractViewTest {
+
+    private static final String NAMESPACE = "namespace";
+    private static final String TABLE_NAME = "table";
+    private static final long MAX_STALENESS = 10L;
+    private static final Uuid KEY = Uuid.newBuilder().setMsb(1L).setLsb(1L).build();
+
+    private Table<Uuid, Uuid, Uuid> openTable(CorfuStore corfuStore) throws Exception {
+        return corfuStore.openTable(NAMESPACE, TABLE_NAME, Uuid.class, Uuid.class, Uuid.class,
+                TableOptions.fromProtoSchema(Uuid.class));
+    }
+
+    private void put(CorfuStore corfuStore, Table<Uuid, Uuid, Uuid> table, long version) {
+        try (TxnContext tx = corfuStore.txn(NAMESPACE)) {
+            tx.putRecord(table, KEY, Uuid.newBuilder().setMsb(0L).setLsb(version).build(), null);
+            tx.commit();
+        }
+    }
+
+    private long get(CorfuStore corfuStore, Table<Uuid, Uuid, Uuid> table, IsolationLevel isolationLevel) {
+        try (TxnContext tx = corfuStore.txn(NAMESPACE, isolationLevel)) {
+            long version = tx.getRecord(table, KEY).getPayload().getLsb();
+            tx.commit();
+            return version;
+        }
+    }
+
+    /**
+     * Verifies that a table which is behind the snapshot within the bound is read at its current
+     * version and synced forward in the background, while a table which is behind beyond the bound
+     * and snapshot reads are synced up to the snapshot before being read.
+     */
+    @Test
+    public void testBoundedStalenessReads() throws Exception {
+        getDefaultRuntime();
+        CorfuStore writer = new CorfuStore(getNewRuntime(getDefaultNode()).connect());
+        CorfuRuntime readerRuntime = getNewRuntime(getDefaultNode()).connect();
+        CorfuStore reader = new CorfuStore(readerRuntime);
+        Table<Uuid, Uuid, Uuid> writerTable = openTable(writer);
+        Table<Uuid, Uuid, Uuid> readerTable = openTable(reader);
+        final IsolationLevel boundedStaleness = IsolationLevel.boundedStaleness(MAX_STALENESS);
+
+        // A table which was never synced is synced before being read
+        put(writer, writerTable, 1L);
+        assertThat(get(reader, readerTable, boundedStaleness)).isEqualTo(1L);
+
+        // A table within the bound is read at its current version, then synced in the background
+        put(writer, writerTable, 2L);
+        assertThat(get(reader, readerTable, boundedStaleness)).isEqualTo(1L);
+        while (get(reader, readerTable, boundedStaleness) != 2L) {
+            TimeUnit.MILLISECONDS.sleep(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis());
+        }
+
+        // A table beyond the bound is synced before being read
+        for (long version = 3L; version <= MAX_STALENESS + 3L; version++) {
+            put(writer, writerTable, version);
+        }
+        assertThat(get(reader, readerTable, boundedStaleness)).isEqualTo(MAX_STALENESS + 3L);
+
+        // Snapshot reads are never stale
+        put(writer, writerTable, MAX_STALENESS + 4L);
+        assertThat(get(reader, readerTable, IsolationLevel.snapshot())).isEqualTo(MAX_STALENESS + 4L);
+        readerRuntime.shutdown();
+    }
+
+    /**
+     * Verifies that a bounded-staleness transaction cannot write, so that a read-modify-write based
+     * on a stale read cannot overwrite an update it did not observe.
+     */
+    @Test
+    public void testBoundedStalenessIsReadOnly() throws Exception {
+        getDefaultRuntime();
+        CorfuStore writer = new CorfuStore(getNewRuntime(getDefaultNode()).connect());
+        CorfuRuntime readerRuntime = getNewRuntime(getDefaultNode()).connect();
+        CorfuStore reader = new CorfuStore(readerRuntime);
+        Table<Uuid, Uuid, Uuid> writerTable = openTable(writer);
+        Table<Uuid, Uuid, Uuid> readerTable = openTable(reader);
+
+        put(writer, writerTable, 1L);
+        assertThat(get(reader, readerTable, IsolationLevel.snapshot())).isEqualTo(1L);
+        put(writer, writerTable, 2L);
+
+        try (TxnContext tx = reader.txn(NAMESPACE, IsolationLevel.boundedStaleness(MAX_STALENESS))) {
+            long version = tx.getRecord(readerTable, KEY).getPayload().getLsb();
+            assertThat(version).isEqualTo(1L);
+            Uuid updated = Uuid.newBuilder().setMsb(0L).setLsb(version + MAX_STALENESS).build();
+            assertThatThrownBy(() -> tx.putRecord(readerTable, KEY, updated, null))
+                    .isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(() -> tx.delete(readerTable, KEY))
+                    .isInstanceOf(UnsupportedOperationException.class);
+            tx.commit();
+        }
+
+        // The update the stale read missed is not lost
+        assertThat(get(reader, readerTable, IsolationLevel.snapshot())).isEqualTo(2L);
+        readerRuntime.shutdown();
+    }
+}
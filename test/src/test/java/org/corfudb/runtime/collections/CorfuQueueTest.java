@@ -96,6 +96,39 @@ public class CorfuQueueTest extends AbstractViewTest {
         assertThat(records.get(0).getRecordId().compareTo(records2.get(1).getRecordId())).isLessThan(0);
     }
 
+    /**
+     * Validates that the queue can be consumed in bounded batches from a cursor,
+     * also when the entries are removed or enqueued in between.
+     */
+    @Test
+    public void queueCursorOrder() {
+        CorfuRuntime runtime = createDefaultRuntime();
+        CorfuQueue corfuQueue = new CorfuQueue(runtime, "test");
+
+        final int numEntries = 5;
+        final int batchSize = 2;
+        for (int i = 0; i < numEntries; i++) {
+            final String entry = String.valueOf(i);
+            executeTxn(runtime, () -> corfuQueue.enqueue(getByteString(entry)));
+        }
+
+        List<CorfuQueueRecord> head = corfuQueue.entryList(batchSize);
+        assertThat(head.stream().map(CorfuQueueRecord::getEntry))
+                .containsExactly(getByteString("0"), getByteString("1"));
+
+        corfuQueue.removeEntry(head.get(0).getRecordId());
+        executeTxn(runtime, () -> corfuQueue.enqueue(getByteString("5")));
+
+        List<CorfuQueueRecord> next = corfuQueue.entryList(head.get(1).getRecordId(), batchSize);
+        assertThat(next.stream().map(CorfuQueueRecord::getEntry))
+                .containsExactly(getByteString("2"), getByteString("3"));
+        next = corfuQueue.entryList(next.get(1).getRecordId(), Integer.MAX_VALUE);
+        assertThat(next.stream().map(CorfuQueueRecord::getEntry))
+                .containsExactly(getByteString("4"), getByteString("5"));
+        assertThat(corfuQueue.entryList(next.get(1).getRecordId(), batchSize)).isEmpty();
+        assertThat(corfuQueue.entryList(1).get(0).getEntry()).isEqualTo(getByteString("1"));
+    }
+
     @Test
     public void queueWithSecondaryIndexCheck() {
         CorfuRuntime runtime = createDefaultRuntime();
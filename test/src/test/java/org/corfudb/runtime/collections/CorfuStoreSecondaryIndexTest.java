@@ -1759,4 +1759,91 @@ public class CorfuStoreSecondaryIndexTest extends AbstractViewTest {
             readWriteTxn.commit();
         }
     }
+
+    /**
+     * Verifies that queries are planned over the secondary indexes of the table when they are
+     * selective enough, intersecting and uniting index lookups, and fall back to a scan otherwise.
+     */
+    @Test
+    public void testQueryPlanner() throws Exception {
+        CorfuStoreShim shimStore = new CorfuStoreShim(getTestRuntime());
+        final String someNamespace = "some-namespace";
+        final String tableName = "ManagedMetadata";
+        final int totalRecords = 100;
+        final long numAnotherKeys = 10;
+        final long numLevelOneKeys = 20;
+        final String levelOneKey = "non_primitive_field_level_0.key_1_level_1";
+
+        Table<UuidMsg, ExampleValue, ManagedMetadata> table = shimStore.openTable(
+                someNamespace,
+                tableName,
+                UuidMsg.class,
+                ExampleValue.class,
+                ManagedMetadata.class,
+                TableOptions.fromProtoSchema(ExampleValue.class));
+
+        try (ManagedTxnContext txn = shimStore.tx(someNamespace)) {
+            for (long i = 0; i < totalRecords; i++) {
+                txn.putRecord(table,
+                        UuidMsg.newBuilder().setMsb(i).setLsb(i).build(),
+                        ExampleValue.newBuilder()
+                                .setPayload("payload_" + i)
+                                .setAnotherKey(i % numAnotherKeys)
+                                .setEntryIndex(i)
+                                .setNonPrimitiveFieldLevel0(ExampleSchemas.NonPrimitiveValue.newBuilder()
+                                        .setKey1Level1(i % numLevelOneKeys))
+                                .build(),
+                        ManagedMetadata.getDefaultInstance());
+            }
+            txn.commit();
+        }
+
+        try (ManagedTxnContext txn = shimStore.tx(someNamespace)) {
+            Query lookup = Query.where(Query.eq("anotherKey", 3L));
+            assertThat(txn.explainQuery(table, lookup)).contains("IndexLookup").doesNotContain("Scan");
+            assertThat(txn.executeQuery(table, lookup)).hasSize(totalRecords / (int) numAnotherKeys)
+                    .allMatch(entry -> entry.getPayload().getAnotherKey() == 3L);
+            assertThat(txn.executeQuery(table, lookup.limit(4))).hasSize(4);
+
+            // The range, including the index keys it visits, is selective enough to be intersected
+            // with the lookup
+            Query intersect = Query.where(Query.and(
+                    Query.eq("anotherKey", 3L), Query.range(levelOneKey, 3L, true, 4L, false)));
+            assertThat(txn.explainQuery(table, intersect)).contains("Intersect")
+                    .contains("keys=" + numLevelOneKeys);
+            assertThat(txn.executeQuery(table, intersect))
+                    .extracting(entry -> entry.getPayload().getEntryIndex())
+                    .containsExactlyInAnyOrder(3L, 23L, 43L, 63L, 83L);
+
+            // The range is cheaper to filter on than to intersect
+            Query filter = Query.where(Query.and(
+                    Query.eq("anotherKey", 3L), Query.lt(levelOneKey, 50L)));
+            assertThat(txn.explainQuery(table, filter)).contains("IndexLookup").doesNotContain("Intersect");
+            assertThat(txn.executeQuery(table, filter)).hasSize(totalRecords / (int) numAnotherKeys);
+
+            Query union = Query.where(Query.or(Query.eq("anotherKey", 1L), Query.eq("anotherKey", 2L)));
+            assertThat(txn.explainQuery(table, union)).contains("Union");
+            assertThat(txn.executeQuery(table, union)).hasSize(2 * totalRecords / (int) numAnotherKeys);
+
+            // Conditions on fields without an index, and unselective ranges, are evaluated with a scan
+            Query notIndexed = Query.where(Query.or(Query.eq("anotherKey", 1L), Query.eq("entryIndex", 5L)));
+            assertThat(txn.explainQuery(table, notIndexed)).contains("Scan");
+            assertThat(txn.executeQuery(table, notIndexed)).hasSize(totalRecords / (int) numAnotherKeys + 1);
+
+            Query unselective = Query.where(Query.ge(levelOneKey, 0L));
+            assertThat(txn.explainQuery(table, unselective)).contains("Scan");
+            assertThat(txn.executeQuery(table, unselective)).hasSize(totalRecords);
+
+            assertThatExceptionOfType(IllegalArgumentException.class)
+                    .isThrownBy(() -> txn.executeQuery(table, Query.where(Query.eq("unknown", 1L))));
+
+            // The values have to be of the Java type of the field, an Integer is not a fixed64
+            assertThatExceptionOfType(IllegalArgumentException.class)
+                    .isThrownBy(() -> txn.executeQuery(table,
+                            Query.where(Query.range(levelOneKey, 0, true, 20, false))));
+            assertThatExceptionOfType(IllegalArgumentException.class)
+                    .isThrownBy(() -> txn.executeQuery(table, Query.where(Query.eq("anotherKey", 3))));
+            txn.commit();
+        }
+    }
 }
@@ -1051,6 +1051,64 @@ public class CorfuStoreShimTest extends AbstractViewTest {
         }
     }
 
+    /**
+     * This test validates that the head of a queue can be peeked, and that the queue can be
+     * iterated over in bounded batches, in the commit order of the enqueues.
+     *
+     * @throws Exception could be a corfu runtime exception if bad things happen.
+     */
+    @Test
+    public void queuePeekAndCursorInTxnContext() throws Exception {
+        final int numEntries = 10;
+        final int batchSize = 3;
+        CorfuRuntime corfuRuntime = getTestRuntime();
+        CorfuStoreShim shimStore = new CorfuStoreShim(corfuRuntime);
+        final String someNamespace = "some-namespace";
+
+        Table<Queue.CorfuGuidMsg, ExampleSchemas.ExampleValue, Queue.CorfuQueueMetadataMsg> corfuQueue =
+                shimStore.openQueue(someNamespace, "testQueue",
+                        ExampleSchemas.ExampleValue.class,
+                        TableOptions.builder().build());
+        for (long i = 0L; i < numEntries; i++) {
+            try (ManagedTxnContext txn = shimStore.txn(someNamespace)) {
+                txn.enqueue(corfuQueue, ExampleSchemas.ExampleValue.newBuilder()
+                        .setPayload("" + i)
+                        .setAnotherKey(i).build());
+                txn.commit();
+            }
+        }
+
+        try (ManagedTxnContext txn = shimStore.txn(someNamespace)) {
+            List<Table.CorfuQueueRecord> head = txn.peek(corfuQueue, batchSize);
+            assertThat(head).hasSize(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                assertThat(((ExampleSchemas.ExampleValue) head.get(i).getEntry()).getAnotherKey()).isEqualTo(i);
+            }
+
+            // Iterate over the whole queue with the last entry of each batch as the cursor
+            List<Table.CorfuQueueRecord> all = new ArrayList<>(head);
+            List<Table.CorfuQueueRecord> batch = head;
+            while (!batch.isEmpty()) {
+                batch = txn.entryList(corfuQueue, batch.get(batch.size() - 1), batchSize);
+                assertThat(batch.size()).isLessThanOrEqualTo(batchSize);
+                all.addAll(batch);
+            }
+            assertThat(all).isEqualTo(txn.entryList(corfuQueue));
+            assertThat(all).hasSize(numEntries);
+            assertThatThrownBy(() -> txn.peek(corfuQueue, 0)).isInstanceOf(IllegalArgumentException.class);
+
+            // Dequeue the head of the queue
+            txn.delete(corfuQueue, head.get(0).getRecordId());
+            txn.commit();
+        }
+
+        try (ManagedTxnContext txn = shimStore.txn(someNamespace)) {
+            assertThat(((ExampleSchemas.ExampleValue) txn.peek(corfuQueue, 1).get(0).getEntry())
+                    .getAnotherKey()).isEqualTo(1L);
+            txn.commit();
+        }
+    }
+
     /**
      * This is a research work done to demonstrate how Google DynamicMessage can be used to print/dump
      * the contents of the protobuf store which was written by a fully qualified type.
@@ -0,0 +1,85 @@
+package org.corfudb.runtime.collections;
+
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.CorfuStoreMetadata.TableName;
+import org.corfudb.runtime.ExampleSchemas.ExampleValue;
+import org.corfudb.runtime.ExampleSchemas.ManagedMetadata;
+import org.corfudb.runtime.proto.RpcCommon.UuidMsg;
+import org.corfudb.runtime.view.AbstractViewTest;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.corfudb.runtime.view.TableRegistry.CORFU_SYSTEM_NAMESPACE;
+import static org.corfudb.runtime.view.TableRegistry.REGISTRY_TABLE_NAME;
+import static org.corfudb.runtime.view.TableRegistry.getFullyQualifiedTableName;
+
+/**
+ * Tests opening many Corfu Store tables at once.
+ */
+public class OpenTablesTest extends AbstractViewTest {
+
+    private static final String NAMESPACE = "namespace";
+    private static final int NUM_TABLES = 150;
+
+    private static List<TableDefinition<?, ?, ?>> getTableDefinitions() throws Exception {
+        List<TableDefinition<?, ?, ?>> definitions = new ArrayList<>();
+        for (int x = 0; x < NUM_TABLES; x++) {
+            definitions.add(TableDefinition.<UuidMsg, ExampleValue, ManagedMetadata>builder()
+                    .namespace(NAMESPACE)
+                    .tableName("table" + x)
+                    .kClass(UuidMsg.class)
+                    .vClass(ExampleValue.class)
+                    .mClass(ManagedMetadata.class)
+                    .tableOptions(TableOptions.fromProtoSchema(ExampleValue.class))
+                    .build());
+        }
+        return definitions;
+    }
+
+    private static long getRegistryTail(CorfuRuntime rt) {
+        return rt.getSequencerView().query(CorfuRuntime.getStreamID(
+                getFullyQualifiedTableName(CORFU_SYSTEM_NAMESPACE, REGISTRY_TABLE_NAME)));
+    }
+
+    /**
+     * Verifies that the tables opened at once are registered and usable, and that opening
+     * them again from another client does not write to the registry table.
+     */
+    @Test
+    public void testOpenTables() throws Exception {
+        CorfuStore store = new CorfuStore(getDefaultRuntime());
+        List<Table<?, ?, ?>> tables = new ArrayList<>(store.openTables(getTableDefinitions()));
+        assertThat(tables).hasSize(NUM_TABLES);
+        assertThat(store.listTables(NAMESPACE).stream().map(TableName::getTableName).collect(Collectors.toSet()))
+                .hasSize(NUM_TABLES)
+                .contains("table0", "table" + (NUM_TABLES - 1));
+
+        @SuppressWarnings("unchecked")
+        Table<UuidMsg, ExampleValue, ManagedMetadata> table =
+                (Table<UuidMsg, ExampleValue, ManagedMetadata>) tables.get(1);
+        assertThat(table.getFullyQualifiedTableName()).isEqualTo(getFullyQualifiedTableName(NAMESPACE, "table1"));
+        UUID id = UUID.randomUUID();
+        UuidMsg key = UuidMsg.newBuilder().setMsb(id.getMostSignificantBits())
+                .setLsb(id.getLeastSignificantBits()).build();
+        ExampleValue value = ExampleValue.newBuilder().setPayload("payload").setAnotherKey(1L).build();
+        try (TxnContext txn = store.txn(NAMESPACE)) {
+            txn.putRecord(table, key, value, ManagedMetadata.getDefaultInstance());
+            txn.commit();
+        }
+        try (TxnContext txn = store.txn(NAMESPACE)) {
+            assertThat(txn.getRecord(table, key).getPayload()).isEqualTo(value);
+            txn.commit();
+        }
+
+        CorfuRuntime rt = getNewRuntime(getDefaultNode()).connect();
+        long registryTail = getRegistryTail(rt);
+        assertThat(new CorfuStore(rt).openTables(getTableDefinitions())).hasSize(NUM_TABLES);
+        assertThat(getRegistryTail(rt)).isEqualTo(registryTail);
+        rt.shutdown();
+    }
+}
@@ -0,0 +1,62 @@
+package org.corfudb.runtime.collections;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderedKeyIndexTest {
+
+    private static final int NUM_OPERATIONS = 5_000;
+    private static final int KEY_RANGE = 500;
+    private static final int PAGE_SIZE = 7;
+
+    /**
+     * Apply random puts and removes to an index and to a TreeMap, and validate that
+     * paging through the index from any order key matches the TreeMap.
+     */
+    @Test
+    public void testKeysAfterMatchesTreeMap() {
+        final Random random = new Random(0);
+        final TreeMap<Integer, String> expected = new TreeMap<>();
+        OrderedKeyIndex<Integer, String> index = OrderedKeyIndex.empty(Comparator.naturalOrder());
+        final OrderedKeyIndex<Integer, String> emptyIndex = index;
+
+        for (int i = 0; i < NUM_OPERATIONS; i++) {
+            final int orderKey = random.nextInt(KEY_RANGE);
+            if (random.nextInt(3) == 0) {
+                expected.remove(orderKey);
+                index = index.remove(orderKey);
+            } else {
+                expected.put(orderKey, "key" + i);
+                index = index.put(orderKey, "key" + i);
+            }
+        }
+
+        assertThat(index.keysAfter(null).toJavaList()).containsExactlyElementsOf(expected.values());
+        for (int after = -1; after <= KEY_RANGE; after++) {
+            assertThat(index.keysAfter(after).take(PAGE_SIZE).toJavaList())
+                    .containsExactlyElementsOf(first(expected.tailMap(after, false).values(), PAGE_SIZE));
+        }
+
+        // Earlier versions of the index are not affected by later updates.
+        assertThat(emptyIndex.keysAfter(null).hasNext()).isFalse();
+        assertThat(index.clear().keysAfter(null).hasNext()).isFalse();
+    }
+
+    private static List<String> first(Iterable<String> values, int n) {
+        final List<String> result = new ArrayList<>();
+        for (String value : values) {
+            if (result.size() == n) {
+                break;
+            }
+            result.add(value);
+        }
+        return result;
+    }
+}
@@ -1,5 +1,6 @@
 package org.corfudb.runtime.collections.streaming;
 
+import com.google.common.collect.ImmutableMap;
 import org.apache.commons.collections.BufferUnderflowException;
 import org.corfudb.protocols.logprotocol.CheckpointEntry;
 import org.corfudb.protocols.logprotocol.MultiObjectSMREntry;
@@ -15,8 +16,11 @@ import org.corfudb.runtime.view.ReadOptions;
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
@@ -196,6 +200,47 @@ public class DeltaStreamTest {
         assertThat(stream.availableSpace()).isEqualTo(bufferSize);
     }
 
+    @Test
+    public void deltaStreamBatchReadTest() {
+        UUID streamId = UUID.randomUUID();
+        AddressSpaceView addressSpaceView = mock(AddressSpaceView.class);
+        final int bufferSize = 10;
+        final long lastAddressRead = 0;
+        DeltaStream stream = new DeltaStream(addressSpaceView, streamId, lastAddressRead, bufferSize);
+
+        StreamAddressSpace sas = new StreamAddressSpace();
+        sas.addAddress(1);
+        sas.addAddress(2);
+        sas.addAddress(3);
+        stream.refresh(sas);
+
+        Map<Long, ILogData> readResult = new HashMap<>();
+        for (long address = 1; address <= 3; address++) {
+            LogData hole = new LogData(DataType.HOLE);
+            hole.setGlobalAddress(address);
+            readResult.put(address, hole);
+        }
+
+        when(addressSpaceView.read(Arrays.asList(1L, 2L), options))
+                .thenReturn(ImmutableMap.of(1L, readResult.get(1L), 2L, readResult.get(2L)));
+        when(addressSpaceView.read(3L, options)).thenReturn(readResult.get(3L));
+
+        // Verify that a batch is bounded by the requested size, is ordered and frees up buffer space
+        List<ILogData> batch = stream.nextBatch(2);
+        assertThat(batch).containsExactly(readResult.get(1L), readResult.get(2L));
+        assertThat(stream.availableSpace()).isEqualTo(bufferSize - 1);
+
+        // Verify that a batch is bounded by the number of buffered addresses
+        batch = stream.nextBatch(bufferSize);
+        assertThat(batch).containsExactly(readResult.get(3L));
+        assertThat(stream.hasNext()).isFalse();
+        assertThat(stream.availableSpace()).isEqualTo(bufferSize);
+
+        assertThatThrownBy(() -> stream.nextBatch(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("maxEntries=0 has to be > 0");
+    }
+
     @Test
     public void refreshOverflow() {
         UUID streamId = UUID.randomUUID();
@@ -24,7 +24,9 @@ import org.corfudb.util.serializer.ISerializer;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 
@@ -191,4 +193,76 @@ public class StreamingTaskTest {
         // Verify that the task doesnt submit any more work to the worker thread pool
         verify(workers, times(1)).execute(task);
     }
+
+    @Test
+    public void testStreamingTaskProduceBatch() {
+        ExecutorService workers = mock(ExecutorService.class);
+        CorfuRuntime runtime = mock(CorfuRuntime.class);
+        SequencerView sequencerView = mock(SequencerView.class);
+        when(runtime.getSequencerView()).thenReturn(sequencerView);
+        AddressSpaceView addressSpaceView = mock(AddressSpaceView.class);
+        when(runtime.getAddressSpaceView()).thenReturn(addressSpaceView);
+
+        final String namespace = "test_namespace";
+        final String tableName = "table";
+        final String streamTag = "tag_1";
+        final int batchSize = 5;
+
+        StreamListener listener = mock(StreamListener.class);
+
+        Table table = mock(Table.class);
+        TableRegistry registry = mock(TableRegistry.class);
+        when(runtime.getTableRegistry()).thenReturn(registry);
+        when(registry.getTable(namespace, tableName)).thenReturn(table);
+        UUID streamTagId = TableRegistry.getStreamIdForStreamTag(namespace, streamTag);
+        when(table.getStreamTags()).thenReturn(Collections.singleton(streamTagId));
+
+        StreamingTask task = new StreamingTask(runtime, workers, namespace, streamTag, listener,
+                Collections.singletonList(tableName), Address.NON_ADDRESS, 10, batchSize);
+
+        StreamAddressSpace sas = new StreamAddressSpace();
+        sas.addAddress(1L);
+        sas.addAddress(2L);
+        task.getStream().refresh(sas);
+
+        final ReadOptions options = ReadOptions
+                .builder()
+                .clientCacheable(false)
+                .ignoreTrim(false)
+                .waitForHole(true)
+                .serverCacheable(false)
+                .build();
+
+        LogData hole = new LogData(DataType.HOLE);
+        hole.setGlobalAddress(1L);
+
+        UUID tableStream = CorfuRuntime.getStreamID(TableRegistry.getFullyQualifiedTableName(namespace, tableName));
+        MultiObjectSMREntry multiObject = new MultiObjectSMREntry();
+        multiObject.addTo(tableStream, new SMREntry("put", new Object[]{TestSchema.Uuid.getDefaultInstance(),
+                new CorfuRecord<>(TestSchema.EventInfo.getDefaultInstance(),
+                        SampleSchema.ManagedMetadata.getDefaultInstance())},
+                mock(ISerializer.class)));
+
+        LogData update = new LogData(DataType.DATA, multiObject);
+        update.setGlobalAddress(2L);
+        update.setBackpointerMap(ImmutableMap.of(streamTagId, Address.NON_ADDRESS, tableStream, Address.NON_ADDRESS));
+
+        when(addressSpaceView.read(Arrays.asList(1L, 2L), options)).thenReturn(ImmutableMap.of(1L, hole, 2L, update));
+
+        task.move(StreamStatus.RUNNABLE, StreamStatus.SYNCING);
+        task.run();
+
+        // Verify that both deltas are fetched with a single read and the hole is filtered out of the batch
+        verify(listener, times(0)).onError(any());
+        verify(listener, times(0)).onNextEntry(any());
+        ArgumentCaptor<List> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(listener, times(1)).onNextBatch(batchCaptor.capture());
+        List<CorfuStreamEntries> batch = batchCaptor.getValue();
+        assertThat(batch).hasSize(1);
+        assertThat(batch.get(0).getTimestamp().getSequence()).isEqualTo(update.getGlobalAddress());
+
+        // The whole buffer has been consumed in one run, so the task shouldn't re-submit itself
+        assertThat(task.getStatus()).isEqualTo(StreamStatus.RUNNABLE);
+        verify(workers, times(0)).execute(task);
+    }
 }
@@ -0,0 +1,70 @@
+package org.corfudb.runtime.object;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.reflect.TypeToken;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.PersistentCorfuTable;
+import org.corfudb.runtime.view.AbstractViewTest;
+import org.corfudb.runtime.view.Address;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests syncing the objects of selected streams in the background.
+ */
+public class MVOPrefetcherTest extends AbstractViewTest {
+
+    private static final String STREAM_NAME = "test";
+    private static final String OTHER_STREAM_NAME = "other";
+    private static final int NUM_KEYS = 10;
+
+    private PersistentCorfuTable<String, String> openTable(CorfuRuntime rt, String streamName) {
+        return rt.getObjectsView()
+                .build()
+                .setTypeToken(new TypeToken<PersistentCorfuTable<String, String>>() {})
+                .setStreamName(streamName)
+                .open();
+    }
+
+    private void insert(PersistentCorfuTable<String, String> table, int from, int to) {
+        for (int x = from; x < to; x++) {
+            table.insert(String.valueOf(x), String.valueOf(x));
+        }
+    }
+
+    private long getResolvedUpTo(PersistentCorfuTable<String, String> table) {
+        return ((MVOCorfuCompileProxy<?>) table.getCorfuSMRProxy()).getUnderlyingMVO().getResolvedUpTo();
+    }
+
+    /**
+     * Verifies that the objects of the selected streams are synced up to their stream tails,
+     * and that other objects and objects which are already synced are left untouched.
+     */
+    @Test
+    public void testPrefetch() {
+        CorfuRuntime writer = getDefaultRuntime();
+        CorfuRuntime reader = getNewRuntime(getDefaultNode()).connect();
+        reader.getParameters().setMvoPrefetchStreams(ImmutableSet.of(CorfuRuntime.getStreamID(STREAM_NAME)));
+        MVOPrefetcher prefetcher = reader.getMvoPrefetcher();
+
+        PersistentCorfuTable<String, String> table = openTable(reader, STREAM_NAME);
+        PersistentCorfuTable<String, String> other = openTable(reader, OTHER_STREAM_NAME);
+        insert(openTable(writer, STREAM_NAME), 0, NUM_KEYS);
+        insert(openTable(writer, OTHER_STREAM_NAME), 0, NUM_KEYS);
+
+        assertThat(prefetcher.prefetch()).isPositive();
+        assertThat(getResolvedUpTo(table))
+                .isEqualTo(writer.getSequencerView().query(CorfuRuntime.getStreamID(STREAM_NAME)));
+        assertThat(getResolvedUpTo(other)).isEqualTo(Address.NON_ADDRESS);
+        assertThat(prefetcher.prefetch()).isZero();
+
+        insert(openTable(writer, STREAM_NAME), NUM_KEYS, 2 * NUM_KEYS);
+        assertThat(prefetcher.prefetch()).isPositive();
+        assertThat(getResolvedUpTo(table))
+                .isEqualTo(writer.getSequencerView().query(CorfuRuntime.getStreamID(STREAM_NAME)));
+        assertThat(table.size()).isEqualTo(2 * NUM_KEYS);
+        assertThat(other.size()).isEqualTo(NUM_KEYS);
+        reader.shutdown();
+    }
+}
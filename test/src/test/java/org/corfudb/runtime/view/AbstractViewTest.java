@@ -176,7 +176,7 @@ public abstract class AbstractViewTest extends AbstractCorfuTest {
                     TestServerRouter serverRouter = testServer.getServerRouter();
                     TestClientRouter tcn = new TestClientRouter(serverRouter);
                     tcn.addClient(new BaseHandler())
-                            .addClient(new SequencerHandler())
+                            .addClient(new SequencerHandler(runtime::notifyStreamsAddress))
                             .addClient(new LayoutHandler())
                             .addClient(new LogUnitHandler())
                             .addClient(new ManagementHandler());
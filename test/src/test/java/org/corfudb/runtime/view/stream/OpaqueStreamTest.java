@@ -6,6 +6,8 @@ import static org.corfudb.protocols.service.CorfuProtocolLogReplication.generate
 
 import com.google.common.reflect.TypeToken;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -13,13 +15,16 @@ import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.assertj.core.api.Assertions;
 import org.corfudb.CustomSerializer;
+import org.corfudb.infrastructure.logreplication.replication.send.logreader.ReaderUtility;
 import org.corfudb.protocols.logprotocol.OpaqueEntry;
+import org.corfudb.protocols.logprotocol.SMREntry;
 import org.corfudb.protocols.service.CorfuProtocolLogReplication;
 import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.MultiCheckpointWriter;
 import org.corfudb.runtime.collections.PersistentCorfuTable;
 import org.corfudb.runtime.exceptions.SerializerException;
+import org.corfudb.runtime.object.transactions.TransactionalContext;
 import org.corfudb.runtime.view.AbstractViewTest;
 import org.corfudb.runtime.view.SMRObject;
 import org.corfudb.util.serializer.ISerializer;
@@ -110,6 +115,76 @@ public class OpaqueStreamTest extends AbstractViewTest {
         Assertions.assertThat(extractOpaqueEntries(generatePayload(entries)).size()).isEqualTo(entries.size());
     }
 
+    /**
+     * Ensure that pass-through entries are serialized as the bytes they were read from, and that
+     * they are appended verbatim to another stream, which can be read back with the serializer.
+     */
+    @Test
+    public void passThroughAppend() {
+        CorfuRuntime runtime = getDefaultRuntime();
+        ISerializer customSerializer = new CustomSerializer((byte) (Serializers.SYSTEM_SERIALIZERS_COUNT + 2));
+        runtime.getSerializers().registerSerializer(customSerializer);
+        runtime.getParameters().setMaxMvoCacheEntries(MVO_CACHE_SIZE);
+
+        UUID streamId = UUID.randomUUID();
+        UUID otherStreamId = UUID.randomUUID();
+        UUID copyStreamId = UUID.randomUUID();
+        PersistentCorfuTable<Integer, Integer> table = openTable(runtime, streamId, customSerializer);
+        PersistentCorfuTable<Integer, Integer> otherTable = openTable(runtime, otherStreamId, customSerializer);
+
+        final int entryCount = 3;
+        runtime.getObjectsView().TXBegin();
+        for (int key = 0; key < entryCount; key++) {
+            table.insert(key, key);
+            otherTable.insert(key, -key);
+        }
+        table.delete(0);
+        runtime.getObjectsView().TXEnd();
+
+        // The reading runtime has no custom serializer
+        CorfuRuntime newRuntime = getNewRuntime(getDefaultNode()).connect();
+        List<OpaqueEntry> decoded = new OpaqueStream(newRuntime.getStreamsView().get(streamId))
+                .streamUpTo(Integer.MAX_VALUE).collect(Collectors.toList());
+        List<OpaqueEntry> passThrough = new OpaqueStream(newRuntime.getStreamsView().get(streamId), true)
+                .streamUpTo(Integer.MAX_VALUE).collect(Collectors.toList());
+
+        Assertions.assertThat(passThrough).hasSize(1);
+        List<SMREntry> entries = passThrough.get(0).getEntries().get(streamId);
+        Assertions.assertThat(entries).hasSize(entryCount + 1).allMatch(SMREntry::isPassThrough);
+        Assertions.assertThat(passThrough.get(0).getEntries().get(otherStreamId)).hasSize(entryCount);
+        Assertions.assertThat(entries.get(entryCount).decodePassThrough().getSMRMethod()).isEqualTo("remove");
+        Assertions.assertThat(ReaderUtility.calculateOpaqueEntrySize(passThrough.get(0)))
+                .isEqualTo(ReaderUtility.calculateOpaqueEntrySize(decoded.get(0)));
+        for (UUID id : Arrays.asList(streamId, otherStreamId)) {
+            Assertions.assertThat(generatePayload(new OpaqueEntry(0, Collections.singletonMap(id,
+                    passThrough.get(0).getEntries().get(id)))))
+                    .isEqualTo(generatePayload(new OpaqueEntry(0, Collections.singletonMap(id,
+                            decoded.get(0).getEntries().get(id)))));
+        }
+
+        List<OpaqueEntry> received = extractOpaqueEntries(generatePayload(passThrough), true);
+        Assertions.assertThat(received.get(0).getEntries().get(streamId)).allMatch(SMREntry::isPassThrough);
+        newRuntime.getObjectsView().TXBegin();
+        TransactionalContext.getCurrentContext().logUpdate(copyStreamId, received.get(0).getEntries().get(streamId));
+        newRuntime.getObjectsView().TXEnd();
+
+        PersistentCorfuTable<Integer, Integer> copy = openTable(runtime, copyStreamId, customSerializer);
+        Assertions.assertThat(copy.size()).isEqualTo(entryCount - 1);
+        for (int key = 1; key < entryCount; key++) {
+            Assertions.assertThat(copy.get(key)).isEqualTo(key);
+        }
+    }
+
+    private PersistentCorfuTable<Integer, Integer> openTable(CorfuRuntime runtime, UUID streamId,
+                                                             ISerializer serializer) {
+        return runtime.getObjectsView()
+                .build()
+                .setStreamID(streamId)
+                .setTypeToken(new TypeToken<PersistentCorfuTable<Integer, Integer>>() {})
+                .setSerializer(serializer)
+                .open();
+    }
+
     @Test
     public void testBasicStreaming() {
         CorfuRuntime rt = getDefaultRuntime();
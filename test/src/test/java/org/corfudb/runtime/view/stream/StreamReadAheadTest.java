@@ -0,0 +1,132 @@
+package org.corfudb.runtime.view.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.reflect.TypeToken;
+import org.corfudb.protocols.wireprotocol.ILogData;
+import org.corfudb.protocols.wireprotocol.Token;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
+import org.corfudb.runtime.MultiCheckpointWriter;
+import org.corfudb.runtime.collections.PersistentCorfuTable;
+import org.corfudb.runtime.view.AbstractViewTest;
+import org.corfudb.runtime.view.ObjectOpenOption;
+import org.corfudb.runtime.view.StreamOptions;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Tests syncing streams whose entries are read and deserialized ahead of their consumption.
+ */
+public class StreamReadAheadTest extends AbstractViewTest {
+
+    private static final String STREAM_NAME = "test";
+    private static final String OTHER_STREAM_NAME = "other";
+    private static final int NUM_KEYS = 100;
+    private static final int STREAM_BATCH_SIZE = 4;
+    private static final int READ_AHEAD_BATCHES = 3;
+
+    private PersistentCorfuTable<String, String> openTable(CorfuRuntime rt, String streamName) {
+        return rt.getObjectsView()
+                .build()
+                .setTypeToken(new TypeToken<PersistentCorfuTable<String, String>>() {})
+                .option(ObjectOpenOption.NO_CACHE)
+                .setStreamName(streamName)
+                .open();
+    }
+
+    private CorfuRuntime getReadAheadRuntime() {
+        // The batches read ahead queue for a single thread
+        CorfuRuntime rt = getNewRuntime(CorfuRuntimeParameters.builder()
+                .streamBatchSize(STREAM_BATCH_SIZE)
+                .streamReadAheadBatches(READ_AHEAD_BATCHES)
+                .streamReadAheadThreads(1)
+                .build());
+        rt.parseConfigurationString(getDefaultNode().toEndpointUrl());
+        return rt.connect();
+    }
+
+    private void insert(CorfuRuntime rt, int from, int to) {
+        PersistentCorfuTable<String, String> table = openTable(rt, STREAM_NAME);
+        PersistentCorfuTable<String, String> other = openTable(rt, OTHER_STREAM_NAME);
+        for (int x = from; x < to; x++) {
+            if (x % 2 == 0) {
+                table.insert(String.valueOf(x), String.valueOf(x));
+            } else {
+                // Transactions on several streams are lazily deserialized for each stream
+                rt.getObjectsView().TXBegin();
+                table.insert(String.valueOf(x), String.valueOf(x));
+                other.insert(String.valueOf(x), String.valueOf(x));
+                rt.getObjectsView().TXEnd();
+            }
+        }
+    }
+
+    private void verifyTable(PersistentCorfuTable<String, String> table, int from, int to) {
+        assertThat(table.size()).isEqualTo(to - from);
+        for (int x = from; x < to; x++) {
+            assertThat(table.get(String.valueOf(x))).isEqualTo(String.valueOf(x));
+        }
+    }
+
+    /**
+     * Verifies that a table is synced from its updates read ahead, both from scratch and
+     * incrementally, and after its updates were trimmed and loaded from a checkpoint.
+     */
+    @Test
+    public void testSyncWithReadAhead() {
+        CorfuRuntime writer = getDefaultRuntime();
+        insert(writer, 0, NUM_KEYS);
+
+        CorfuRuntime reader = getReadAheadRuntime();
+        PersistentCorfuTable<String, String> table = openTable(reader, STREAM_NAME);
+        verifyTable(table, 0, NUM_KEYS);
+
+        insert(writer, NUM_KEYS, 2 * NUM_KEYS);
+        verifyTable(table, 0, 2 * NUM_KEYS);
+        assertThat(openTable(reader, OTHER_STREAM_NAME).size()).isEqualTo(NUM_KEYS);
+
+        MultiCheckpointWriter<PersistentCorfuTable<String, String>> mcw = new MultiCheckpointWriter<>();
+        mcw.addMap(openTable(writer, STREAM_NAME));
+        mcw.addMap(openTable(writer, OTHER_STREAM_NAME));
+        Token checkpointAddress = mcw.appendCheckpoints(writer, "author");
+        writer.getAddressSpaceView().prefixTrim(checkpointAddress);
+        insert(writer, 2 * NUM_KEYS, 3 * NUM_KEYS);
+
+        verifyTable(openTable(getReadAheadRuntime(), STREAM_NAME), 0, 3 * NUM_KEYS);
+        reader.shutdown();
+    }
+
+    /**
+     * Verifies that a stream which ignores trimmed addresses skips the trimmed entries which
+     * were being read ahead, and returns the remaining entries in order.
+     */
+    @Test
+    public void testReadAheadIgnoresTrimmedAddresses() {
+        CorfuRuntime writer = getDefaultRuntime();
+        UUID streamId = CorfuRuntime.getStreamID(STREAM_NAME);
+        insert(writer, 0, NUM_KEYS);
+        long trimAddress = writer.getSequencerView().query(streamId);
+        insert(writer, NUM_KEYS, 2 * NUM_KEYS);
+        writer.getAddressSpaceView().prefixTrim(new Token(writer.getLayoutView().getLayout().getEpoch(),
+                trimAddress));
+        writer.getAddressSpaceView().gc();
+        writer.getAddressSpaceView().invalidateServerCaches();
+        writer.getAddressSpaceView().invalidateClientCache();
+
+        CorfuRuntime reader = getReadAheadRuntime();
+        IStreamView streamView = reader.getStreamsView().get(streamId, StreamOptions.builder()
+                .ignoreTrimmed(true)
+                .build());
+        List<Long> addresses = streamView.remaining().stream()
+                .map(ILogData::getGlobalAddress)
+                .collect(Collectors.toList());
+
+        assertThat(addresses).hasSize(NUM_KEYS).isSorted();
+        assertThat(addresses.get(0)).isGreaterThan(trimAddress);
+        reader.shutdown();
+    }
+}